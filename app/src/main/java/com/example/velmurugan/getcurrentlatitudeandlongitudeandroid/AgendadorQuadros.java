@@ -0,0 +1,77 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+/**
+ * Classe que executa uma tarefa de exibição no próximo quadro da tela, no máximo uma vez por
+ * quadro.
+ * <p>
+ * A partir da API 16 a tarefa é agendada no Choreographer e executada junto com o vsync; nas
+ * versões anteriores ela é postada no Handler da thread principal. Os pedidos feitos antes da
+ * execução viram uma única execução. Deve ser usada apenas na thread principal.
+ */
+class AgendadorQuadros {
+    private final Handler handler;
+    private final Runnable executar;
+    private final QuadroVsync quadroVsync;
+    private boolean agendado;
+
+    /**
+     * Construtor da classe AgendadorQuadros.
+     *
+     * @param tarefa a tarefa executada a cada quadro agendado.
+     */
+    public AgendadorQuadros(final Runnable tarefa) {
+        this.handler = new Handler(Looper.getMainLooper());
+        this.executar = new Runnable() {
+            @Override
+            public void run() {
+                agendado = false;
+                tarefa.run();
+            }
+        };
+        this.quadroVsync = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN ? new QuadroVsync(executar) : null;
+    }
+
+    /**
+     * Agenda a tarefa para o próximo quadro, se ela ainda não estiver agendada.
+     */
+    public void agendar() {
+        if (agendado) {
+            return;
+        }
+        agendado = true;
+        if (quadroVsync != null) {
+            quadroVsync.agendar();
+        } else {
+            handler.post(executar);
+        }
+    }
+
+    /**
+     * Chamada do Choreographer, separada em uma classe própria para que as versões anteriores à
+     * API 16 não carreguem o Choreographer.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static class QuadroVsync implements Choreographer.FrameCallback {
+        private final Choreographer choreographer = Choreographer.getInstance();
+        private final Runnable executar;
+
+        QuadroVsync(Runnable executar) {
+            this.executar = executar;
+        }
+
+        void agendar() {
+            choreographer.postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            executar.run();
+        }
+    }
+}
@@ -3,42 +3,33 @@ package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
 import static android.content.Context.LOCATION_SERVICE;
 
 import android.Manifest;
-import android.app.Activity;
 import android.content.Context;
 import android.content.pm.PackageManager;
 import android.location.Location;
 import android.location.LocationListener;
 import android.location.LocationManager;
 import android.os.Bundle;
-import android.support.v4.app.ActivityCompat;
+import android.support.v4.content.ContextCompat;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * Classe responsável por rastrear a localização GPS.
+ * Classe responsável por adaptar o LocationManager do Android à interface FonteLocalizacao.
+ * <p>
+ * Cada provedor recebe o seu próprio LocationListener, de modo que os registros de rede e de GPS
+ * não se substituem e podem ser removidos individualmente. A permissão de localização é solicitada
+ * pela atividade; sem ela, nenhum registro é feito. As falhas do LocationManager são contadas na
+ * métrica {@value #METRICA_ERROS}.
  */
-class GpsTracker implements LocationListener {
-    private final Context mContext;
-    private List<LocationData> LocationDataList; // Lista para armazenar as coordenadas
-
-    // Sinalizador para status do GPS
-    boolean isGPSEnabled = false;
-
-    // Sinalizador para status da rede
-    boolean isNetworkEnabled = false;
+class GpsTracker implements FonteLocalizacao {
+    static final String METRICA_ERROS = "provedor.erros";
 
-    Location location;
-    double latitude;
-    double longitude;
-
-    // A distância mínima para alterar as atualizações em metros
-    private static final long MIN_DISTANCE_CHANGE_FOR_UPDATES = 10; // 10 metros
+    private final Context mContext;
+    private final ContadorDistribuido erros;
 
-    // O tempo máximo para que ocorra atualizações
-    private static final long MIN_TIME_BW_UPDATES = 1000 * 86400; // 1 dia
+    // Ouvintes registrados, um por provedor
+    private final Map<String, OuvinteProvedor> ouvintes;
 
     // Declaração do gerenciador de localização
     protected LocationManager locationManager;
@@ -46,156 +37,160 @@ class GpsTracker implements LocationListener {
     /**
      * Construtor da classe GpsTracker.
      *
-     * @param context o contexto da aplicação.
+     * @param context  o contexto da aplicação.
+     * @param metricas o registro onde as falhas são contadas.
      */
-    public GpsTracker(Context context) {
+    public GpsTracker(Context context, RegistroMetricas metricas) {
         this.mContext = context;
-        LocationDataList = new ArrayList<>(); // Inicializa a lista de coordenadas
-        getLocation();
+        this.erros = metricas.contador(METRICA_ERROS);
+        this.ouvintes = new HashMap<>();
+        this.locationManager = (LocationManager) context.getSystemService(LOCATION_SERVICE);
     }
 
     /**
-     * Obtém a localização atual.
+     * Verifica se um provedor de localização está habilitado.
      *
-     * @return os dados de localização mais recentes.
+     * @param provedor o nome do provedor.
+     * @return true se o provedor estiver habilitado, false caso contrário.
      */
-    public LocationData getLocation() {
+    @Override
+    public boolean isProvedorAtivo(String provedor) {
         try {
-            locationManager = (LocationManager) mContext.getSystemService(LOCATION_SERVICE);
-
-            // Verifica o status do GPS
-            isGPSEnabled = locationManager.isProviderEnabled(LocationManager.GPS_PROVIDER);
-
-            // Verifica o status da rede
-            isNetworkEnabled = locationManager.isProviderEnabled(LocationManager.NETWORK_PROVIDER);
-
-            if (!isGPSEnabled && !isNetworkEnabled) {
-            } else {
-                if (isNetworkEnabled) {
-                    // Verifica a permissão de rede
-                    if (ActivityCompat.checkSelfPermission(mContext, Manifest.permission.ACCESS_FINE_LOCATION) != PackageManager.PERMISSION_GRANTED && ActivityCompat.checkSelfPermission(mContext, Manifest.permission.ACCESS_COARSE_LOCATION) != PackageManager.PERMISSION_GRANTED) {
-                        ActivityCompat.requestPermissions((Activity) mContext, new String[]{android.Manifest.permission.ACCESS_FINE_LOCATION, Manifest.permission.ACCESS_COARSE_LOCATION}, 101);
-                    }
-                    locationManager.requestLocationUpdates(
-                            LocationManager.NETWORK_PROVIDER,
-                            MIN_TIME_BW_UPDATES,
-                            MIN_DISTANCE_CHANGE_FOR_UPDATES, this);
-
-                    if (locationManager != null) {
-                        location = locationManager.getLastKnownLocation(LocationManager.NETWORK_PROVIDER);
-
-                        if (location != null) {
-                            latitude = location.getLatitude();
-                            longitude = location.getLongitude();
-                            addLocationData(latitude, longitude); // Adiciona as coordenadas à lista
-                        }
-                    }
-                }
-
-                // Se o GPS estiver habilitado, obtem latitude/longitude usando os serviços de GPS
-                if (isGPSEnabled) {
-                    if (location == null) {
-                        // Verifica a permissão de rede
-                        if (ActivityCompat.checkSelfPermission(mContext, Manifest.permission.ACCESS_FINE_LOCATION) != PackageManager.PERMISSION_GRANTED && ActivityCompat.checkSelfPermission(mContext, Manifest.permission.ACCESS_COARSE_LOCATION) != PackageManager.PERMISSION_GRANTED) {
-                            ActivityCompat.requestPermissions((Activity) mContext, new String[]{android.Manifest.permission.ACCESS_FINE_LOCATION, Manifest.permission.ACCESS_COARSE_LOCATION}, 101);
-                        }
-                        locationManager.requestLocationUpdates(
-                                LocationManager.GPS_PROVIDER,
-                                MIN_TIME_BW_UPDATES,
-                                MIN_DISTANCE_CHANGE_FOR_UPDATES, this);
-
-                        if (locationManager != null) {
-                            location = locationManager.getLastKnownLocation(LocationManager.GPS_PROVIDER);
-
-                            if (location != null) {
-                                latitude = location.getLatitude();
-                                longitude = location.getLongitude();
-                                addLocationData(latitude, longitude); // Adiciona as coordenadas à lista
-                            }
-                        }
-                    }
-                }
-            }
-
+            return locationManager.isProviderEnabled(provedor);
         } catch (Exception e) {
+            erros.incrementar();
             e.printStackTrace();
+            return false;
         }
-
-        return LocationDataList.isEmpty() ? null : LocationDataList.get(LocationDataList.size() - 1);
-    }
-
-    /**
-     * Adiciona as coordenadas à lista, juntamente com o timestamp.
-     *
-     * @param latitude  a latitude a ser adicionada.
-     * @param longitude a longitude a ser adicionada.
-     */
-    private void addLocationData(double latitude, double longitude) {
-        long timestamp = System.currentTimeMillis();
-        LocationData LocationData = new LocationData(latitude, longitude, timestamp);
-        LocationDataList.add(LocationData);
-
-        // Ordena a lista de coordenadas pelo timestamp
-        Collections.sort(LocationDataList, new Comparator<LocationData>() {
-            @Override
-            public int compare(LocationData c1, LocationData c2) {
-                return Long.compare(c1.getTimestamp(), c2.getTimestamp());
-            }
-        });
     }
 
     /**
-     * Obtém a lista de coordenadas ordenada pelo timestamp.
+     * Registra o receptor para receber as atualizações de um provedor.
      *
-     * @return a lista de coordenadas ordenada.
+     * @param provedor        o nome do provedor.
+     * @param tempoMinimo     o intervalo mínimo entre atualizações em milissegundos.
+     * @param distanciaMinima a distância mínima entre atualizações em metros.
+     * @param receptor        o receptor das localizações.
+     * @return true se o registro foi feito, false se falta a permissão ou o sistema o recusou.
      */
-    public List<LocationData> getSortedLocationData() {
-        return LocationDataList;
+    @Override
+    public boolean registrar(String provedor, long tempoMinimo, float distanciaMinima, ReceptorLocalizacao receptor) {
+        if (!verificarPermissao()) {
+            return false;
+        }
+        remover(provedor);
+        try {
+            OuvinteProvedor ouvinte = new OuvinteProvedor(provedor, receptor);
+            locationManager.requestLocationUpdates(provedor, tempoMinimo, distanciaMinima, ouvinte);
+            ouvintes.put(provedor, ouvinte);
+            return true;
+        } catch (SecurityException e) {
+            erros.incrementar();
+            e.printStackTrace();
+            return false;
+        }
     }
 
     /**
-     * Método chamado quando a localização é alterada.
+     * Remove o registro de um provedor.
      *
-     * @param location a nova localização.
+     * @param provedor o nome do provedor.
      */
     @Override
-    public void onLocationChanged(Location location) {
-        if (location != null) {
-            latitude = location.getLatitude();
-            longitude = location.getLongitude();
-            addLocationData(latitude, longitude); // Adiciona as coordenadas à lista
+    public void remover(String provedor) {
+        OuvinteProvedor ouvinte = ouvintes.remove(provedor);
+        if (ouvinte != null) {
+            locationManager.removeUpdates(ouvinte);
         }
     }
 
     /**
-     * Método chamado quando o provedor de localização é desativado.
+     * Entrega ao receptor a última localização conhecida do provedor, se houver.
      *
-     * @param provider o provedor que foi desativado.
+     * @param provedor o nome do provedor.
+     * @param receptor o receptor da localização.
      */
     @Override
-    public void onProviderDisabled(String provider) {
-        // Chamado quando o provedor é desabilitado pelo usuário
+    public void entregarUltimaLocalizacao(String provedor, ReceptorLocalizacao receptor) {
+        if (!verificarPermissao()) {
+            return;
+        }
+        try {
+            Location location = locationManager.getLastKnownLocation(provedor);
+            if (location != null) {
+                receptor.aoReceberLocalizacao(provedor, location.getLatitude(), location.getLongitude(),
+                        location.getAccuracy(), location.hasSpeed() ? location.getSpeed() : Float.NaN, location.getTime());
+            }
+        } catch (SecurityException e) {
+            erros.incrementar();
+            e.printStackTrace();
+        }
     }
 
     /**
-     * Método chamado quando o provedor de localização é ativado.
+     * Verifica se a permissão de localização foi concedida.
      *
-     * @param provider o provedor que foi ativado.
+     * @return true se a permissão foi concedida, false caso contrário.
      */
-    @Override
-    public void onProviderEnabled(String provider) {
-        // Chamado quando o provedor é habilitado pelo usuário
+    private boolean verificarPermissao() {
+        return ContextCompat.checkSelfPermission(mContext, Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED || ContextCompat.checkSelfPermission(mContext, Manifest.permission.ACCESS_COARSE_LOCATION) == PackageManager.PERMISSION_GRANTED;
     }
 
     /**
-     * Método chamado quando o status do provedor de localização muda.
-     *
-     * @param provider o provedor de localização.
-     * @param status   o novo status.
-     * @param extras   informações extras sobre o status.
+     * Ouvinte de um único provedor que repassa as localizações ao receptor.
      */
-    @Override
-    public void onStatusChanged(String provider, int status, Bundle extras) {
-        // Chamado quando o status do provedor muda
+    private static class OuvinteProvedor implements LocationListener {
+        private final String provedor;
+        private final ReceptorLocalizacao receptor;
+
+        OuvinteProvedor(String provedor, ReceptorLocalizacao receptor) {
+            this.provedor = provedor;
+            this.receptor = receptor;
+        }
+
+        /**
+         * Método chamado quando a localização é alterada.
+         *
+         * @param location a nova localização.
+         */
+        @Override
+        public void onLocationChanged(Location location) {
+            if (location != null) {
+                receptor.aoReceberLocalizacao(provedor, location.getLatitude(), location.getLongitude(),
+                        location.getAccuracy(), location.hasSpeed() ? location.getSpeed() : Float.NaN, location.getTime());
+            }
+        }
+
+        /**
+         * Método chamado quando o provedor de localização é desativado.
+         *
+         * @param provider o provedor que foi desativado.
+         */
+        @Override
+        public void onProviderDisabled(String provider) {
+            // Chamado quando o provedor é desabilitado pelo usuário
+        }
+
+        /**
+         * Método chamado quando o provedor de localização é ativado.
+         *
+         * @param provider o provedor que foi ativado.
+         */
+        @Override
+        public void onProviderEnabled(String provider) {
+            // Chamado quando o provedor é habilitado pelo usuário
+        }
+
+        /**
+         * Método chamado quando o status do provedor de localização muda.
+         *
+         * @param provider o provedor de localização.
+         * @param status   o novo status.
+         * @param extras   informações extras sobre o status.
+         */
+        @Override
+        public void onStatusChanged(String provider, int status, Bundle extras) {
+            // Chamado quando o status do provedor muda
+        }
     }
-}
\ No newline at end of file
+}
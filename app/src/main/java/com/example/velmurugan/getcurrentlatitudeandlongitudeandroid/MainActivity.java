@@ -3,6 +3,7 @@ package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.os.Handler;
+import android.os.Looper;
 import android.support.v4.app.ActivityCompat;
 import android.support.v4.content.ContextCompat;
 import android.support.v7.app.AlertDialog;
@@ -12,18 +13,99 @@ import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Classe principal que representa a Atividade principal da aplicação.
  */
 public class MainActivity extends AppCompatActivity {
 
-    private GpsTracker gpsTracker;
+    private MotorLocalizacao motorLocalizacao;
     private TextView tvLatitude, tvLongitude, tvVelocidadeMediaParcial, tvVelocidadeMediaTotal, tvTempoDeslocamento, tvDistanciaPercorrida, tvConsumoCombustivelTotal, tvTempoParaDestinoFinal, tvVelocidadeRecomendada;
-    private Veiculo veiculo;
+    private PipelineLocalizacao pipeline;
+    private FusaoProvedores fusaoProvedores;
+    private GravadorPercurso gravadorPercurso;
+    private GravadorPercurso gravadorSimplificado;
+    private SimplificadorPercurso simplificadorPercurso;
+    private PersistenciaPercurso persistenciaPercurso;
+    private DespejoMetricas despejoMetricas;
+    private String nomePercurso;
+    private Thread retomada;
+    private boolean percursoFechado;
     private Handler handler;
-    private Runnable runnable;
+    private Runnable exibirInstantaneo;
+    private AgendadorQuadros agendadorQuadros;
     private boolean percursoIniciado = false;
-    private LocationThread locationThread;
+
+    // Texto exibido em cada TextView, atualizado apenas quando muda na precisão exibida
+    private final CampoPainel campoLatitude = new CampoPainel(6);
+    private final CampoPainel campoLongitude = new CampoPainel(6);
+    private final CampoPainel campoVelocidadeMediaParcial = new CampoPainel(1);
+    private final CampoPainel campoVelocidadeMediaTotal = new CampoPainel(1);
+    private final CampoPainel campoTempoDeslocamento = new CampoPainel(0);
+    private final CampoPainel campoDistanciaPercorrida = new CampoPainel(3);
+    private final CampoPainel campoConsumoCombustivelTotal = new CampoPainel(3);
+    private final CampoPainel campoTempoParaDestinoFinal = new CampoPainel(0);
+    private final CampoPainel campoVelocidadeRecomendada = new CampoPainel(1);
+
+    // Fechamento do registro e do estado do percurso da atividade anterior, ainda em andamento
+    private static Thread fechamentoAnterior;
+
+    // Instantâneos publicados pela thread de processamento e a posição da tela entre eles
+    private CanalInstantaneos canalInstantaneos;
+    private CanalInstantaneos.Leitor leitorPainel;
+
+    // Indica que a exibição já foi pedida; várias publicações viram uma única exibição
+    private final AtomicBoolean exibicaoPendente = new AtomicBoolean();
+
+    // O intervalo mínimo entre atualizações de localização em milissegundos
+    private static final long MIN_TIME_BW_UPDATES = 1000; // 1 segundo
+
+    // A distância mínima para alterar as atualizações em metros
+    private static final float MIN_DISTANCE_CHANGE_FOR_UPDATES = 10; // 10 metros
+
+    // O número máximo de coordenadas mantidas no histórico
+    private static final int CAPACIDADE_HISTORICO = 4096;
+
+    // O número máximo de localizações aguardando processamento
+    private static final int CAPACIDADE_FILA = 64;
+
+    // A idade máxima de uma localização para ser combinada com a de outro provedor
+    private static final long IDADE_MAXIMA_FUSAO = 2000; // 2 segundos
+
+    // A pior precisão aceita quando há localizações mais precisas de outro provedor
+    private static final float PRECISAO_MAXIMA_FUSAO = 50; // 50 metros
+
+    // O número de localizações em cada buffer do registro do percurso
+    private static final int CAPACIDADE_GRAVACAO = 256;
+
+    // O intervalo máximo entre duas sincronizações do registro do percurso com o disco
+    private static final long INTERVALO_SINCRONIZACAO = 5000; // 5 segundos
+
+    // O desvio máximo das localizações que deixam a cópia simplificada do registro e o número
+    // máximo de localizações aguardando a simplificação do traçado
+    private static final double TOLERANCIA_SIMPLIFICACAO = 5; // 5 metros
+    private static final int CAPACIDADE_SIMPLIFICACAO = 30;
+
+    // O arquivo opcional, nos assets, com os pontos da rota do percurso
+    private static final String ARQUIVO_ROTA = "rota.csv";
+
+    // O raio da cerca de destino no fim da rota
+    private static final double RAIO_DESTINO_ROTA = 20; // 20 metros
+
+    // A distância além da borda de uma cerca a partir da qual o veículo sai dela
+    private static final double MARGEM_SAIDA_CERCAS = 15; // 15 metros
+
+    // O intervalo entre dois salvamentos do estado do percurso
+    private static final long INTERVALO_SALVAMENTO_ESTADO = 5000; // 5 segundos
+
+    // O arquivo, na pasta do aplicativo, com as métricas do pipeline, e o intervalo entre gravações
+    private static final String ARQUIVO_METRICAS = "metricas.txt";
+    private static final long INTERVALO_METRICAS = 10000; // 10 segundos
 
     /**
      * Método chamado quando a atividade é criada.
@@ -56,13 +138,112 @@ public class MainActivity extends AppCompatActivity {
             e.printStackTrace();
         }
 
+        // Exibe na thread principal, no máximo uma vez por quadro da tela, o instantâneo mais
+        // recente publicado pela thread de processamento
+        handler = new Handler(Looper.getMainLooper());
+        agendadorQuadros = new AgendadorQuadros(new Runnable() {
+            @Override
+            public void run() {
+                exibicaoPendente.set(false);
+                InstantaneoPercurso instantaneo = leitorPainel.ler();
+                if (instantaneo != null) {
+                    pipeline.registrarPublicacao(instantaneo);
+                    exibirDados(instantaneo);
+                }
+            }
+        });
+        exibirInstantaneo = new Runnable() {
+            @Override
+            public void run() {
+                agendadorQuadros.agendar();
+            }
+        };
+
+        // Cria uma única inscrição de localização e o pipeline que processa as localizações recebidas
+        HistoricoLocalizacoes historico = new HistoricoLocalizacoes(CAPACIDADE_HISTORICO);
+        Rota rota = carregarRota();
+        Veiculo veiculo;
+        Cerca cercaDestino;
+        double latitudeDestino;
+        double longitudeDestino;
+        if (rota != null) {
+            veiculo = new Veiculo(new DistanciaHaversine(), rota);
+            int ultimo = rota.getNumeroPontos() - 1;
+            latitudeDestino = rota.getLatitude(ultimo);
+            longitudeDestino = rota.getLongitude(ultimo);
+            cercaDestino = new CercaCircular("destino", latitudeDestino, longitudeDestino, RAIO_DESTINO_ROTA);
+        } else {
+            veiculo = new Veiculo();
+            latitudeDestino = Veiculo.LATITUDE_FINAL;
+            longitudeDestino = Veiculo.LONGITUDE_FINAL;
+            cercaDestino = Veiculo.CERCA_DESTINO;
+        }
+
+        // O resultado do percurso é exibido uma única vez, quando o veículo entra na cerca de destino
+        MonitorCercas monitorCercas = new MonitorCercas(MARGEM_SAIDA_CERCAS, 0, new AvaliadorChegada(cercaDestino, veiculo) {
+            @Override
+            protected void aoConcluirPercurso(final ResultadoPercurso resultado, final long tempoParaDestinoFinal) {
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        exibirResultado(resultado, tempoParaDestinoFinal);
+                    }
+                });
+            }
+        });
+        monitorCercas.adicionar(cercaDestino);
+        veiculo.setMonitorCercas(monitorCercas);
+        // Velocidade e consumo dos últimos 10 segundos, 1 minuto e 5 minutos, copiados em cada instantâneo
+        veiculo.setTendencias(new TendenciasPercurso());
+
+        // Um percurso interrompido pelo encerramento do processo é retomado com o mesmo nome
+        aguardarFechamentoAnterior();
+        File pasta = new File(getFilesDir(), "percursos");
+        String percursoInterrompido = buscarPercursoInterrompido(pasta);
+        nomePercurso = percursoInterrompido != null ? percursoInterrompido : "percurso-" + System.currentTimeMillis();
+        persistenciaPercurso = new PersistenciaPercurso(veiculo, new File(pasta, nomePercurso + ".estado"), INTERVALO_SALVAMENTO_ESTADO);
+
+        canalInstantaneos = new CanalInstantaneos(new Runnable() {
+            @Override
+            public void run() {
+                if (exibicaoPendente.compareAndSet(false, true)) {
+                    handler.post(exibirInstantaneo);
+                }
+            }
+        });
+        leitorPainel = canalInstantaneos.criarLeitor();
+        pipeline = new PipelineLocalizacao(historico, persistenciaPercurso, canalInstantaneos, CAPACIDADE_FILA);
+
+        // As métricas ficam sempre ativas e são gravadas periodicamente em um arquivo, que pode
+        // ser lido pelo adb
+        RegistroMetricas metricas = new RegistroMetricas();
+        pipeline.setMetricas(metricas);
+        despejoMetricas = new DespejoMetricas(metricas, new File(getFilesDir(), ARQUIVO_METRICAS), INTERVALO_METRICAS);
+        motorLocalizacao = new MotorLocalizacao(new GpsTracker(this, metricas), MIN_TIME_BW_UPDATES, MIN_DISTANCE_CHANGE_FOR_UPDATES);
+
+        // O pipeline recebe as localizações combinadas e suavizadas e as repassa ao registro do
+        // percurso exatamente como o veículo as recebe; a cópia simplificada do registro guarda
+        // apenas as que mudam a forma do traçado. O agendador ajusta a frequência das localizações
+        // conforme o veículo anda ou fica parado
+        AgendadorAmostragem agendador = new AgendadorAmostragem(motorLocalizacao, pipeline);
+        agendador.setAlvo(latitudeDestino, longitudeDestino);
+        fusaoProvedores = new FusaoProvedores(PoliticaFusao.PRECISAO_PONDERADA, IDADE_MAXIMA_FUSAO, PRECISAO_MAXIMA_FUSAO,
+                new FiltroKalman(PerfilVeiculo.CARRO, agendador));
+        if (percursoInterrompido != null) {
+            retomarPercurso(veiculo, historico, monitorCercas);
+        }
+
         // Configura o botão "Iniciar Percurso"
         Button btnIniciarPercurso = findViewById(R.id.btnIniciarPercurso);
         btnIniciarPercurso.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                // Define percursoIniciado como true
-                percursoIniciado = true;
+                // Define percursoIniciado como true e passa a enviar as localizações ao pipeline
+                if (!percursoIniciado) {
+                    percursoIniciado = true;
+                    iniciarGravacao();
+                    motorLocalizacao.adicionarConsumidor(fusaoProvedores);
+                }
             }
         });
 
@@ -74,18 +255,6 @@ public class MainActivity extends AppCompatActivity {
                 reiniciarAplicativo();
             }
         });
-
-        // Inicializa o handler e o runnable para atualização contínua dos dados de localização
-        handler = new Handler();
-        runnable = new Runnable() {
-            @Override
-            public void run() {
-                if (getPercursoIniciado()) {
-                    getLocation();
-                }
-                handler.postDelayed(this, 1000);
-            }
-        };
     }
 
     /**
@@ -98,9 +267,147 @@ public class MainActivity extends AppCompatActivity {
     }
 
     /**
-     * Reinicia a aplicação.
+     * Passa a gravar as localizações processadas pelo pipeline em um arquivo próprio, para que o
+     * percurso possa ser reproduzido ou retomado depois, e uma cópia simplificada do traçado, para
+     * exportação e exibição. Um registro existente com o mesmo nome é continuado.
+     */
+    private void iniciarGravacao() {
+        File pasta = new File(getFilesDir(), "percursos");
+        if (!pasta.isDirectory() && !pasta.mkdirs()) {
+            return;
+        }
+        try {
+            gravadorPercurso = new GravadorPercurso(new File(pasta, nomePercurso + ".bin"), CAPACIDADE_GRAVACAO, INTERVALO_SINCRONIZACAO);
+            // A cópia tem outra extensão, para não ser confundida com o registro completo
+            gravadorSimplificado = new GravadorPercurso(new File(pasta, nomePercurso + ".simplificado"), CAPACIDADE_GRAVACAO,
+                    INTERVALO_SINCRONIZACAO);
+            simplificadorPercurso = new SimplificadorPercurso(gravadorSimplificado, TOLERANCIA_SIMPLIFICACAO, CAPACIDADE_SIMPLIFICACAO);
+            final GravadorPercurso gravador = gravadorPercurso;
+            final SimplificadorPercurso simplificador = simplificadorPercurso;
+            pipeline.setRegistro(new ReceptorLocalizacao() {
+                @Override
+                public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+                    gravador.aoReceberLocalizacao(provedor, latitude, longitude, precisao, velocidade, timestamp);
+                    simplificador.aoReceberLocalizacao(provedor, latitude, longitude, precisao, velocidade, timestamp);
+                }
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Procura o percurso mais recente cujo estado foi salvo e não foi descartado. O estado é
+     * descartado quando a atividade termina normalmente, então só resta um depois de o processo
+     * ser encerrado ou de a atividade ser recriada pelo sistema.
+     *
+     * @param pasta a pasta dos percursos.
+     * @return o nome do percurso, sem extensão, ou null se não houver um.
+     */
+    private static String buscarPercursoInterrompido(File pasta) {
+        File[] arquivos = pasta.listFiles();
+        File maisRecente = null;
+        if (arquivos != null) {
+            for (File arquivo : arquivos) {
+                if (arquivo.getName().endsWith(".estado") && (maisRecente == null || arquivo.lastModified() > maisRecente.lastModified())) {
+                    maisRecente = arquivo;
+                }
+            }
+        }
+        if (maisRecente == null) {
+            return null;
+        }
+        String nome = maisRecente.getName();
+        return nome.substring(0, nome.length() - ".estado".length());
+    }
+
+    /**
+     * Restaura o veículo a partir do estado salvo e da cauda do registro do percurso, refaz o
+     * histórico com as localizações mais recentes do registro e volta a receber localizações. A
+     * leitura e a reprodução do registro são feitas em outra thread; as localizações só voltam a
+     * ser recebidas, na thread principal, depois que o veículo foi restaurado.
+     * <p>
+     * As cercas não produzem eventos durante a reprodução, pois eles já ocorreram antes da
+     * interrupção; o monitor passa a considerar a última localização do registro, para que a
+     * chegada ao destino não seja avaliada de novo se o veículo já estava nele.
+     *
+     * @param veiculo       o veículo, ainda sem localizações.
+     * @param historico     o histórico de localizações, ainda vazio.
+     * @param monitorCercas o monitor de cercas do veículo.
+     */
+    private void retomarPercurso(final Veiculo veiculo, final HistoricoLocalizacoes historico, final MonitorCercas monitorCercas) {
+        percursoIniciado = true;
+        final File arquivoEstado = persistenciaPercurso.getArquivo();
+        final File arquivoRegistro = new File(arquivoEstado.getParentFile(), nomePercurso + ".bin");
+        retomada = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                LeitorPercurso registro;
+                try {
+                    registro = new LeitorPercurso(arquivoRegistro);
+                } catch (IOException e) {
+                    registro = null;
+                }
+                veiculo.setMonitorCercas(null);
+                EstadoPercurso.restaurar(veiculo, arquivoEstado, registro);
+                if (registro != null) {
+                    for (int i = Math.max(0, registro.getNumeroRegistros() - historico.getCapacidade()); i < registro.getNumeroRegistros(); i++) {
+                        historico.adicionar(registro.getLatitude(i), registro.getLongitude(i), registro.getTimestamp(i));
+                    }
+                }
+                final InstantaneoPercurso instantaneo;
+                if (historico.getTamanho() > 0) {
+                    monitorCercas.sincronizar(historico.getLatitudeRecente(0), historico.getLongitudeRecente(0),
+                            historico.getTimestampRecente(0));
+                    instantaneo = veiculo.criarInstantaneo(historico.getLatitudeRecente(0), historico.getLongitudeRecente(0),
+                            historico.getTimestampRecente(0), System.nanoTime());
+                } else {
+                    instantaneo = null;
+                }
+                veiculo.setMonitorCercas(monitorCercas);
+
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (percursoFechado) {
+                            return;
+                        }
+                        if (instantaneo != null) {
+                            exibirDados(instantaneo);
+                        }
+                        iniciarGravacao();
+                        motorLocalizacao.adicionarConsumidor(fusaoProvedores);
+                    }
+                });
+            }
+        }, "retomar-percurso");
+        retomada.start();
+    }
+
+    /**
+     * Espera o fechamento do registro e do estado do percurso da atividade anterior, para que os
+     * arquivos não sejam abertos por duas atividades ao mesmo tempo.
+     */
+    private static void aguardarFechamentoAnterior() {
+        Thread fechamento = fechamentoAnterior;
+        fechamentoAnterior = null;
+        if (fechamento != null) {
+            try {
+                fechamento.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Reinicia a aplicação. O estado do percurso atual é descartado em outra thread, que a nova
+     * atividade espera antes de procurar um percurso interrompido, para que ela comece um
+     * percurso novo.
      */
     private void reiniciarAplicativo() {
+        pipeline.parar();
+        fecharPercurso(true);
         Intent intent = getIntent();
         finish();
         startActivity(intent);
@@ -108,100 +415,180 @@ public class MainActivity extends AppCompatActivity {
 
     /**
      * Método chamado quando a atividade está em primeiro plano e interage com o usuário.
-     * Inicia a execução da função getLocation.
+     * Inscreve o motor nos provedores de localização e inicia a thread de processamento.
      */
     @Override
     protected void onResume() {
         super.onResume();
-        handler.postDelayed(runnable, 1000); // Inicia a execução da função após 1 segundo
-        startLocationThread();
+        pipeline.iniciar();
+        motorLocalizacao.iniciar();
+    }
+
+    /**
+     * Método chamado com a resposta do usuário ao pedido de permissão de localização.
+     * Inscreve o motor nos provedores assim que a permissão é concedida.
+     */
+    @Override
+    public void onRequestPermissionsResult(int requestCode, String[] permissions, int[] grantResults) {
+        super.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        if (requestCode == 101 && grantResults.length > 0 && grantResults[0] == PackageManager.PERMISSION_GRANTED) {
+            motorLocalizacao.iniciar();
+        }
     }
 
     /**
      * Método chamado quando a atividade perde o foco e está prestes a ser pausada.
-     * Interrompe a execução da função getLocation.
+     * Remove as inscrições de localização e interrompe a thread de processamento.
      */
     @Override
     protected void onPause() {
         super.onPause();
-        handler.removeCallbacks(runnable); // Interrompe a execução da função
-        stopLocationThread();
+        motorLocalizacao.parar();
+        pipeline.parar();
     }
 
     /**
+     * Método chamado quando a atividade é destruída. Quando a atividade termina normalmente, o
+     * estado do percurso é descartado, para que apenas um percurso interrompido seja retomado.
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        fecharPercurso(isFinishing());
+    }
+
+    /**
+     * Deixa de gravar o percurso e fecha o registro e o estado do percurso em outra thread, pois o
+     * fechamento grava os dados pendentes no disco; essa thread espera antes o fim da retomada do
+     * percurso, se houver uma, e uma nova atividade espera o fechamento antes de procurar um
+     * percurso interrompido. Chamadas seguintes não têm efeito.
+     *
+     * @param descartar true para apagar o arquivo de estado, false para mantê-lo para a retomada.
+     */
+    private void fecharPercurso(final boolean descartar) {
+        if (percursoFechado) {
+            return;
+        }
+        percursoFechado = true;
+        final Thread retomadaAtual = retomada;
+        final GravadorPercurso gravador = gravadorPercurso;
+        final GravadorPercurso gravadorCopia = gravadorSimplificado;
+        final SimplificadorPercurso simplificador = simplificadorPercurso;
+        final PersistenciaPercurso persistencia = persistenciaPercurso;
+        final DespejoMetricas despejo = despejoMetricas;
+        gravadorPercurso = null;
+        gravadorSimplificado = null;
+        simplificadorPercurso = null;
+        retomada = null;
+        pipeline.setRegistro(null);
+        Thread fechamento = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                if (retomadaAtual != null) {
+                    try {
+                        retomadaAtual.join();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                try {
+                    if (descartar) {
+                        persistencia.descartar();
+                    } else {
+                        persistencia.close();
+                    }
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                if (gravador != null) {
+                    try {
+                        gravador.close();
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
+                if (gravadorCopia != null) {
+                    simplificador.concluir();
+                    try {
+                        gravadorCopia.close();
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
+                try {
+                    despejo.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }, "fechar-percurso");
+        fechamentoAnterior = fechamento;
+        fechamento.start();
+    }
 
-     Inicia a execução de uma nova thread responsável por rastrear a localização.
-     Se a thread já estiver em execução, nenhum novo thread é criado.
+    /**
+     * Lê a rota do percurso dos assets, se houver uma.
+     *
+     * @return a rota, ou null se os assets não tiverem uma rota válida.
      */
-    private void startLocationThread() {
-        if (locationThread == null || !locationThread.isAlive()) {
-            locationThread = new LocationThread();
-            locationThread.start();
+    private Rota carregarRota() {
+        try (Reader leitor = new InputStreamReader(getAssets().open(ARQUIVO_ROTA), "UTF-8")) {
+            return Rota.carregar(leitor);
+        } catch (IOException e) {
+            return null;
         }
     }
+
     /**
+     * Atualiza a interface com os dados de um instantâneo do percurso. Executado na thread
+     * principal; apenas as TextViews cujo texto mudou são alteradas.
+     *
+     * @param instantaneo o instantâneo calculado pela thread de processamento.
+     */
+    private void exibirDados(InstantaneoPercurso instantaneo) {
+        exibirCampo(tvLatitude, campoLatitude, instantaneo.getLatitude());
+        exibirCampo(tvLongitude, campoLongitude, instantaneo.getLongitude());
+        exibirCampo(tvVelocidadeMediaParcial, campoVelocidadeMediaParcial, instantaneo.getVelocidadeMediaParcial());
+        exibirCampo(tvVelocidadeMediaTotal, campoVelocidadeMediaTotal, instantaneo.getVelocidadeMediaTotal());
+        exibirCampo(tvTempoDeslocamento, campoTempoDeslocamento, instantaneo.getTempoDeslocamento());
+        exibirCampo(tvDistanciaPercorrida, campoDistanciaPercorrida, instantaneo.getDistanciaPercorrida());
+        exibirCampo(tvConsumoCombustivelTotal, campoConsumoCombustivelTotal, instantaneo.getConsumoCombustivelTotal());
+        exibirCampo(tvTempoParaDestinoFinal, campoTempoParaDestinoFinal, instantaneo.getTempoParaDestinoFinal());
+        exibirCampo(tvVelocidadeRecomendada, campoVelocidadeRecomendada, instantaneo.getVelocidadeRecomendada());
+    }
 
-     Interrompe a execução da thread responsável por rastrear a localização.
-     Se a thread estiver em execução, ela é interrompida e o objeto thread é definido como nulo.
+    /**
+     * Exibe um valor em uma TextView se o seu texto mudou. O vetor do campo é passado diretamente
+     * à TextView e só é alterado antes da próxima chamada de setText.
+     *
+     * @param textView a TextView do valor.
+     * @param campo    o texto exibido na TextView.
+     * @param valor    o novo valor.
      */
-    private void stopLocationThread() {
-        if (locationThread != null) {
-            locationThread.interrupt();
-            locationThread = null;
+    private static void exibirCampo(TextView textView, CampoPainel campo, double valor) {
+        if (campo.atualizar(valor)) {
+            textView.setText(campo.getTexto(), 0, campo.getTamanho());
         }
     }
 
     /**
-     * Obtém a localização atual e atualiza os dados do veículo com base nas coordenadas.
+     * Exibe o resultado do percurso quando o veículo alcança o destino.
+     *
+     * @param resultado             o resultado do percurso.
+     * @param tempoParaDestinoFinal o tempo que faltava para o prazo na chegada.
      */
-    public void getLocation() {
-        gpsTracker = new GpsTracker(MainActivity.this);
-        LocationData locationData = gpsTracker.getLocation();
-        if (locationData != null) {
-            double latitude = locationData.getLatitude();
-            double longitude = locationData.getLongitude();
-            long timestamp = locationData.getTimestamp();
-            tvLatitude.setText(String.valueOf(latitude));
-            tvLongitude.setText(String.valueOf(longitude));
-
-            // Atualiza os dados do veículo com base nas coordenadas
-            if (veiculo == null) {
-                veiculo = new Veiculo(gpsTracker);
-            }
-            veiculo.atualizarDados(latitude, longitude, timestamp);
-            startLocationThread();
-
-            // Obtem os dados atualizados do veículo
-            double velocidadeMediaParcial = veiculo.getVelocidadeMediaParcial();
-            double velocidadeMediaTotal = veiculo.getVelocidadeMediaTotal();
-            long tempoDeslocamento = veiculo.getTempoDeslocamento();
-            double distanciaPercorrida = veiculo.getDistanciaPercorrida();
-            double consumoCombustivelTotal = veiculo.getConsumoCombustivelTotal();
-            long tempoParaDestinoFinal = veiculo.getTempoParaDestinoFinal();
-            double velocidadeRecomendada = veiculo.getVelocidadeRecomendada();
-
-            // Atualiza as TextViews com os valores calculados
-            tvVelocidadeMediaParcial.setText(String.valueOf(velocidadeMediaParcial));
-            tvVelocidadeMediaTotal.setText(String.valueOf(velocidadeMediaTotal));
-            tvTempoDeslocamento.setText(String.valueOf(tempoDeslocamento));
-            tvDistanciaPercorrida.setText(String.valueOf(distanciaPercorrida));
-            tvConsumoCombustivelTotal.setText(String.valueOf(consumoCombustivelTotal));
-            tvTempoParaDestinoFinal.setText(String.valueOf(tempoParaDestinoFinal));
-            tvVelocidadeRecomendada.setText(String.valueOf(velocidadeRecomendada));
-
-            if (latitude > -20.4569 && longitude < -45.8358) {
-                // Verifica as condições para exibir as mensagens
-                if (tempoParaDestinoFinal >= -10 && tempoParaDestinoFinal <= 10) {
-                    tvTempoParaDestinoFinal.setText(String.valueOf(tempoParaDestinoFinal));
-                    exibirResultado("Você concluiu o percurso no tempo correto!", android.R.color.holo_green_light);
-                } else if (tempoParaDestinoFinal < -10) {
-                    tvTempoParaDestinoFinal.setText(String.valueOf(tempoParaDestinoFinal));
-                    exibirResultado("Você atrasou!", android.R.color.holo_red_light);
-                } else if (tempoParaDestinoFinal > 10 && tempoParaDestinoFinal <= 100) {
-                    tvTempoParaDestinoFinal.setText(String.valueOf(tempoParaDestinoFinal));
-                    exibirResultado("Você adiantou!", android.R.color.holo_red_light);
-                }
-            }
+    private void exibirResultado(ResultadoPercurso resultado, long tempoParaDestinoFinal) {
+        exibirCampo(tvTempoParaDestinoFinal, campoTempoParaDestinoFinal, tempoParaDestinoFinal);
+        switch (resultado) {
+            case NO_TEMPO:
+                exibirResultado("Você concluiu o percurso no tempo correto!", android.R.color.holo_green_light);
+                break;
+            case ATRASADO:
+                exibirResultado("Você atrasou!", android.R.color.holo_red_light);
+                break;
+            default:
+                exibirResultado("Você adiantou!", android.R.color.holo_red_light);
+                break;
         }
     }
 
@@ -233,23 +620,4 @@ public class MainActivity extends AppCompatActivity {
         AlertDialog dialog = builder.create();
         dialog.show();
     }
-
-    /**
-     * Esta classe é responsável por executar em uma thread separada a obtenção da localização.
-     */
-    private class LocationThread extends Thread {
-        @Override
-        public void run() {
-            while (getPercursoIniciado()) {
-                getLocation();
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
-    }
-
 }
-
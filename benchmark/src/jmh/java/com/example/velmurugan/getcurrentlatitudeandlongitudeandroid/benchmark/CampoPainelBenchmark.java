@@ -0,0 +1,62 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.benchmark;
+
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.CampoPainel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a formatação das latitudes de um percurso gravado para o painel: uma String por valor,
+ * como a exibição original, contra o campo que reaproveita o vetor de caracteres e ignora os
+ * valores que não mudam na precisão exibida.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CampoPainelBenchmark {
+    private static final int LOCALIZACOES = 10_000;
+
+    @Param({Percurso.SINTETICO})
+    public String percurso;
+
+    private double[] latitudes;
+    private CampoPainel campo;
+
+    @Setup
+    public void preparar() throws IOException {
+        latitudes = Percurso.carregar(percurso, LOCALIZACOES).latitudes;
+        campo = new CampoPainel(6);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOCALIZACOES)
+    public int stringPorValor() {
+        int total = 0;
+        for (int i = 0; i < LOCALIZACOES; i++) {
+            total += String.valueOf(latitudes[i]).length();
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOCALIZACOES)
+    public int campoReaproveitado() {
+        int total = 0;
+        for (int i = 0; i < LOCALIZACOES; i++) {
+            if (campo.atualizar(latitudes[i])) {
+                total += campo.getTamanho();
+            }
+        }
+        return total;
+    }
+}
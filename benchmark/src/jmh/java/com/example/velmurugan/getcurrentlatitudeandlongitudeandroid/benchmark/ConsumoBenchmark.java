@@ -0,0 +1,67 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.benchmark;
+
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.ConsumoPercurso;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.DistanciaEquiretangular;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.ModeloConsumo;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.PerfilVeiculo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o consumo de combustível de um percurso gravado: o cálculo trecho a trecho, uma chamada do
+ * modelo por trecho, contra o cálculo em lote sobre os vetores já preparados.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConsumoBenchmark {
+    private static final int LOCALIZACOES = 100_000;
+
+    @Param({Percurso.SINTETICO})
+    public String percurso;
+
+    private ModeloConsumo modelo;
+    private double[] velocidades;
+    private double[] aceleracoes;
+    private double[] distancias;
+    private int trechos;
+
+    @Setup
+    public void preparar() throws IOException {
+        Percurso dados = Percurso.carregar(percurso, LOCALIZACOES);
+        modelo = PerfilVeiculo.CARRO.getModeloConsumo();
+        trechos = dados.tamanho() - 1;
+        velocidades = new double[trechos];
+        aceleracoes = new double[trechos];
+        distancias = new double[trechos];
+        ConsumoPercurso.preparar(new DistanciaEquiretangular(), dados.latitudes, dados.longitudes, dados.timestamps,
+                dados.tamanho(), velocidades, aceleracoes, distancias);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOCALIZACOES - 1)
+    public double trechoATrecho() {
+        double total = 0;
+        for (int i = 0; i < trechos; i++) {
+            total += modelo.consumoPorKm(velocidades[i], aceleracoes[i]) * distancias[i];
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOCALIZACOES - 1)
+    public double emLote() {
+        return modelo.consumoLote(velocidades, aceleracoes, distancias, trechos);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.benchmark;
+
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.CalculadoraDistancia;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.DistanciaEquiretangular;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.DistanciaHaversine;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.DistanciaVincenty;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a vazão de cada algoritmo de distância sobre os segmentos consecutivos de um percurso.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DistanciaBenchmark {
+    private static final int SEGMENTOS = 10_000;
+
+    @Param({"haversine", "equiretangular", "vincenty"})
+    public String algoritmo;
+
+    @Param({Percurso.SINTETICO})
+    public String percurso;
+
+    private Percurso dados;
+    private CalculadoraDistancia calculadora;
+
+    @Setup
+    public void preparar() throws IOException {
+        dados = Percurso.carregar(percurso, SEGMENTOS + 1);
+        if ("haversine".equals(algoritmo)) {
+            calculadora = new DistanciaHaversine();
+        } else if ("equiretangular".equals(algoritmo)) {
+            calculadora = new DistanciaEquiretangular();
+        } else {
+            calculadora = new DistanciaVincenty();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEGMENTOS)
+    public double distanciaPercurso() {
+        double total = 0;
+        int segmentos = dados.tamanho() - 1;
+        for (int i = 0, j = 0; i < SEGMENTOS; i++, j = j + 1 == segmentos ? 0 : j + 1) {
+            total += calculadora.calcular(dados.latitudes[j], dados.longitudes[j], dados.latitudes[j + 1], dados.longitudes[j + 1]);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.benchmark;
+
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.FrotaVeiculos;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.GeradorCargaFrota;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.PerfilVeiculo;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.Veiculo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede quantas localizações por segundo a frota processa, com as localizações de muitos veículos
+ * geradas antes e enviadas por uma única thread, e a espera até todas serem processadas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FrotaBenchmark {
+    private static final int LOCALIZACOES = 1_000_000;
+
+    @Param({"10000"})
+    public int veiculos;
+
+    @Param({"1", "4"})
+    public int particoes;
+
+    private long[] ids;
+    private double[] latitudes;
+    private double[] longitudes;
+    private long[] timestamps;
+    private long deslocamento;
+    private FrotaVeiculos frota;
+
+    @Setup(Level.Trial)
+    public void gerar() {
+        ids = new long[LOCALIZACOES];
+        latitudes = new double[LOCALIZACOES];
+        longitudes = new double[LOCALIZACOES];
+        timestamps = new long[LOCALIZACOES];
+        new GeradorCargaFrota(veiculos, 1).gerar(ids, latitudes, longitudes, timestamps, LOCALIZACOES);
+        frota = new FrotaVeiculos(particoes, 8192, PerfilVeiculo.CARRO.getModeloConsumo(), Veiculo.CERCA_DESTINO);
+    }
+
+    @TearDown(Level.Trial)
+    public void fechar() {
+        frota.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOCALIZACOES)
+    public long processar() throws InterruptedException {
+        // Cada invocação continua o percurso da anterior, com timestamps posteriores
+        long inicio = deslocamento;
+        for (int i = 0; i < LOCALIZACOES; i++) {
+            frota.aoReceberLocalizacao(ids[i], latitudes[i], longitudes[i], timestamps[i] + inicio);
+        }
+        deslocamento += timestamps[LOCALIZACOES - 1] + 1000;
+        frota.aguardarProcessamento();
+        return frota.getLocalizacoesProcessadas();
+    }
+}
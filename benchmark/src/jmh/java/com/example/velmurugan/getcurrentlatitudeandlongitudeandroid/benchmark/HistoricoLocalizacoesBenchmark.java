@@ -0,0 +1,50 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.benchmark;
+
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.HistoricoLocalizacoes;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o custo de inserir uma localização no histórico já cheio, em ordem e fora de ordem.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HistoricoLocalizacoesBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int tamanho;
+
+    private HistoricoLocalizacoes historico;
+    private long timestamp;
+
+    @Setup
+    public void preparar() {
+        historico = new HistoricoLocalizacoes(tamanho);
+        for (timestamp = 0; timestamp < tamanho; timestamp++) {
+            historico.adicionar(-20.4569, -45.8358, timestamp * 1000);
+        }
+    }
+
+    @Benchmark
+    public boolean adicionarEmOrdem() {
+        timestamp++;
+        return historico.adicionar(-20.4569, -45.8358, timestamp * 1000);
+    }
+
+    @Benchmark
+    public boolean adicionarAtrasada() {
+        // Cada localização chega antes da anterior, como em uma troca de provedor
+        timestamp++;
+        long atraso = (timestamp & 1) == 0 ? 0 : 1500;
+        return historico.adicionar(-20.4569, -45.8358, timestamp * 1000 - atraso);
+    }
+}
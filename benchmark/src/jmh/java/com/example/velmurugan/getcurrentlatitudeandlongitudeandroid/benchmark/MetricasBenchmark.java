@@ -0,0 +1,66 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.benchmark;
+
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.CanalInstantaneos;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.HistoricoLocalizacoes;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.MotorLocalizacao;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.PipelineLocalizacao;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.RegistroMetricas;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.Veiculo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o custo por localização do pipeline, da chegada à publicação do instantâneo, com e sem o
+ * registro de métricas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricasBenchmark {
+    private static final int LOCALIZACOES = 100_000;
+
+    @Param({Percurso.SINTETICO})
+    public String percurso;
+
+    @Param({"false", "true"})
+    public boolean metricas;
+
+    private Percurso dados;
+    private PipelineLocalizacao pipeline;
+    private long deslocamento;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        dados = Percurso.carregar(percurso, LOCALIZACOES);
+        pipeline = new PipelineLocalizacao(new HistoricoLocalizacoes(4096), new Veiculo(), new CanalInstantaneos(null), 64);
+        if (metricas) {
+            pipeline.setMetricas(new RegistroMetricas());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOCALIZACOES)
+    public int processar() {
+        // Cada invocação continua o percurso da anterior, com timestamps posteriores
+        long inicio = deslocamento;
+        for (int i = 0; i < dados.tamanho(); i++) {
+            pipeline.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, dados.latitudes[i], dados.longitudes[i], 5, Float.NaN,
+                    dados.timestamps[i] + inicio);
+            pipeline.processarProxima();
+        }
+        deslocamento += dados.timestamps[dados.tamanho() - 1] + 1000;
+        return pipeline.getProfundidadeFila();
+    }
+}
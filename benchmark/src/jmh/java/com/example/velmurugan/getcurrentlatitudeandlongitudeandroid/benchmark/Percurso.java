@@ -0,0 +1,100 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Sequência de localizações usada como entrada dos benchmarks.
+ * <p>
+ * Pode ser um percurso sintético ou um percurso gravado em arquivo CSV com uma localização por
+ * linha, no formato "timestamp,latitude,longitude".
+ */
+final class Percurso {
+    static final String SINTETICO = "sintetico";
+
+    final double[] latitudes;
+    final double[] longitudes;
+    final long[] timestamps;
+
+    private Percurso(double[] latitudes, double[] longitudes, long[] timestamps) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.timestamps = timestamps;
+    }
+
+    /**
+     * Obtém o percurso indicado no parâmetro do benchmark.
+     *
+     * @param origem      "sintetico" ou o caminho de um arquivo CSV.
+     * @param localizacoes o número de localizações do percurso sintético.
+     * @return o percurso carregado.
+     */
+    static Percurso carregar(String origem, int localizacoes) throws IOException {
+        return SINTETICO.equals(origem) ? sintetico(localizacoes) : lerCsv(origem);
+    }
+
+    /**
+     * Gera um percurso com uma localização por segundo a cerca de 50 km/h, com pequenas mudanças
+     * de rumo. A semente é fixa para que todas as execuções usem o mesmo percurso.
+     */
+    static Percurso sintetico(int localizacoes) {
+        double[] latitudes = new double[localizacoes];
+        double[] longitudes = new double[localizacoes];
+        long[] timestamps = new long[localizacoes];
+        Random random = new Random(42);
+        double latitude = -20.4569;
+        double longitude = -45.8358;
+        double rumo = 0;
+        for (int i = 0; i < localizacoes; i++) {
+            latitudes[i] = latitude;
+            longitudes[i] = longitude;
+            timestamps[i] = 1_600_000_000_000L + i * 1000L;
+            rumo += random.nextGaussian() * 0.05;
+            double passo = 14.0 / 111_195; // 14 metros em graus
+            latitude += passo * Math.cos(rumo);
+            longitude += passo * Math.sin(rumo) / Math.cos(Math.toRadians(latitude));
+        }
+        return new Percurso(latitudes, longitudes, timestamps);
+    }
+
+    private static Percurso lerCsv(String caminho) throws IOException {
+        int tamanho = 0;
+        double[] latitudes = new double[1024];
+        double[] longitudes = new double[1024];
+        long[] timestamps = new long[1024];
+        try (BufferedReader leitor = new BufferedReader(new FileReader(caminho))) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                String[] campos = linha.split(",");
+                if (campos.length < 3) {
+                    continue;
+                }
+                if (tamanho == latitudes.length) {
+                    latitudes = Arrays.copyOf(latitudes, tamanho * 2);
+                    longitudes = Arrays.copyOf(longitudes, tamanho * 2);
+                    timestamps = Arrays.copyOf(timestamps, tamanho * 2);
+                }
+                timestamps[tamanho] = Long.parseLong(campos[0].trim());
+                latitudes[tamanho] = Double.parseDouble(campos[1].trim());
+                longitudes[tamanho] = Double.parseDouble(campos[2].trim());
+                tamanho++;
+            }
+        }
+        if (tamanho < 2) {
+            throw new IOException("O percurso " + caminho + " precisa de pelo menos duas localizações");
+        }
+        return new Percurso(Arrays.copyOf(latitudes, tamanho), Arrays.copyOf(longitudes, tamanho),
+                Arrays.copyOf(timestamps, tamanho));
+    }
+
+    int tamanho() {
+        return timestamps.length;
+    }
+
+    long duracao() {
+        return timestamps[timestamps.length - 1] - timestamps[0] + 1000;
+    }
+}
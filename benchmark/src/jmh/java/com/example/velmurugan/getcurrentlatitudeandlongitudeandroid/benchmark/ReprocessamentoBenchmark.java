@@ -0,0 +1,105 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.benchmark;
+
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.AlgoritmoDistancia;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.GravadorPercurso;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.MotorLocalizacao;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.PerfilVeiculo;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.ReprocessamentoPercursos;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.ResumoPercurso;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.Veiculo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o reprocessamento de uma pasta com 16 percursos, pela configuração padrão do Veiculo, e de
+ * um único percurso longo com distâncias por haversine, conforme o número de threads do pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReprocessamentoBenchmark {
+    private static final int PERCURSOS = 16;
+
+    @Param({Percurso.SINTETICO})
+    public String percurso;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private File pasta;
+    private File percursoLongo;
+    private ForkJoinPool pool;
+    private ReprocessamentoPercursos padrao;
+    private ReprocessamentoPercursos haversine;
+
+    @Setup(Level.Trial)
+    public void gravar() throws IOException {
+        Percurso dados = Percurso.carregar(percurso, 1_000_000);
+        pasta = File.createTempFile("percursos", "");
+        pasta.delete();
+        pasta.mkdir();
+        int porPercurso = dados.tamanho() / PERCURSOS;
+        for (int p = 0; p < PERCURSOS; p++) {
+            gravar(dados, p * porPercurso, (p + 1) * porPercurso, new File(pasta, "percurso-" + p + ".bin"));
+        }
+        percursoLongo = File.createTempFile("percurso", ".bin");
+        percursoLongo.delete();
+        gravar(dados, 0, dados.tamanho(), percursoLongo);
+
+        pool = new ForkJoinPool(threads);
+        padrao = new ReprocessamentoPercursos(pool, AlgoritmoDistancia.EQUIRETANGULAR, Veiculo.CERCA_DESTINO,
+                PerfilVeiculo.CARRO.getModeloConsumo());
+        haversine = new ReprocessamentoPercursos(pool, AlgoritmoDistancia.HAVERSINE, Veiculo.CERCA_DESTINO,
+                PerfilVeiculo.CARRO.getModeloConsumo());
+    }
+
+    @TearDown(Level.Trial)
+    public void apagar() {
+        pool.shutdown();
+        File[] arquivos = pasta.listFiles();
+        if (arquivos != null) {
+            for (File arquivo : arquivos) {
+                arquivo.delete();
+            }
+        }
+        pasta.delete();
+        percursoLongo.delete();
+    }
+
+    @Benchmark
+    public double pasta() throws IOException {
+        double total = 0;
+        for (ResumoPercurso resumo : padrao.reprocessarPasta(pasta)) {
+            total += resumo.getDistanciaPercorrida();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double percursoLongo() throws IOException {
+        return haversine.reprocessar(percursoLongo).getDistanciaPercorrida();
+    }
+
+    private static void gravar(Percurso dados, int inicio, int fim, File arquivo) throws IOException {
+        try (GravadorPercurso gravador = new GravadorPercurso(arquivo, fim - inicio, 1000)) {
+            for (int i = inicio; i < fim; i++) {
+                gravador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, dados.latitudes[i], dados.longitudes[i],
+                        5, Float.NaN, dados.timestamps[i]);
+            }
+        }
+    }
+}
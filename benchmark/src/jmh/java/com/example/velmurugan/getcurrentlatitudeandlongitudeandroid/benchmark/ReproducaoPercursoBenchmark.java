@@ -0,0 +1,59 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.benchmark;
+
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.GravadorPercurso;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.LeitorPercurso;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.MotorLocalizacao;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.Veiculo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo para mapear um registro de percurso e reproduzi-lo inteiro no Veiculo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReproducaoPercursoBenchmark {
+    @Param({Percurso.SINTETICO})
+    public String percurso;
+
+    private File arquivo;
+
+    @Setup(Level.Trial)
+    public void gravar() throws IOException {
+        Percurso dados = Percurso.carregar(percurso, 1_000_000);
+        arquivo = File.createTempFile("percurso", ".bin");
+        arquivo.delete();
+        try (GravadorPercurso gravador = new GravadorPercurso(arquivo, dados.tamanho(), 1000)) {
+            for (int i = 0; i < dados.tamanho(); i++) {
+                gravador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, dados.latitudes[i], dados.longitudes[i],
+                        5, Float.NaN, dados.timestamps[i]);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void apagar() {
+        arquivo.delete();
+    }
+
+    @Benchmark
+    public double reproduzir() throws IOException {
+        Veiculo veiculo = new Veiculo();
+        new LeitorPercurso(arquivo).reproduzir(veiculo);
+        return veiculo.getDistanciaPercorrida();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.benchmark;
+
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.EstadoPercurso;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.GravadorPercurso;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.LeitorPercurso;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.MotorLocalizacao;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.Veiculo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo para retomar um percurso interrompido: a reprodução de todo o registro contra a
+ * restauração do estado salvo cinco segundos antes do fim seguida da cauda do registro. O tempo
+ * da restauração não deve crescer com o tamanho do percurso.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RestauracaoPercursoBenchmark {
+    // Localizações gravadas depois do último salvamento do estado
+    private static final int CAUDA = 5;
+
+    @Param({Percurso.SINTETICO})
+    public String percurso;
+
+    @Param({"10000", "1000000"})
+    public int localizacoes;
+
+    private File registro;
+    private File estado;
+
+    @Setup(Level.Trial)
+    public void gravar() throws IOException {
+        Percurso dados = Percurso.carregar(percurso, localizacoes);
+        registro = File.createTempFile("percurso", ".bin");
+        estado = File.createTempFile("percurso", ".estado");
+        registro.delete();
+        Veiculo veiculo = new Veiculo();
+        try (GravadorPercurso gravador = new GravadorPercurso(registro, dados.tamanho(), 1000)) {
+            for (int i = 0; i < dados.tamanho(); i++) {
+                gravador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, dados.latitudes[i], dados.longitudes[i],
+                        5, Float.NaN, dados.timestamps[i]);
+                veiculo.atualizarDados(dados.latitudes[i], dados.longitudes[i], dados.timestamps[i]);
+                if (i == dados.tamanho() - CAUDA - 1) {
+                    EstadoPercurso.salvar(veiculo, estado);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void apagar() {
+        registro.delete();
+        estado.delete();
+    }
+
+    @Benchmark
+    public double reproduzirTudo() throws IOException {
+        Veiculo veiculo = new Veiculo();
+        new LeitorPercurso(registro).reproduzir(veiculo);
+        return veiculo.getDistanciaPercorrida();
+    }
+
+    @Benchmark
+    public double restaurar() throws IOException {
+        Veiculo veiculo = new Veiculo();
+        EstadoPercurso.restaurar(veiculo, estado, new LeitorPercurso(registro));
+        return veiculo.getDistanciaPercorrida();
+    }
+}
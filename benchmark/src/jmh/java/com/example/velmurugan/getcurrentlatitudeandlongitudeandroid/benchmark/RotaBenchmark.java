@@ -0,0 +1,83 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.benchmark;
+
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.AcompanhamentoRota;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.Rota;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o custo de associar cada localização à rota: seguindo o percurso em ordem, quando quase
+ * todas as localizações são resolvidas nos trechos vizinhos ao anterior, e em ordem aleatória,
+ * quando cada localização consulta o índice espacial da rota.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RotaBenchmark {
+    private static final int LOCALIZACOES = 10_000;
+
+    // Uma localização do percurso a cada PASSO_ROTA vira ponto da rota
+    private static final int PASSO_ROTA = 5;
+
+    @Param({Percurso.SINTETICO})
+    public String percurso;
+
+    private Percurso dados;
+    private int[] ordemAleatoria;
+    private AcompanhamentoRota acompanhamento;
+
+    @Setup
+    public void preparar() throws IOException {
+        dados = Percurso.carregar(percurso, LOCALIZACOES);
+        int pontos = (dados.tamanho() - 1) / PASSO_ROTA + 1;
+        double[] latitudes = new double[pontos];
+        double[] longitudes = new double[pontos];
+        for (int i = 0; i < pontos; i++) {
+            latitudes[i] = dados.latitudes[i * PASSO_ROTA];
+            longitudes[i] = dados.longitudes[i * PASSO_ROTA];
+        }
+        acompanhamento = new AcompanhamentoRota(new Rota(latitudes, longitudes), 100);
+
+        Random random = new Random(42);
+        ordemAleatoria = new int[LOCALIZACOES];
+        for (int i = 0; i < LOCALIZACOES; i++) {
+            ordemAleatoria[i] = random.nextInt(dados.tamanho());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOCALIZACOES)
+    public double acompanharEmOrdem() {
+        double progresso = 0;
+        int tamanho = dados.tamanho();
+        for (int i = 0, j = 0; i < LOCALIZACOES; i++, j = j + 1 == tamanho ? 0 : j + 1) {
+            acompanhamento.atualizar(dados.latitudes[j], dados.longitudes[j]);
+            progresso += acompanhamento.getProgresso();
+        }
+        return progresso;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOCALIZACOES)
+    public double acompanharEmOrdemAleatoria() {
+        double progresso = 0;
+        for (int i = 0; i < LOCALIZACOES; i++) {
+            int j = ordemAleatoria[i];
+            acompanhamento.atualizar(dados.latitudes[j], dados.longitudes[j]);
+            progresso += acompanhamento.getProgresso();
+        }
+        return progresso;
+    }
+}
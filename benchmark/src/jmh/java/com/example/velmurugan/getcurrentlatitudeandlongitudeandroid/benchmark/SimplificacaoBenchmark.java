@@ -0,0 +1,75 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.benchmark;
+
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.MotorLocalizacao;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.ReceptorLocalizacao;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.SimplificadorPercurso;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o custo por localização da simplificação do traçado, conforme a capacidade da janela, e
+ * informa a razão de compressão e o desvio máximo obtidos no percurso.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SimplificacaoBenchmark {
+    private static final int LOCALIZACOES = 100_000;
+
+    @Param({Percurso.SINTETICO})
+    public String percurso;
+
+    @Param({"5"})
+    public double tolerancia;
+
+    @Param({"30", "128"})
+    public int capacidade;
+
+    private Percurso dados;
+    private SimplificadorPercurso simplificador;
+    private long deslocamento;
+    private long mantidas;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        dados = Percurso.carregar(percurso, LOCALIZACOES);
+        simplificador = new SimplificadorPercurso(new ReceptorLocalizacao() {
+            @Override
+            public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+                mantidas++;
+            }
+        }, tolerancia, capacidade);
+    }
+
+    @TearDown(Level.Trial)
+    public void informar() {
+        System.out.printf("%nRazão de compressão %.1f, desvio máximo %.2f m%n",
+                simplificador.getRazaoCompressao(), simplificador.getDesvioMaximo());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOCALIZACOES)
+    public long simplificar() {
+        // Cada invocação continua o percurso da anterior, com timestamps posteriores
+        long inicio = deslocamento;
+        for (int i = 0; i < dados.tamanho(); i++) {
+            simplificador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, dados.latitudes[i], dados.longitudes[i], 5, Float.NaN,
+                    dados.timestamps[i] + inicio);
+        }
+        deslocamento += dados.duracao();
+        return mantidas;
+    }
+}
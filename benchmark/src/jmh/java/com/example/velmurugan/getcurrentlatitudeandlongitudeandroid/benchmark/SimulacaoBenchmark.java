@@ -0,0 +1,92 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.benchmark;
+
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.AgendadorAmostragem;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.CanalInstantaneos;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.FiltroKalman;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.FonteLocalizacao;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.FusaoProvedores;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.HistoricoLocalizacoes;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.MotorLocalizacao;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.PerfilVeiculo;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.PipelineLocalizacao;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.PoliticaFusao;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.ReceptorLocalizacao;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.RelogioVirtual;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.SimuladorPercurso;
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.Veiculo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo para simular um percurso de duas horas, com ruído, rajadas e localizações fora de
+ * ordem, e processá-lo por completo, da fusão dos provedores ao instantâneo publicado, no relógio
+ * virtual.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SimulacaoBenchmark {
+    private static final long DUAS_HORAS = 2 * 3600 * 1000;
+
+    @Param({"1000", "200"})
+    public long intervalo;
+
+    @Benchmark
+    public double percursoDeDuasHoras() {
+        RelogioVirtual relogio = new RelogioVirtual(1_600_000_000_000L);
+        SimuladorPercurso simulador = new SimuladorPercurso(relogio, -20.60, -45.90, 42);
+        simulador.setIntervalo(intervalo);
+        simulador.setRumo(180);
+        simulador.setCurvas(0.5);
+        simulador.setRuido(3);
+        simulador.setRajadas(0.01, 5);
+        simulador.setForaDeOrdem(0.01, 2500);
+        simulador.adicionarTrecho(60_000, 100);
+        simulador.adicionarTrecho(DUAS_HORAS - 120_000, 100);
+        simulador.adicionarTrecho(60_000, 0);
+
+        Veiculo veiculo = new Veiculo();
+        final PipelineLocalizacao pipeline = new PipelineLocalizacao(new HistoricoLocalizacoes(4096), veiculo,
+                new CanalInstantaneos(null), 64, relogio);
+        MotorLocalizacao motor = new MotorLocalizacao(new FonteLocalizacao() {
+            @Override
+            public boolean isProvedorAtivo(String provedor) {
+                return true;
+            }
+
+            @Override
+            public boolean registrar(String provedor, long tempoMinimo, float distanciaMinima, ReceptorLocalizacao receptor) {
+                return true;
+            }
+
+            @Override
+            public void remover(String provedor) {
+            }
+
+            @Override
+            public void entregarUltimaLocalizacao(String provedor, ReceptorLocalizacao receptor) {
+            }
+        }, 1000, 0);
+        final FusaoProvedores fusao = new FusaoProvedores(PoliticaFusao.PRECISAO_PONDERADA, 2000, 50,
+                new FiltroKalman(PerfilVeiculo.CARRO, new AgendadorAmostragem(motor, pipeline)));
+
+        simulador.simular(new ReceptorLocalizacao() {
+            @Override
+            public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+                fusao.aoReceberLocalizacao(provedor, latitude, longitude, precisao, velocidade, timestamp);
+                while (pipeline.processarProxima()) {
+                    // Processa tudo o que a localização produziu
+                }
+            }
+        });
+        return veiculo.getDistanciaPercorrida();
+    }
+}
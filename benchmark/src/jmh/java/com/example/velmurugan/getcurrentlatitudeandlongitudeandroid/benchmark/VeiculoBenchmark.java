@@ -0,0 +1,52 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.benchmark;
+
+import com.example.velmurugan.getcurrentlatitudeandlongitudeandroid.Veiculo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o custo de Veiculo.atualizarDados por localização, incluindo o cálculo de distância e de
+ * consumo de combustível.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VeiculoBenchmark {
+    @Param({Percurso.SINTETICO})
+    public String percurso;
+
+    private Percurso dados;
+    private Veiculo veiculo;
+    private int indice;
+    private long deslocamentoTempo;
+
+    @Setup
+    public void preparar() throws IOException {
+        dados = Percurso.carregar(percurso, 100_000);
+        veiculo = new Veiculo();
+        indice = 0;
+        deslocamentoTempo = 0;
+    }
+
+    @Benchmark
+    public double atualizarDados() {
+        if (indice == dados.tamanho()) {
+            // Repete o percurso mantendo os timestamps crescentes
+            indice = 0;
+            deslocamentoTempo += dados.duracao();
+        }
+        veiculo.atualizarDados(dados.latitudes[indice], dados.longitudes[indice], dados.timestamps[indice] + deslocamentoTempo);
+        indice++;
+        return veiculo.getDistanciaPercorrida();
+    }
+}
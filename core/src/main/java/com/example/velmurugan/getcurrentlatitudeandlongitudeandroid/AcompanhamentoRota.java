@@ -0,0 +1,183 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Classe que acompanha o progresso de um veículo ao longo de uma rota.
+ * <p>
+ * Cada localização é associada ao trecho mais próximo da rota. Primeiro são examinados os trechos
+ * vizinhos ao da localização anterior, o que resolve quase todas as localizações em tempo
+ * constante e mantém o veículo no trecho certo quando a rota passa duas vezes pelo mesmo lugar; só
+ * quando a localização se afasta desses trechos o índice espacial da rota é consultado. Não é
+ * segura para uso por várias threads ao mesmo tempo.
+ */
+public class AcompanhamentoRota {
+    // Trechos examinados antes e depois do trecho da localização anterior
+    static final int JANELA_TRAS = 2;
+    static final int JANELA_FRENTE = 8;
+
+    // Desvio, em metros, até o qual o trecho encontrado na janela é aceito sem consultar o índice
+    static final double DESVIO_JANELA = 30;
+
+    private final Rota rota;
+    private final double desvioMaximo;
+
+    private int trecho = -1;
+    private double progresso;
+    private double desvio = Double.NaN;
+    private boolean naRota;
+
+    /**
+     * Construtor da classe AcompanhamentoRota.
+     *
+     * @param rota         a rota acompanhada.
+     * @param desvioMaximo a maior distância, em metros, entre uma localização e a rota para que ela
+     *                     seja considerada na rota.
+     */
+    public AcompanhamentoRota(Rota rota, double desvioMaximo) {
+        this.rota = rota;
+        this.desvioMaximo = desvioMaximo;
+    }
+
+    /**
+     * Associa uma localização à rota. Se a localização estiver fora da rota, o progresso anterior
+     * é mantido.
+     *
+     * @param latitude  a latitude da localização.
+     * @param longitude a longitude da localização.
+     * @return true se a localização está na rota, false caso contrário.
+     */
+    public boolean atualizar(double latitude, double longitude) {
+        double x = rota.paraX(longitude);
+        double y = rota.paraY(latitude);
+
+        int melhor = -1;
+        double melhorDistancia2 = Double.MAX_VALUE;
+        if (trecho >= 0) {
+            int fim = Math.min(trecho + JANELA_FRENTE, rota.getNumeroPontos() - 2);
+            for (int i = Math.max(0, trecho - JANELA_TRAS); i <= fim; i++) {
+                double distancia2 = rota.distancia2Trecho(i, x, y);
+                if (distancia2 < melhorDistancia2) {
+                    melhorDistancia2 = distancia2;
+                    melhor = i;
+                }
+            }
+        }
+        if (melhor < 0 || melhorDistancia2 > DESVIO_JANELA * DESVIO_JANELA) {
+            int encontrado = rota.buscarTrechoMaisProximo(x, y, desvioMaximo);
+            if (encontrado >= 0) {
+                melhor = encontrado;
+                melhorDistancia2 = rota.distancia2Trecho(encontrado, x, y);
+            }
+        }
+
+        naRota = melhor >= 0 && melhorDistancia2 <= desvioMaximo * desvioMaximo;
+        desvio = melhor >= 0 ? Math.sqrt(melhorDistancia2) : Double.NaN;
+        if (naRota) {
+            trecho = melhor;
+            progresso = rota.progressoTrecho(melhor, x, y);
+        }
+        return naRota;
+    }
+
+    /**
+     * Obtém a rota acompanhada.
+     *
+     * @return a rota.
+     */
+    public Rota getRota() {
+        return rota;
+    }
+
+    /**
+     * Verifica se a última localização estava na rota.
+     *
+     * @return true se a última localização estava a até o desvio máximo da rota.
+     */
+    public boolean isNaRota() {
+        return naRota;
+    }
+
+    /**
+     * Obtém o trecho da rota em que o veículo está.
+     *
+     * @return o índice do trecho, ou -1 se nenhuma localização esteve na rota.
+     */
+    public int getTrecho() {
+        return trecho;
+    }
+
+    /**
+     * Obtém a distância ao longo da rota desde o primeiro ponto até a posição do veículo.
+     *
+     * @return o progresso em quilômetros.
+     */
+    public double getProgresso() {
+        return progresso;
+    }
+
+    /**
+     * Obtém a distância ao longo da rota até o último ponto.
+     *
+     * @return a distância restante em quilômetros.
+     */
+    public double getDistanciaRestante() {
+        return rota.getComprimento() - progresso;
+    }
+
+    /**
+     * Obtém a distância entre a última localização e o trecho mais próximo da rota.
+     *
+     * @return o desvio em metros, ou NaN se nenhum trecho estava a até o desvio máximo.
+     */
+    public double getDesvio() {
+        return desvio;
+    }
+
+    /**
+     * Obtém o próximo ponto de controle ainda não alcançado.
+     *
+     * @return a posição do ponto de controle na rota, ou getRota().getNumeroPontosControle() se
+     * todos já foram alcançados.
+     */
+    public int getProximoPontoControle() {
+        return rota.buscarProximoPontoControle(progresso);
+    }
+
+    /**
+     * Obtém a distância ao longo da rota até o próximo ponto de controle.
+     *
+     * @return a distância em quilômetros, ou 0 se todos os pontos de controle já foram alcançados.
+     */
+    public double getDistanciaProximoPontoControle() {
+        int controle = getProximoPontoControle();
+        if (controle == rota.getNumeroPontosControle()) {
+            return 0;
+        }
+        return rota.getDistanciaAcumulada(rota.getPontoControle(controle)) - progresso;
+    }
+
+    /**
+     * Grava a posição na rota no buffer, no formato de EstadoPercurso.
+     *
+     * @param buffer o buffer de destino.
+     */
+    void salvarEstado(ByteBuffer buffer) {
+        buffer.putInt(trecho);
+        buffer.putDouble(progresso);
+        buffer.putDouble(desvio);
+        buffer.put((byte) (naRota ? 1 : 0));
+    }
+
+    /**
+     * Substitui a posição na rota pela gravada com salvarEstado.
+     *
+     * @param buffer o buffer de origem.
+     */
+    void restaurarEstado(ByteBuffer buffer) {
+        trecho = buffer.getInt();
+        progresso = buffer.getDouble();
+        desvio = buffer.getDouble();
+        naRota = buffer.get() != 0;
+    }
+}
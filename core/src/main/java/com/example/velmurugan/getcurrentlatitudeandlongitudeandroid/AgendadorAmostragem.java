@@ -0,0 +1,248 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Classe que ajusta a frequência das localizações ao que o veículo está fazendo.
+ * <p>
+ * Cada localização é repassada ao destino e em seguida usada para escolher o modo de amostragem:
+ * alta em curvas, logo após o veículo voltar a andar e perto do alvo; ociosa depois de o veículo
+ * ficar parado por algum tempo; cruzeiro no restante. As inscrições do motor só são refeitas quando
+ * o modo muda. O agendador não depende do Android e pode ser exercitado na JVM com percursos
+ * gravados. Não é seguro para uso por várias threads ao mesmo tempo.
+ */
+public class AgendadorAmostragem implements ReceptorLocalizacao {
+    // Velocidade, em m/s, abaixo da qual o veículo é considerado parado
+    static final double VELOCIDADE_OCIOSO = 1.5;
+
+    // Tempo parado, em milissegundos, antes de passar ao modo ocioso
+    static final long TEMPO_PARA_OCIOSO = 30000;
+
+    // Distância até o alvo, em km, a partir da qual a amostragem é sempre alta
+    static final double DISTANCIA_ALTA = 0.5;
+
+    // Mudança de rumo, em graus, entre dois trechos que caracteriza uma curva
+    static final double MUDANCA_RUMO_ALTA = 30;
+
+    // Tempo, em milissegundos, em amostragem alta depois de uma curva ou de uma partida
+    static final long TEMPO_ALTA = 20000;
+
+    // Deslocamento mínimo, em km, para que o rumo de um trecho seja confiável
+    static final double DESLOCAMENTO_MINIMO_RUMO = 0.005;
+
+    private final MotorLocalizacao motor;
+    private final ReceptorLocalizacao destino;
+    private final CalculadoraDistancia calculadora;
+
+    private double latitudeAlvo = Double.NaN;
+    private double longitudeAlvo = Double.NaN;
+
+    private ModoAmostragem modo;
+    private boolean iniciado;
+    private double ultimaLatitude;
+    private double ultimaLongitude;
+    private long ultimoTimestamp;
+    private double rumo = Double.NaN;
+    private long inicioLento = -1;
+    private long fimAlta;
+
+    private long primeiroTimestamp;
+    private long localizacoesRecebidas;
+    private final long[] localizacoesPorModo = new long[ModoAmostragem.values().length];
+    private long trocasModo;
+    private long reinscricoes;
+
+    /**
+     * Construtor da classe AgendadorAmostragem.
+     *
+     * @param motor   o motor cujas inscrições são ajustadas.
+     * @param destino o receptor ao qual as localizações são repassadas.
+     */
+    public AgendadorAmostragem(MotorLocalizacao motor, ReceptorLocalizacao destino) {
+        this.motor = motor;
+        this.destino = destino;
+        this.calculadora = new DistanciaEquiretangular();
+    }
+
+    /**
+     * Define o ponto perto do qual a amostragem deve ser alta.
+     *
+     * @param latitude  a latitude do alvo.
+     * @param longitude a longitude do alvo.
+     */
+    public void setAlvo(double latitude, double longitude) {
+        this.latitudeAlvo = latitude;
+        this.longitudeAlvo = longitude;
+    }
+
+    /**
+     * Repassa a localização ao destino e reavalia o modo de amostragem.
+     */
+    @Override
+    public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+        destino.aoReceberLocalizacao(provedor, latitude, longitude, precisao, velocidade, timestamp);
+        avaliar(latitude, longitude, velocidade, timestamp);
+    }
+
+    /**
+     * Reavalia o modo de amostragem com uma nova localização.
+     *
+     * @param latitude   a latitude da localização.
+     * @param longitude  a longitude da localização.
+     * @param velocidade a velocidade em m/s, ou NaN para calculá-la pelo deslocamento.
+     * @param timestamp  o timestamp da localização.
+     * @return o modo de amostragem escolhido.
+     */
+    public ModoAmostragem avaliar(double latitude, double longitude, float velocidade, long timestamp) {
+        if (iniciado && timestamp <= ultimoTimestamp) {
+            return modo;
+        }
+        localizacoesRecebidas++;
+        if (modo != null) {
+            localizacoesPorModo[modo.ordinal()]++;
+        }
+
+        double velocidadeAtual = velocidade;
+        if (!iniciado) {
+            iniciado = true;
+            primeiroTimestamp = timestamp;
+            fimAlta = timestamp + TEMPO_ALTA;
+        } else {
+            double distancia = calculadora.calcular(ultimaLatitude, ultimaLongitude, latitude, longitude);
+            if (Double.isNaN(velocidadeAtual)) {
+                velocidadeAtual = distancia * 1000000.0 / (timestamp - ultimoTimestamp);
+            }
+            if (distancia >= DESLOCAMENTO_MINIMO_RUMO) {
+                double novoRumo = calcularRumo(ultimaLatitude, ultimaLongitude, latitude, longitude);
+                if (!Double.isNaN(rumo) && diferencaAngular(rumo, novoRumo) > MUDANCA_RUMO_ALTA) {
+                    fimAlta = timestamp + TEMPO_ALTA;
+                }
+                rumo = novoRumo;
+            }
+        }
+        ultimaLatitude = latitude;
+        ultimaLongitude = longitude;
+        ultimoTimestamp = timestamp;
+
+        if (!(velocidadeAtual >= VELOCIDADE_OCIOSO)) {
+            if (inicioLento < 0) {
+                inicioLento = timestamp;
+            }
+        } else {
+            if (modo == ModoAmostragem.OCIOSO) {
+                // O veículo voltou a andar
+                fimAlta = timestamp + TEMPO_ALTA;
+            }
+            inicioLento = -1;
+        }
+
+        ModoAmostragem novo;
+        if (timestamp < fimAlta || pertoDoAlvo(latitude, longitude)) {
+            novo = ModoAmostragem.ALTA;
+        } else if (inicioLento >= 0 && timestamp - inicioLento >= TEMPO_PARA_OCIOSO) {
+            novo = ModoAmostragem.OCIOSO;
+        } else {
+            novo = ModoAmostragem.CRUZEIRO;
+        }
+        aplicar(novo);
+        return novo;
+    }
+
+    /**
+     * Obtém o modo de amostragem atual.
+     *
+     * @return o modo atual, ou null se nenhuma localização foi recebida.
+     */
+    public ModoAmostragem getModo() {
+        return modo;
+    }
+
+    /**
+     * Obtém o número de localizações recebidas.
+     *
+     * @return o número de localizações.
+     */
+    public long getLocalizacoesRecebidas() {
+        return localizacoesRecebidas;
+    }
+
+    /**
+     * Obtém o número de localizações recebidas enquanto um modo estava ativo.
+     *
+     * @param modo o modo de amostragem.
+     * @return o número de localizações recebidas no modo.
+     */
+    public long getLocalizacoes(ModoAmostragem modo) {
+        return localizacoesPorModo[modo.ordinal()];
+    }
+
+    /**
+     * Obtém o número de trocas de modo.
+     *
+     * @return o número de trocas.
+     */
+    public long getTrocasModo() {
+        return trocasModo;
+    }
+
+    /**
+     * Obtém o número de localizações a menos do que em amostragem alta durante todo o percurso.
+     *
+     * @return o número de localizações economizadas.
+     */
+    public long getLocalizacoesEconomizadas() {
+        if (localizacoesRecebidas == 0) {
+            return 0;
+        }
+        long referencia = (ultimoTimestamp - primeiroTimestamp) / ModoAmostragem.ALTA.getTempoMinimo() + 1;
+        return Math.max(0, referencia - localizacoesRecebidas);
+    }
+
+    /**
+     * Obtém o número de vezes a menos que o aparelho foi acordado, descontando das localizações
+     * economizadas as reinscrições feitas nas trocas de modo.
+     *
+     * @return o número de despertares economizados.
+     */
+    public long getDespertaresEconomizados() {
+        return getLocalizacoesEconomizadas() - reinscricoes;
+    }
+
+    /**
+     * Passa ao modo escolhido, refazendo as inscrições do motor se ele mudou.
+     */
+    private void aplicar(ModoAmostragem novo) {
+        if (novo == modo) {
+            return;
+        }
+        if (modo != null) {
+            trocasModo++;
+        }
+        modo = novo;
+        if (motor.reconfigurar(novo.getTempoMinimo(), novo.getDistanciaMinima())) {
+            reinscricoes += motor.getNumeroInscricoes();
+        }
+    }
+
+    private boolean pertoDoAlvo(double latitude, double longitude) {
+        return !Double.isNaN(latitudeAlvo)
+                && calculadora.calcular(latitude, longitude, latitudeAlvo, longitudeAlvo) <= DISTANCIA_ALTA;
+    }
+
+    /**
+     * Calcula o rumo de um trecho curto, em graus a partir do norte.
+     */
+    private static double calcularRumo(double lat1, double lon1, double lat2, double lon2) {
+        double dLon = lon2 - lon1;
+        if (dLon > 180) {
+            dLon -= 360;
+        } else if (dLon < -180) {
+            dLon += 360;
+        }
+        double leste = dLon * Math.cos(Math.toRadians((lat1 + lat2) * 0.5));
+        return Math.toDegrees(Math.atan2(leste, lat2 - lat1));
+    }
+
+    private static double diferencaAngular(double rumo1, double rumo2) {
+        double diferenca = Math.abs(rumo1 - rumo2) % 360;
+        return diferenca > 180 ? 360 - diferenca : diferenca;
+    }
+}
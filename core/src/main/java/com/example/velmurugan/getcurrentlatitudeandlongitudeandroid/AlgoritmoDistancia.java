@@ -0,0 +1,46 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Algoritmos de cálculo da distância entre localizações, para quem precisa criar uma calculadora
+ * por percurso ou por thread. Em todos eles a distância de um segmento depende apenas do segmento,
+ * então calculadoras diferentes do mesmo algoritmo dão exatamente os mesmos valores.
+ */
+public enum AlgoritmoDistancia {
+    /**
+     * Aproximação equiretangular, usada pelo Veiculo sem rota. A calculadora guarda o cosseno da
+     * última faixa de latitudes e não pode ser usada por várias threads ao mesmo tempo.
+     */
+    EQUIRETANGULAR {
+        @Override
+        public CalculadoraDistancia criar() {
+            return new DistanciaEquiretangular();
+        }
+    },
+
+    /**
+     * Fórmula de haversine, usada pelo Veiculo com rota.
+     */
+    HAVERSINE {
+        @Override
+        public CalculadoraDistancia criar() {
+            return new DistanciaHaversine();
+        }
+    },
+
+    /**
+     * Fórmula inversa de Vincenty sobre o elipsoide WGS-84.
+     */
+    VINCENTY {
+        @Override
+        public CalculadoraDistancia criar() {
+            return new DistanciaVincenty();
+        }
+    };
+
+    /**
+     * Cria uma calculadora do algoritmo.
+     *
+     * @return a nova calculadora.
+     */
+    public abstract CalculadoraDistancia criar();
+}
@@ -0,0 +1,55 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Classe que avalia o percurso quando o veículo entra na cerca de destino.
+ * <p>
+ * A avaliação ocorre uma única vez, na primeira entrada, com o tempo que faltava para o prazo
+ * naquele momento; entradas seguintes, depois de o veículo sair e voltar, são ignoradas. O
+ * resultado é entregue a aoConcluirPercurso, na thread que entregou a localização ao monitor.
+ */
+public abstract class AvaliadorChegada implements ReceptorEventoCerca {
+    private final Cerca destino;
+    private final Veiculo veiculo;
+    private ResultadoPercurso resultado;
+
+    /**
+     * Construtor da classe AvaliadorChegada.
+     *
+     * @param destino a cerca de destino do percurso.
+     * @param veiculo o veículo cujo prazo é avaliado.
+     */
+    protected AvaliadorChegada(Cerca destino, Veiculo veiculo) {
+        this.destino = destino;
+        this.veiculo = veiculo;
+    }
+
+    /**
+     * Avalia o percurso na primeira entrada na cerca de destino.
+     */
+    @Override
+    public void aoReceberEvento(Cerca cerca, EventoCerca evento, long timestamp) {
+        if (cerca != destino || evento != EventoCerca.ENTRADA || resultado != null) {
+            return;
+        }
+        long tempoParaDestinoFinal = veiculo.getTempoParaDestinoFinal();
+        resultado = ResultadoPercurso.avaliar(tempoParaDestinoFinal);
+        aoConcluirPercurso(resultado, tempoParaDestinoFinal);
+    }
+
+    /**
+     * Obtém o resultado do percurso.
+     *
+     * @return o resultado, ou null se o destino ainda não foi alcançado.
+     */
+    public ResultadoPercurso getResultado() {
+        return resultado;
+    }
+
+    /**
+     * Chamado uma única vez, quando o veículo alcança o destino.
+     *
+     * @param resultado             o resultado do percurso.
+     * @param tempoParaDestinoFinal o tempo, em segundos, que faltava para o prazo na chegada.
+     */
+    protected abstract void aoConcluirPercurso(ResultadoPercurso resultado, long tempoParaDestinoFinal);
+}
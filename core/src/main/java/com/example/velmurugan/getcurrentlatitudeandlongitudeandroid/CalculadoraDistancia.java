@@ -0,0 +1,22 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Interface para os algoritmos de cálculo da distância entre duas coordenadas geográficas.
+ * <p>
+ * As implementações disponíveis são DistanciaHaversine (esfera, resultado de referência),
+ * DistanciaEquiretangular (rápida, para localizações próximas) e DistanciaVincenty (elipsoide
+ * WGS-84, para maior precisão).
+ */
+public interface CalculadoraDistancia {
+
+    /**
+     * Calcula a distância entre duas coordenadas geográficas.
+     *
+     * @param lat1 a latitude da primeira coordenada.
+     * @param lon1 a longitude da primeira coordenada.
+     * @param lat2 a latitude da segunda coordenada.
+     * @param lon2 a longitude da segunda coordenada.
+     * @return a distância entre as coordenadas em quilômetros.
+     */
+    double calcular(double lat1, double lon1, double lat2, double lon2);
+}
@@ -0,0 +1,27 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Interface para os componentes que calculam os dados do percurso a partir das localizações.
+ */
+public interface CalculadoraPercurso {
+
+    /**
+     * Atualiza os dados do percurso com uma nova localização.
+     *
+     * @param latitude  a nova latitude.
+     * @param longitude a nova longitude.
+     * @param timestamp o timestamp da nova localização.
+     */
+    void atualizarDados(double latitude, double longitude, long timestamp);
+
+    /**
+     * Cria um instantâneo imutável com os dados atuais do percurso.
+     *
+     * @param latitude             a latitude da última localização processada.
+     * @param longitude            a longitude da última localização processada.
+     * @param timestamp            o timestamp da última localização processada.
+     * @param instanteCriacaoNanos o instante de criação, em System.nanoTime().
+     * @return o instantâneo do percurso.
+     */
+    InstantaneoPercurso criarInstantaneo(double latitude, double longitude, long timestamp, long instanteCriacaoNanos);
+}
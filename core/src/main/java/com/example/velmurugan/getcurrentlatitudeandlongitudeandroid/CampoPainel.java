@@ -0,0 +1,138 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Classe que mantém o texto exibido de um valor numérico do painel.
+ * <p>
+ * O valor é arredondado para o número de casas decimais do campo e escrito em um vetor de
+ * caracteres reaproveitado, sem criar Strings. Se o valor arredondado for igual ao exibido, nada é
+ * escrito e a interface não precisa ser atualizada. Não é segura para uso por várias threads ao
+ * mesmo tempo.
+ */
+public class CampoPainel {
+    private static final char[] NAO_NUMERO = "NaN".toCharArray();
+    private static final char[] INFINITO = "Infinity".toCharArray();
+
+    // Maior valor absoluto representado com todas as casas; acima dele o valor é limitado
+    private static final double LIMITE_ESCALADO = 1e18;
+
+    private static final int SEM_VALOR = 0;
+    private static final int NUMERO = 1;
+    private static final int ESPECIAL = 2;
+
+    private final int casasDecimais;
+    private final double escala;
+    private final char[] texto = new char[32];
+    private int tamanho;
+
+    private int estado = SEM_VALOR;
+    private long valorExibido;
+
+    /**
+     * Construtor da classe CampoPainel.
+     *
+     * @param casasDecimais o número de casas decimais exibidas, de 0 a 9.
+     */
+    public CampoPainel(int casasDecimais) {
+        if (casasDecimais < 0 || casasDecimais > 9) {
+            throw new IllegalArgumentException("Número de casas decimais inválido: " + casasDecimais);
+        }
+        this.casasDecimais = casasDecimais;
+        this.escala = Math.pow(10, casasDecimais);
+    }
+
+    /**
+     * Atualiza o texto do campo com um novo valor.
+     *
+     * @param valor o novo valor.
+     * @return true se o texto mudou e precisa ser exibido, false caso contrário.
+     */
+    public boolean atualizar(double valor) {
+        if (Double.isNaN(valor) || Double.isInfinite(valor)) {
+            long codigo = Double.isNaN(valor) ? 0 : valor > 0 ? 1 : -1;
+            if (estado == ESPECIAL && valorExibido == codigo) {
+                return false;
+            }
+            estado = ESPECIAL;
+            valorExibido = codigo;
+            tamanho = 0;
+            if (codigo < 0) {
+                texto[tamanho++] = '-';
+            }
+            char[] especial = codigo == 0 ? NAO_NUMERO : INFINITO;
+            System.arraycopy(especial, 0, texto, tamanho, especial.length);
+            tamanho += especial.length;
+            return true;
+        }
+
+        double escalado = Math.max(-LIMITE_ESCALADO, Math.min(LIMITE_ESCALADO, valor * escala));
+        long quantizado = Math.round(escalado);
+        if (estado == NUMERO && quantizado == valorExibido) {
+            return false;
+        }
+        estado = NUMERO;
+        valorExibido = quantizado;
+        escrever(quantizado);
+        return true;
+    }
+
+    /**
+     * Obtém o vetor com o texto do campo. O conteúdo muda na próxima atualização com texto
+     * diferente.
+     *
+     * @return o vetor de caracteres, com o texto a partir da posição 0.
+     */
+    public char[] getTexto() {
+        return texto;
+    }
+
+    /**
+     * Obtém o número de caracteres do texto.
+     *
+     * @return o tamanho do texto.
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Obtém o texto exibido como String, para uso fora do caminho de exibição.
+     */
+    @Override
+    public String toString() {
+        return new String(texto, 0, tamanho);
+    }
+
+    /**
+     * Escreve um valor já multiplicado pela escala, do último dígito para o primeiro.
+     */
+    private void escrever(long quantizado) {
+        boolean negativo = quantizado < 0;
+        long absoluto = negativo ? -quantizado : quantizado;
+
+        int digitosInteiros = 1;
+        long parteInteira = absoluto;
+        for (int i = 0; i < casasDecimais; i++) {
+            parteInteira /= 10;
+        }
+        for (long resto = parteInteira / 10; resto > 0; resto /= 10) {
+            digitosInteiros++;
+        }
+        tamanho = (negativo ? 1 : 0) + digitosInteiros + (casasDecimais > 0 ? casasDecimais + 1 : 0);
+
+        int posicao = tamanho;
+        for (int i = 0; i < casasDecimais; i++) {
+            texto[--posicao] = (char) ('0' + absoluto % 10);
+            absoluto /= 10;
+        }
+        if (casasDecimais > 0) {
+            texto[--posicao] = '.';
+        }
+        do {
+            texto[--posicao] = (char) ('0' + absoluto % 10);
+            absoluto /= 10;
+        } while (absoluto > 0);
+        if (negativo) {
+            texto[--posicao] = '-';
+        }
+    }
+}
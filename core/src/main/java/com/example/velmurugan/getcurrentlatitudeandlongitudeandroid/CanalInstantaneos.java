@@ -0,0 +1,128 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Classe que entrega os instantâneos do percurso, publicados por uma única thread, a qualquer
+ * número de leitores, sem travas.
+ * <p>
+ * Cada publicação recebe o próximo número de sequência e substitui a anterior em uma única
+ * referência volatile. Como a publicação e o instantâneo são imutáveis, a leitura é uma única
+ * leitura da referência, sem espera e sem repetição, e nunca vê um instantâneo pela metade nem
+ * a sequência de um instantâneo junto com outro. Cada leitor guarda a última sequência que
+ * viu, então sabe se há um instantâneo novo e quantos deixou de ver; os leitores lentos perdem
+ * instantâneos intermediários, mas nunca atrasam quem publica.
+ */
+public class CanalInstantaneos implements PublicadorInstantaneo {
+    private final Runnable aviso;
+    private volatile Publicacao ultima = new Publicacao(0, null);
+
+    // Escrita apenas pela thread que publica
+    private long sequencia;
+
+    /**
+     * Construtor da classe CanalInstantaneos.
+     *
+     * @param aviso executado na thread que publica depois de cada publicação, por exemplo para
+     *              agendar a exibição, ou null para nenhum; não deve bloquear.
+     */
+    public CanalInstantaneos(Runnable aviso) {
+        this.aviso = aviso;
+    }
+
+    /**
+     * Publica um novo instantâneo. Deve ser chamado sempre pela mesma thread.
+     *
+     * @param instantaneo o instantâneo a ser publicado.
+     */
+    @Override
+    public void publicar(InstantaneoPercurso instantaneo) {
+        ultima = new Publicacao(++sequencia, instantaneo);
+        if (aviso != null) {
+            aviso.run();
+        }
+    }
+
+    /**
+     * Obtém o último instantâneo publicado. Pode ser chamado por qualquer thread.
+     *
+     * @return o último instantâneo, ou null antes da primeira publicação.
+     */
+    public InstantaneoPercurso getUltimo() {
+        return ultima.instantaneo;
+    }
+
+    /**
+     * Obtém o número de instantâneos publicados. Pode ser chamado por qualquer thread.
+     *
+     * @return a sequência do último instantâneo publicado.
+     */
+    public long getSequencia() {
+        return ultima.sequencia;
+    }
+
+    /**
+     * Cria um leitor que começa antes da primeira publicação.
+     *
+     * @return o novo leitor.
+     */
+    public Leitor criarLeitor() {
+        return new Leitor();
+    }
+
+    /**
+     * Posição de um leitor no canal. Cada leitor deve ser usado por uma única thread; threads
+     * diferentes usam leitores diferentes.
+     */
+    public final class Leitor {
+        private long sequenciaLida;
+        private long perdidos;
+
+        private Leitor() {
+        }
+
+        /**
+         * Lê o último instantâneo publicado, se for posterior ao último lido.
+         *
+         * @return o instantâneo novo, ou null se nada foi publicado desde a última leitura.
+         */
+        public InstantaneoPercurso ler() {
+            Publicacao publicacao = ultima;
+            if (publicacao.sequencia == sequenciaLida) {
+                return null;
+            }
+            perdidos += publicacao.sequencia - sequenciaLida - 1;
+            sequenciaLida = publicacao.sequencia;
+            return publicacao.instantaneo;
+        }
+
+        /**
+         * Obtém a sequência do último instantâneo lido.
+         *
+         * @return a sequência, ou 0 antes da primeira leitura.
+         */
+        public long getSequenciaLida() {
+            return sequenciaLida;
+        }
+
+        /**
+         * Obtém o número de instantâneos publicados que este leitor não chegou a ler.
+         *
+         * @return o número de instantâneos perdidos.
+         */
+        public long getPerdidos() {
+            return perdidos;
+        }
+    }
+
+    /**
+     * Um instantâneo com o seu número de sequência.
+     */
+    private static final class Publicacao {
+        final long sequencia;
+        final InstantaneoPercurso instantaneo;
+
+        Publicacao(long sequencia, InstantaneoPercurso instantaneo) {
+            this.sequencia = sequencia;
+            this.instantaneo = instantaneo;
+        }
+    }
+}
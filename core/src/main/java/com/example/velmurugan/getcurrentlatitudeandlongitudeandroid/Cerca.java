@@ -0,0 +1,118 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Classe base das cercas geográficas monitoradas pelo MonitorCercas.
+ * <p>
+ * Cada cerca informa a caixa envolvente usada no índice espacial do monitor e verifica se uma
+ * coordenada está dentro dela, opcionalmente com uma margem em volta, que o monitor usa como
+ * histerese na saída. As cercas são imutáveis e podem ser compartilhadas por várias threads.
+ */
+public abstract class Cerca implements Destino {
+    // Metros correspondentes a um grau de latitude
+    static final double METROS_POR_GRAU = Math.toRadians(1) * DistanciaHaversine.RAIO_TERRA * 1000.0;
+
+    private final String id;
+    private final double latitudeMinima;
+    private final double latitudeMaxima;
+    private final double longitudeMinima;
+    private final double longitudeMaxima;
+
+    /**
+     * Construtor da classe Cerca.
+     *
+     * @param id              o identificador da cerca.
+     * @param latitudeMinima  a menor latitude da cerca.
+     * @param latitudeMaxima  a maior latitude da cerca.
+     * @param longitudeMinima a menor longitude da cerca.
+     * @param longitudeMaxima a maior longitude da cerca.
+     */
+    protected Cerca(String id, double latitudeMinima, double latitudeMaxima, double longitudeMinima, double longitudeMaxima) {
+        this.id = id;
+        this.latitudeMinima = latitudeMinima;
+        this.latitudeMaxima = latitudeMaxima;
+        this.longitudeMinima = longitudeMinima;
+        this.longitudeMaxima = longitudeMaxima;
+    }
+
+    /**
+     * Verifica se uma coordenada está dentro da cerca ou a até uma margem da sua borda.
+     *
+     * @param latitude  a latitude da coordenada.
+     * @param longitude a longitude da coordenada.
+     * @param margem    a distância, em metros, que a cerca é estendida para fora.
+     * @return true se a coordenada está na cerca estendida, false caso contrário.
+     */
+    public abstract boolean contem(double latitude, double longitude, double margem);
+
+    /**
+     * Verifica se uma coordenada está dentro da cerca.
+     *
+     * @param latitude  a latitude da coordenada.
+     * @param longitude a longitude da coordenada.
+     * @return true se a coordenada está na cerca, false caso contrário.
+     */
+    @Override
+    public boolean alcancado(double latitude, double longitude) {
+        return contem(latitude, longitude, 0);
+    }
+
+    /**
+     * Obtém o identificador da cerca.
+     *
+     * @return o identificador.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Obtém a menor latitude da cerca.
+     *
+     * @return a menor latitude da cerca.
+     */
+    public double getLatitudeMinima() {
+        return latitudeMinima;
+    }
+
+    /**
+     * Obtém a maior latitude da cerca.
+     *
+     * @return a maior latitude da cerca.
+     */
+    public double getLatitudeMaxima() {
+        return latitudeMaxima;
+    }
+
+    /**
+     * Obtém a menor longitude da cerca.
+     *
+     * @return a menor longitude da cerca.
+     */
+    public double getLongitudeMinima() {
+        return longitudeMinima;
+    }
+
+    /**
+     * Obtém a maior longitude da cerca.
+     *
+     * @return a maior longitude da cerca.
+     */
+    public double getLongitudeMaxima() {
+        return longitudeMaxima;
+    }
+
+    /**
+     * Verifica se uma coordenada está na caixa envolvente estendida por uma margem.
+     */
+    boolean naCaixa(double latitude, double longitude, double margem) {
+        double margemLatitude = margem / METROS_POR_GRAU;
+        double margemLongitude = margemLatitude / Math.cos(Math.toRadians(latitude));
+        return latitude >= latitudeMinima - margemLatitude && latitude <= latitudeMaxima + margemLatitude
+                && longitude >= longitudeMinima - margemLongitude && longitude <= longitudeMaxima + margemLongitude;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + id + "]";
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Cerca formada por um círculo em torno de um ponto.
+ */
+public class CercaCircular extends Cerca {
+    private final double latitude;
+    private final double longitude;
+    private final double raio;
+    private final double metrosPorGrauLongitude;
+
+    /**
+     * Construtor da classe CercaCircular.
+     *
+     * @param id        o identificador da cerca.
+     * @param latitude  a latitude do centro.
+     * @param longitude a longitude do centro.
+     * @param raio      o raio em metros.
+     */
+    public CercaCircular(String id, double latitude, double longitude, double raio) {
+        super(id, latitude - raio / METROS_POR_GRAU, latitude + raio / METROS_POR_GRAU,
+                longitude - raio / (METROS_POR_GRAU * Math.cos(Math.toRadians(latitude))),
+                longitude + raio / (METROS_POR_GRAU * Math.cos(Math.toRadians(latitude))));
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.raio = raio;
+        this.metrosPorGrauLongitude = METROS_POR_GRAU * Math.cos(Math.toRadians(latitude));
+    }
+
+    /**
+     * Verifica se uma coordenada está a até o raio mais a margem do centro, pela aproximação
+     * equiretangular em torno do centro.
+     */
+    @Override
+    public boolean contem(double latitude, double longitude, double margem) {
+        double norte = (latitude - this.latitude) * METROS_POR_GRAU;
+        double leste = (longitude - this.longitude) * metrosPorGrauLongitude;
+        double limite = raio + margem;
+        return norte * norte + leste * leste <= limite * limite;
+    }
+
+    /**
+     * Obtém a latitude do centro da cerca.
+     *
+     * @return a latitude do centro.
+     */
+    public double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Obtém a longitude do centro da cerca.
+     *
+     * @return a longitude do centro.
+     */
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Obtém o raio da cerca.
+     *
+     * @return o raio em metros.
+     */
+    public double getRaio() {
+        return raio;
+    }
+}
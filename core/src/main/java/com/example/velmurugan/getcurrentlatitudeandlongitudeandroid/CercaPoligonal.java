@@ -0,0 +1,108 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Cerca formada por um polígono simples, com os vértices em qualquer sentido.
+ */
+public class CercaPoligonal extends Cerca {
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    /**
+     * Construtor da classe CercaPoligonal.
+     *
+     * @param id         o identificador da cerca.
+     * @param latitudes  as latitudes dos vértices.
+     * @param longitudes as longitudes dos vértices.
+     */
+    public CercaPoligonal(String id, double[] latitudes, double[] longitudes) {
+        super(id, minimo(latitudes), maximo(latitudes), minimo(longitudes), maximo(longitudes));
+        if (latitudes.length < 3 || longitudes.length != latitudes.length) {
+            throw new IllegalArgumentException("O polígono precisa de pelo menos três vértices com latitude e longitude");
+        }
+        this.latitudes = latitudes.clone();
+        this.longitudes = longitudes.clone();
+    }
+
+    /**
+     * Cria uma cerca retangular.
+     *
+     * @param id              o identificador da cerca.
+     * @param latitudeMinima  a menor latitude do retângulo.
+     * @param latitudeMaxima  a maior latitude do retângulo.
+     * @param longitudeMinima a menor longitude do retângulo.
+     * @param longitudeMaxima a maior longitude do retângulo.
+     * @return a cerca retangular.
+     */
+    public static CercaPoligonal retangulo(String id, double latitudeMinima, double latitudeMaxima, double longitudeMinima, double longitudeMaxima) {
+        return new CercaPoligonal(id,
+                new double[]{latitudeMinima, latitudeMinima, latitudeMaxima, latitudeMaxima},
+                new double[]{longitudeMinima, longitudeMaxima, longitudeMaxima, longitudeMinima});
+    }
+
+    /**
+     * Verifica se uma coordenada está dentro do polígono, pelo número de cruzamentos de um raio
+     * com as arestas, ou a até a margem de alguma aresta.
+     */
+    @Override
+    public boolean contem(double latitude, double longitude, double margem) {
+        if (!naCaixa(latitude, longitude, margem)) {
+            return false;
+        }
+
+        boolean dentro = false;
+        int n = latitudes.length;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            if ((latitudes[i] > latitude) != (latitudes[j] > latitude)
+                    && longitude < longitudes[i] + (latitude - latitudes[i]) * (longitudes[j] - longitudes[i]) / (latitudes[j] - latitudes[i])) {
+                dentro = !dentro;
+            }
+        }
+        if (dentro || margem <= 0) {
+            return dentro;
+        }
+
+        // Fora do polígono: verifica a distância até as arestas em um plano em torno da coordenada
+        double metrosPorGrauLongitude = METROS_POR_GRAU * Math.cos(Math.toRadians(latitude));
+        double margem2 = margem * margem;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double ax = (longitudes[j] - longitude) * metrosPorGrauLongitude;
+            double ay = (latitudes[j] - latitude) * METROS_POR_GRAU;
+            double dx = (longitudes[i] - longitudes[j]) * metrosPorGrauLongitude;
+            double dy = (latitudes[i] - latitudes[j]) * METROS_POR_GRAU;
+            double comprimento2 = dx * dx + dy * dy;
+            double fracao = comprimento2 == 0 ? 0 : -(ax * dx + ay * dy) / comprimento2;
+            fracao = fracao < 0 ? 0 : fracao > 1 ? 1 : fracao;
+            double px = ax + fracao * dx;
+            double py = ay + fracao * dy;
+            if (px * px + py * py <= margem2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obtém o número de vértices do polígono.
+     *
+     * @return o número de vértices.
+     */
+    public int getNumeroVertices() {
+        return latitudes.length;
+    }
+
+    private static double minimo(double[] valores) {
+        double minimo = Double.MAX_VALUE;
+        for (double valor : valores) {
+            minimo = Math.min(minimo, valor);
+        }
+        return minimo;
+    }
+
+    private static double maximo(double[] valores) {
+        double maximo = -Double.MAX_VALUE;
+        for (double valor : valores) {
+            maximo = Math.max(maximo, valor);
+        }
+        return maximo;
+    }
+}
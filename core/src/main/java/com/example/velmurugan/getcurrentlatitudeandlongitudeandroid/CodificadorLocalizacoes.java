@@ -0,0 +1,192 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Classe que grava uma sequência de localizações no formato compactado, à medida que elas chegam.
+ * <p>
+ * As localizações são acumuladas em vetores primitivos até completar um bloco, que então é
+ * codificado e gravado de uma só vez. O índice dos blocos é gravado em close(). Pode ser registrada
+ * diretamente como receptor do MotorLocalizacao ou alimentada pela reprodução de um LeitorPercurso.
+ * Não é segura para uso por várias threads ao mesmo tempo.
+ */
+public class CodificadorLocalizacoes implements ReceptorLocalizacao, Closeable {
+    private final OutputStream saida;
+    private final int localizacoesPorBloco;
+
+    // Localizações do bloco em andamento
+    private final long[] timestamps;
+    private final long[] latitudes;
+    private final long[] longitudes;
+    private int tamanhoBloco;
+
+    // Vetor reaproveitado para codificar cada bloco
+    private final byte[] bloco;
+
+    // Índice dos blocos já gravados
+    private long[] posicoesBlocos;
+    private long[] primeirosTimestamps;
+    private int[] tamanhosBlocos;
+    private int numeroBlocos;
+
+    private long bytesGravados;
+    private long localizacoesGravadas;
+    private boolean fechado;
+
+    /**
+     * Construtor da classe CodificadorLocalizacoes.
+     *
+     * @param saida                o destino dos bytes codificados.
+     * @param localizacoesPorBloco o número de localizações em cada bloco.
+     * @throws IOException se o cabeçalho não puder ser gravado.
+     */
+    public CodificadorLocalizacoes(OutputStream saida, int localizacoesPorBloco) throws IOException {
+        if (localizacoesPorBloco <= 0) {
+            throw new IllegalArgumentException("O bloco deve ter ao menos uma localização: " + localizacoesPorBloco);
+        }
+        this.saida = saida;
+        this.localizacoesPorBloco = localizacoesPorBloco;
+        this.timestamps = new long[localizacoesPorBloco];
+        this.latitudes = new long[localizacoesPorBloco];
+        this.longitudes = new long[localizacoesPorBloco];
+        this.bloco = new byte[(3 * localizacoesPorBloco + 1) * FormatoCompactado.TAMANHO_MAXIMO_VARINT];
+        this.posicoesBlocos = new long[16];
+        this.primeirosTimestamps = new long[16];
+        this.tamanhosBlocos = new int[16];
+
+        ByteBuffer cabecalho = ByteBuffer.allocate(FormatoCompactado.TAMANHO_CABECALHO);
+        cabecalho.putInt(FormatoCompactado.ASSINATURA);
+        cabecalho.put(FormatoCompactado.VERSAO);
+        gravar(cabecalho.array(), FormatoCompactado.TAMANHO_CABECALHO);
+    }
+
+    /**
+     * Acrescenta uma localização à sequência.
+     *
+     * @param latitude  a latitude da localização.
+     * @param longitude a longitude da localização.
+     * @param timestamp o timestamp da localização.
+     * @throws IOException se o bloco completado não puder ser gravado.
+     */
+    public void adicionar(double latitude, double longitude, long timestamp) throws IOException {
+        if (fechado) {
+            throw new IOException("O codificador já foi fechado");
+        }
+        timestamps[tamanhoBloco] = timestamp;
+        latitudes[tamanhoBloco] = FormatoCompactado.paraMicrograus(latitude);
+        longitudes[tamanhoBloco] = FormatoCompactado.paraMicrograus(longitude);
+        tamanhoBloco++;
+        if (tamanhoBloco == localizacoesPorBloco) {
+            gravarBloco();
+        }
+    }
+
+    /**
+     * Acrescenta a localização recebida à sequência.
+     *
+     * @throws IllegalStateException se a gravação falhar.
+     */
+    @Override
+    public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+        try {
+            adicionar(latitude, longitude, timestamp);
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao gravar localizações compactadas", e);
+        }
+    }
+
+    /**
+     * Grava o bloco incompleto, o índice e o rodapé. Não fecha o fluxo de saída.
+     *
+     * @throws IOException se a gravação falhar.
+     */
+    @Override
+    public void close() throws IOException {
+        if (fechado) {
+            return;
+        }
+        if (tamanhoBloco > 0) {
+            gravarBloco();
+        }
+        fechado = true;
+
+        long posicaoIndice = bytesGravados;
+        ByteBuffer indice = ByteBuffer.allocate(numeroBlocos * FormatoCompactado.TAMANHO_ENTRADA_INDICE + FormatoCompactado.TAMANHO_RODAPE);
+        for (int i = 0; i < numeroBlocos; i++) {
+            indice.putLong(posicoesBlocos[i]);
+            indice.putLong(primeirosTimestamps[i]);
+            indice.putInt(tamanhosBlocos[i]);
+        }
+        indice.putLong(posicaoIndice);
+        indice.putInt(numeroBlocos);
+        indice.putInt(FormatoCompactado.ASSINATURA);
+        gravar(indice.array(), indice.position());
+        saida.flush();
+    }
+
+    /**
+     * Obtém o número de bytes gravados até o momento.
+     *
+     * @return o número de bytes gravados.
+     */
+    public long getBytesGravados() {
+        return bytesGravados;
+    }
+
+    /**
+     * Obtém o número de localizações já gravadas em blocos completos.
+     *
+     * @return o número de localizações gravadas.
+     */
+    public long getLocalizacoesGravadas() {
+        return localizacoesGravadas;
+    }
+
+    /**
+     * Codifica o bloco em andamento, coluna por coluna, e o grava na saída.
+     */
+    private void gravarBloco() throws IOException {
+        int n = tamanhoBloco;
+        int posicao = 0;
+        posicao = FormatoCompactado.escreverVarint(bloco, posicao, n);
+        posicao = FormatoCompactado.escreverVarint(bloco, posicao, timestamps[0]);
+        posicao = FormatoCompactado.escreverVarint(bloco, posicao, latitudes[0]);
+        posicao = FormatoCompactado.escreverVarint(bloco, posicao, longitudes[0]);
+
+        long deltaAnterior = 0;
+        for (int i = 1; i < n; i++) {
+            long delta = timestamps[i] - timestamps[i - 1];
+            posicao = FormatoCompactado.escreverVarint(bloco, posicao, delta - deltaAnterior);
+            deltaAnterior = delta;
+        }
+        for (int i = 1; i < n; i++) {
+            posicao = FormatoCompactado.escreverVarint(bloco, posicao, latitudes[i] - latitudes[i - 1]);
+        }
+        for (int i = 1; i < n; i++) {
+            posicao = FormatoCompactado.escreverVarint(bloco, posicao, longitudes[i] - longitudes[i - 1]);
+        }
+
+        if (numeroBlocos == posicoesBlocos.length) {
+            posicoesBlocos = Arrays.copyOf(posicoesBlocos, numeroBlocos * 2);
+            primeirosTimestamps = Arrays.copyOf(primeirosTimestamps, numeroBlocos * 2);
+            tamanhosBlocos = Arrays.copyOf(tamanhosBlocos, numeroBlocos * 2);
+        }
+        posicoesBlocos[numeroBlocos] = bytesGravados;
+        primeirosTimestamps[numeroBlocos] = timestamps[0];
+        tamanhosBlocos[numeroBlocos] = n;
+        numeroBlocos++;
+
+        gravar(bloco, posicao);
+        localizacoesGravadas += n;
+        tamanhoBloco = 0;
+    }
+
+    private void gravar(byte[] bytes, int tamanho) throws IOException {
+        saida.write(bytes, 0, tamanho);
+        bytesGravados += tamanho;
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Classe que calcula a velocidade recomendada para chegar ao destino no prazo.
+ * <p>
+ * A recomendação parte da distância restante e do tempo restante até o prazo, medido pelos
+ * timestamps das localizações, e não pelo número de localizações recebidas. Com um perfil da rota,
+ * em que cada trecho tem a sua velocidade máxima, a recomendação é proporcional ao limite do trecho
+ * atual: o tempo mínimo do restante da rota, percorrida sempre no limite, é obtido em tempo
+ * constante por somas acumuladas de trás para a frente, e a razão entre ele e o tempo restante dá
+ * a fração do limite a ser usada. O valor é limitado entre a velocidade mínima e o limite do
+ * trecho e suavizado exponencialmente pelo intervalo entre os timestamps, de modo que localizações
+ * em rajada mudam pouco a recomendação e uma localização atrasada a atualiza proporcionalmente.
+ * Não é segura para uso por várias threads ao mesmo tempo.
+ */
+public class ConselheiroVelocidade {
+    // Menor tempo restante, em milissegundos, considerado no cálculo, para evitar a divisão por zero
+    static final long TEMPO_RESTANTE_MINIMO = 1000;
+
+    private final double velocidadeMinima;
+    private final double velocidadeMaxima;
+    private final long constanteSuavizacao;
+
+    // Perfil da rota: o limite de cada trecho e o tempo mínimo, em horas, do início de cada trecho
+    // até o fim da rota
+    private Rota rota;
+    private double[] limites;
+    private double[] temposMinimosRestantes;
+    private int trecho;
+
+    private boolean iniciado;
+    private long ultimoTimestamp;
+    private double velocidadeNecessaria;
+    private double velocidadeRecomendada;
+
+    /**
+     * Construtor da classe ConselheiroVelocidade.
+     *
+     * @param velocidadeMinima    a menor velocidade recomendada, em km/h.
+     * @param velocidadeMaxima    a maior velocidade recomendada sem perfil de rota, em km/h.
+     * @param constanteSuavizacao a constante de tempo, em milissegundos, da suavização.
+     */
+    public ConselheiroVelocidade(double velocidadeMinima, double velocidadeMaxima, long constanteSuavizacao) {
+        if (velocidadeMinima <= 0 || velocidadeMaxima < velocidadeMinima) {
+            throw new IllegalArgumentException("Velocidades inválidas: " + velocidadeMinima + " a " + velocidadeMaxima);
+        }
+        this.velocidadeMinima = velocidadeMinima;
+        this.velocidadeMaxima = velocidadeMaxima;
+        this.constanteSuavizacao = constanteSuavizacao;
+    }
+
+    /**
+     * Define o perfil de velocidades da rota.
+     *
+     * @param rota    a rota do percurso.
+     * @param limites a velocidade máxima de cada trecho, em km/h, com getNumeroPontos() - 1
+     *                valores.
+     */
+    public void setPerfil(Rota rota, double[] limites) {
+        int trechos = rota.getNumeroPontos() - 1;
+        if (limites.length != trechos) {
+            throw new IllegalArgumentException("O perfil precisa de um limite por trecho: " + limites.length + " para " + trechos);
+        }
+        double[] tempos = new double[trechos + 1];
+        for (int i = trechos - 1; i >= 0; i--) {
+            if (!(limites[i] >= velocidadeMinima)) {
+                throw new IllegalArgumentException("Limite do trecho " + i + " abaixo da velocidade mínima: " + limites[i]);
+            }
+            double comprimento = rota.getDistanciaAcumulada(i + 1) - rota.getDistanciaAcumulada(i);
+            tempos[i] = tempos[i + 1] + comprimento / limites[i];
+        }
+        this.rota = rota;
+        this.limites = limites.clone();
+        this.temposMinimosRestantes = tempos;
+        this.trecho = 0;
+    }
+
+    /**
+     * Calcula a velocidade recomendada com uma nova localização. Localizações com timestamp
+     * anterior ao da última recebida não alteram a recomendação.
+     *
+     * @param distanciaRestante a distância restante até o destino, em km, ao longo da rota se
+     *                          houver perfil.
+     * @param tempoRestante     o tempo restante até o prazo, em milissegundos.
+     * @param timestamp         o timestamp da localização.
+     * @return a velocidade recomendada suavizada, em km/h.
+     */
+    public double recomendar(double distanciaRestante, long tempoRestante, long timestamp) {
+        if (iniciado && timestamp < ultimoTimestamp) {
+            return velocidadeRecomendada;
+        }
+        double horasRestantes = Math.max(tempoRestante, TEMPO_RESTANTE_MINIMO) / 3600000.0;
+        distanciaRestante = Math.max(distanciaRestante, 0);
+
+        double limite;
+        if (rota == null) {
+            limite = velocidadeMaxima;
+            velocidadeNecessaria = distanciaRestante / horasRestantes;
+        } else {
+            double progresso = rota.getComprimento() - distanciaRestante;
+            localizarTrecho(progresso);
+            limite = limites[trecho];
+            // Tempo mínimo do restante da rota: o fim do trecho atual mais os trechos seguintes
+            double tempoMinimo = (rota.getDistanciaAcumulada(trecho + 1) - Math.max(progresso, rota.getDistanciaAcumulada(trecho))) / limite
+                    + temposMinimosRestantes[trecho + 1];
+            velocidadeNecessaria = limite * tempoMinimo / horasRestantes;
+        }
+        double alvo = Math.max(velocidadeMinima, Math.min(limite, velocidadeNecessaria));
+
+        if (!iniciado || constanteSuavizacao <= 0) {
+            velocidadeRecomendada = alvo;
+        } else {
+            double peso = 1 - Math.exp(-(double) (timestamp - ultimoTimestamp) / constanteSuavizacao);
+            velocidadeRecomendada += peso * (alvo - velocidadeRecomendada);
+        }
+        iniciado = true;
+        ultimoTimestamp = timestamp;
+        return velocidadeRecomendada;
+    }
+
+    /**
+     * Obtém a velocidade recomendada suavizada.
+     *
+     * @return a velocidade recomendada em km/h, ou 0 antes da primeira localização.
+     */
+    public double getVelocidadeRecomendada() {
+        return velocidadeRecomendada;
+    }
+
+    /**
+     * Obtém a velocidade necessária para cumprir o prazo no trecho atual, sem limites nem
+     * suavização.
+     *
+     * @return a velocidade necessária em km/h.
+     */
+    public double getVelocidadeNecessaria() {
+        return velocidadeNecessaria;
+    }
+
+    /**
+     * Obtém o trecho da rota usado na última recomendação.
+     *
+     * @return o índice do trecho, ou 0 sem perfil de rota.
+     */
+    public int getTrecho() {
+        return trecho;
+    }
+
+    /**
+     * Grava o estado da recomendação no buffer, no formato de EstadoPercurso. O perfil da rota
+     * faz parte da configuração e não é gravado.
+     *
+     * @param buffer o buffer de destino.
+     */
+    void salvarEstado(ByteBuffer buffer) {
+        buffer.putInt(trecho);
+        buffer.put((byte) (iniciado ? 1 : 0));
+        buffer.putLong(ultimoTimestamp);
+        buffer.putDouble(velocidadeNecessaria);
+        buffer.putDouble(velocidadeRecomendada);
+    }
+
+    /**
+     * Substitui o estado da recomendação pelo gravado com salvarEstado.
+     *
+     * @param buffer o buffer de origem.
+     */
+    void restaurarEstado(ByteBuffer buffer) {
+        int trechoSalvo = buffer.getInt();
+        trecho = rota != null && trechoSalvo < rota.getNumeroPontos() - 1 ? trechoSalvo : 0;
+        iniciado = buffer.get() != 0;
+        ultimoTimestamp = buffer.getLong();
+        velocidadeNecessaria = buffer.getDouble();
+        velocidadeRecomendada = buffer.getDouble();
+    }
+
+    /**
+     * Atualiza o trecho que contém o progresso. Como o progresso muda pouco entre localizações,
+     * quase sempre basta o trecho anterior ou o seguinte; a busca binária só é usada em saltos.
+     */
+    private void localizarTrecho(double progresso) {
+        if (progresso >= rota.getDistanciaAcumulada(trecho) && progresso < rota.getDistanciaAcumulada(trecho + 1)) {
+            return;
+        }
+        int seguinte = trecho + 1;
+        if (seguinte < rota.getNumeroPontos() - 1 && progresso >= rota.getDistanciaAcumulada(seguinte)
+                && progresso < rota.getDistanciaAcumulada(seguinte + 1)) {
+            trecho = seguinte;
+        } else {
+            trecho = rota.buscarTrecho(progresso);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Classe utilitária que calcula o consumo de combustível de percursos gravados.
+ * <p>
+ * Os trechos entre localizações consecutivas são convertidos em distância, velocidade e aceleração
+ * em uma passada sobre os vetores do percurso, e o consumo de todos eles é calculado por uma única
+ * chamada ao modelo, sem repetir o processamento localização por localização.
+ */
+public final class ConsumoPercurso {
+    private ConsumoPercurso() {
+    }
+
+    /**
+     * Calcula o consumo de combustível de um percurso gravado. Trechos com intervalo de tempo
+     * nulo ou negativo não consomem combustível.
+     *
+     * @param modelo      o modelo de consumo do veículo.
+     * @param calculadora o algoritmo usado para calcular a distância dos trechos.
+     * @param latitudes   as latitudes das localizações.
+     * @param longitudes  as longitudes das localizações.
+     * @param timestamps  os timestamps das localizações em milissegundos.
+     * @param tamanho     o número de localizações.
+     * @return o consumo total em litros.
+     */
+    public static double calcular(ModeloConsumo modelo, CalculadoraDistancia calculadora,
+                                  double[] latitudes, double[] longitudes, long[] timestamps, int tamanho) {
+        int trechos = Math.max(tamanho - 1, 0);
+        double[] velocidades = new double[trechos];
+        double[] aceleracoes = new double[trechos];
+        double[] distancias = new double[trechos];
+        preparar(calculadora, latitudes, longitudes, timestamps, tamanho, velocidades, aceleracoes, distancias);
+        return modelo.consumoLote(velocidades, aceleracoes, distancias, trechos);
+    }
+
+    /**
+     * Preenche a distância, a velocidade média e a aceleração de cada trecho de um percurso. A
+     * aceleração de um trecho é a variação da velocidade desde o trecho anterior, dividida pela
+     * média das suas durações. O trecho i termina na localização i + 1.
+     *
+     * @param calculadora o algoritmo usado para calcular a distância dos trechos.
+     * @param latitudes   as latitudes das localizações.
+     * @param longitudes  as longitudes das localizações.
+     * @param timestamps  os timestamps das localizações em milissegundos.
+     * @param tamanho     o número de localizações.
+     * @param velocidades recebe a velocidade de cada trecho, em km/h.
+     * @param aceleracoes recebe a aceleração de cada trecho, em m/s².
+     * @param distancias  recebe a distância de cada trecho, em km.
+     */
+    public static void preparar(CalculadoraDistancia calculadora, double[] latitudes, double[] longitudes, long[] timestamps,
+                                int tamanho, double[] velocidades, double[] aceleracoes, double[] distancias) {
+        double velocidadeAnterior = 0;
+        long intervaloAnterior = 0;
+        int anterior = 0;
+        for (int i = 1; i < tamanho; i++) {
+            // Como no Veiculo, uma localização fora de ordem é ignorada e o trecho seguinte parte da
+            // última localização aceita
+            long intervalo = timestamps[i] - timestamps[anterior];
+            if (intervalo <= 0) {
+                velocidades[i - 1] = 0;
+                aceleracoes[i - 1] = 0;
+                distancias[i - 1] = 0;
+                continue;
+            }
+            double distancia = calculadora.calcular(latitudes[anterior], longitudes[anterior], latitudes[i], longitudes[i]);
+            double velocidade = EstatisticasPercurso.calcularVelocidade(distancia, intervalo);
+            distancias[i - 1] = distancia;
+            velocidades[i - 1] = velocidade;
+            aceleracoes[i - 1] = intervaloAnterior == 0 ? 0 : calcularAceleracao(velocidadeAnterior, velocidade, intervaloAnterior, intervalo);
+            velocidadeAnterior = velocidade;
+            intervaloAnterior = intervalo;
+            anterior = i;
+        }
+    }
+
+    /**
+     * Calcula a aceleração, em m/s², entre dois trechos consecutivos.
+     *
+     * @param velocidadeAnterior a velocidade do trecho anterior, em km/h.
+     * @param velocidade         a velocidade do trecho, em km/h.
+     * @param intervaloAnterior  a duração do trecho anterior, em milissegundos.
+     * @param intervalo          a duração do trecho, em milissegundos.
+     * @return a aceleração em m/s².
+     */
+    static double calcularAceleracao(double velocidadeAnterior, double velocidade, long intervaloAnterior, long intervalo) {
+        return (velocidade - velocidadeAnterior) / 3.6 / ((intervaloAnterior + intervalo) / 2000.0);
+    }
+
+    /**
+     * Calcula o consumo de combustível de um trecho, como o Veiculo faz a cada localização, pela
+     * distância do trecho e pela velocidade e aceleração nele.
+     *
+     * @param modeloConsumo      o modelo de consumo do veículo.
+     * @param velocidadeAnterior a velocidade do trecho anterior, em km/h.
+     * @param intervaloAnterior  a duração do trecho anterior, em milissegundos, ou 0 se este é o
+     *                           primeiro trecho.
+     * @param velocidade         a velocidade do trecho, em km/h.
+     * @param intervalo          a duração do trecho, em milissegundos.
+     * @param distancia          a distância do trecho, em quilômetros.
+     * @return o consumo de combustível em litros.
+     */
+    static double calcularConsumoTrecho(ModeloConsumo modeloConsumo, double velocidadeAnterior, long intervaloAnterior,
+                                        double velocidade, long intervalo, double distancia) {
+        double aceleracao = intervaloAnterior == 0 ? 0 : calcularAceleracao(velocidadeAnterior, velocidade, intervaloAnterior, intervalo);
+        return modeloConsumo.consumoPorKm(velocidade, aceleracao) * distancia;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Modelo de consumo dado por uma tabela de consumo por velocidade, com velocidades igualmente
+ * espaçadas, mais um termo proporcional à aceleração positiva.
+ * <p>
+ * A posição de uma velocidade na tabela é obtida por uma divisão, sem busca, e o consumo é
+ * interpolado linearmente entre as duas entradas vizinhas; velocidades além da última entrada
+ * usam o último valor. O cálculo em lote é um único laço sem desvios sobre vetores primitivos, que
+ * o compilador JIT pode vetorizar. É imutável e pode ser compartilhado por várias threads.
+ */
+public class ConsumoTabelado implements ModeloConsumo {
+    private final double passoVelocidade;
+    private final double[] consumos;
+    private final double[] inclinacoes;
+    private final double posicaoMaxima;
+    private final double consumoPorAceleracao;
+
+    /**
+     * Construtor da classe ConsumoTabelado.
+     *
+     * @param passoVelocidade      o intervalo, em km/h, entre as velocidades da tabela, que começa
+     *                             em 0 km/h.
+     * @param consumos             o consumo, em litros por quilômetro, em cada velocidade da
+     *                             tabela.
+     * @param consumoPorAceleracao o consumo adicional, em litros por quilômetro, para cada m/s² de
+     *                             aceleração.
+     */
+    public ConsumoTabelado(double passoVelocidade, double[] consumos, double consumoPorAceleracao) {
+        if (!(passoVelocidade > 0) || consumos.length < 2 || consumoPorAceleracao < 0) {
+            throw new IllegalArgumentException("A tabela de consumo precisa de um passo positivo e pelo menos duas velocidades");
+        }
+        this.passoVelocidade = passoVelocidade;
+        this.consumos = consumos.clone();
+        this.inclinacoes = new double[consumos.length];
+        for (int i = 0; i < consumos.length - 1; i++) {
+            inclinacoes[i] = consumos[i + 1] - consumos[i];
+        }
+        // A última entrada é alcançada pela penúltima com fração 1
+        this.posicaoMaxima = consumos.length - 1;
+        this.consumoPorAceleracao = consumoPorAceleracao;
+    }
+
+    /**
+     * Interpola o consumo na tabela e soma o termo da aceleração.
+     */
+    @Override
+    public double consumoPorKm(double velocidade, double aceleracao) {
+        double posicao = Math.min(Math.max(velocidade / passoVelocidade, 0), posicaoMaxima);
+        int indice = Math.min((int) posicao, consumos.length - 2);
+        return consumos[indice] + (posicao - indice) * inclinacoes[indice] + consumoPorAceleracao * Math.max(aceleracao, 0);
+    }
+
+    /**
+     * Calcula o consumo de todos os trechos no mesmo laço, com os campos copiados para variáveis
+     * locais.
+     */
+    @Override
+    public double consumoLote(double[] velocidades, double[] aceleracoes, double[] distancias, int tamanho) {
+        double[] consumos = this.consumos;
+        double[] inclinacoes = this.inclinacoes;
+        double inversoPasso = 1 / passoVelocidade;
+        double posicaoMaxima = this.posicaoMaxima;
+        int ultimoIndice = consumos.length - 2;
+        double consumoPorAceleracao = this.consumoPorAceleracao;
+        double total = 0;
+        for (int i = 0; i < tamanho; i++) {
+            double posicao = Math.min(Math.max(velocidades[i] * inversoPasso, 0), posicaoMaxima);
+            int indice = Math.min((int) posicao, ultimoIndice);
+            double porKm = consumos[indice] + (posicao - indice) * inclinacoes[indice]
+                    + consumoPorAceleracao * Math.max(aceleracoes[i], 0);
+            total += porKm * distancias[i];
+        }
+        return total;
+    }
+}
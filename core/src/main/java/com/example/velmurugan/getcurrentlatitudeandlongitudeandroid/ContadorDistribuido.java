@@ -0,0 +1,69 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contador que pode ser incrementado por várias threads ao mesmo tempo com pouca disputa.
+ * <p>
+ * O valor é dividido em faixas, cada uma em uma linha de cache própria, e cada thread incrementa
+ * a faixa escolhida pelo seu identificador; a leitura soma as faixas. Faz o papel do LongAdder,
+ * que só existe a partir da API 24.
+ */
+public class ContadorDistribuido {
+    // Posições do vetor entre duas faixas, para que cada faixa ocupe uma linha de cache de 64 bytes
+    private static final int ESPACAMENTO = 8;
+
+    private final AtomicLongArray faixas;
+    private final int mascara;
+
+    /**
+     * Construtor da classe ContadorDistribuido, com duas faixas por processador, em número
+     * arredondado para uma potência de dois, até 64.
+     */
+    public ContadorDistribuido() {
+        int numeroFaixas = 1;
+        while (numeroFaixas < Math.min(64, 2 * Runtime.getRuntime().availableProcessors())) {
+            numeroFaixas <<= 1;
+        }
+        this.faixas = new AtomicLongArray(numeroFaixas * ESPACAMENTO);
+        this.mascara = numeroFaixas - 1;
+    }
+
+    /**
+     * Soma um ao contador.
+     */
+    public void incrementar() {
+        somar(1);
+    }
+
+    /**
+     * Soma um valor ao contador.
+     *
+     * @param valor o valor somado.
+     */
+    public void somar(long valor) {
+        faixas.getAndAdd(faixa() * ESPACAMENTO, valor);
+    }
+
+    /**
+     * Obtém o valor do contador. Os incrementos feitos durante a leitura podem ou não ser
+     * incluídos.
+     *
+     * @return a soma das faixas.
+     */
+    public long getValor() {
+        long total = 0;
+        for (int i = 0; i < faixas.length(); i += ESPACAMENTO) {
+            total += faixas.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Escolhe a faixa da thread atual pelo hash do seu identificador.
+     */
+    private int faixa() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & mascara;
+    }
+}
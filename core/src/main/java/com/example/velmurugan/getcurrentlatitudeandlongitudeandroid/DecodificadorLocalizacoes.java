@@ -0,0 +1,222 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Classe que lê localizações gravadas no formato compactado.
+ * <p>
+ * O índice do final do arquivo é lido na construção; a partir dele cada bloco pode ser decodificado
+ * isoladamente, em vetores fornecidos pelo chamador, e a busca por timestamp é uma busca binária
+ * sobre o primeiro timestamp de cada bloco.
+ */
+public class DecodificadorLocalizacoes {
+    private final ByteBuffer dados;
+    private final int numeroBlocos;
+    private final long[] posicoesBlocos;
+    private final long[] primeirosTimestamps;
+    private final int[] tamanhosBlocos;
+    private final long numeroLocalizacoes;
+    private final int maiorBloco;
+
+    /**
+     * Construtor da classe DecodificadorLocalizacoes.
+     *
+     * @param dados os bytes gravados pelo CodificadorLocalizacoes, da posição 0 ao limite.
+     * @throws IOException se os bytes não estiverem no formato compactado.
+     */
+    public DecodificadorLocalizacoes(ByteBuffer dados) throws IOException {
+        this.dados = dados.duplicate();
+        int tamanho = this.dados.limit();
+        if (tamanho < FormatoCompactado.TAMANHO_CABECALHO + FormatoCompactado.TAMANHO_RODAPE
+                || this.dados.getInt(0) != FormatoCompactado.ASSINATURA
+                || this.dados.getInt(tamanho - 4) != FormatoCompactado.ASSINATURA) {
+            throw new IOException("Os dados não estão no formato compactado de localizações");
+        }
+        if (this.dados.get(4) != FormatoCompactado.VERSAO) {
+            throw new IOException("Versão do formato compactado não suportada: " + this.dados.get(4));
+        }
+
+        long posicaoIndice = this.dados.getLong(tamanho - FormatoCompactado.TAMANHO_RODAPE);
+        numeroBlocos = this.dados.getInt(tamanho - FormatoCompactado.TAMANHO_RODAPE + 8);
+        if (numeroBlocos < 0 || posicaoIndice + (long) numeroBlocos * FormatoCompactado.TAMANHO_ENTRADA_INDICE
+                != tamanho - FormatoCompactado.TAMANHO_RODAPE) {
+            throw new IOException("Índice do formato compactado corrompido");
+        }
+
+        posicoesBlocos = new long[numeroBlocos];
+        primeirosTimestamps = new long[numeroBlocos];
+        tamanhosBlocos = new int[numeroBlocos];
+        long total = 0;
+        int maior = 0;
+        for (int i = 0; i < numeroBlocos; i++) {
+            int entrada = (int) posicaoIndice + i * FormatoCompactado.TAMANHO_ENTRADA_INDICE;
+            posicoesBlocos[i] = this.dados.getLong(entrada);
+            primeirosTimestamps[i] = this.dados.getLong(entrada + 8);
+            tamanhosBlocos[i] = this.dados.getInt(entrada + 16);
+            total += tamanhosBlocos[i];
+            maior = Math.max(maior, tamanhosBlocos[i]);
+        }
+        numeroLocalizacoes = total;
+        maiorBloco = maior;
+    }
+
+    /**
+     * Mapeia um arquivo no formato compactado em memória.
+     *
+     * @param arquivo o arquivo a ser lido.
+     * @return o decodificador do arquivo.
+     * @throws IOException se o arquivo não puder ser lido ou não estiver no formato compactado.
+     */
+    public static DecodificadorLocalizacoes abrir(File arquivo) throws IOException {
+        try (RandomAccessFile acesso = new RandomAccessFile(arquivo, "r");
+             FileChannel canal = acesso.getChannel()) {
+            return new DecodificadorLocalizacoes(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    /**
+     * Obtém o número de blocos.
+     *
+     * @return o número de blocos.
+     */
+    public int getNumeroBlocos() {
+        return numeroBlocos;
+    }
+
+    /**
+     * Obtém o número total de localizações.
+     *
+     * @return o número de localizações.
+     */
+    public long getNumeroLocalizacoes() {
+        return numeroLocalizacoes;
+    }
+
+    /**
+     * Obtém o número de localizações do maior bloco, que é o tamanho mínimo dos vetores passados a
+     * decodificarBloco.
+     *
+     * @return o tamanho do maior bloco.
+     */
+    public int getMaiorBloco() {
+        return maiorBloco;
+    }
+
+    /**
+     * Busca o bloco que contém o timestamp, considerando que os blocos estão em ordem de tempo.
+     *
+     * @param timestamp o timestamp procurado.
+     * @return o índice do último bloco cujo primeiro timestamp não é posterior ao procurado, ou 0.
+     */
+    public int buscarBloco(long timestamp) {
+        int inicio = 0;
+        int fim = numeroBlocos - 1;
+        int resultado = 0;
+        while (inicio <= fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (primeirosTimestamps[meio] <= timestamp) {
+                resultado = meio;
+                inicio = meio + 1;
+            } else {
+                fim = meio - 1;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Decodifica um bloco nos vetores fornecidos.
+     *
+     * @param indice     o índice do bloco.
+     * @param latitudes  o vetor que receberá as latitudes.
+     * @param longitudes o vetor que receberá as longitudes.
+     * @param timestamps o vetor que receberá os timestamps.
+     * @return o número de localizações do bloco.
+     * @throws IllegalStateException se o bloco estiver corrompido.
+     */
+    public int decodificarBloco(int indice, double[] latitudes, double[] longitudes, long[] timestamps) {
+        ByteBuffer leitura = dados.duplicate();
+        leitura.position((int) posicoesBlocos[indice]);
+        try {
+            int n = (int) FormatoCompactado.lerVarint(leitura);
+            if (n != tamanhosBlocos[indice]) {
+                throw new IllegalStateException("Bloco " + indice + " não corresponde ao índice");
+            }
+            long timestamp = FormatoCompactado.lerVarint(leitura);
+            long latitude = FormatoCompactado.lerVarint(leitura);
+            long longitude = FormatoCompactado.lerVarint(leitura);
+
+            timestamps[0] = timestamp;
+            long delta = 0;
+            for (int i = 1; i < n; i++) {
+                delta += FormatoCompactado.lerVarint(leitura);
+                timestamp += delta;
+                timestamps[i] = timestamp;
+            }
+            latitudes[0] = FormatoCompactado.paraGraus(latitude);
+            for (int i = 1; i < n; i++) {
+                latitude += FormatoCompactado.lerVarint(leitura);
+                latitudes[i] = FormatoCompactado.paraGraus(latitude);
+            }
+            longitudes[0] = FormatoCompactado.paraGraus(longitude);
+            for (int i = 1; i < n; i++) {
+                longitude += FormatoCompactado.lerVarint(leitura);
+                longitudes[i] = FormatoCompactado.paraGraus(longitude);
+            }
+            return n;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalStateException("Bloco " + indice + " truncado", e);
+        }
+    }
+
+    /**
+     * Reproduz as localizações a partir de um timestamp, bloco a bloco.
+     *
+     * @param timestampInicial o menor timestamp reproduzido.
+     * @param receptor         o receptor das localizações.
+     */
+    public void reproduzir(long timestampInicial, ReceptorLocalizacao receptor) {
+        double[] latitudes = new double[maiorBloco];
+        double[] longitudes = new double[maiorBloco];
+        long[] timestamps = new long[maiorBloco];
+        for (int bloco = buscarBloco(timestampInicial); bloco < numeroBlocos; bloco++) {
+            int n = decodificarBloco(bloco, latitudes, longitudes, timestamps);
+            for (int i = 0; i < n; i++) {
+                if (timestamps[i] >= timestampInicial) {
+                    receptor.aoReceberLocalizacao(null, latitudes[i], longitudes[i], Float.NaN, Float.NaN, timestamps[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Carrega as localizações no histórico; se o histórico for menor que a sequência, ficam as
+     * mais recentes.
+     *
+     * @param historico o histórico de destino.
+     */
+    public void carregar(HistoricoLocalizacoes historico) {
+        double[] latitudes = new double[maiorBloco];
+        double[] longitudes = new double[maiorBloco];
+        long[] timestamps = new long[maiorBloco];
+
+        // Só os últimos blocos cabem no histórico; os anteriores nem são decodificados
+        int primeiroBloco = numeroBlocos;
+        long restantes = historico.getCapacidade();
+        while (primeiroBloco > 0 && restantes > 0) {
+            primeiroBloco--;
+            restantes -= tamanhosBlocos[primeiroBloco];
+        }
+        for (int bloco = primeiroBloco; bloco < numeroBlocos; bloco++) {
+            int n = decodificarBloco(bloco, latitudes, longitudes, timestamps);
+            for (int i = 0; i < n; i++) {
+                historico.adicionar(latitudes[i], longitudes[i], timestamps[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Classe que grava periodicamente a exportação de um registro de métricas em um arquivo.
+ * <p>
+ * A gravação é feita por uma thread própria e substitui o arquivo de forma atômica, então quem
+ * lê o arquivo, por exemplo pelo adb, sempre vê uma exportação completa. O fechamento grava uma
+ * última exportação.
+ */
+public class DespejoMetricas implements Closeable {
+    private final RegistroMetricas registro;
+    private final File arquivo;
+    private final long intervalo;
+    private final Thread gravador;
+
+    private boolean fechado;
+    private IOException erro;
+    private volatile long despejos;
+
+    /**
+     * Construtor da classe DespejoMetricas. A thread de gravação começa imediatamente.
+     *
+     * @param registro  o registro exportado.
+     * @param arquivo   o arquivo de destino.
+     * @param intervalo o intervalo entre gravações, em milissegundos.
+     */
+    public DespejoMetricas(RegistroMetricas registro, File arquivo, long intervalo) {
+        if (intervalo <= 0) {
+            throw new IllegalArgumentException("O intervalo deve ser positivo: " + intervalo);
+        }
+        this.registro = registro;
+        this.arquivo = arquivo;
+        this.intervalo = intervalo;
+        this.gravador = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                gravar();
+            }
+        }, "despejo-metricas");
+        this.gravador.setDaemon(true);
+        this.gravador.start();
+    }
+
+    /**
+     * Encerra a thread de gravação depois de uma última exportação.
+     *
+     * @throws IOException se houve erro na última gravação.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            fechado = true;
+            notifyAll();
+        }
+        try {
+            gravador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (erro != null) {
+                throw erro;
+            }
+        }
+    }
+
+    /**
+     * Obtém o número de exportações gravadas.
+     *
+     * @return o número de gravações bem-sucedidas.
+     */
+    public long getDespejos() {
+        return despejos;
+    }
+
+    /**
+     * Laço da thread de gravação. Um erro de gravação fica guardado até a próxima gravação
+     * bem-sucedida.
+     */
+    private void gravar() {
+        boolean ultimo = false;
+        while (!ultimo) {
+            synchronized (this) {
+                long fim = System.currentTimeMillis() + intervalo;
+                long espera = intervalo;
+                while (!fechado && espera > 0) {
+                    try {
+                        wait(espera);
+                    } catch (InterruptedException e) {
+                        fechado = true;
+                    }
+                    espera = fim - System.currentTimeMillis();
+                }
+                ultimo = fechado;
+            }
+
+            IOException falha = null;
+            try {
+                registro.salvar(arquivo);
+                despejos++;
+            } catch (IOException e) {
+                falha = e;
+            }
+            synchronized (this) {
+                erro = falha;
+            }
+        }
+    }
+}
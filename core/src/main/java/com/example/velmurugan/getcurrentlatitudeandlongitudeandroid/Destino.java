@@ -0,0 +1,16 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Interface que define a região de destino do percurso.
+ */
+public interface Destino {
+
+    /**
+     * Verifica se uma coordenada já está na região de destino.
+     *
+     * @param latitude  a latitude da coordenada.
+     * @param longitude a longitude da coordenada.
+     * @return true se a coordenada está no destino, false caso contrário.
+     */
+    boolean alcancado(double latitude, double longitude);
+}
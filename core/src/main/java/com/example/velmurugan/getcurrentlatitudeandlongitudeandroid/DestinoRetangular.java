@@ -0,0 +1,32 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Destino formado pela região ao norte de uma latitude e a oeste de uma longitude.
+ */
+public class DestinoRetangular implements Destino {
+    private final double latitudeMinima;
+    private final double longitudeMaxima;
+
+    /**
+     * Construtor da classe DestinoRetangular.
+     *
+     * @param latitudeMinima  a latitude a partir da qual o destino começa.
+     * @param longitudeMaxima a longitude até a qual o destino se estende.
+     */
+    public DestinoRetangular(double latitudeMinima, double longitudeMaxima) {
+        this.latitudeMinima = latitudeMinima;
+        this.longitudeMaxima = longitudeMaxima;
+    }
+
+    /**
+     * Verifica se uma coordenada já está na região de destino.
+     *
+     * @param latitude  a latitude da coordenada.
+     * @param longitude a longitude da coordenada.
+     * @return true se a coordenada está no destino, false caso contrário.
+     */
+    @Override
+    public boolean alcancado(double latitude, double longitude) {
+        return latitude > latitudeMinima && longitude < longitudeMaxima;
+    }
+}
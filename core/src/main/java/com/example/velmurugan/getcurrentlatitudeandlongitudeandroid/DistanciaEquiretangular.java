@@ -0,0 +1,80 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Calcula a distância pela aproximação equiretangular, projetando as duas coordenadas em um plano
+ * tangente à esfera.
+ * <p>
+ * As latitudes são divididas em faixas de {@value #LARGURA_FAIXA} grau (cerca de 220 m), e o
+ * cosseno usado em cada distância é o do centro da faixa da latitude média do segmento, a no
+ * máximo {@value #TOLERANCIA_LATITUDE} grau dela. O cosseno da última faixa é guardado e só é
+ * recalculado quando o segmento passa para outra faixa, o que raramente acontece entre
+ * localizações consecutivas. Assim a maioria das distâncias custa apenas algumas multiplicações e
+ * uma raiz quadrada, e o resultado depende apenas do segmento, e não das distâncias calculadas
+ * antes: duas instâncias, ou uma instância restaurada, dão exatamente os mesmos valores.
+ * <p>
+ * Em relação à fórmula de haversine, o erro relativo fica abaixo de 0,02% para segmentos de até
+ * 10 km entre as latitudes -80 e 80 graus. Não é segura para uso por várias threads ao mesmo
+ * tempo, pois o cosseno guardado é compartilhado; cada thread deve usar a sua instância.
+ */
+public class DistanciaEquiretangular implements CalculadoraDistancia {
+    static final double TOLERANCIA_LATITUDE = 0.001;
+    static final double LARGURA_FAIXA = 2 * TOLERANCIA_LATITUDE;
+
+    private double faixaCosseno = Double.NaN;
+    private double cossenoLatitude;
+
+    /**
+     * Calcula a distância pela aproximação equiretangular.
+     */
+    @Override
+    public double calcular(double lat1, double lon1, double lat2, double lon2) {
+        double faixa = faixa((lat1 + lat2) * 0.5);
+        if (faixa != faixaCosseno) {
+            faixaCosseno = faixa;
+            cossenoLatitude = cossenoFaixa(faixa);
+        }
+
+        return calcular(lat1, lon1, lat2, lon2, cossenoLatitude);
+    }
+
+    /**
+     * Obtém a faixa de uma latitude, para quem guarda o cosseno por conta própria.
+     *
+     * @param latitudeMedia a latitude média do segmento.
+     * @return o número da faixa.
+     */
+    static double faixa(double latitudeMedia) {
+        return Math.floor(latitudeMedia / LARGURA_FAIXA);
+    }
+
+    /**
+     * Calcula o cosseno do centro de uma faixa de latitudes.
+     *
+     * @param faixa o número da faixa, obtido com faixa.
+     * @return o cosseno usado nas distâncias dos segmentos da faixa.
+     */
+    static double cossenoFaixa(double faixa) {
+        return Math.cos(Math.toRadians((faixa + 0.5) * LARGURA_FAIXA));
+    }
+
+    /**
+     * Calcula a distância com um cosseno de latitude já obtido, para quem guarda o cosseno por
+     * conta própria.
+     *
+     * @param cossenoLatitude o cosseno da latitude média do segmento, ou de uma latitude próxima,
+     *                        normalmente o da sua faixa.
+     * @return a distância em quilômetros.
+     */
+    static double calcular(double lat1, double lon1, double lat2, double lon2, double cossenoLatitude) {
+        double dLon = lon2 - lon1;
+        if (dLon > 180) {
+            dLon -= 360;
+        } else if (dLon < -180) {
+            dLon += 360;
+        }
+
+        double x = Math.toRadians(dLon) * cossenoLatitude;
+        double y = Math.toRadians(lat2 - lat1);
+        return DistanciaHaversine.RAIO_TERRA * Math.sqrt(x * x + y * y);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Calcula a distância pela fórmula de haversine, considerando a Terra uma esfera.
+ * <p>
+ * É exata para a esfera de raio médio e serve de referência para as demais implementações; em
+ * relação ao elipsoide WGS-84 o erro pode chegar a 0,5%.
+ */
+public class DistanciaHaversine implements CalculadoraDistancia {
+    static final double RAIO_TERRA = 6371; // Raio médio em quilômetros
+
+    /**
+     * Calcula a distância pela fórmula de haversine.
+     */
+    @Override
+    public double calcular(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return RAIO_TERRA * c;
+    }
+}
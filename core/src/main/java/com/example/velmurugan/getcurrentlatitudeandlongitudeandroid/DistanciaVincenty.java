@@ -0,0 +1,72 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Calcula a distância sobre o elipsoide WGS-84 pela fórmula inversa de Vincenty.
+ * <p>
+ * É precisa até poucos milímetros, mas usa um processo iterativo e custa várias vezes mais que a
+ * fórmula de haversine. Para pontos quase antípodas, em que a iteração não converge, o resultado
+ * de haversine é usado.
+ */
+public class DistanciaVincenty implements CalculadoraDistancia {
+    private static final double SEMI_EIXO_MAIOR = 6378137.0; // metros
+    private static final double ACHATAMENTO = 1 / 298.257223563;
+    private static final double SEMI_EIXO_MENOR = SEMI_EIXO_MAIOR * (1 - ACHATAMENTO);
+    private static final int MAXIMO_ITERACOES = 200;
+    private static final double CONVERGENCIA = 1e-12;
+
+    private final DistanciaHaversine alternativa = new DistanciaHaversine();
+
+    /**
+     * Calcula a distância pela fórmula inversa de Vincenty.
+     */
+    @Override
+    public double calcular(double lat1, double lon1, double lat2, double lon2) {
+        double l = Math.toRadians(lon2 - lon1);
+        double u1 = Math.atan((1 - ACHATAMENTO) * Math.tan(Math.toRadians(lat1)));
+        double u2 = Math.atan((1 - ACHATAMENTO) * Math.tan(Math.toRadians(lat2)));
+        double senoU1 = Math.sin(u1);
+        double cossenoU1 = Math.cos(u1);
+        double senoU2 = Math.sin(u2);
+        double cossenoU2 = Math.cos(u2);
+
+        double lambda = l;
+        double senoSigma;
+        double cossenoSigma;
+        double sigma;
+        double cossenoQuadradoAlfa;
+        double cosseno2SigmaM;
+        int iteracoes = 0;
+        double lambdaAnterior;
+        do {
+            double senoLambda = Math.sin(lambda);
+            double cossenoLambda = Math.cos(lambda);
+            double termo = cossenoU1 * senoU2 - senoU1 * cossenoU2 * cossenoLambda;
+            senoSigma = Math.sqrt((cossenoU2 * senoLambda) * (cossenoU2 * senoLambda) + termo * termo);
+            if (senoSigma == 0) {
+                return 0; // Pontos coincidentes
+            }
+            cossenoSigma = senoU1 * senoU2 + cossenoU1 * cossenoU2 * cossenoLambda;
+            sigma = Math.atan2(senoSigma, cossenoSigma);
+            double senoAlfa = cossenoU1 * cossenoU2 * senoLambda / senoSigma;
+            cossenoQuadradoAlfa = 1 - senoAlfa * senoAlfa;
+            cosseno2SigmaM = cossenoQuadradoAlfa == 0 ? 0 : cossenoSigma - 2 * senoU1 * senoU2 / cossenoQuadradoAlfa;
+            double c = ACHATAMENTO / 16 * cossenoQuadradoAlfa * (4 + ACHATAMENTO * (4 - 3 * cossenoQuadradoAlfa));
+            lambdaAnterior = lambda;
+            lambda = l + (1 - c) * ACHATAMENTO * senoAlfa * (sigma + c * senoSigma
+                    * (cosseno2SigmaM + c * cossenoSigma * (-1 + 2 * cosseno2SigmaM * cosseno2SigmaM)));
+        } while (Math.abs(lambda - lambdaAnterior) > CONVERGENCIA && ++iteracoes < MAXIMO_ITERACOES);
+
+        if (iteracoes >= MAXIMO_ITERACOES) {
+            return alternativa.calcular(lat1, lon1, lat2, lon2);
+        }
+
+        double uQuadrado = cossenoQuadradoAlfa * (SEMI_EIXO_MAIOR * SEMI_EIXO_MAIOR - SEMI_EIXO_MENOR * SEMI_EIXO_MENOR)
+                / (SEMI_EIXO_MENOR * SEMI_EIXO_MENOR);
+        double a = 1 + uQuadrado / 16384 * (4096 + uQuadrado * (-768 + uQuadrado * (320 - 175 * uQuadrado)));
+        double b = uQuadrado / 1024 * (256 + uQuadrado * (-128 + uQuadrado * (74 - 47 * uQuadrado)));
+        double deltaSigma = b * senoSigma * (cosseno2SigmaM + b / 4 * (cossenoSigma * (-1 + 2 * cosseno2SigmaM * cosseno2SigmaM)
+                - b / 6 * cosseno2SigmaM * (-3 + 4 * senoSigma * senoSigma) * (-3 + 4 * cosseno2SigmaM * cosseno2SigmaM)));
+
+        return SEMI_EIXO_MENOR * a * (sigma - deltaSigma) / 1000;
+    }
+}
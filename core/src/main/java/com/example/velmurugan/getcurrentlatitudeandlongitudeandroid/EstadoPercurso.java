@@ -0,0 +1,229 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Formato binário do arquivo de estado de um percurso, usado para restaurar o Veiculo depois que
+ * o processo é encerrado.
+ * <p>
+ * O arquivo guarda apenas os dados acumulados do veículo, com poucas centenas de bytes, e os
+ * trechos das suas janelas de tendências, com 40 bytes por trecho da janela mais longa; o tamanho
+ * depende da frequência das localizações e da duração das janelas, mas não da duração do
+ * percurso:
+ * <pre>
+ * assinatura  int     4 bytes
+ * versao      short   2 bytes
+ * rota        byte    1 byte, 1 se o veículo acompanha uma rota
+ * comprimento double  8 bytes, o comprimento da rota ou 0
+ * janelas     short   2 bytes, o número de janelas de tendências, ou 0 se não há tendências
+ * duracoes    long    8 bytes por janela, a duração de cada uma
+ * estado      os dados do veículo, das estatísticas, do conselheiro de velocidade, da rota e das
+ *             janelas de tendências
+ * crc         int     4 bytes, o CRC-32 de todos os bytes anteriores
+ * </pre>
+ * Com o estado das janelas, que inclui as somas acumuladas e o momento do próximo recálculo, o
+ * veículo restaurado e a cauda do registro dão os mesmos valores, bit a bit, que o veículo ao
+ * vivo, inclusive as tendências. A calculadora de distância não tem estado a salvar: o cosseno
+ * que DistanciaEquiretangular guarda depende apenas do segmento.
+ * O arquivo é gravado em um arquivo temporário, sincronizado com o disco e renomeado sobre o
+ * anterior, então uma interrupção no meio da gravação deixa o estado anterior intacto. A
+ * restauração parte do estado salvo e reproduz apenas as localizações do registro do percurso
+ * posteriores a ele, de modo que o seu custo depende do intervalo entre os salvamentos, e não da
+ * duração do percurso.
+ */
+public final class EstadoPercurso {
+    public static final int ASSINATURA = 0x56454943; // "VEIC"
+    public static final short VERSAO = 2;
+
+    // Espaço suficiente para o maior estado sem as janelas de tendências, com rota
+    static final int TAMANHO_FIXO = 512;
+
+    // Maior arquivo de estado aceito na restauração
+    static final int TAMANHO_LIMITE = 64 * 1024 * 1024;
+
+    private static final int TAMANHO_CABECALHO = 17;
+    private static final int TAMANHO_CRC = 4;
+
+    private EstadoPercurso() {
+    }
+
+    /**
+     * Salva o estado do veículo em um arquivo, substituindo o anterior de forma atômica.
+     *
+     * @param veiculo o veículo.
+     * @param arquivo o arquivo de estado.
+     * @throws IOException se o arquivo não puder ser gravado.
+     */
+    public static void salvar(Veiculo veiculo, File arquivo) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(calcularTamanho(veiculo));
+        escrever(veiculo, buffer);
+        gravar(buffer, arquivo);
+    }
+
+    /**
+     * Restaura o estado de um veículo com a mesma configuração do que o salvou. O veículo só é
+     * alterado se o arquivo for válido.
+     *
+     * @param veiculo o veículo, ainda sem localizações.
+     * @param arquivo o arquivo de estado.
+     * @return true se o estado foi restaurado, false se o arquivo não existe.
+     * @throws IOException se o arquivo estiver corrompido ou for de um veículo com outra rota.
+     */
+    public static boolean restaurar(Veiculo veiculo, File arquivo) throws IOException {
+        if (!arquivo.isFile()) {
+            return false;
+        }
+        long tamanho = arquivo.length();
+        if (tamanho > TAMANHO_LIMITE) {
+            throw new IOException("Arquivo de estado grande demais: " + tamanho + " bytes");
+        }
+        byte[] conteudo = new byte[(int) tamanho];
+        try (FileInputStream entrada = new FileInputStream(arquivo)) {
+            int lidos = 0;
+            while (lidos < conteudo.length) {
+                int n = entrada.read(conteudo, lidos, conteudo.length - lidos);
+                if (n < 0) {
+                    break;
+                }
+                lidos += n;
+            }
+            if (lidos < TAMANHO_CABECALHO + TAMANHO_CRC) {
+                throw new IOException("Arquivo de estado incompleto: " + lidos + " bytes");
+            }
+            ler(veiculo, ByteBuffer.wrap(conteudo, 0, lidos));
+        }
+        return true;
+    }
+
+    /**
+     * Restaura um veículo a partir do arquivo de estado e da cauda do registro do percurso. Se o
+     * arquivo de estado não existir ou for inválido, todo o registro é reproduzido. O resultado só
+     * é o do veículo original se o registro contiver as localizações que ele recebeu, como o
+     * gravado pelo registro do PipelineLocalizacao.
+     *
+     * @param veiculo        o veículo, ainda sem localizações.
+     * @param arquivoEstado  o arquivo de estado.
+     * @param registro       o registro do percurso, ou null se não houver um.
+     * @return o número de localizações do registro reproduzidas.
+     */
+    public static int restaurar(Veiculo veiculo, File arquivoEstado, LeitorPercurso registro) {
+        boolean restaurado;
+        try {
+            restaurado = restaurar(veiculo, arquivoEstado);
+        } catch (IOException e) {
+            restaurado = false;
+        }
+        if (registro == null) {
+            return 0;
+        }
+        int inicio = restaurado && veiculo.getEstatisticas().getNumeroLocalizacoes() > 0
+                ? registro.buscarPosterior(veiculo.getUltimoTimestamp()) : 0;
+        registro.reproduzir(inicio, veiculo);
+        return registro.getNumeroRegistros() - inicio;
+    }
+
+    /**
+     * Calcula um tamanho de buffer suficiente para o estado atual do veículo, que cresce com o
+     * número de trechos nas janelas de tendências.
+     *
+     * @param veiculo o veículo.
+     * @return o tamanho em bytes.
+     */
+    static int calcularTamanho(Veiculo veiculo) {
+        TendenciasPercurso tendencias = veiculo.getTendencias();
+        return tendencias == null ? TAMANHO_FIXO : TAMANHO_FIXO + 8 * tendencias.getNumeroJanelas() + tendencias.getTamanhoEstado();
+    }
+
+    /**
+     * Escreve o estado do veículo, com cabeçalho e CRC, no início do buffer e o prepara para
+     * leitura.
+     *
+     * @param veiculo o veículo.
+     * @param buffer  o buffer de destino, com array e ao menos calcularTamanho(veiculo) bytes.
+     */
+    static void escrever(Veiculo veiculo, ByteBuffer buffer) {
+        AcompanhamentoRota acompanhamento = veiculo.getAcompanhamentoRota();
+        TendenciasPercurso tendencias = veiculo.getTendencias();
+        int janelas = tendencias != null ? tendencias.getNumeroJanelas() : 0;
+        buffer.clear();
+        buffer.putInt(ASSINATURA);
+        buffer.putShort(VERSAO);
+        buffer.put((byte) (acompanhamento != null ? 1 : 0));
+        buffer.putDouble(acompanhamento != null ? acompanhamento.getRota().getComprimento() : 0);
+        buffer.putShort((short) janelas);
+        for (int j = 0; j < janelas; j++) {
+            buffer.putLong(tendencias.getDuracao(j));
+        }
+        veiculo.salvarEstado(buffer);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.arrayOffset(), buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+    }
+
+    /**
+     * Valida o estado gravado por escrever e o aplica ao veículo.
+     *
+     * @param veiculo o veículo.
+     * @param buffer  o buffer com o arquivo completo, com array.
+     * @throws IOException se o estado estiver corrompido ou for de um veículo com outra rota ou
+     *                     outras janelas de tendências.
+     */
+    static void ler(Veiculo veiculo, ByteBuffer buffer) throws IOException {
+        int tamanho = buffer.remaining();
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.arrayOffset() + buffer.position(), tamanho - TAMANHO_CRC);
+        if (buffer.getInt(buffer.position() + tamanho - TAMANHO_CRC) != (int) crc.getValue()) {
+            throw new IOException("Arquivo de estado corrompido");
+        }
+        if (buffer.getInt() != ASSINATURA) {
+            throw new IOException("O arquivo não é um estado de percurso");
+        }
+        short versao = buffer.getShort();
+        if (versao != VERSAO) {
+            throw new IOException("Versão do estado de percurso não suportada: " + versao);
+        }
+        AcompanhamentoRota acompanhamento = veiculo.getAcompanhamentoRota();
+        boolean rota = buffer.get() != 0;
+        double comprimento = buffer.getDouble();
+        if (rota != (acompanhamento != null) || (rota && comprimento != acompanhamento.getRota().getComprimento())) {
+            throw new IOException("O estado salvo é de um percurso com outra rota");
+        }
+        TendenciasPercurso tendencias = veiculo.getTendencias();
+        int janelas = buffer.getShort();
+        boolean mesmasJanelas = janelas == (tendencias != null ? tendencias.getNumeroJanelas() : 0);
+        for (int j = 0; j < janelas && mesmasJanelas; j++) {
+            mesmasJanelas = buffer.getLong() == tendencias.getDuracao(j);
+        }
+        if (!mesmasJanelas) {
+            throw new IOException("O estado salvo é de um veículo com outras janelas de tendências");
+        }
+        veiculo.restaurarEstado(buffer);
+    }
+
+    /**
+     * Grava o conteúdo do buffer em um arquivo temporário, sincroniza-o com o disco e o renomeia
+     * sobre o arquivo de destino.
+     *
+     * @param buffer  o buffer, pronto para leitura, com array.
+     * @param arquivo o arquivo de destino.
+     * @throws IOException se o arquivo não puder ser gravado ou renomeado.
+     */
+    static void gravar(ByteBuffer buffer, File arquivo) throws IOException {
+        File temporario = new File(arquivo.getPath() + ".tmp");
+        try (FileOutputStream saida = new FileOutputStream(temporario)) {
+            saida.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            saida.getFD().sync();
+        }
+        // No Android e no Linux a renomeação substitui o destino de forma atômica
+        if (!temporario.renameTo(arquivo)) {
+            throw new IOException("Não foi possível substituir o arquivo de estado " + arquivo);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Classe que acumula as estatísticas do percurso a cada nova localização.
+ * <p>
+ * Cada localização é comparada apenas com a anterior, então o custo por localização é constante
+ * e nenhum objeto é criado. A distância é somada com compensação de Kahan para que o total
+ * continue correto depois de centenas de milhares de segmentos curtos.
+ */
+public class EstatisticasPercurso {
+    // Abaixo desta velocidade (km/h) o veículo é considerado parado
+    static final double VELOCIDADE_MINIMA_MOVIMENTO = 3.0;
+
+    static final double MILLIS_POR_HORA = 3600000.0;
+
+    private final CalculadoraDistancia calculadoraDistancia;
+    private final double distanciaRota;
+    private final double deslocamentoParcial;
+
+    private long numeroLocalizacoes;
+    private double ultimaLatitude;
+    private double ultimaLongitude;
+    private long primeiroTimestamp;
+    private long ultimoTimestamp;
+
+    private double distanciaPercorrida;
+    private double compensacaoDistancia;
+    private double distanciaUltimoSegmento;
+    private long tempoMovimento;
+    private double velocidadeInstantanea;
+    private double velocidadeMaxima;
+
+    private double distanciaParcial;
+    private long tempoParcial;
+
+    /**
+     * Construtor da classe EstatisticasPercurso.
+     *
+     * @param calculadoraDistancia o algoritmo usado para calcular a distância entre localizações.
+     * @param distanciaRota        a distância total do percurso em quilômetros.
+     * @param deslocamentoParcial  a distância de cada trecho da velocidade média parcial, em quilômetros.
+     */
+    public EstatisticasPercurso(CalculadoraDistancia calculadoraDistancia, double distanciaRota, double deslocamentoParcial) {
+        this.calculadoraDistancia = calculadoraDistancia;
+        this.distanciaRota = distanciaRota;
+        this.deslocamentoParcial = deslocamentoParcial;
+    }
+
+    /**
+     * Registra uma nova localização. Localizações com timestamp igual ou anterior ao da última
+     * registrada são ignoradas.
+     *
+     * @param latitude  a latitude da localização.
+     * @param longitude a longitude da localização.
+     * @param timestamp o timestamp da localização em milissegundos.
+     * @return true se a localização foi registrada, false se foi ignorada.
+     */
+    public boolean registrar(double latitude, double longitude, long timestamp) {
+        if (numeroLocalizacoes == 0) {
+            primeiroTimestamp = timestamp;
+        } else {
+            long intervalo = timestamp - ultimoTimestamp;
+            if (intervalo <= 0) {
+                return false;
+            }
+
+            double distancia = calculadoraDistancia.calcular(ultimaLatitude, ultimaLongitude, latitude, longitude);
+            somarDistancia(distancia);
+            distanciaUltimoSegmento = distancia;
+
+            velocidadeInstantanea = calcularVelocidade(distancia, intervalo);
+            if (velocidadeInstantanea > velocidadeMaxima) {
+                velocidadeMaxima = velocidadeInstantanea;
+            }
+            tempoMovimento = somarTempoMovimento(tempoMovimento, velocidadeInstantanea, intervalo);
+
+            // Ao completar um trecho, a média parcial recomeça a partir do trecho seguinte
+            if (isTrechoParcialCompleto(distanciaParcial, deslocamentoParcial)) {
+                distanciaParcial = 0;
+                tempoParcial = 0;
+            }
+            distanciaParcial += distancia;
+            tempoParcial += intervalo;
+        }
+
+        ultimaLatitude = latitude;
+        ultimaLongitude = longitude;
+        ultimoTimestamp = timestamp;
+        numeroLocalizacoes++;
+        return true;
+    }
+
+    /**
+     * Descarta todas as estatísticas acumuladas.
+     */
+    public void reiniciar() {
+        numeroLocalizacoes = 0;
+        distanciaPercorrida = 0;
+        compensacaoDistancia = 0;
+        distanciaUltimoSegmento = 0;
+        tempoMovimento = 0;
+        velocidadeInstantanea = 0;
+        velocidadeMaxima = 0;
+        distanciaParcial = 0;
+        tempoParcial = 0;
+    }
+
+    /**
+     * Obtém o número de localizações registradas.
+     *
+     * @return o número de localizações.
+     */
+    public long getNumeroLocalizacoes() {
+        return numeroLocalizacoes;
+    }
+
+    /**
+     * Obtém a distância acumulada desde a primeira localização.
+     *
+     * @return a distância percorrida em quilômetros.
+     */
+    public double getDistanciaPercorrida() {
+        return distanciaPercorrida;
+    }
+
+    /**
+     * Obtém a distância entre as duas últimas localizações.
+     *
+     * @return a distância do último segmento em quilômetros.
+     */
+    public double getDistanciaUltimoSegmento() {
+        return distanciaUltimoSegmento;
+    }
+
+    /**
+     * Obtém a distância que falta para completar o percurso.
+     *
+     * @return a distância restante em quilômetros, nunca negativa.
+     */
+    public double getDistanciaRestante() {
+        return Math.max(0, distanciaRota - distanciaPercorrida);
+    }
+
+    /**
+     * Obtém o tempo decorrido desde a primeira localização.
+     *
+     * @return o tempo decorrido em milissegundos.
+     */
+    public long getTempoDecorrido() {
+        return numeroLocalizacoes == 0 ? 0 : ultimoTimestamp - primeiroTimestamp;
+    }
+
+    /**
+     * Obtém o tempo em que o veículo esteve em movimento.
+     *
+     * @return o tempo em movimento em milissegundos.
+     */
+    public long getTempoMovimento() {
+        return tempoMovimento;
+    }
+
+    /**
+     * Obtém a velocidade entre as duas últimas localizações.
+     *
+     * @return a velocidade instantânea em km/h.
+     */
+    public double getVelocidadeInstantanea() {
+        return velocidadeInstantanea;
+    }
+
+    /**
+     * Obtém a maior velocidade instantânea registrada.
+     *
+     * @return a velocidade máxima em km/h.
+     */
+    public double getVelocidadeMaxima() {
+        return velocidadeMaxima;
+    }
+
+    /**
+     * Obtém a velocidade média do trecho parcial em andamento.
+     *
+     * @return a velocidade média parcial em km/h.
+     */
+    public double getVelocidadeMediaParcial() {
+        return calcularVelocidadeMedia(distanciaParcial, tempoParcial);
+    }
+
+    /**
+     * Obtém a velocidade média desde a primeira localização.
+     *
+     * @return a velocidade média total em km/h.
+     */
+    public double getVelocidadeMediaTotal() {
+        return calcularVelocidadeMedia(distanciaPercorrida, getTempoDecorrido());
+    }
+
+    /**
+     * Obtém a velocidade média considerando apenas o tempo em movimento.
+     *
+     * @return a velocidade média em movimento em km/h.
+     */
+    public double getVelocidadeMediaMovimento() {
+        return calcularVelocidadeMedia(distanciaPercorrida, tempoMovimento);
+    }
+
+    /**
+     * Grava o estado acumulado no buffer, no formato de EstadoPercurso.
+     *
+     * @param buffer o buffer de destino.
+     */
+    void salvarEstado(ByteBuffer buffer) {
+        buffer.putLong(numeroLocalizacoes);
+        buffer.putDouble(ultimaLatitude);
+        buffer.putDouble(ultimaLongitude);
+        buffer.putLong(primeiroTimestamp);
+        buffer.putLong(ultimoTimestamp);
+        buffer.putDouble(distanciaPercorrida);
+        buffer.putDouble(compensacaoDistancia);
+        buffer.putDouble(distanciaUltimoSegmento);
+        buffer.putLong(tempoMovimento);
+        buffer.putDouble(velocidadeInstantanea);
+        buffer.putDouble(velocidadeMaxima);
+        buffer.putDouble(distanciaParcial);
+        buffer.putLong(tempoParcial);
+    }
+
+    /**
+     * Substitui o estado acumulado pelo gravado com salvarEstado.
+     *
+     * @param buffer o buffer de origem.
+     */
+    void restaurarEstado(ByteBuffer buffer) {
+        numeroLocalizacoes = buffer.getLong();
+        ultimaLatitude = buffer.getDouble();
+        ultimaLongitude = buffer.getDouble();
+        primeiroTimestamp = buffer.getLong();
+        ultimoTimestamp = buffer.getLong();
+        distanciaPercorrida = buffer.getDouble();
+        compensacaoDistancia = buffer.getDouble();
+        distanciaUltimoSegmento = buffer.getDouble();
+        tempoMovimento = buffer.getLong();
+        velocidadeInstantanea = buffer.getDouble();
+        velocidadeMaxima = buffer.getDouble();
+        distanciaParcial = buffer.getDouble();
+        tempoParcial = buffer.getLong();
+    }
+
+    /**
+     * Soma a distância de um segmento ao total usando a soma compensada de Kahan.
+     *
+     * @param distancia a distância do segmento em quilômetros.
+     */
+    private void somarDistancia(double distancia) {
+        double soma = somarCompensado(distanciaPercorrida, compensacaoDistancia, distancia);
+        compensacaoDistancia = calcularCompensacao(distanciaPercorrida, compensacaoDistancia, distancia, soma);
+        distanciaPercorrida = soma;
+    }
+
+    // Os cálculos de cada localização ficam em métodos estáticos com argumentos primitivos, para
+    // que ParticaoFrota, que guarda o estado de cada veículo em vetores, faça exatamente as mesmas
+    // operações
+
+    /**
+     * Soma um valor a um total com a soma compensada de Kahan.
+     *
+     * @param total       o total acumulado.
+     * @param compensacao a compensação acumulada do total.
+     * @param valor       o valor a somar.
+     * @return o novo total.
+     */
+    static double somarCompensado(double total, double compensacao, double valor) {
+        return total + (valor - compensacao);
+    }
+
+    /**
+     * Calcula a nova compensação de uma soma feita com somarCompensado.
+     *
+     * @param total       o total antes da soma.
+     * @param compensacao a compensação antes da soma.
+     * @param valor       o valor somado.
+     * @param soma        o novo total, retornado por somarCompensado.
+     * @return a nova compensação.
+     */
+    static double calcularCompensacao(double total, double compensacao, double valor, double soma) {
+        double parcela = valor - compensacao;
+        return (soma - total) - parcela;
+    }
+
+    /**
+     * Calcula a velocidade de um segmento.
+     *
+     * @param distancia a distância do segmento em quilômetros.
+     * @param intervalo a duração do segmento em milissegundos, maior que zero.
+     * @return a velocidade em km/h.
+     */
+    static double calcularVelocidade(double distancia, long intervalo) {
+        return distancia * MILLIS_POR_HORA / intervalo;
+    }
+
+    /**
+     * Calcula a velocidade média de uma distância percorrida em um tempo.
+     *
+     * @param distancia a distância em quilômetros.
+     * @param tempo     o tempo em milissegundos.
+     * @return a velocidade média em km/h, ou 0 se o tempo for zero.
+     */
+    static double calcularVelocidadeMedia(double distancia, long tempo) {
+        return tempo == 0 ? 0 : distancia * MILLIS_POR_HORA / tempo;
+    }
+
+    /**
+     * Soma a duração de um segmento ao tempo em movimento, se o veículo se movia nele.
+     *
+     * @param tempoMovimento o tempo em movimento acumulado, em milissegundos.
+     * @param velocidade     a velocidade do segmento em km/h.
+     * @param intervalo      a duração do segmento em milissegundos.
+     * @return o novo tempo em movimento.
+     */
+    static long somarTempoMovimento(long tempoMovimento, double velocidade, long intervalo) {
+        return velocidade >= VELOCIDADE_MINIMA_MOVIMENTO ? tempoMovimento + intervalo : tempoMovimento;
+    }
+
+    /**
+     * Verifica se o trecho da velocidade média parcial foi completado, e a média deve recomeçar
+     * no segmento seguinte.
+     *
+     * @param distanciaParcial    a distância do trecho em andamento, em quilômetros.
+     * @param deslocamentoParcial a distância de cada trecho, em quilômetros.
+     * @return true se o trecho foi completado.
+     */
+    static boolean isTrechoParcialCompleto(double distanciaParcial, double deslocamentoParcial) {
+        return distanciaParcial >= deslocamentoParcial;
+    }
+}
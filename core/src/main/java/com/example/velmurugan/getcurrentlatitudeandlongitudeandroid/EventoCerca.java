@@ -0,0 +1,21 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Eventos produzidos pelo MonitorCercas. Cada evento ocorre uma única vez por visita à cerca.
+ */
+public enum EventoCerca {
+    /**
+     * A localização passou a estar dentro da cerca.
+     */
+    ENTRADA,
+
+    /**
+     * A localização está dentro da cerca desde a entrada há pelo menos o tempo de permanência.
+     */
+    PERMANENCIA,
+
+    /**
+     * A localização se afastou da cerca além da margem de saída.
+     */
+    SAIDA
+}
@@ -0,0 +1,255 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Filtro de Kalman de velocidade constante que suaviza as localizações antes de repassá-las.
+ * <p>
+ * As coordenadas são projetadas em metros em um plano tangente à primeira localização, e cada eixo
+ * tem posição e velocidade como estado. A incerteza de cada medida é a precisão informada pelo
+ * provedor, e a do movimento vem do ruído de aceleração do perfil do veículo. Como os dois eixos
+ * usam o mesmo modelo e recebem a mesma incerteza, compartilham uma única matriz de covariância
+ * 2x2, guardada em três campos; nenhuma localização aloca memória.
+ * <p>
+ * Quando a velocidade estimada cai abaixo da velocidade de parada do perfil, a posição repassada
+ * é mantida até que a posição estimada se afaste dela mais que três desvios padrão da diferença. Assim a
+ * oscilação das coordenadas de um veículo parado não conta como distância percorrida nem como
+ * troca de localização; quando o veículo volta a andar, o deslocamento acumulado é repassado de
+ * uma vez e nenhuma distância é perdida. Não é segura para uso por várias threads ao mesmo tempo.
+ */
+public class FiltroKalman implements ReceptorLocalizacao {
+    private static final double METROS_POR_RADIANO = DistanciaHaversine.RAIO_TERRA * 1000.0;
+
+    // Variância inicial da velocidade, em (m/s)²: o veículo pode estar a até cerca de 30 m/s
+    private static final double VARIANCIA_VELOCIDADE_INICIAL = 900;
+
+    private final PerfilVeiculo perfil;
+    private final ReceptorLocalizacao destino;
+
+    // Origem do plano tangente
+    private double latitudeOrigem;
+    private double longitudeOrigem;
+    private double metrosPorGrauLongitude;
+
+    // Estado: posição em metros e velocidade em m/s, a leste e ao norte
+    private double leste;
+    private double norte;
+    private double velocidadeLeste;
+    private double velocidadeNorte;
+
+    // Covariância compartilhada pelos dois eixos
+    private double varianciaPosicao;
+    private double covariancia;
+    private double varianciaVelocidade;
+
+    private long ultimoTimestamp;
+    private boolean iniciado;
+
+    // Posição repassada, mantida enquanto o veículo está parado
+    private double lesteSaida;
+    private double norteSaida;
+    private double latitudeSaida;
+    private double longitudeSaida;
+    private boolean parado;
+
+    /**
+     * Construtor da classe FiltroKalman.
+     *
+     * @param perfil  o perfil do veículo.
+     * @param destino o receptor das localizações suavizadas.
+     */
+    public FiltroKalman(PerfilVeiculo perfil, ReceptorLocalizacao destino) {
+        this.perfil = perfil;
+        this.destino = destino;
+    }
+
+    /**
+     * Suaviza a localização recebida e repassa ao destino a posição, a precisão e a velocidade
+     * estimadas. Localizações com timestamp repetido ou anterior ao último são descartadas.
+     */
+    @Override
+    public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+        if (filtrar(latitude, longitude, precisao, timestamp)) {
+            destino.aoReceberLocalizacao(provedor, latitudeSaida, longitudeSaida, (float) getPrecisao(),
+                    (float) getVelocidade(), timestamp);
+        }
+    }
+
+    /**
+     * Incorpora uma localização à estimativa.
+     *
+     * @param latitude  a latitude medida.
+     * @param longitude a longitude medida.
+     * @param precisao  a precisão da medida em metros, ou NaN se o provedor não a informou.
+     * @param timestamp o timestamp da medida.
+     * @return true se a localização foi incorporada, false se foi descartada por estar fora de ordem.
+     */
+    public boolean filtrar(double latitude, double longitude, float precisao, long timestamp) {
+        double varianciaMedida = precisao > 0 ? (double) precisao * precisao
+                : perfil.getPrecisaoPadrao() * perfil.getPrecisaoPadrao();
+
+        if (!iniciado || timestamp - ultimoTimestamp > perfil.getIntervaloReinicio()) {
+            reiniciar(latitude, longitude, varianciaMedida, timestamp);
+            return true;
+        }
+        if (timestamp <= ultimoTimestamp) {
+            return false;
+        }
+
+        // Predição pelo modelo de velocidade constante
+        double dt = (timestamp - ultimoTimestamp) / 1000.0;
+        double q = perfil.getRuidoAceleracao() * perfil.getRuidoAceleracao();
+        double dt2 = dt * dt;
+        leste += velocidadeLeste * dt;
+        norte += velocidadeNorte * dt;
+        varianciaPosicao += dt * (2 * covariancia + dt * varianciaVelocidade) + q * dt2 * dt2 / 4;
+        covariancia += dt * varianciaVelocidade + q * dt2 * dt / 2;
+        varianciaVelocidade += q * dt2;
+
+        // Correção pela medida
+        double s = varianciaPosicao + varianciaMedida;
+        double ganhoPosicao = varianciaPosicao / s;
+        double ganhoVelocidade = covariancia / s;
+        double inovacaoLeste = paraLeste(longitude) - leste;
+        double inovacaoNorte = paraNorte(latitude) - norte;
+        leste += ganhoPosicao * inovacaoLeste;
+        norte += ganhoPosicao * inovacaoNorte;
+        velocidadeLeste += ganhoVelocidade * inovacaoLeste;
+        velocidadeNorte += ganhoVelocidade * inovacaoNorte;
+        varianciaVelocidade -= ganhoVelocidade * covariancia;
+        covariancia -= ganhoPosicao * covariancia;
+        varianciaPosicao -= ganhoPosicao * varianciaPosicao;
+
+        ultimoTimestamp = timestamp;
+        atualizarSaida();
+        return true;
+    }
+
+    /**
+     * Obtém a latitude repassada, que fica parada enquanto o veículo está parado.
+     *
+     * @return a latitude suavizada.
+     */
+    public double getLatitude() {
+        return latitudeSaida;
+    }
+
+    /**
+     * Obtém a longitude repassada, que fica parada enquanto o veículo está parado.
+     *
+     * @return a longitude suavizada.
+     */
+    public double getLongitude() {
+        return longitudeSaida;
+    }
+
+    /**
+     * Obtém a velocidade estimada para leste.
+     *
+     * @return a velocidade para leste em m/s.
+     */
+    public double getVelocidadeLeste() {
+        return velocidadeLeste;
+    }
+
+    /**
+     * Obtém a velocidade estimada para o norte.
+     *
+     * @return a velocidade para o norte em m/s.
+     */
+    public double getVelocidadeNorte() {
+        return velocidadeNorte;
+    }
+
+    /**
+     * Obtém o módulo da velocidade estimada.
+     *
+     * @return a velocidade em m/s, ou 0 se o veículo está parado.
+     */
+    public double getVelocidade() {
+        return parado ? 0 : Math.sqrt(velocidadeLeste * velocidadeLeste + velocidadeNorte * velocidadeNorte);
+    }
+
+    /**
+     * Obtém o desvio padrão da posição estimada em cada eixo.
+     *
+     * @return a precisão estimada em metros.
+     */
+    public double getPrecisao() {
+        return Math.sqrt(varianciaPosicao);
+    }
+
+    /**
+     * Verifica se o veículo está parado segundo o perfil.
+     *
+     * @return true se a posição repassada está sendo mantida.
+     */
+    public boolean isParado() {
+        return parado;
+    }
+
+    /**
+     * Recomeça a estimativa a partir de uma única medida, com velocidade desconhecida.
+     */
+    private void reiniciar(double latitude, double longitude, double varianciaMedida, long timestamp) {
+        latitudeOrigem = latitude;
+        longitudeOrigem = longitude;
+        metrosPorGrauLongitude = Math.toRadians(1) * METROS_POR_RADIANO * Math.cos(Math.toRadians(latitude));
+        leste = 0;
+        norte = 0;
+        velocidadeLeste = 0;
+        velocidadeNorte = 0;
+        varianciaPosicao = varianciaMedida;
+        covariancia = 0;
+        varianciaVelocidade = VARIANCIA_VELOCIDADE_INICIAL;
+        ultimoTimestamp = timestamp;
+        iniciado = true;
+        parado = false;
+        lesteSaida = 0;
+        norteSaida = 0;
+        latitudeSaida = latitude;
+        longitudeSaida = longitude;
+    }
+
+    /**
+     * Converte o estado de volta para coordenadas, mantendo a posição anterior enquanto o veículo
+     * está parado.
+     */
+    private void atualizarSaida() {
+        if (parado) {
+            double dLeste = leste - lesteSaida;
+            double dNorte = norte - norteSaida;
+            // A posição mantida também é uma estimativa, então a diferença tem o dobro da variância
+            parado = dLeste * dLeste + dNorte * dNorte <= 9 * 2 * varianciaPosicao;
+        } else {
+            double velocidade2 = velocidadeLeste * velocidadeLeste + velocidadeNorte * velocidadeNorte;
+            parado = velocidade2 < perfil.getVelocidadeParada() * perfil.getVelocidadeParada();
+        }
+        if (parado) {
+            return;
+        }
+
+        lesteSaida = leste;
+        norteSaida = norte;
+        latitudeSaida = latitudeOrigem + Math.toDegrees(norte / METROS_POR_RADIANO);
+        double longitude = longitudeOrigem + leste / metrosPorGrauLongitude;
+        if (longitude > 180) {
+            longitude -= 360;
+        } else if (longitude < -180) {
+            longitude += 360;
+        }
+        longitudeSaida = longitude;
+    }
+
+    private double paraLeste(double longitude) {
+        double dLon = longitude - longitudeOrigem;
+        if (dLon > 180) {
+            dLon -= 360;
+        } else if (dLon < -180) {
+            dLon += 360;
+        }
+        return dLon * metrosPorGrauLongitude;
+    }
+
+    private double paraNorte(double latitude) {
+        return Math.toRadians(latitude - latitudeOrigem) * METROS_POR_RADIANO;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Interface que abstrai o gerenciador de localização do sistema.
+ * <p>
+ * No aplicativo ela é implementada pelo GpsTracker sobre o LocationManager; nos testes pode ser
+ * substituída por uma implementação falsa que roda na JVM.
+ */
+public interface FonteLocalizacao {
+
+    /**
+     * Verifica se um provedor de localização está habilitado.
+     *
+     * @param provedor o nome do provedor.
+     * @return true se o provedor estiver habilitado, false caso contrário.
+     */
+    boolean isProvedorAtivo(String provedor);
+
+    /**
+     * Registra o receptor para receber as atualizações de um provedor. Um novo registro para o
+     * mesmo provedor substitui o anterior.
+     *
+     * @param provedor        o nome do provedor.
+     * @param tempoMinimo     o intervalo mínimo entre atualizações em milissegundos.
+     * @param distanciaMinima a distância mínima entre atualizações em metros.
+     * @param receptor        o receptor das localizações.
+     * @return true se o registro foi feito, false se não foi possível, por exemplo sem permissão.
+     */
+    boolean registrar(String provedor, long tempoMinimo, float distanciaMinima, ReceptorLocalizacao receptor);
+
+    /**
+     * Remove o registro de um provedor.
+     *
+     * @param provedor o nome do provedor.
+     */
+    void remover(String provedor);
+
+    /**
+     * Entrega ao receptor a última localização conhecida do provedor, se houver.
+     *
+     * @param provedor o nome do provedor.
+     * @param receptor o receptor da localização.
+     */
+    void entregarUltimaLocalizacao(String provedor, ReceptorLocalizacao receptor);
+}
@@ -0,0 +1,91 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Formato compactado para arquivar sequências longas de localizações.
+ * <p>
+ * As localizações são agrupadas em blocos. Dentro de cada bloco, os valores ficam em colunas: os
+ * timestamps como diferença das diferenças e as coordenadas em micrograus inteiros, como
+ * diferença em relação à localização anterior. Todos os números são gravados como varints em
+ * zigue-zague, então uma localização por segundo em velocidade constante ocupa cerca de cinco
+ * bytes. O arquivo termina com um índice de largura fixa (posição, primeiro timestamp e tamanho
+ * de cada bloco) que permite buscar um bloco por timestamp sem ler os anteriores:
+ * <pre>
+ * cabeçalho  assinatura (int), versão (byte)
+ * blocos     quantidade, primeiro timestamp, primeira latitude, primeira longitude,
+ *            coluna de timestamps, coluna de latitudes, coluna de longitudes
+ * índice     por bloco: posição (long), primeiro timestamp (long), quantidade (int)
+ * rodapé     posição do índice (long), número de blocos (int), assinatura (int)
+ * </pre>
+ * As coordenadas são arredondadas para 0,000001 grau (cerca de 11 cm); precisão, velocidade e
+ * provedor não são arquivados.
+ */
+final class FormatoCompactado {
+    static final int ASSINATURA = 0x5452505A; // "TRPZ"
+    static final byte VERSAO = 1;
+    static final int TAMANHO_CABECALHO = 5;
+    static final int TAMANHO_ENTRADA_INDICE = 20;
+    static final int TAMANHO_RODAPE = 16;
+    static final double ESCALA_COORDENADA = 1e6;
+
+    // Maior número de bytes de um varint de 64 bits
+    static final int TAMANHO_MAXIMO_VARINT = 10;
+
+    private FormatoCompactado() {
+    }
+
+    /**
+     * Escreve um número em zigue-zague como varint.
+     *
+     * @param destino  o vetor de destino.
+     * @param posicao  a posição da escrita.
+     * @param valor    o número a ser escrito.
+     * @return a posição seguinte ao último byte escrito.
+     */
+    static int escreverVarint(byte[] destino, int posicao, long valor) {
+        long zigueZague = (valor << 1) ^ (valor >> 63);
+        while ((zigueZague & ~0x7FL) != 0) {
+            destino[posicao++] = (byte) ((zigueZague & 0x7F) | 0x80);
+            zigueZague >>>= 7;
+        }
+        destino[posicao++] = (byte) zigueZague;
+        return posicao;
+    }
+
+    /**
+     * Lê um número em zigue-zague gravado como varint a partir da posição atual do buffer.
+     *
+     * @param origem o buffer de origem.
+     * @return o número lido.
+     */
+    static long lerVarint(ByteBuffer origem) {
+        long zigueZague = 0;
+        int deslocamento = 0;
+        byte b;
+        do {
+            if (deslocamento >= 64) {
+                throw new BufferUnderflowException();
+            }
+            b = origem.get();
+            zigueZague |= (long) (b & 0x7F) << deslocamento;
+            deslocamento += 7;
+        } while ((b & 0x80) != 0);
+        return (zigueZague >>> 1) ^ -(zigueZague & 1);
+    }
+
+    /**
+     * Converte uma coordenada em graus para micrograus inteiros.
+     */
+    static long paraMicrograus(double graus) {
+        return Math.round(graus * ESCALA_COORDENADA);
+    }
+
+    /**
+     * Converte uma coordenada em micrograus inteiros para graus.
+     */
+    static double paraGraus(long micrograus) {
+        return micrograus / ESCALA_COORDENADA;
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.io.Closeable;
+
+/**
+ * Classe que calcula os dados do percurso de muitos veículos ao mesmo tempo.
+ * <p>
+ * Os veículos são divididos em partições pelo hash do identificador, cada uma com a sua thread,
+ * de modo que as localizações de um veículo são sempre processadas pela mesma thread, na ordem em
+ * que foram recebidas, e o estado dos veículos não precisa de travas. Para cada veículo são
+ * calculados os mesmos valores que o Veiculo calcula sem rota, com a distância pela aproximação
+ * equiretangular: distância, tempos, velocidades médias, consumo de combustível e prazo até o
+ * destino, com resultados idênticos para a mesma sequência de localizações. Rota, velocidade
+ * recomendada e cercas não são calculadas por veículo.
+ * <p>
+ * As localizações podem ser enviadas por várias threads. Quando a fila de uma partição está
+ * cheia, quem envia espera, em vez de descartar localizações. Os dados de um veículo devem ser
+ * consultados depois de aguardarProcessamento().
+ */
+public class FrotaVeiculos implements Closeable {
+    private final ParticaoFrota[] particoes;
+
+    /**
+     * Construtor da classe FrotaVeiculos.
+     *
+     * @param numeroParticoes o número de partições, e de threads de processamento.
+     * @param capacidadeFila  o número de localizações que a fila de cada partição comporta.
+     * @param modeloConsumo   o modelo de consumo de combustível dos veículos, usado por todas as
+     *                        partições ao mesmo tempo.
+     * @param destino         a região de destino dos percursos, usada por todas as partições ao
+     *                        mesmo tempo.
+     */
+    public FrotaVeiculos(int numeroParticoes, int capacidadeFila, ModeloConsumo modeloConsumo, Destino destino) {
+        if (numeroParticoes <= 0 || capacidadeFila <= 0) {
+            throw new IllegalArgumentException("Partições e capacidade da fila devem ser positivas: "
+                    + numeroParticoes + ", " + capacidadeFila);
+        }
+        this.particoes = new ParticaoFrota[numeroParticoes];
+        for (int i = 0; i < numeroParticoes; i++) {
+            particoes[i] = new ParticaoFrota(i, capacidadeFila, modeloConsumo, destino);
+        }
+    }
+
+    /**
+     * Construtor da classe FrotaVeiculos com uma partição por processador e a configuração
+     * padrão do Veiculo.
+     */
+    public FrotaVeiculos() {
+        this(Runtime.getRuntime().availableProcessors(), 8192, PerfilVeiculo.CARRO.getModeloConsumo(), Veiculo.CERCA_DESTINO);
+    }
+
+    /**
+     * Envia uma localização de um veículo à sua partição.
+     *
+     * @param idVeiculo o identificador do veículo.
+     * @param latitude  a latitude da localização.
+     * @param longitude a longitude da localização.
+     * @param timestamp o timestamp da localização em milissegundos.
+     * @throws InterruptedException se a thread for interrompida esperando espaço na fila.
+     * @throws IllegalStateException se a frota já foi fechada.
+     */
+    public void aoReceberLocalizacao(long idVeiculo, double latitude, double longitude, long timestamp) throws InterruptedException {
+        if (!particoes[particao(idVeiculo, particoes.length)].enfileirar(idVeiculo, latitude, longitude, timestamp)) {
+            throw new IllegalStateException("A frota já foi fechada");
+        }
+    }
+
+    /**
+     * Espera até que todas as localizações enviadas até aqui tenham sido processadas.
+     *
+     * @throws InterruptedException se a thread for interrompida durante a espera.
+     */
+    public void aguardarProcessamento() throws InterruptedException {
+        for (ParticaoFrota particao : particoes) {
+            particao.aguardar();
+        }
+    }
+
+    /**
+     * Interrompe as threads de processamento. As localizações ainda nas filas são descartadas.
+     */
+    @Override
+    public void close() {
+        boolean interrompida = false;
+        for (ParticaoFrota particao : particoes) {
+            try {
+                particao.fechar();
+            } catch (InterruptedException e) {
+                interrompida = true;
+            }
+        }
+        if (interrompida) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Obtém o número de partições.
+     *
+     * @return o número de partições.
+     */
+    public int getNumeroParticoes() {
+        return particoes.length;
+    }
+
+    /**
+     * Obtém o número de veículos que já enviaram localizações.
+     *
+     * @return o número de veículos.
+     */
+    public int getNumeroVeiculos() {
+        int total = 0;
+        for (ParticaoFrota particao : particoes) {
+            total += particao.getNumeroVeiculos();
+        }
+        return total;
+    }
+
+    /**
+     * Obtém o número de localizações processadas por todas as partições.
+     *
+     * @return o número de localizações processadas.
+     */
+    public long getLocalizacoesProcessadas() {
+        long total = 0;
+        for (ParticaoFrota particao : particoes) {
+            total += particao.getProcessadas();
+        }
+        return total;
+    }
+
+    /**
+     * Obtém o número de localizações ignoradas por terem timestamp igual ou anterior ao da última
+     * do mesmo veículo.
+     *
+     * @return o número de localizações ignoradas.
+     */
+    public long getLocalizacoesIgnoradas() {
+        long total = 0;
+        for (ParticaoFrota particao : particoes) {
+            total += particao.getIgnoradas();
+        }
+        return total;
+    }
+
+    /**
+     * Verifica se um veículo já enviou localizações.
+     *
+     * @param idVeiculo o identificador do veículo.
+     * @return true se o veículo é conhecido, false caso contrário.
+     */
+    public boolean contem(long idVeiculo) {
+        return particoes[particao(idVeiculo, particoes.length)].buscar(idVeiculo) >= 0;
+    }
+
+    /**
+     * Obtém o número de localizações registradas de um veículo.
+     *
+     * @param idVeiculo o identificador do veículo.
+     * @return o número de localizações.
+     */
+    public long getNumeroLocalizacoes(long idVeiculo) {
+        ParticaoFrota particao = particaoDe(idVeiculo);
+        return particao.getNumeroLocalizacoes(posicao(particao, idVeiculo));
+    }
+
+    /**
+     * Obtém a distância percorrida por um veículo.
+     *
+     * @param idVeiculo o identificador do veículo.
+     * @return a distância percorrida em quilômetros.
+     */
+    public double getDistanciaPercorrida(long idVeiculo) {
+        ParticaoFrota particao = particaoDe(idVeiculo);
+        return particao.getDistanciaPercorrida(posicao(particao, idVeiculo));
+    }
+
+    /**
+     * Obtém o tempo decorrido desde a primeira localização de um veículo.
+     *
+     * @param idVeiculo o identificador do veículo.
+     * @return o tempo decorrido em milissegundos.
+     */
+    public long getTempoDecorrido(long idVeiculo) {
+        ParticaoFrota particao = particaoDe(idVeiculo);
+        return particao.getTempoDecorrido(posicao(particao, idVeiculo));
+    }
+
+    /**
+     * Obtém o tempo em que um veículo esteve em movimento.
+     *
+     * @param idVeiculo o identificador do veículo.
+     * @return o tempo em movimento em milissegundos.
+     */
+    public long getTempoMovimento(long idVeiculo) {
+        ParticaoFrota particao = particaoDe(idVeiculo);
+        return particao.getTempoMovimento(posicao(particao, idVeiculo));
+    }
+
+    /**
+     * Obtém a maior velocidade instantânea de um veículo.
+     *
+     * @param idVeiculo o identificador do veículo.
+     * @return a velocidade máxima em km/h.
+     */
+    public double getVelocidadeMaxima(long idVeiculo) {
+        ParticaoFrota particao = particaoDe(idVeiculo);
+        return particao.getVelocidadeMaxima(posicao(particao, idVeiculo));
+    }
+
+    /**
+     * Obtém a velocidade média do trecho parcial em andamento de um veículo.
+     *
+     * @param idVeiculo o identificador do veículo.
+     * @return a velocidade média parcial em km/h.
+     */
+    public double getVelocidadeMediaParcial(long idVeiculo) {
+        ParticaoFrota particao = particaoDe(idVeiculo);
+        return particao.getVelocidadeMediaParcial(posicao(particao, idVeiculo));
+    }
+
+    /**
+     * Obtém a velocidade média de um veículo desde a sua primeira localização.
+     *
+     * @param idVeiculo o identificador do veículo.
+     * @return a velocidade média total em km/h.
+     */
+    public double getVelocidadeMediaTotal(long idVeiculo) {
+        ParticaoFrota particao = particaoDe(idVeiculo);
+        return particao.getVelocidadeMediaTotal(posicao(particao, idVeiculo));
+    }
+
+    /**
+     * Obtém o consumo de combustível de um veículo.
+     *
+     * @param idVeiculo o identificador do veículo.
+     * @return o consumo total em litros.
+     */
+    public double getConsumoCombustivelTotal(long idVeiculo) {
+        ParticaoFrota particao = particaoDe(idVeiculo);
+        return particao.getConsumoCombustivel(posicao(particao, idVeiculo));
+    }
+
+    /**
+     * Obtém o tempo de deslocamento de um veículo até a última localização fora do destino.
+     *
+     * @param idVeiculo o identificador do veículo.
+     * @return o tempo de deslocamento em segundos.
+     */
+    public long getTempoDeslocamento(long idVeiculo) {
+        ParticaoFrota particao = particaoDe(idVeiculo);
+        return particao.getTempoDeslocamento(posicao(particao, idVeiculo));
+    }
+
+    /**
+     * Obtém o tempo que restava para o prazo de um veículo, como em Veiculo.
+     *
+     * @param idVeiculo o identificador do veículo.
+     * @return o tempo restante para o destino final, em segundos.
+     */
+    public long getTempoParaDestinoFinal(long idVeiculo) {
+        return Veiculo.TEMPO_PARA_DESTINO_FINAL - getTempoDeslocamento(idVeiculo);
+    }
+
+    /**
+     * Verifica se a última localização de um veículo estava no destino.
+     *
+     * @param idVeiculo o identificador do veículo.
+     * @return true se o destino foi alcançado, false caso contrário.
+     */
+    public boolean isDestinoAlcancado(long idVeiculo) {
+        ParticaoFrota particao = particaoDe(idVeiculo);
+        return particao.isDestinoAlcancado(posicao(particao, idVeiculo));
+    }
+
+    /**
+     * Calcula a partição de um veículo. Usa bits do hash diferentes dos usados pela tabela de
+     * cada partição.
+     *
+     * @param idVeiculo       o identificador do veículo.
+     * @param numeroParticoes o número de partições.
+     * @return o índice da partição.
+     */
+    static int particao(long idVeiculo, int numeroParticoes) {
+        return (int) (((idVeiculo * 0xC2B2AE3D27D4EB4FL) >>> 33) % numeroParticoes);
+    }
+
+    private ParticaoFrota particaoDe(long idVeiculo) {
+        return particoes[particao(idVeiculo, particoes.length)];
+    }
+
+    private static int posicao(ParticaoFrota particao, long idVeiculo) {
+        int posicao = particao.buscar(idVeiculo);
+        if (posicao < 0) {
+            throw new IllegalArgumentException("Veículo desconhecido: " + idVeiculo);
+        }
+        return posicao;
+    }
+}
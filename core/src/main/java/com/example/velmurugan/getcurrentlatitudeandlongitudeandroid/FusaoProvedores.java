@@ -0,0 +1,244 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Classe que combina as localizações de vários provedores em uma única sequência.
+ * <p>
+ * A última localização de cada provedor é guardada com sua precisão e seu timestamp. A cada
+ * localização recebida, as localizações recentes, isto é, com até a idade máxima em relação à mais
+ * nova já vista, são combinadas segundo a política configurada, e o resultado é repassado ao
+ * destino. Localizações repetidas ou fora de ordem de um mesmo provedor, localizações antigas, como
+ * a última conhecida entregue na inscrição, e resultados que não trazem nada de novo não são
+ * repassados, e cada caso é contado. Não é segura para uso por várias threads ao mesmo tempo.
+ */
+public class FusaoProvedores implements ReceptorLocalizacao {
+    private static final int NUMERO_PROVEDORES = 3;
+
+    // Precisão atribuída, em metros, às localizações cujo provedor não a informa
+    static final float PRECISAO_DESCONHECIDA = 10000;
+
+    private final PoliticaFusao politica;
+    private final long idadeMaxima;
+    private final float precisaoMaxima;
+    private final ReceptorLocalizacao destino;
+
+    // Última localização de cada provedor, indexada por RegistroPercurso.codigoProvedor
+    private final double[] latitudes = new double[NUMERO_PROVEDORES];
+    private final double[] longitudes = new double[NUMERO_PROVEDORES];
+    private final float[] precisoes = new float[NUMERO_PROVEDORES];
+    private final float[] velocidades = new float[NUMERO_PROVEDORES];
+    private final long[] timestamps = new long[NUMERO_PROVEDORES];
+    private final boolean[] presentes = new boolean[NUMERO_PROVEDORES];
+
+    private long timestampMaisNovo = Long.MIN_VALUE;
+    private long ultimoTimestampRepassado = Long.MIN_VALUE;
+
+    private long repassadas;
+    private long descartesRepetidas;
+    private long descartesAntigas;
+    private long descartesRedundantes;
+
+    /**
+     * Construtor da classe FusaoProvedores.
+     *
+     * @param politica       a política de combinação.
+     * @param idadeMaxima    a idade máxima, em milissegundos, de uma localização combinada.
+     * @param precisaoMaxima a pior precisão, em metros, aceita pela política MAIS_RECENTE.
+     * @param destino        o receptor das localizações combinadas.
+     */
+    public FusaoProvedores(PoliticaFusao politica, long idadeMaxima, float precisaoMaxima, ReceptorLocalizacao destino) {
+        if (idadeMaxima < 0) {
+            throw new IllegalArgumentException("A idade máxima não pode ser negativa: " + idadeMaxima);
+        }
+        this.politica = politica;
+        this.idadeMaxima = idadeMaxima;
+        this.precisaoMaxima = precisaoMaxima;
+        this.destino = destino;
+    }
+
+    /**
+     * Guarda a localização do provedor e repassa ao destino a combinação das localizações recentes.
+     */
+    @Override
+    public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+        int indice = RegistroPercurso.codigoProvedor(provedor);
+        if (presentes[indice] && timestamp <= timestamps[indice]) {
+            descartesRepetidas++;
+            return;
+        }
+        if (timestamp < timestampMaisNovo && timestampMaisNovo - timestamp > idadeMaxima) {
+            descartesAntigas++;
+            return;
+        }
+
+        latitudes[indice] = latitude;
+        longitudes[indice] = longitude;
+        // Sem precisão informada, a localização quase não pesa diante das que a informam
+        precisoes[indice] = precisao > 0 ? precisao : PRECISAO_DESCONHECIDA;
+        velocidades[indice] = velocidade;
+        timestamps[indice] = timestamp;
+        presentes[indice] = true;
+        timestampMaisNovo = Math.max(timestampMaisNovo, timestamp);
+
+        switch (politica) {
+            case PRECISAO_PONDERADA:
+                repassarMedia();
+                break;
+            case MAIS_RECENTE:
+                repassar(escolherMaisRecente());
+                break;
+            default:
+                repassar(escolherGps());
+                break;
+        }
+    }
+
+    /**
+     * Obtém o número de localizações repassadas ao destino.
+     *
+     * @return o número de localizações repassadas.
+     */
+    public long getRepassadas() {
+        return repassadas;
+    }
+
+    /**
+     * Obtém o número de localizações descartadas por repetirem ou precederem a última do mesmo
+     * provedor.
+     *
+     * @return o número de localizações repetidas.
+     */
+    public long getDescartesRepetidas() {
+        return descartesRepetidas;
+    }
+
+    /**
+     * Obtém o número de localizações descartadas por serem mais antigas que a idade máxima.
+     *
+     * @return o número de localizações antigas.
+     */
+    public long getDescartesAntigas() {
+        return descartesAntigas;
+    }
+
+    /**
+     * Obtém o número de combinações não repassadas por não serem mais novas que a última repassada.
+     *
+     * @return o número de combinações redundantes.
+     */
+    public long getDescartesRedundantes() {
+        return descartesRedundantes;
+    }
+
+    private boolean recente(int indice) {
+        return presentes[indice] && timestampMaisNovo - timestamps[indice] <= idadeMaxima;
+    }
+
+    /**
+     * Escolhe a localização recente mais nova com precisão dentro do limite, ou a mais precisa.
+     */
+    private int escolherMaisRecente() {
+        int escolhida = -1;
+        int maisPrecisa = -1;
+        for (int i = 0; i < NUMERO_PROVEDORES; i++) {
+            if (!recente(i)) {
+                continue;
+            }
+            if (precisoes[i] <= precisaoMaxima && (escolhida < 0 || timestamps[i] > timestamps[escolhida])) {
+                escolhida = i;
+            }
+            if (maisPrecisa < 0 || precisoes[i] < precisoes[maisPrecisa]) {
+                maisPrecisa = i;
+            }
+        }
+        return escolhida >= 0 ? escolhida : maisPrecisa;
+    }
+
+    /**
+     * Escolhe a localização recente do GPS ou, na falta dela, a mais precisa das outras.
+     */
+    private int escolherGps() {
+        if (recente(RegistroPercurso.PROVEDOR_GPS)) {
+            return RegistroPercurso.PROVEDOR_GPS;
+        }
+        int escolhida = -1;
+        for (int i = 0; i < NUMERO_PROVEDORES; i++) {
+            if (recente(i) && (escolhida < 0 || precisoes[i] < precisoes[escolhida])) {
+                escolhida = i;
+            }
+        }
+        return escolhida;
+    }
+
+    private void repassar(int indice) {
+        if (timestamps[indice] <= ultimoTimestampRepassado) {
+            descartesRedundantes++;
+            return;
+        }
+        ultimoTimestampRepassado = timestamps[indice];
+        repassadas++;
+        destino.aoReceberLocalizacao(RegistroPercurso.nomeProvedor((byte) indice), latitudes[indice], longitudes[indice],
+                precisaoInformada(precisoes[indice], precisoes[indice]), velocidades[indice], timestamps[indice]);
+    }
+
+    /**
+     * Repassa a média das localizações recentes ponderada pelo inverso do quadrado das precisões.
+     * A precisão da média é a do estimador combinado, e a velocidade e o provedor são os da
+     * localização de maior peso que os informa.
+     */
+    private void repassarMedia() {
+        if (timestampMaisNovo <= ultimoTimestampRepassado) {
+            descartesRedundantes++;
+            return;
+        }
+
+        int referencia = -1;
+        int comVelocidade = -1;
+        for (int i = 0; i < NUMERO_PROVEDORES; i++) {
+            if (!recente(i)) {
+                continue;
+            }
+            if (referencia < 0 || precisoes[i] < precisoes[referencia]) {
+                referencia = i;
+            }
+            if (!Float.isNaN(velocidades[i]) && (comVelocidade < 0 || precisoes[i] < precisoes[comVelocidade])) {
+                comVelocidade = i;
+            }
+        }
+
+        // As longitudes são somadas como diferenças em relação à referência, por causa do antimeridiano
+        double somaPesos = 0;
+        double somaLatitudes = 0;
+        double somaLongitudes = 0;
+        for (int i = 0; i < NUMERO_PROVEDORES; i++) {
+            if (!recente(i)) {
+                continue;
+            }
+            double peso = 1.0 / ((double) precisoes[i] * precisoes[i]);
+            double dLon = longitudes[i] - longitudes[referencia];
+            if (dLon > 180) {
+                dLon -= 360;
+            } else if (dLon < -180) {
+                dLon += 360;
+            }
+            somaPesos += peso;
+            somaLatitudes += peso * latitudes[i];
+            somaLongitudes += peso * dLon;
+        }
+
+        double longitude = longitudes[referencia] + somaLongitudes / somaPesos;
+        if (longitude > 180) {
+            longitude -= 360;
+        } else if (longitude < -180) {
+            longitude += 360;
+        }
+        ultimoTimestampRepassado = timestampMaisNovo;
+        repassadas++;
+        destino.aoReceberLocalizacao(RegistroPercurso.nomeProvedor((byte) referencia), somaLatitudes / somaPesos, longitude,
+                precisaoInformada(precisoes[referencia], Math.sqrt(1.0 / somaPesos)),
+                comVelocidade >= 0 ? velocidades[comVelocidade] : Float.NaN, timestampMaisNovo);
+    }
+
+    private static float precisaoInformada(float precisao, double valor) {
+        return precisao == PRECISAO_DESCONHECIDA ? Float.NaN : (float) valor;
+    }
+}
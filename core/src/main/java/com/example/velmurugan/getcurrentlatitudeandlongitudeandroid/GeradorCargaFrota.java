@@ -0,0 +1,84 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.util.Random;
+
+/**
+ * Classe que gera localizações sintéticas de uma frota, para testes de carga da FrotaVeiculos.
+ * <p>
+ * Cada veículo parte de um ponto aleatório em torno do destino padrão e anda com velocidade e
+ * direção que variam aos poucos, com uma localização a cada segundo, mais ou menos um pequeno
+ * atraso. As localizações dos veículos são intercaladas, uma de cada veículo por vez, como
+ * chegariam de uma frota real. A mesma semente gera sempre a mesma sequência.
+ */
+public class GeradorCargaFrota {
+    // Graus de latitude correspondentes a um metro
+    private static final double GRAUS_POR_METRO = 1 / 111195.0;
+
+    private final Random aleatorio;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] direcoes;
+    private final double[] velocidades;
+    private final long[] timestamps;
+    private int proximo;
+
+    /**
+     * Construtor da classe GeradorCargaFrota.
+     *
+     * @param numeroVeiculos o número de veículos, identificados de 0 a numeroVeiculos - 1.
+     * @param semente        a semente dos números aleatórios.
+     */
+    public GeradorCargaFrota(int numeroVeiculos, long semente) {
+        this.aleatorio = new Random(semente);
+        this.latitudes = new double[numeroVeiculos];
+        this.longitudes = new double[numeroVeiculos];
+        this.direcoes = new double[numeroVeiculos];
+        this.velocidades = new double[numeroVeiculos];
+        this.timestamps = new long[numeroVeiculos];
+        for (int i = 0; i < numeroVeiculos; i++) {
+            latitudes[i] = Veiculo.LATITUDE_FINAL + (aleatorio.nextDouble() - 0.5);
+            longitudes[i] = Veiculo.LONGITUDE_FINAL + (aleatorio.nextDouble() - 0.5);
+            direcoes[i] = aleatorio.nextDouble() * 2 * Math.PI;
+            velocidades[i] = 5 + aleatorio.nextDouble() * 25;
+            timestamps[i] = aleatorio.nextInt(1000);
+        }
+    }
+
+    /**
+     * Gera as próximas localizações da frota.
+     *
+     * @param ids        recebe o identificador do veículo de cada localização.
+     * @param latitudes  recebe as latitudes.
+     * @param longitudes recebe as longitudes.
+     * @param timestamps recebe os timestamps, em milissegundos.
+     * @param quantidade o número de localizações geradas.
+     */
+    public void gerar(long[] ids, double[] latitudes, double[] longitudes, long[] timestamps, int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            int v = proximo;
+            proximo = proximo + 1 == this.latitudes.length ? 0 : proximo + 1;
+
+            long intervalo = 900 + aleatorio.nextInt(200);
+            direcoes[v] += aleatorio.nextGaussian() * 0.05;
+            velocidades[v] = Math.max(0, Math.min(35, velocidades[v] + aleatorio.nextGaussian() * 0.5));
+            double metros = velocidades[v] * intervalo / 1000.0;
+            this.latitudes[v] += Math.cos(direcoes[v]) * metros * GRAUS_POR_METRO;
+            this.longitudes[v] += Math.sin(direcoes[v]) * metros * GRAUS_POR_METRO / Math.cos(Math.toRadians(this.latitudes[v]));
+            this.timestamps[v] += intervalo;
+
+            ids[i] = v;
+            latitudes[i] = this.latitudes[v];
+            longitudes[i] = this.longitudes[v];
+            timestamps[i] = this.timestamps[v];
+        }
+    }
+
+    /**
+     * Obtém o número de veículos da frota.
+     *
+     * @return o número de veículos.
+     */
+    public int getNumeroVeiculos() {
+        return latitudes.length;
+    }
+}
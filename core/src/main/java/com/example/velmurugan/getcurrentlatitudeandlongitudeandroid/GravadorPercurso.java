@@ -0,0 +1,212 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Classe que grava as localizações recebidas em um arquivo no formato RegistroPercurso.
+ * <p>
+ * O callback apenas copia a localização para um buffer em memória; uma thread própria troca o
+ * buffer cheio por um vazio, grava-o no arquivo pelo FileChannel e sincroniza o arquivo com o disco
+ * em lotes, no máximo uma vez por intervalo de sincronização. Assim a thread que entrega as
+ * localizações nunca espera por escrita em disco. Se a thread de gravação não acompanhar e os dois
+ * buffers encherem, as localizações excedentes são descartadas e contadas.
+ */
+public class GravadorPercurso implements ReceptorLocalizacao, Closeable {
+    private final FileChannel canal;
+    private final long intervaloSincronizacao;
+    private final Thread gravador;
+
+    private ByteBuffer ativo; // Recebe as localizações
+    private ByteBuffer gravacao; // Está sendo gravado no arquivo
+    private boolean fechado;
+    private IOException erro;
+
+    private volatile long registrosGravados;
+    private volatile long descartes;
+
+    /**
+     * Construtor da classe GravadorPercurso. Se o arquivo já existir, as novas localizações são
+     * acrescentadas ao final.
+     *
+     * @param arquivo                o arquivo do registro.
+     * @param capacidadeRegistros    o número de localizações que cada buffer comporta.
+     * @param intervaloSincronizacao o intervalo máximo, em milissegundos, entre duas gravações.
+     * @throws IOException se o arquivo não puder ser aberto ou não for um registro de percurso.
+     */
+    public GravadorPercurso(File arquivo, int capacidadeRegistros, long intervaloSincronizacao) throws IOException {
+        this.canal = new RandomAccessFile(arquivo, "rw").getChannel();
+        this.intervaloSincronizacao = intervaloSincronizacao;
+        this.ativo = ByteBuffer.allocateDirect(capacidadeRegistros * RegistroPercurso.TAMANHO_REGISTRO);
+        this.gravacao = ByteBuffer.allocateDirect(capacidadeRegistros * RegistroPercurso.TAMANHO_REGISTRO);
+
+        try {
+            prepararArquivo();
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+
+        this.gravador = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                gravar();
+            }
+        }, "gravador-percurso");
+        this.gravador.start();
+    }
+
+    /**
+     * Copia a localização para o buffer de gravação, sem bloquear o chamador.
+     */
+    @Override
+    public synchronized void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+        if (fechado || ativo.remaining() < RegistroPercurso.TAMANHO_REGISTRO) {
+            descartes++;
+            return;
+        }
+        ativo.putLong(timestamp);
+        ativo.putDouble(latitude);
+        ativo.putDouble(longitude);
+        ativo.putFloat(precisao);
+        ativo.putFloat(velocidade);
+        ativo.put(RegistroPercurso.codigoProvedor(provedor));
+
+        // Acorda a thread de gravação antes que o buffer encha
+        if (ativo.position() >= ativo.capacity() / 2) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Grava as localizações pendentes, sincroniza o arquivo e o fecha.
+     *
+     * @throws IOException se houve erro em alguma gravação.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (fechado) {
+                return;
+            }
+            fechado = true;
+            notifyAll();
+        }
+        try {
+            gravador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+        synchronized (this) {
+            if (erro != null) {
+                throw erro;
+            }
+        }
+    }
+
+    /**
+     * Obtém o número de localizações já gravadas no arquivo.
+     *
+     * @return o número de registros gravados.
+     */
+    public long getRegistrosGravados() {
+        return registrosGravados;
+    }
+
+    /**
+     * Obtém o número de localizações descartadas por falta de espaço nos buffers.
+     *
+     * @return o número de descartes.
+     */
+    public long getDescartes() {
+        return descartes;
+    }
+
+    /**
+     * Escreve o cabeçalho em um arquivo novo ou posiciona o canal no fim do último registro
+     * completo de um arquivo existente.
+     */
+    private void prepararArquivo() throws IOException {
+        long tamanho = canal.size();
+        if (tamanho == 0) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(RegistroPercurso.TAMANHO_CABECALHO);
+            RegistroPercurso.escreverCabecalho(cabecalho);
+            cabecalho.flip();
+            while (cabecalho.hasRemaining()) {
+                canal.write(cabecalho);
+            }
+            canal.force(true);
+            return;
+        }
+
+        ByteBuffer cabecalho = ByteBuffer.allocate(RegistroPercurso.TAMANHO_CABECALHO);
+        while (cabecalho.hasRemaining() && canal.read(cabecalho) >= 0) {
+            // Lê o cabeçalho completo
+        }
+        cabecalho.flip();
+        RegistroPercurso.validarCabecalho(cabecalho);
+
+        long registros = (tamanho - RegistroPercurso.TAMANHO_CABECALHO) / RegistroPercurso.TAMANHO_REGISTRO;
+        long fim = RegistroPercurso.TAMANHO_CABECALHO + registros * RegistroPercurso.TAMANHO_REGISTRO;
+        canal.truncate(fim);
+        canal.position(fim);
+        registrosGravados = registros;
+    }
+
+    /**
+     * Laço da thread de gravação.
+     */
+    private void gravar() {
+        long ultimaSincronizacao = System.currentTimeMillis();
+        boolean pendenteSincronizacao = false;
+        while (true) {
+            boolean encerrar;
+            synchronized (this) {
+                if (!fechado && ativo.position() < ativo.capacity() / 2) {
+                    try {
+                        wait(intervaloSincronizacao);
+                    } catch (InterruptedException e) {
+                        fechado = true;
+                    }
+                }
+                encerrar = fechado;
+                ByteBuffer cheio = ativo;
+                ativo = gravacao;
+                gravacao = cheio;
+            }
+
+            try {
+                gravacao.flip();
+                int registros = gravacao.remaining() / RegistroPercurso.TAMANHO_REGISTRO;
+                while (gravacao.hasRemaining()) {
+                    canal.write(gravacao);
+                }
+                gravacao.clear();
+                registrosGravados += registros;
+                pendenteSincronizacao |= registros > 0;
+
+                long agora = System.currentTimeMillis();
+                if (pendenteSincronizacao && (encerrar || agora - ultimaSincronizacao >= intervaloSincronizacao)) {
+                    canal.force(false);
+                    ultimaSincronizacao = agora;
+                    pendenteSincronizacao = false;
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    erro = e;
+                    fechado = true;
+                }
+                return;
+            }
+
+            if (encerrar) {
+                return;
+            }
+        }
+    }
+}
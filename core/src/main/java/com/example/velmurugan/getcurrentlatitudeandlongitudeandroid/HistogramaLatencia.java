@@ -0,0 +1,141 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latências com precisão relativa constante, no estilo do HdrHistogram.
+ * <p>
+ * Cada potência de dois é dividida em {@value #SUBFAIXAS} faixas iguais, então o valor devolvido
+ * para um percentil fica até 1/{@value #SUBFAIXAS} acima do valor real, de um nanossegundo a
+ * centenas de anos, com um vetor fixo de contagens. O registro incrementa a faixa do valor sem
+ * travas, sem instruções atômicas e sem criar objetos.
+ * <p>
+ * Como o MedidorLatencia, cada histograma deve ser atualizado por uma thread de cada vez, por
+ * exemplo sempre a mesma ou sempre sob a mesma trava; a leitura pode ser feita de qualquer
+ * thread e vê cada faixa atualizada ou não, nunca pela metade.
+ */
+public class HistogramaLatencia {
+    // Faixas por potência de dois; valores menores que 2 * SUBFAIXAS têm uma faixa cada
+    static final int BITS_SUBFAIXA = 5;
+    static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+    static final int NUMERO_FAIXAS = posicao(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(NUMERO_FAIXAS);
+    private final AtomicLong soma = new AtomicLong();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra um valor. Valores negativos contam como 0.
+     *
+     * @param valor o valor, normalmente em nanossegundos.
+     */
+    public void registrar(long valor) {
+        if (valor < 0) {
+            valor = 0;
+        }
+        // Com um único escritor, a escrita ordenada basta e custa bem menos que um incremento
+        // atômico
+        int posicao = posicao(valor);
+        contagens.lazySet(posicao, contagens.get(posicao) + 1);
+        soma.lazySet(soma.get() + valor);
+        if (valor > maximo.get()) {
+            maximo.lazySet(valor);
+        }
+    }
+
+    /**
+     * Obtém o número de valores registrados.
+     *
+     * @return o número de valores.
+     */
+    public long getContagem() {
+        long total = 0;
+        for (int i = 0; i < NUMERO_FAIXAS; i++) {
+            total += contagens.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Obtém o maior valor registrado, exato.
+     *
+     * @return o maior valor, ou 0 se nenhum foi registrado.
+     */
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    /**
+     * Obtém a média exata dos valores registrados.
+     *
+     * @return a média, ou 0 se nenhum valor foi registrado.
+     */
+    public double getMedia() {
+        long contagem = getContagem();
+        return contagem == 0 ? 0 : (double) soma.get() / contagem;
+    }
+
+    /**
+     * Obtém o valor abaixo do qual, ou igual ao qual, está a porcentagem indicada dos valores
+     * registrados.
+     *
+     * @param percentil a porcentagem, de 0 a 100.
+     * @return o maior valor da faixa do percentil, limitado ao máximo, ou 0 se nenhum valor foi
+     * registrado.
+     */
+    public long getPercentil(double percentil) {
+        if (!(percentil >= 0 && percentil <= 100)) {
+            throw new IllegalArgumentException("Percentil fora de 0 a 100: " + percentil);
+        }
+        long[] copia = new long[NUMERO_FAIXAS];
+        long total = 0;
+        for (int i = 0; i < NUMERO_FAIXAS; i++) {
+            copia[i] = contagens.get(i);
+            total += copia[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(percentil / 100 * total));
+        long acumulado = 0;
+        for (int i = 0; i < NUMERO_FAIXAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= alvo) {
+                return Math.min(maiorValor(i), getMaximo());
+            }
+        }
+        return getMaximo();
+    }
+
+    /**
+     * Calcula a faixa de um valor não negativo.
+     *
+     * @param valor o valor.
+     * @return o índice da faixa.
+     */
+    static int posicao(long valor) {
+        if (valor < 2 * SUBFAIXAS) {
+            return (int) valor;
+        }
+        int deslocamento = 63 - Long.numberOfLeadingZeros(valor) - BITS_SUBFAIXA;
+        return deslocamento * SUBFAIXAS + (int) (valor >>> deslocamento);
+    }
+
+    /**
+     * Calcula o maior valor de uma faixa.
+     *
+     * @param posicao o índice da faixa.
+     * @return o maior valor que cai na faixa.
+     */
+    static long maiorValor(int posicao) {
+        if (posicao < 2 * SUBFAIXAS) {
+            return posicao;
+        }
+        int deslocamento = posicao / SUBFAIXAS - 1;
+        long inicio = posicao - deslocamento * SUBFAIXAS;
+        // Na última faixa (inicio + 1) << deslocamento transborda para Long.MIN_VALUE, e o
+        // resultado é Long.MAX_VALUE
+        return ((inicio + 1) << deslocamento) - 1;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Buffer circular de capacidade fixa que armazena as localizações ordenadas pelo timestamp.
+ * <p>
+ * As coordenadas ficam em vetores primitivos paralelos, então nenhuma localização gera objetos
+ * novos e a memória ocupada não cresce durante o percurso. Quando o buffer está cheio, a
+ * localização mais antiga é sobrescrita. A inserção é O(1) quando a localização chega em ordem;
+ * apenas localizações atrasadas são deslocadas até a sua posição.
+ */
+public class HistoricoLocalizacoes {
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final long[] timestamps;
+    private final int capacidade;
+
+    private int inicio; // Índice físico da localização mais antiga
+    private int tamanho;
+
+    /**
+     * Construtor da classe HistoricoLocalizacoes.
+     *
+     * @param capacidade o número máximo de localizações mantidas.
+     */
+    public HistoricoLocalizacoes(int capacidade) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("A capacidade deve ser positiva: " + capacidade);
+        }
+        this.capacidade = capacidade;
+        this.latitudes = new double[capacidade];
+        this.longitudes = new double[capacidade];
+        this.timestamps = new long[capacidade];
+    }
+
+    /**
+     * Adiciona uma localização mantendo a ordem pelo timestamp.
+     *
+     * @param latitude  a latitude a ser adicionada.
+     * @param longitude a longitude a ser adicionada.
+     * @param timestamp o timestamp da localização.
+     * @return false se a localização for mais antiga que todo o histórico cheio e foi descartada.
+     */
+    public boolean adicionar(double latitude, double longitude, long timestamp) {
+        if (tamanho == capacidade && timestamp < timestamps[inicio]) {
+            return false;
+        }
+
+        // Localizações em ordem são apenas anexadas ao final
+        if (tamanho == 0 || timestamp >= timestamps[fisico(tamanho - 1)]) {
+            anexar(latitude, longitude, timestamp);
+            return true;
+        }
+
+        // Localização atrasada: desloca as mais recentes uma posição para frente
+        if (tamanho == capacidade) {
+            descartarMaisAntiga();
+        }
+        int posicao = tamanho;
+        while (posicao > 0 && timestamps[fisico(posicao - 1)] > timestamp) {
+            int origem = fisico(posicao - 1);
+            int destino = fisico(posicao);
+            latitudes[destino] = latitudes[origem];
+            longitudes[destino] = longitudes[origem];
+            timestamps[destino] = timestamps[origem];
+            posicao--;
+        }
+        int destino = fisico(posicao);
+        latitudes[destino] = latitude;
+        longitudes[destino] = longitude;
+        timestamps[destino] = timestamp;
+        tamanho++;
+        return true;
+    }
+
+    /**
+     * Substitui a localização mais recente do histórico.
+     *
+     * @param latitude  a nova latitude.
+     * @param longitude a nova longitude.
+     * @param timestamp o novo timestamp.
+     */
+    public void substituirMaisRecente(double latitude, double longitude, long timestamp) {
+        if (tamanho == 0) {
+            throw new IllegalStateException("O histórico está vazio");
+        }
+        int indice = fisico(tamanho - 1);
+        latitudes[indice] = latitude;
+        longitudes[indice] = longitude;
+        timestamps[indice] = timestamp;
+    }
+
+    /**
+     * Remove todas as localizações do histórico.
+     */
+    public void limpar() {
+        inicio = 0;
+        tamanho = 0;
+    }
+
+    /**
+     * Obtém o número de localizações armazenadas.
+     *
+     * @return o número de localizações.
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Obtém a capacidade do histórico.
+     *
+     * @return o número máximo de localizações mantidas.
+     */
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    /**
+     * Obtém a latitude de uma das últimas localizações, sem copiar o histórico.
+     *
+     * @param recuo 0 para a localização mais recente, 1 para a anterior e assim por diante.
+     * @return a latitude da localização.
+     */
+    public double getLatitudeRecente(int recuo) {
+        return latitudes[indiceRecente(recuo)];
+    }
+
+    /**
+     * Obtém a longitude de uma das últimas localizações, sem copiar o histórico.
+     *
+     * @param recuo 0 para a localização mais recente, 1 para a anterior e assim por diante.
+     * @return a longitude da localização.
+     */
+    public double getLongitudeRecente(int recuo) {
+        return longitudes[indiceRecente(recuo)];
+    }
+
+    /**
+     * Obtém o timestamp de uma das últimas localizações, sem copiar o histórico.
+     *
+     * @param recuo 0 para a localização mais recente, 1 para a anterior e assim por diante.
+     * @return o timestamp da localização.
+     */
+    public long getTimestampRecente(int recuo) {
+        return timestamps[indiceRecente(recuo)];
+    }
+
+    /**
+     * Cria um objeto LocationData com uma das últimas localizações.
+     *
+     * @param recuo 0 para a localização mais recente, 1 para a anterior e assim por diante.
+     * @return os dados da localização.
+     */
+    public LocationData getLocationDataRecente(int recuo) {
+        int indice = indiceRecente(recuo);
+        return new LocationData(latitudes[indice], longitudes[indice], timestamps[indice]);
+    }
+
+    private void anexar(double latitude, double longitude, long timestamp) {
+        if (tamanho == capacidade) {
+            descartarMaisAntiga();
+        }
+        int indice = fisico(tamanho);
+        latitudes[indice] = latitude;
+        longitudes[indice] = longitude;
+        timestamps[indice] = timestamp;
+        tamanho++;
+    }
+
+    private void descartarMaisAntiga() {
+        inicio = inicio + 1 == capacidade ? 0 : inicio + 1;
+        tamanho--;
+    }
+
+    private int indiceRecente(int recuo) {
+        if (recuo < 0 || recuo >= tamanho) {
+            throw new IndexOutOfBoundsException("Recuo " + recuo + " fora do histórico de tamanho " + tamanho);
+        }
+        return fisico(tamanho - 1 - recuo);
+    }
+
+    private int fisico(int logico) {
+        int indice = inicio + logico;
+        return indice >= capacidade ? indice - capacidade : indice;
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Classe imutável com os dados do percurso calculados para uma localização.
+ * <p>
+ * É criada pela thread de processamento e lida pela thread da interface, sem que as duas
+ * compartilhem os campos mutáveis do Veiculo.
+ */
+public final class InstantaneoPercurso {
+    private final double latitude;
+    private final double longitude;
+    private final long timestamp;
+    private final double velocidadeMediaParcial;
+    private final double velocidadeMediaTotal;
+    private final long tempoDeslocamento;
+    private final double distanciaPercorrida;
+    private final double consumoCombustivelTotal;
+    private final long tempoParaDestinoFinal;
+    private final double velocidadeRecomendada;
+    private final double velocidadeInstantanea;
+    private final double velocidadeMaxima;
+    private final long tempoMovimento;
+    private final double distanciaRestante;
+    private final boolean destinoAlcancado;
+    private final double[] velocidadesMediasJanelas;
+    private final double[] taxasConsumoJanelas;
+    private final long instanteCriacaoNanos;
+
+    /**
+     * Cria um instantâneo com os dados atuais do veículo.
+     *
+     * @param veiculo              o veículo cujos dados serão copiados.
+     * @param latitude             a latitude da localização processada.
+     * @param longitude            a longitude da localização processada.
+     * @param timestamp            o timestamp da localização processada.
+     * @param instanteCriacaoNanos o instante de criação, em System.nanoTime().
+     */
+    public InstantaneoPercurso(Veiculo veiculo, double latitude, double longitude, long timestamp, long instanteCriacaoNanos) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.timestamp = timestamp;
+        this.velocidadeMediaParcial = veiculo.getVelocidadeMediaParcial();
+        this.velocidadeMediaTotal = veiculo.getVelocidadeMediaTotal();
+        this.tempoDeslocamento = veiculo.getTempoDeslocamento();
+        this.distanciaPercorrida = veiculo.getDistanciaPercorrida();
+        this.consumoCombustivelTotal = veiculo.getConsumoCombustivelTotal();
+        this.tempoParaDestinoFinal = veiculo.getTempoParaDestinoFinal();
+        this.velocidadeRecomendada = veiculo.getVelocidadeRecomendada();
+        EstatisticasPercurso estatisticas = veiculo.getEstatisticas();
+        this.velocidadeInstantanea = estatisticas.getVelocidadeInstantanea();
+        this.velocidadeMaxima = estatisticas.getVelocidadeMaxima();
+        this.tempoMovimento = estatisticas.getTempoMovimento() / 1000;
+        this.distanciaRestante = veiculo.getDistanciaRestante();
+        this.destinoAlcancado = veiculo.isDestinoAlcancado();
+        TendenciasPercurso tendencias = veiculo.getTendencias();
+        int janelas = tendencias == null ? 0 : tendencias.getNumeroJanelas();
+        this.velocidadesMediasJanelas = new double[janelas];
+        this.taxasConsumoJanelas = new double[janelas];
+        for (int j = 0; j < janelas; j++) {
+            velocidadesMediasJanelas[j] = tendencias.getVelocidadeMedia(j);
+            taxasConsumoJanelas[j] = tendencias.getTaxaConsumo(j);
+        }
+        this.instanteCriacaoNanos = instanteCriacaoNanos;
+    }
+
+    /**
+     * Obtém a latitude da localização processada.
+     *
+     * @return a latitude da localização processada.
+     */
+    public double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Obtém a longitude da localização processada.
+     *
+     * @return a longitude da localização processada.
+     */
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Obtém o timestamp da localização processada.
+     *
+     * @return o timestamp da localização processada.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Obtém a velocidade média parcial.
+     *
+     * @return a velocidade média parcial.
+     */
+    public double getVelocidadeMediaParcial() {
+        return velocidadeMediaParcial;
+    }
+
+    /**
+     * Obtém a velocidade média total.
+     *
+     * @return a velocidade média total.
+     */
+    public double getVelocidadeMediaTotal() {
+        return velocidadeMediaTotal;
+    }
+
+    /**
+     * Obtém o tempo de deslocamento.
+     *
+     * @return o tempo de deslocamento.
+     */
+    public long getTempoDeslocamento() {
+        return tempoDeslocamento;
+    }
+
+    /**
+     * Obtém a distância percorrida.
+     *
+     * @return a distância percorrida.
+     */
+    public double getDistanciaPercorrida() {
+        return distanciaPercorrida;
+    }
+
+    /**
+     * Obtém o consumo total de combustível.
+     *
+     * @return o consumo total de combustível.
+     */
+    public double getConsumoCombustivelTotal() {
+        return consumoCombustivelTotal;
+    }
+
+    /**
+     * Obtém o tempo restante para o destino final.
+     *
+     * @return o tempo restante para o destino final.
+     */
+    public long getTempoParaDestinoFinal() {
+        return tempoParaDestinoFinal;
+    }
+
+    /**
+     * Obtém a velocidade recomendada.
+     *
+     * @return a velocidade recomendada.
+     */
+    public double getVelocidadeRecomendada() {
+        return velocidadeRecomendada;
+    }
+
+    /**
+     * Obtém a velocidade entre as duas últimas localizações.
+     *
+     * @return a velocidade instantânea em km/h.
+     */
+    public double getVelocidadeInstantanea() {
+        return velocidadeInstantanea;
+    }
+
+    /**
+     * Obtém a maior velocidade instantânea do percurso.
+     *
+     * @return a velocidade máxima em km/h.
+     */
+    public double getVelocidadeMaxima() {
+        return velocidadeMaxima;
+    }
+
+    /**
+     * Obtém o tempo em que o veículo esteve em movimento.
+     *
+     * @return o tempo em movimento em segundos.
+     */
+    public long getTempoMovimento() {
+        return tempoMovimento;
+    }
+
+    /**
+     * Obtém a distância que falta para completar o percurso.
+     *
+     * @return a distância restante em quilômetros.
+     */
+    public double getDistanciaRestante() {
+        return distanciaRestante;
+    }
+
+    /**
+     * Verifica se a localização processada já está na região de destino.
+     *
+     * @return true se o destino foi alcançado, false caso contrário.
+     */
+    public boolean isDestinoAlcancado() {
+        return destinoAlcancado;
+    }
+
+    /**
+     * Obtém o instante em que o instantâneo foi criado.
+     *
+     * @return o instante em System.nanoTime().
+     */
+    public long getInstanteCriacaoNanos() {
+        return instanteCriacaoNanos;
+    }
+
+    /**
+     * Obtém o número de janelas deslizantes copiadas do veículo.
+     *
+     * @return o número de janelas, ou 0 se o veículo não tem janelas.
+     */
+    public int getNumeroJanelas() {
+        return velocidadesMediasJanelas.length;
+    }
+
+    /**
+     * Obtém a velocidade média nos trechos de uma janela deslizante.
+     *
+     * @param janela o índice da janela, na ordem das janelas do veículo.
+     * @return a velocidade média em km/h.
+     */
+    public double getVelocidadeMediaJanela(int janela) {
+        return velocidadesMediasJanelas[janela];
+    }
+
+    /**
+     * Obtém a taxa de consumo de combustível nos trechos de uma janela deslizante.
+     *
+     * @param janela o índice da janela, na ordem das janelas do veículo.
+     * @return a taxa em litros por hora.
+     */
+    public double getTaxaConsumoJanela(int janela) {
+        return taxasConsumoJanelas[janela];
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Janela deslizante de tempo sobre uma série de valores, com soma, média, mínimo, máximo e
+ * percentis dos valores dos últimos milissegundos.
+ * <p>
+ * Os valores ficam em um vetor circular, e o mínimo e o máximo em filas monotônicas de posições,
+ * de modo que cada valor entra e sai uma única vez de cada estrutura: o custo por valor é
+ * constante, amortizado, qualquer que seja o tamanho da janela. A soma é mantida somando o valor
+ * que entra e subtraindo o que sai, e é recalculada do zero depois de tantas saídas quanto a
+ * capacidade, para que o erro de arredondamento não se acumule. Apenas os percentis custam
+ * proporcionalmente ao número de valores, na consulta. Não é segura para uso por várias threads
+ * ao mesmo tempo.
+ */
+public class JanelaDeslizante {
+    // Bytes gravados por salvarEstado, sem os valores
+    static final int TAMANHO_ESTADO = 28;
+
+    private final long duracao;
+
+    // Vetor circular indexado pela sequência do valor; [inicio, fim) são os valores na janela
+    private long[] timestamps;
+    private double[] valores;
+    private int mascara;
+    private long inicio;
+    private long fim;
+
+    // Filas monotônicas de sequências: valores crescentes nos mínimos e decrescentes nos máximos
+    private long[] minimos;
+    private long inicioMinimos;
+    private long fimMinimos;
+    private long[] maximos;
+    private long inicioMaximos;
+    private long fimMaximos;
+
+    private double soma;
+    private int saidasDesdeRecalculo;
+    private long ultimoTimestamp = Long.MIN_VALUE;
+    private double[] ordenados = new double[0];
+
+    /**
+     * Construtor da classe JanelaDeslizante.
+     *
+     * @param duracao           a duração da janela em milissegundos.
+     * @param capacidadeInicial o número de valores esperado na janela; o vetor cresce se for
+     *                          preciso.
+     */
+    public JanelaDeslizante(long duracao, int capacidadeInicial) {
+        if (duracao <= 0 || capacidadeInicial <= 0) {
+            throw new IllegalArgumentException("Duração e capacidade devem ser positivas: " + duracao + ", " + capacidadeInicial);
+        }
+        this.duracao = duracao;
+        int capacidade = Integer.highestOneBit(capacidadeInicial - 1) << 1;
+        this.timestamps = new long[Math.max(capacidade, 1)];
+        this.valores = new double[timestamps.length];
+        this.minimos = new long[timestamps.length];
+        this.maximos = new long[timestamps.length];
+        this.mascara = timestamps.length - 1;
+    }
+
+    /**
+     * Adiciona um valor e remove os que saíram da janela. Valores com timestamp anterior ao do
+     * último adicionado são tratados como se tivessem o mesmo timestamp dele.
+     *
+     * @param timestamp o timestamp do valor em milissegundos.
+     * @param valor     o valor.
+     */
+    public void adicionar(long timestamp, double valor) {
+        avancar(timestamp);
+        if (fim - inicio == timestamps.length) {
+            crescer();
+        }
+        long sequencia = fim++;
+        int posicao = (int) sequencia & mascara;
+        timestamps[posicao] = ultimoTimestamp;
+        valores[posicao] = valor;
+        soma += valor;
+
+        while (fimMinimos > inicioMinimos && valores[(int) minimos[(int) (fimMinimos - 1) & mascara] & mascara] >= valor) {
+            fimMinimos--;
+        }
+        minimos[(int) fimMinimos++ & mascara] = sequencia;
+        while (fimMaximos > inicioMaximos && valores[(int) maximos[(int) (fimMaximos - 1) & mascara] & mascara] <= valor) {
+            fimMaximos--;
+        }
+        maximos[(int) fimMaximos++ & mascara] = sequencia;
+    }
+
+    /**
+     * Remove os valores que saíram da janela no instante indicado, sem adicionar um novo, para
+     * consultar a janela quando os valores param de chegar. Instantes anteriores ao último são
+     * ignorados.
+     *
+     * @param agora o instante atual em milissegundos.
+     */
+    public void avancar(long agora) {
+        if (agora > ultimoTimestamp) {
+            ultimoTimestamp = agora;
+        }
+        long limite = ultimoTimestamp - duracao;
+        while (inicio < fim && timestamps[(int) inicio & mascara] <= limite) {
+            int posicao = (int) inicio & mascara;
+            soma -= valores[posicao];
+            if (minimos[(int) inicioMinimos & mascara] == inicio) {
+                inicioMinimos++;
+            }
+            if (maximos[(int) inicioMaximos & mascara] == inicio) {
+                inicioMaximos++;
+            }
+            inicio++;
+            if (++saidasDesdeRecalculo >= timestamps.length) {
+                recalcularSoma();
+            }
+        }
+        if (inicio == fim) {
+            soma = 0;
+            saidasDesdeRecalculo = 0;
+        }
+    }
+
+    /**
+     * Obtém a duração da janela.
+     *
+     * @return a duração em milissegundos.
+     */
+    public long getDuracao() {
+        return duracao;
+    }
+
+    /**
+     * Obtém o número de valores na janela.
+     *
+     * @return o número de valores.
+     */
+    public int getContagem() {
+        return (int) (fim - inicio);
+    }
+
+    /**
+     * Obtém a soma dos valores na janela.
+     *
+     * @return a soma, ou 0 se a janela está vazia.
+     */
+    public double getSoma() {
+        return soma;
+    }
+
+    /**
+     * Obtém a média dos valores na janela.
+     *
+     * @return a média, ou NaN se a janela está vazia.
+     */
+    public double getMedia() {
+        return inicio == fim ? Double.NaN : soma / (fim - inicio);
+    }
+
+    /**
+     * Obtém o menor valor na janela.
+     *
+     * @return o mínimo, ou NaN se a janela está vazia.
+     */
+    public double getMinimo() {
+        return inicio == fim ? Double.NaN : valores[(int) minimos[(int) inicioMinimos & mascara] & mascara];
+    }
+
+    /**
+     * Obtém o maior valor na janela.
+     *
+     * @return o máximo, ou NaN se a janela está vazia.
+     */
+    public double getMaximo() {
+        return inicio == fim ? Double.NaN : valores[(int) maximos[(int) inicioMaximos & mascara] & mascara];
+    }
+
+    /**
+     * Obtém o menor valor da janela que não é superado pela porcentagem indicada dos valores.
+     * Ordena uma cópia dos valores, então custa proporcionalmente ao número deles.
+     *
+     * @param percentil a porcentagem, de 0 a 100.
+     * @return o valor do percentil, ou NaN se a janela está vazia.
+     */
+    public double getPercentil(double percentil) {
+        if (!(percentil >= 0 && percentil <= 100)) {
+            throw new IllegalArgumentException("Percentil fora de 0 a 100: " + percentil);
+        }
+        int contagem = getContagem();
+        if (contagem == 0) {
+            return Double.NaN;
+        }
+        if (ordenados.length < contagem) {
+            ordenados = new double[timestamps.length];
+        }
+        for (int i = 0; i < contagem; i++) {
+            ordenados[i] = valores[(int) (inicio + i) & mascara];
+        }
+        Arrays.sort(ordenados, 0, contagem);
+        int posicao = (int) Math.ceil(percentil / 100 * contagem) - 1;
+        return ordenados[Math.max(0, posicao)];
+    }
+
+    /**
+     * Obtém o timestamp do valor mais antigo na janela.
+     *
+     * @return o timestamp em milissegundos, ou Long.MIN_VALUE se a janela está vazia.
+     */
+    public long getPrimeiroTimestamp() {
+        return inicio == fim ? Long.MIN_VALUE : timestamps[(int) inicio & mascara];
+    }
+
+    /**
+     * Obtém o timestamp com que um valor da janela foi guardado, que nunca é anterior ao dos
+     * valores adicionados antes dele.
+     *
+     * @param indice a posição do valor, de 0, o mais antigo, a getContagem() - 1.
+     * @return o timestamp em milissegundos.
+     */
+    long getTimestamp(int indice) {
+        return timestamps[(int) (inicio + indice) & mascara];
+    }
+
+    /**
+     * Obtém um valor da janela.
+     *
+     * @param indice a posição do valor, de 0, o mais antigo, a getContagem() - 1.
+     * @return o valor.
+     */
+    double getValor(int indice) {
+        return valores[(int) (inicio + indice) & mascara];
+    }
+
+    /**
+     * Grava no buffer, no formato de EstadoPercurso, o estado da janela que não se deduz dos seus
+     * valores: a capacidade, da qual depende o momento do próximo recálculo da soma, a contagem,
+     * a soma acumulada e o último instante. Os valores são gravados por quem chama, com
+     * getTimestamp e getValor.
+     *
+     * @param buffer o buffer de destino.
+     */
+    void salvarEstado(ByteBuffer buffer) {
+        buffer.putInt(timestamps.length);
+        buffer.putInt(getContagem());
+        buffer.putDouble(soma);
+        buffer.putInt(saidasDesdeRecalculo);
+        buffer.putLong(ultimoTimestamp);
+    }
+
+    /**
+     * Substitui o conteúdo da janela pelo gravado com salvarEstado. A janela recebe os últimos
+     * valores da série indicada, tantos quanto a contagem gravada, e fica com a mesma soma,
+     * capacidade e filas de mínimos e máximos que tinha ao ser salva.
+     *
+     * @param buffer          o buffer de origem.
+     * @param timestampsSerie os timestamps guardados dos valores, em ordem.
+     * @param valoresSerie    os valores, em ordem.
+     * @param tamanhoSerie    o número de valores da série.
+     */
+    void restaurarEstado(ByteBuffer buffer, long[] timestampsSerie, double[] valoresSerie, int tamanhoSerie) {
+        int capacidade = buffer.getInt();
+        int contagem = buffer.getInt();
+        double somaSalva = buffer.getDouble();
+        int saidasSalvas = buffer.getInt();
+        long ultimoSalvo = buffer.getLong();
+
+        timestamps = new long[capacidade];
+        valores = new double[capacidade];
+        minimos = new long[capacidade];
+        maximos = new long[capacidade];
+        mascara = capacidade - 1;
+        inicio = fim = 0;
+        inicioMinimos = fimMinimos = 0;
+        inicioMaximos = fimMaximos = 0;
+        soma = 0;
+        saidasDesdeRecalculo = 0;
+        ultimoTimestamp = Long.MIN_VALUE;
+        for (int i = tamanhoSerie - contagem; i < tamanhoSerie; i++) {
+            adicionar(timestampsSerie[i], valoresSerie[i]);
+        }
+        // A soma refeita pode diferir nos últimos bits da acumulada ao vivo
+        soma = somaSalva;
+        saidasDesdeRecalculo = saidasSalvas;
+        ultimoTimestamp = ultimoSalvo;
+    }
+
+    /**
+     * Dobra a capacidade dos vetores circulares, mantendo as sequências.
+     */
+    private void crescer() {
+        int capacidade = timestamps.length * 2;
+        int novaMascara = capacidade - 1;
+        long[] novosTimestamps = new long[capacidade];
+        double[] novosValores = new double[capacidade];
+        for (long s = inicio; s < fim; s++) {
+            novosTimestamps[(int) s & novaMascara] = timestamps[(int) s & mascara];
+            novosValores[(int) s & novaMascara] = valores[(int) s & mascara];
+        }
+        minimos = copiarFila(minimos, inicioMinimos, fimMinimos, novaMascara);
+        maximos = copiarFila(maximos, inicioMaximos, fimMaximos, novaMascara);
+        timestamps = novosTimestamps;
+        valores = novosValores;
+        mascara = novaMascara;
+    }
+
+    private long[] copiarFila(long[] fila, long inicioFila, long fimFila, int novaMascara) {
+        long[] nova = new long[novaMascara + 1];
+        for (long s = inicioFila; s < fimFila; s++) {
+            nova[(int) s & novaMascara] = fila[(int) s & mascara];
+        }
+        return nova;
+    }
+
+    private void recalcularSoma() {
+        double total = 0;
+        for (long s = inicio; s < fim; s++) {
+            total += valores[(int) s & mascara];
+        }
+        soma = total;
+        saidasDesdeRecalculo = 0;
+    }
+}
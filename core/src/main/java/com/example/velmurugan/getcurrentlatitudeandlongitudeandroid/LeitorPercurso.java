@@ -0,0 +1,203 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Classe que lê um arquivo no formato RegistroPercurso mapeando-o em memória.
+ * <p>
+ * Os registros são lidos diretamente do arquivo mapeado, sem cópia e sem criar objetos, o que
+ * permite reproduzir percursos de milhões de localizações em poucas centenas de milissegundos.
+ */
+public class LeitorPercurso {
+    private final MappedByteBuffer mapa;
+    private final int numeroRegistros;
+
+    /**
+     * Construtor da classe LeitorPercurso.
+     *
+     * @param arquivo o arquivo do registro.
+     * @throws IOException se o arquivo não puder ser lido ou não for um registro de percurso.
+     */
+    public LeitorPercurso(File arquivo) throws IOException {
+        try (RandomAccessFile acesso = new RandomAccessFile(arquivo, "r");
+             FileChannel canal = acesso.getChannel()) {
+            long tamanho = canal.size();
+            if (tamanho > Integer.MAX_VALUE) {
+                throw new IOException("Registro de percurso grande demais para ser mapeado: " + tamanho + " bytes");
+            }
+            mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanho);
+        }
+        RegistroPercurso.validarCabecalho(mapa);
+        numeroRegistros = (mapa.capacity() - RegistroPercurso.TAMANHO_CABECALHO) / RegistroPercurso.TAMANHO_REGISTRO;
+    }
+
+    /**
+     * Obtém o número de localizações completas do arquivo.
+     *
+     * @return o número de registros.
+     */
+    public int getNumeroRegistros() {
+        return numeroRegistros;
+    }
+
+    /**
+     * Obtém o timestamp de um registro.
+     *
+     * @param indice o índice do registro.
+     * @return o timestamp da localização.
+     */
+    public long getTimestamp(int indice) {
+        return mapa.getLong(posicao(indice) + RegistroPercurso.POSICAO_TIMESTAMP);
+    }
+
+    /**
+     * Obtém a latitude de um registro.
+     *
+     * @param indice o índice do registro.
+     * @return a latitude da localização.
+     */
+    public double getLatitude(int indice) {
+        return mapa.getDouble(posicao(indice) + RegistroPercurso.POSICAO_LATITUDE);
+    }
+
+    /**
+     * Obtém a longitude de um registro.
+     *
+     * @param indice o índice do registro.
+     * @return a longitude da localização.
+     */
+    public double getLongitude(int indice) {
+        return mapa.getDouble(posicao(indice) + RegistroPercurso.POSICAO_LONGITUDE);
+    }
+
+    /**
+     * Obtém a precisão de um registro.
+     *
+     * @param indice o índice do registro.
+     * @return a precisão da localização em metros.
+     */
+    public float getPrecisao(int indice) {
+        return mapa.getFloat(posicao(indice) + RegistroPercurso.POSICAO_PRECISAO);
+    }
+
+    /**
+     * Obtém a velocidade de um registro.
+     *
+     * @param indice o índice do registro.
+     * @return a velocidade em m/s, ou NaN se o provedor não a informou.
+     */
+    public float getVelocidade(int indice) {
+        return mapa.getFloat(posicao(indice) + RegistroPercurso.POSICAO_VELOCIDADE);
+    }
+
+    /**
+     * Obtém o provedor de um registro.
+     *
+     * @param indice o índice do registro.
+     * @return o nome do provedor, ou null se for desconhecido.
+     */
+    public String getProvedor(int indice) {
+        return RegistroPercurso.nomeProvedor(mapa.get(posicao(indice) + RegistroPercurso.POSICAO_PROVEDOR));
+    }
+
+    /**
+     * Reproduz as localizações a partir de um registro, o mais rápido possível.
+     *
+     * @param inicio   o índice do primeiro registro reproduzido.
+     * @param receptor o receptor das localizações.
+     */
+    public void reproduzir(int inicio, ReceptorLocalizacao receptor) {
+        for (int i = inicio; i < numeroRegistros; i++) {
+            receptor.aoReceberLocalizacao(getProvedor(i), getLatitude(i), getLongitude(i), getPrecisao(i),
+                    getVelocidade(i), getTimestamp(i));
+        }
+    }
+
+    /**
+     * Reproduz todas as localizações na calculadora do percurso, o mais rápido possível.
+     *
+     * @param calculadora a calculadora que receberá as localizações, normalmente o Veiculo.
+     */
+    public void reproduzir(CalculadoraPercurso calculadora) {
+        reproduzir(0, calculadora);
+    }
+
+    /**
+     * Reproduz as localizações a partir de um registro na calculadora do percurso, o mais rápido
+     * possível.
+     *
+     * @param inicio      o índice do primeiro registro reproduzido.
+     * @param calculadora a calculadora que receberá as localizações, normalmente o Veiculo.
+     */
+    public void reproduzir(int inicio, CalculadoraPercurso calculadora) {
+        for (int i = inicio; i < numeroRegistros; i++) {
+            calculadora.atualizarDados(getLatitude(i), getLongitude(i), getTimestamp(i));
+        }
+    }
+
+    /**
+     * Busca o início da cauda de registros com timestamp posterior a um instante. A busca parte
+     * do fim do arquivo, então o seu custo é proporcional ao tamanho da cauda.
+     *
+     * @param timestamp o instante.
+     * @return o índice do primeiro registro da cauda, ou getNumeroRegistros() se não houver
+     * registros posteriores.
+     */
+    public int buscarPosterior(long timestamp) {
+        int inicio = numeroRegistros;
+        while (inicio > 0 && getTimestamp(inicio - 1) > timestamp) {
+            inicio--;
+        }
+        return inicio;
+    }
+
+    /**
+     * Reproduz as localizações respeitando o intervalo entre os timestamps, como no percurso
+     * original.
+     *
+     * @param receptor    o receptor das localizações.
+     * @param aceleracao  quantas vezes mais rápido que o tempo real, 1 para o tempo real.
+     * @throws InterruptedException se a thread for interrompida durante a reprodução.
+     */
+    public void reproduzirTempoReal(ReceptorLocalizacao receptor, double aceleracao) throws InterruptedException {
+        reproduzirTempoReal(receptor, aceleracao, RelogioSistema.INSTANCIA);
+    }
+
+    /**
+     * Reproduz as localizações respeitando o intervalo entre os timestamps, medido no relógio
+     * indicado. Com um RelogioVirtual, a reprodução não espera e o relógio termina no instante
+     * correspondente ao fim do percurso.
+     *
+     * @param receptor   o receptor das localizações.
+     * @param aceleracao quantas vezes mais rápido que o tempo real, 1 para o tempo real.
+     * @param relogio    o relógio que marca o ritmo da reprodução.
+     * @throws InterruptedException se a thread for interrompida durante a reprodução.
+     */
+    public void reproduzirTempoReal(ReceptorLocalizacao receptor, double aceleracao, Relogio relogio) throws InterruptedException {
+        if (numeroRegistros == 0) {
+            return;
+        }
+        long inicioPercurso = getTimestamp(0);
+        long inicioReproducao = relogio.agoraNanos();
+        for (int i = 0; i < numeroRegistros; i++) {
+            long alvoNanos = (long) ((getTimestamp(i) - inicioPercurso) * 1000000L / aceleracao);
+            long esperaNanos = alvoNanos - (relogio.agoraNanos() - inicioReproducao);
+            if (esperaNanos > 0) {
+                relogio.esperar(esperaNanos);
+            }
+            receptor.aoReceberLocalizacao(getProvedor(i), getLatitude(i), getLongitude(i), getPrecisao(i),
+                    getVelocidade(i), getTimestamp(i));
+        }
+    }
+
+    private int posicao(int indice) {
+        if (indice < 0 || indice >= numeroRegistros) {
+            throw new IndexOutOfBoundsException("Registro " + indice + " fora do arquivo com " + numeroRegistros + " registros");
+        }
+        return RegistroPercurso.TAMANHO_CABECALHO + indice * RegistroPercurso.TAMANHO_REGISTRO;
+    }
+}
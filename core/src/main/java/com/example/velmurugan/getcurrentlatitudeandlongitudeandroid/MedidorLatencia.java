@@ -0,0 +1,65 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Classe que acumula as latências de um estágio do processamento das localizações.
+ * <p>
+ * Cada medidor deve ser atualizado por uma única thread; a leitura pode ser feita de qualquer
+ * thread.
+ */
+public class MedidorLatencia {
+    private volatile long ultimaNanos;
+    private volatile long maximaNanos;
+    private volatile long totalNanos;
+    private volatile long contagem;
+
+    /**
+     * Registra a latência de uma execução do estágio.
+     *
+     * @param nanos a latência em nanossegundos.
+     */
+    public void registrar(long nanos) {
+        ultimaNanos = nanos;
+        if (nanos > maximaNanos) {
+            maximaNanos = nanos;
+        }
+        totalNanos += nanos;
+        contagem++;
+    }
+
+    /**
+     * Obtém a latência da última execução.
+     *
+     * @return a latência em nanossegundos.
+     */
+    public long getUltimaNanos() {
+        return ultimaNanos;
+    }
+
+    /**
+     * Obtém a maior latência registrada.
+     *
+     * @return a latência em nanossegundos.
+     */
+    public long getMaximaNanos() {
+        return maximaNanos;
+    }
+
+    /**
+     * Obtém a latência média das execuções registradas.
+     *
+     * @return a latência média em nanossegundos.
+     */
+    public long getMediaNanos() {
+        long total = contagem;
+        return total == 0 ? 0 : totalNanos / total;
+    }
+
+    /**
+     * Obtém o número de execuções registradas.
+     *
+     * @return o número de execuções.
+     */
+    public long getContagem() {
+        return contagem;
+    }
+}
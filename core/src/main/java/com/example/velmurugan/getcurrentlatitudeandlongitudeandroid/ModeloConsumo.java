@@ -0,0 +1,27 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Interface que define o modelo de consumo de combustível de um veículo.
+ */
+public interface ModeloConsumo {
+
+    /**
+     * Calcula o consumo por quilômetro em um trecho percorrido.
+     *
+     * @param velocidade a velocidade média no trecho, em km/h.
+     * @param aceleracao a aceleração no trecho, em m/s².
+     * @return o consumo em litros por quilômetro.
+     */
+    double consumoPorKm(double velocidade, double aceleracao);
+
+    /**
+     * Calcula o consumo total de uma sequência de trechos em uma única passada.
+     *
+     * @param velocidades as velocidades médias dos trechos, em km/h.
+     * @param aceleracoes as acelerações dos trechos, em m/s².
+     * @param distancias  as distâncias dos trechos, em km.
+     * @param tamanho     o número de trechos.
+     * @return o consumo total em litros.
+     */
+    double consumoLote(double[] velocidades, double[] aceleracoes, double[] distancias, int tamanho);
+}
@@ -0,0 +1,47 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Modos de amostragem das localizações, do mais frequente ao mais econômico.
+ */
+public enum ModoAmostragem {
+    /**
+     * Uma localização por segundo, para curvas e para a chegada ao destino.
+     */
+    ALTA(1000, 0),
+
+    /**
+     * Uma localização a cada cinco segundos, para o veículo andando em linha reta.
+     */
+    CRUZEIRO(5000, 0),
+
+    /**
+     * Uma localização a cada quinze segundos, para o veículo parado ou quase parado.
+     */
+    OCIOSO(15000, 0);
+
+    private final long tempoMinimo;
+    private final float distanciaMinima;
+
+    ModoAmostragem(long tempoMinimo, float distanciaMinima) {
+        this.tempoMinimo = tempoMinimo;
+        this.distanciaMinima = distanciaMinima;
+    }
+
+    /**
+     * Obtém o intervalo mínimo entre atualizações do modo.
+     *
+     * @return o intervalo mínimo em milissegundos.
+     */
+    public long getTempoMinimo() {
+        return tempoMinimo;
+    }
+
+    /**
+     * Obtém a distância mínima entre atualizações do modo.
+     *
+     * @return a distância mínima em metros.
+     */
+    public float getDistanciaMinima() {
+        return distanciaMinima;
+    }
+}
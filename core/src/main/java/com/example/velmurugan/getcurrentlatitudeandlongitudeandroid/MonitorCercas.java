@@ -0,0 +1,325 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.util.Arrays;
+
+/**
+ * Classe que monitora um conjunto de cercas geográficas e produz eventos de entrada, permanência
+ * e saída.
+ * <p>
+ * As cercas são distribuídas em um índice em grade pelas suas caixas envolventes, reconstruído na
+ * primeira localização depois de uma alteração, de modo que cada localização verifica apenas as
+ * cercas da sua célula e as que já estava visitando, e não todas. A entrada ocorre quando a
+ * localização fica dentro da cerca, e a saída apenas quando ela se afasta além da margem de
+ * saída, o que evita eventos repetidos com o ruído das localizações perto da borda. Cada evento
+ * ocorre uma única vez por visita. O receptor pode adicionar e remover cercas durante um evento;
+ * a alteração vale a partir da próxima localização. Não é seguro para uso por várias threads ao
+ * mesmo tempo.
+ */
+public class MonitorCercas implements ReceptorLocalizacao {
+    // Menor largura, em graus, de uma célula do índice
+    static final double TAMANHO_MINIMO_CELULA = 1e-4;
+
+    // Maior número de células do índice
+    static final int MAXIMO_CELULAS = 1 << 16;
+
+    private final double margemSaida;
+    private final long tempoPermanencia;
+    private final ReceptorEventoCerca receptor;
+
+    // Estado de cada cerca, em vetores paralelos; as cercas removidas ficam como null
+    private Cerca[] cercas = new Cerca[16];
+    private long[] inicioVisita = new long[16];
+    private boolean[] permanenciaAvisada = new boolean[16];
+    private int[] ultimaVerificacao = new int[16];
+    private int totalCercas;
+    private int numeroCercas;
+
+    // Cercas em que a última localização estava dentro
+    private int[] visitadas = new int[8];
+    private int numeroVisitadas;
+
+    // Índice em grade: as cercas da célula c estão em cercasCelulas[inicioCelulas[c]..inicioCelulas[c + 1])
+    private boolean indiceDesatualizado;
+    private double latitudeMinima;
+    private double longitudeMinima;
+    private double tamanhoCelula;
+    private int colunas;
+    private int linhas;
+    private int[] inicioCelulas;
+    private int[] cercasCelulas;
+
+    private int rodada;
+    private long localizacoes;
+    private long verificacoes;
+
+    /**
+     * Construtor da classe MonitorCercas.
+     *
+     * @param margemSaida      a distância, em metros, além da borda a partir da qual a saída ocorre.
+     * @param tempoPermanencia o tempo, em milissegundos, dentro da cerca até o evento de
+     *                         permanência, ou 0 para não produzir esses eventos.
+     * @param receptor         o receptor dos eventos.
+     */
+    public MonitorCercas(double margemSaida, long tempoPermanencia, ReceptorEventoCerca receptor) {
+        this.margemSaida = margemSaida;
+        this.tempoPermanencia = tempoPermanencia;
+        this.receptor = receptor;
+    }
+
+    /**
+     * Adiciona uma cerca ao monitor.
+     *
+     * @param cerca a cerca a ser adicionada.
+     */
+    public void adicionar(Cerca cerca) {
+        if (totalCercas == cercas.length) {
+            int capacidade = totalCercas * 2;
+            cercas = Arrays.copyOf(cercas, capacidade);
+            inicioVisita = Arrays.copyOf(inicioVisita, capacidade);
+            permanenciaAvisada = Arrays.copyOf(permanenciaAvisada, capacidade);
+            ultimaVerificacao = Arrays.copyOf(ultimaVerificacao, capacidade);
+        }
+        cercas[totalCercas++] = cerca;
+        numeroCercas++;
+        indiceDesatualizado = true;
+    }
+
+    /**
+     * Remove uma cerca do monitor, sem produzir o evento de saída.
+     *
+     * @param cerca a cerca a ser removida.
+     * @return true se a cerca estava no monitor, false caso contrário.
+     */
+    public boolean remover(Cerca cerca) {
+        for (int i = 0; i < totalCercas; i++) {
+            if (cercas[i] == cerca) {
+                cercas[i] = null;
+                numeroCercas--;
+                indiceDesatualizado = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Verifica as cercas com a nova localização.
+     */
+    @Override
+    public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+        atualizar(latitude, longitude, timestamp);
+    }
+
+    /**
+     * Verifica as cercas com uma nova localização, entregando ao receptor os eventos produzidos.
+     *
+     * @param latitude  a latitude da localização.
+     * @param longitude a longitude da localização.
+     * @param timestamp o timestamp da localização em milissegundos.
+     */
+    public void atualizar(double latitude, double longitude, long timestamp) {
+        if (indiceDesatualizado) {
+            construirIndice();
+        }
+        localizacoes++;
+        rodada++;
+
+        // Primeiro as cercas já visitadas, que podem produzir saída ou permanência
+        for (int i = numeroVisitadas - 1; i >= 0; i--) {
+            int indice = visitadas[i];
+            Cerca cerca = cercas[indice];
+            if (cerca == null) {
+                visitadas[i] = visitadas[--numeroVisitadas];
+                continue;
+            }
+            ultimaVerificacao[indice] = rodada;
+            verificacoes++;
+            if (!cerca.contem(latitude, longitude, margemSaida)) {
+                visitadas[i] = visitadas[--numeroVisitadas];
+                receptor.aoReceberEvento(cerca, EventoCerca.SAIDA, timestamp);
+            } else if (tempoPermanencia > 0 && !permanenciaAvisada[indice] && timestamp - inicioVisita[indice] >= tempoPermanencia) {
+                permanenciaAvisada[indice] = true;
+                receptor.aoReceberEvento(cerca, EventoCerca.PERMANENCIA, timestamp);
+            }
+        }
+
+        // Depois as cercas da célula da localização, que podem produzir entrada
+        if (colunas == 0) {
+            return;
+        }
+        int coluna = (int) Math.floor((longitude - longitudeMinima) / tamanhoCelula);
+        int linha = (int) Math.floor((latitude - latitudeMinima) / tamanhoCelula);
+        if (coluna < 0 || coluna >= colunas || linha < 0 || linha >= linhas) {
+            return;
+        }
+        int[] inicio = inicioCelulas;
+        int[] lista = cercasCelulas;
+        int celula = linha * colunas + coluna;
+        for (int i = inicio[celula]; i < inicio[celula + 1]; i++) {
+            int indice = lista[i];
+            Cerca cerca = cercas[indice];
+            if (cerca == null || ultimaVerificacao[indice] == rodada) {
+                continue;
+            }
+            ultimaVerificacao[indice] = rodada;
+            verificacoes++;
+            if (cerca.contem(latitude, longitude, 0)) {
+                inicioVisita[indice] = timestamp;
+                permanenciaAvisada[indice] = false;
+                if (numeroVisitadas == visitadas.length) {
+                    visitadas = Arrays.copyOf(visitadas, numeroVisitadas * 2);
+                }
+                visitadas[numeroVisitadas++] = indice;
+                receptor.aoReceberEvento(cerca, EventoCerca.ENTRADA, timestamp);
+            }
+        }
+    }
+
+    /**
+     * Passa a considerar a localização como a última verificada sem produzir eventos: as cercas
+     * que a contêm ficam visitadas desde o timestamp, e as demais deixam de ser. Usado ao retomar
+     * um percurso, para que as cercas em que o veículo já estava não produzam uma nova entrada.
+     *
+     * @param latitude  a latitude da localização.
+     * @param longitude a longitude da localização.
+     * @param timestamp o timestamp da localização em milissegundos.
+     */
+    public void sincronizar(double latitude, double longitude, long timestamp) {
+        numeroVisitadas = 0;
+        for (int i = 0; i < totalCercas; i++) {
+            Cerca cerca = cercas[i];
+            if (cerca != null && cerca.contem(latitude, longitude, 0)) {
+                inicioVisita[i] = timestamp;
+                permanenciaAvisada[i] = false;
+                if (numeroVisitadas == visitadas.length) {
+                    visitadas = Arrays.copyOf(visitadas, numeroVisitadas * 2);
+                }
+                visitadas[numeroVisitadas++] = i;
+            }
+        }
+    }
+
+    /**
+     * Obtém o número de cercas monitoradas.
+     *
+     * @return o número de cercas.
+     */
+    public int getNumeroCercas() {
+        return numeroCercas;
+    }
+
+    /**
+     * Obtém o número de cercas em que a última localização estava dentro.
+     *
+     * @return o número de cercas visitadas.
+     */
+    public int getNumeroVisitadas() {
+        return numeroVisitadas;
+    }
+
+    /**
+     * Verifica se a última localização estava dentro de uma cerca.
+     *
+     * @param cerca a cerca.
+     * @return true se a localização estava dentro da cerca ou da sua margem de saída.
+     */
+    public boolean isDentro(Cerca cerca) {
+        for (int i = 0; i < numeroVisitadas; i++) {
+            if (cercas[visitadas[i]] == cerca) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obtém o número médio de cercas verificadas por localização.
+     *
+     * @return a média de verificações por localização.
+     */
+    public double getVerificacoesPorLocalizacao() {
+        return localizacoes == 0 ? 0 : (double) verificacoes / localizacoes;
+    }
+
+    /**
+     * Reconstrói o índice em grade com as cercas atuais. As células têm o tamanho médio das
+     * cercas, limitado pelo número máximo de células.
+     */
+    private void construirIndice() {
+        indiceDesatualizado = false;
+        double latMin = Double.MAX_VALUE;
+        double latMax = -Double.MAX_VALUE;
+        double lonMin = Double.MAX_VALUE;
+        double lonMax = -Double.MAX_VALUE;
+        double somaTamanhos = 0;
+        for (int i = 0; i < totalCercas; i++) {
+            Cerca cerca = cercas[i];
+            if (cerca != null) {
+                latMin = Math.min(latMin, cerca.getLatitudeMinima());
+                latMax = Math.max(latMax, cerca.getLatitudeMaxima());
+                lonMin = Math.min(lonMin, cerca.getLongitudeMinima());
+                lonMax = Math.max(lonMax, cerca.getLongitudeMaxima());
+                somaTamanhos += Math.max(cerca.getLatitudeMaxima() - cerca.getLatitudeMinima(),
+                        cerca.getLongitudeMaxima() - cerca.getLongitudeMinima());
+            }
+        }
+        if (numeroCercas == 0) {
+            colunas = 0;
+            linhas = 0;
+            return;
+        }
+
+        double largura = lonMax - lonMin;
+        double altura = latMax - latMin;
+        double tamanho = Math.max(TAMANHO_MINIMO_CELULA, somaTamanhos / numeroCercas);
+        tamanho = Math.max(tamanho, Math.sqrt(largura * altura / MAXIMO_CELULAS));
+        while ((Math.floor(largura / tamanho) + 1) * (Math.floor(altura / tamanho) + 1) > MAXIMO_CELULAS) {
+            tamanho *= 1.5;
+        }
+        latitudeMinima = latMin;
+        longitudeMinima = lonMin;
+        tamanhoCelula = tamanho;
+        colunas = (int) (largura / tamanho) + 1;
+        linhas = (int) (altura / tamanho) + 1;
+
+        // Primeiro conta as cercas de cada célula, depois as distribui
+        int[] inicio = new int[colunas * linhas + 1];
+        for (int i = 0; i < totalCercas; i++) {
+            if (cercas[i] != null) {
+                Cerca cerca = cercas[i];
+                for (int l = linha(cerca.getLatitudeMinima()); l <= linha(cerca.getLatitudeMaxima()); l++) {
+                    for (int c = coluna(cerca.getLongitudeMinima()); c <= coluna(cerca.getLongitudeMaxima()); c++) {
+                        inicio[l * colunas + c + 1]++;
+                    }
+                }
+            }
+        }
+        for (int c = 0; c < colunas * linhas; c++) {
+            inicio[c + 1] += inicio[c];
+        }
+        int[] lista = new int[inicio[colunas * linhas]];
+        int[] preenchidos = Arrays.copyOf(inicio, colunas * linhas);
+        for (int i = 0; i < totalCercas; i++) {
+            if (cercas[i] != null) {
+                Cerca cerca = cercas[i];
+                for (int l = linha(cerca.getLatitudeMinima()); l <= linha(cerca.getLatitudeMaxima()); l++) {
+                    for (int c = coluna(cerca.getLongitudeMinima()); c <= coluna(cerca.getLongitudeMaxima()); c++) {
+                        lista[preenchidos[l * colunas + c]++] = i;
+                    }
+                }
+            }
+        }
+        inicioCelulas = inicio;
+        cercasCelulas = lista;
+    }
+
+    private int coluna(double longitude) {
+        int coluna = (int) Math.floor((longitude - longitudeMinima) / tamanhoCelula);
+        return coluna < 0 ? 0 : coluna >= colunas ? colunas - 1 : coluna;
+    }
+
+    private int linha(double latitude) {
+        int linha = (int) Math.floor((latitude - latitudeMinima) / tamanhoCelula);
+        return linha < 0 ? 0 : linha >= linhas ? linhas - 1 : linha;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Classe que mantém uma única inscrição por provedor de localização e repassa as localizações
+ * recebidas aos consumidores registrados.
+ * <p>
+ * A inscrição acompanha o ciclo de vida da atividade: é feita em iniciar() e desfeita em parar(),
+ * e chamadas repetidas não criam inscrições duplicadas.
+ */
+public class MotorLocalizacao implements ReceptorLocalizacao {
+    public static final String PROVEDOR_REDE = "network";
+    public static final String PROVEDOR_GPS = "gps";
+
+    private static final String[] PROVEDORES = {PROVEDOR_REDE, PROVEDOR_GPS};
+
+    private final FonteLocalizacao fonte;
+    private final List<ReceptorLocalizacao> consumidores;
+    private final boolean[] inscrito;
+    private long tempoMinimo;
+    private float distanciaMinima;
+
+    /**
+     * Construtor da classe MotorLocalizacao.
+     *
+     * @param fonte           a fonte das localizações.
+     * @param tempoMinimo     o intervalo mínimo entre atualizações em milissegundos.
+     * @param distanciaMinima a distância mínima entre atualizações em metros.
+     */
+    public MotorLocalizacao(FonteLocalizacao fonte, long tempoMinimo, float distanciaMinima) {
+        this.fonte = fonte;
+        this.consumidores = new CopyOnWriteArrayList<>();
+        this.inscrito = new boolean[PROVEDORES.length];
+        this.tempoMinimo = tempoMinimo;
+        this.distanciaMinima = distanciaMinima;
+    }
+
+    /**
+     * Adiciona um consumidor das localizações.
+     *
+     * @param consumidor o consumidor a ser adicionado.
+     */
+    public void adicionarConsumidor(ReceptorLocalizacao consumidor) {
+        consumidores.add(consumidor);
+    }
+
+    /**
+     * Remove um consumidor das localizações.
+     *
+     * @param consumidor o consumidor a ser removido.
+     */
+    public void removerConsumidor(ReceptorLocalizacao consumidor) {
+        consumidores.remove(consumidor);
+    }
+
+    /**
+     * Inscreve o motor nos provedores habilitados que ainda não possuem inscrição. Um provedor
+     * cujo registro falhou continua sem inscrição e é tentado de novo na próxima chamada.
+     */
+    public void iniciar() {
+        for (int i = 0; i < PROVEDORES.length; i++) {
+            if (!inscrito[i] && fonte.isProvedorAtivo(PROVEDORES[i])
+                    && fonte.registrar(PROVEDORES[i], tempoMinimo, distanciaMinima, this)) {
+                inscrito[i] = true;
+                fonte.entregarUltimaLocalizacao(PROVEDORES[i], this);
+            }
+        }
+    }
+
+    /**
+     * Altera o intervalo e a distância mínimos das atualizações. As inscrições ativas são refeitas
+     * com os novos valores apenas se eles forem diferentes dos atuais.
+     *
+     * @param tempoMinimo     o intervalo mínimo entre atualizações em milissegundos.
+     * @param distanciaMinima a distância mínima entre atualizações em metros.
+     * @return true se os valores mudaram, false caso contrário.
+     */
+    public boolean reconfigurar(long tempoMinimo, float distanciaMinima) {
+        if (this.tempoMinimo == tempoMinimo && this.distanciaMinima == distanciaMinima) {
+            return false;
+        }
+        this.tempoMinimo = tempoMinimo;
+        this.distanciaMinima = distanciaMinima;
+        for (int i = 0; i < PROVEDORES.length; i++) {
+            if (inscrito[i]) {
+                inscrito[i] = fonte.registrar(PROVEDORES[i], tempoMinimo, distanciaMinima, this);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Obtém o intervalo mínimo entre atualizações usado nas inscrições.
+     *
+     * @return o intervalo mínimo em milissegundos.
+     */
+    public long getTempoMinimo() {
+        return tempoMinimo;
+    }
+
+    /**
+     * Obtém a distância mínima entre atualizações usada nas inscrições.
+     *
+     * @return a distância mínima em metros.
+     */
+    public float getDistanciaMinima() {
+        return distanciaMinima;
+    }
+
+    /**
+     * Remove todas as inscrições feitas pelo motor.
+     */
+    public void parar() {
+        for (int i = 0; i < PROVEDORES.length; i++) {
+            if (inscrito[i]) {
+                fonte.remover(PROVEDORES[i]);
+                inscrito[i] = false;
+            }
+        }
+    }
+
+    /**
+     * Obtém o número de provedores em que o motor está inscrito.
+     *
+     * @return o número de inscrições ativas.
+     */
+    public int getNumeroInscricoes() {
+        int total = 0;
+        for (boolean provedorInscrito : inscrito) {
+            if (provedorInscrito) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Repassa a localização recebida a todos os consumidores.
+     */
+    @Override
+    public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+        for (ReceptorLocalizacao consumidor : consumidores) {
+            consumidor.aoReceberLocalizacao(provedor, latitude, longitude, precisao, velocidade, timestamp);
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.util.Arrays;
+
+/**
+ * Partição da frota: os veículos cujo identificador cai nela, a fila das suas localizações e a
+ * thread que as processa.
+ * <p>
+ * O estado de cada veículo fica em vetores paralelos de tipos primitivos, indexados pela posição
+ * do veículo na partição, e o identificador é associado à posição por uma tabela de
+ * endereçamento aberto. Apenas a thread da partição altera esse estado, então o processamento não
+ * usa travas; a trava da partição protege somente a fila, que é trocada inteira por um lote a
+ * cada vez.
+ */
+class ParticaoFrota {
+    private final ModeloConsumo modeloConsumo;
+    private final Destino destino;
+    private final Thread processador;
+
+    // Fila das localizações recebidas e lote em processamento, trocados a cada lote
+    private long[] filaIds;
+    private double[] filaLatitudes;
+    private double[] filaLongitudes;
+    private long[] filaTimestamps;
+    private long[] loteIds;
+    private double[] loteLatitudes;
+    private double[] loteLongitudes;
+    private long[] loteTimestamps;
+    private int tamanhoFila;
+    private boolean processando;
+    private boolean fechado;
+    private long processadas;
+
+    // Tabela de identificadores: chaves[i] está na posição posicoes[i] - 1, ou vazia se for 0
+    private long[] chaves = new long[64];
+    private int[] posicoes = new int[64];
+
+    // Estado de cada veículo, na sua posição
+    private int numeroVeiculos;
+    private long[] numeroLocalizacoes = new long[16];
+    private double[] ultimasLatitudes = new double[16];
+    private double[] ultimasLongitudes = new double[16];
+    private double[] faixasCosseno = new double[16];
+    private double[] cossenosLatitude = new double[16];
+    private long[] primeirosTimestamps = new long[16];
+    private long[] ultimosTimestamps = new long[16];
+    private double[] distancias = new double[16];
+    private double[] compensacoes = new double[16];
+    private long[] temposMovimento = new long[16];
+    private double[] velocidadesMaximas = new double[16];
+    private double[] distanciasParciais = new double[16];
+    private long[] temposParciais = new long[16];
+    private double[] velocidadesAnteriores = new double[16];
+    private long[] intervalosAnteriores = new long[16];
+    private double[] consumos = new double[16];
+    private long[] temposDeslocamento = new long[16];
+    private boolean[] destinosAlcancados = new boolean[16];
+    private long ignoradas;
+
+    ParticaoFrota(int indice, int capacidadeFila, ModeloConsumo modeloConsumo, Destino destino) {
+        this.modeloConsumo = modeloConsumo;
+        this.destino = destino;
+        this.filaIds = new long[capacidadeFila];
+        this.filaLatitudes = new double[capacidadeFila];
+        this.filaLongitudes = new double[capacidadeFila];
+        this.filaTimestamps = new long[capacidadeFila];
+        this.loteIds = new long[capacidadeFila];
+        this.loteLatitudes = new double[capacidadeFila];
+        this.loteLongitudes = new double[capacidadeFila];
+        this.loteTimestamps = new long[capacidadeFila];
+        this.processador = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                processar();
+            }
+        }, "frota-" + indice);
+        this.processador.setDaemon(true);
+        this.processador.start();
+    }
+
+    /**
+     * Coloca uma localização na fila, esperando enquanto a fila estiver cheia.
+     *
+     * @return false se a partição já foi fechada.
+     */
+    synchronized boolean enfileirar(long idVeiculo, double latitude, double longitude, long timestamp) throws InterruptedException {
+        while (tamanhoFila == filaIds.length && !fechado) {
+            wait();
+        }
+        if (fechado) {
+            return false;
+        }
+        filaIds[tamanhoFila] = idVeiculo;
+        filaLatitudes[tamanhoFila] = latitude;
+        filaLongitudes[tamanhoFila] = longitude;
+        filaTimestamps[tamanhoFila] = timestamp;
+        if (tamanhoFila++ == 0 && !processando) {
+            notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * Espera até que todas as localizações enfileiradas tenham sido processadas.
+     */
+    synchronized void aguardar() throws InterruptedException {
+        while ((tamanhoFila > 0 || processando) && !fechado) {
+            wait();
+        }
+    }
+
+    /**
+     * Interrompe a thread de processamento depois do lote em andamento.
+     */
+    void fechar() throws InterruptedException {
+        synchronized (this) {
+            fechado = true;
+            notifyAll();
+        }
+        processador.join();
+    }
+
+    synchronized long getProcessadas() {
+        return processadas;
+    }
+
+    synchronized int getNumeroVeiculos() {
+        return numeroVeiculos;
+    }
+
+    synchronized long getIgnoradas() {
+        return ignoradas;
+    }
+
+    /**
+     * Busca a posição de um veículo. Deve ser chamado depois de aguardar, ou na thread da
+     * partição.
+     *
+     * @return a posição, ou -1 se o veículo ainda não enviou localizações.
+     */
+    synchronized int buscar(long idVeiculo) {
+        int mascara = chaves.length - 1;
+        for (int i = espalhar(idVeiculo) & mascara; posicoes[i] != 0; i = (i + 1) & mascara) {
+            if (chaves[i] == idVeiculo) {
+                return posicoes[i] - 1;
+            }
+        }
+        return -1;
+    }
+
+    synchronized long getNumeroLocalizacoes(int posicao) {
+        return numeroLocalizacoes[posicao];
+    }
+
+    synchronized double getDistanciaPercorrida(int posicao) {
+        return distancias[posicao];
+    }
+
+    synchronized long getTempoDecorrido(int posicao) {
+        return ultimosTimestamps[posicao] - primeirosTimestamps[posicao];
+    }
+
+    synchronized long getTempoMovimento(int posicao) {
+        return temposMovimento[posicao];
+    }
+
+    synchronized double getVelocidadeMaxima(int posicao) {
+        return velocidadesMaximas[posicao];
+    }
+
+    synchronized double getVelocidadeMediaParcial(int posicao) {
+        return EstatisticasPercurso.calcularVelocidadeMedia(distanciasParciais[posicao], temposParciais[posicao]);
+    }
+
+    synchronized double getVelocidadeMediaTotal(int posicao) {
+        return EstatisticasPercurso.calcularVelocidadeMedia(distancias[posicao], ultimosTimestamps[posicao] - primeirosTimestamps[posicao]);
+    }
+
+    synchronized double getConsumoCombustivel(int posicao) {
+        return consumos[posicao];
+    }
+
+    synchronized long getTempoDeslocamento(int posicao) {
+        return temposDeslocamento[posicao];
+    }
+
+    synchronized boolean isDestinoAlcancado(int posicao) {
+        return destinosAlcancados[posicao];
+    }
+
+    /**
+     * Laço da thread da partição: troca a fila por um lote e o processa fora da trava.
+     */
+    private void processar() {
+        while (true) {
+            int tamanhoLote;
+            synchronized (this) {
+                processando = false;
+                notifyAll();
+                while (tamanhoFila == 0 && !fechado) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        fechado = true;
+                    }
+                }
+                if (fechado) {
+                    return;
+                }
+                long[] ids = filaIds;
+                filaIds = loteIds;
+                loteIds = ids;
+                double[] latitudes = filaLatitudes;
+                filaLatitudes = loteLatitudes;
+                loteLatitudes = latitudes;
+                double[] longitudes = filaLongitudes;
+                filaLongitudes = loteLongitudes;
+                loteLongitudes = longitudes;
+                long[] timestamps = filaTimestamps;
+                filaTimestamps = loteTimestamps;
+                loteTimestamps = timestamps;
+                tamanhoLote = tamanhoFila;
+                tamanhoFila = 0;
+                processando = true;
+                // Libera os produtores que esperavam espaço na fila
+                notifyAll();
+            }
+
+            long ignoradasLote = 0;
+            for (int i = 0; i < tamanhoLote; i++) {
+                if (!atualizar(loteIds[i], loteLatitudes[i], loteLongitudes[i], loteTimestamps[i])) {
+                    ignoradasLote++;
+                }
+            }
+
+            synchronized (this) {
+                processadas += tamanhoLote;
+                ignoradas += ignoradasLote;
+            }
+        }
+    }
+
+    /**
+     * Atualiza o estado de um veículo com uma localização, com os mesmos métodos estáticos que
+     * Veiculo e EstatisticasPercurso usam.
+     *
+     * @return false se a localização foi ignorada por ter timestamp igual ou anterior ao da
+     * última do veículo.
+     */
+    private boolean atualizar(long idVeiculo, double latitude, double longitude, long timestamp) {
+        int v = posicao(idVeiculo);
+        if (numeroLocalizacoes[v] == 0) {
+            primeirosTimestamps[v] = timestamp;
+            faixasCosseno[v] = Double.NaN;
+        } else {
+            long intervalo = timestamp - ultimosTimestamps[v];
+            if (intervalo <= 0) {
+                return false;
+            }
+
+            // Aproximação equiretangular, como em DistanciaEquiretangular, com o cosseno guardado
+            // por veículo
+            double faixa = DistanciaEquiretangular.faixa((ultimasLatitudes[v] + latitude) * 0.5);
+            if (faixa != faixasCosseno[v]) {
+                faixasCosseno[v] = faixa;
+                cossenosLatitude[v] = DistanciaEquiretangular.cossenoFaixa(faixa);
+            }
+            double distancia = DistanciaEquiretangular.calcular(ultimasLatitudes[v], ultimasLongitudes[v], latitude, longitude,
+                    cossenosLatitude[v]);
+            double soma = EstatisticasPercurso.somarCompensado(distancias[v], compensacoes[v], distancia);
+            compensacoes[v] = EstatisticasPercurso.calcularCompensacao(distancias[v], compensacoes[v], distancia, soma);
+            distancias[v] = soma;
+
+            double velocidade = EstatisticasPercurso.calcularVelocidade(distancia, intervalo);
+            if (velocidade > velocidadesMaximas[v]) {
+                velocidadesMaximas[v] = velocidade;
+            }
+            temposMovimento[v] = EstatisticasPercurso.somarTempoMovimento(temposMovimento[v], velocidade, intervalo);
+            if (EstatisticasPercurso.isTrechoParcialCompleto(distanciasParciais[v], Veiculo.DESLOCAMENTO_PARCIAL)) {
+                distanciasParciais[v] = 0;
+                temposParciais[v] = 0;
+            }
+            distanciasParciais[v] += distancia;
+            temposParciais[v] += intervalo;
+
+            consumos[v] += ConsumoPercurso.calcularConsumoTrecho(modeloConsumo, velocidadesAnteriores[v], intervalosAnteriores[v],
+                    velocidade, intervalo, distancia);
+            velocidadesAnteriores[v] = velocidade;
+            intervalosAnteriores[v] = intervalo;
+        }
+        ultimasLatitudes[v] = latitude;
+        ultimasLongitudes[v] = longitude;
+        ultimosTimestamps[v] = timestamp;
+        numeroLocalizacoes[v]++;
+
+        destinosAlcancados[v] = destino.alcancado(latitude, longitude);
+        if (!destinosAlcancados[v]) {
+            temposDeslocamento[v] = (timestamp - primeirosTimestamps[v]) / 1000;
+        }
+        return true;
+    }
+
+    /**
+     * Obtém a posição de um veículo, criando-a na sua primeira localização.
+     */
+    private int posicao(long idVeiculo) {
+        int mascara = chaves.length - 1;
+        int i = espalhar(idVeiculo) & mascara;
+        while (posicoes[i] != 0) {
+            if (chaves[i] == idVeiculo) {
+                return posicoes[i] - 1;
+            }
+            i = (i + 1) & mascara;
+        }
+
+        int v = numeroVeiculos;
+        if (v == numeroLocalizacoes.length) {
+            crescer(v * 2);
+        }
+        chaves[i] = idVeiculo;
+        posicoes[i] = v + 1;
+        numeroVeiculos++;
+        if (numeroVeiculos * 2 > chaves.length) {
+            redistribuir(chaves.length * 2);
+        }
+        return v;
+    }
+
+    private void crescer(int capacidade) {
+        numeroLocalizacoes = Arrays.copyOf(numeroLocalizacoes, capacidade);
+        ultimasLatitudes = Arrays.copyOf(ultimasLatitudes, capacidade);
+        ultimasLongitudes = Arrays.copyOf(ultimasLongitudes, capacidade);
+        faixasCosseno = Arrays.copyOf(faixasCosseno, capacidade);
+        cossenosLatitude = Arrays.copyOf(cossenosLatitude, capacidade);
+        primeirosTimestamps = Arrays.copyOf(primeirosTimestamps, capacidade);
+        ultimosTimestamps = Arrays.copyOf(ultimosTimestamps, capacidade);
+        distancias = Arrays.copyOf(distancias, capacidade);
+        compensacoes = Arrays.copyOf(compensacoes, capacidade);
+        temposMovimento = Arrays.copyOf(temposMovimento, capacidade);
+        velocidadesMaximas = Arrays.copyOf(velocidadesMaximas, capacidade);
+        distanciasParciais = Arrays.copyOf(distanciasParciais, capacidade);
+        temposParciais = Arrays.copyOf(temposParciais, capacidade);
+        velocidadesAnteriores = Arrays.copyOf(velocidadesAnteriores, capacidade);
+        intervalosAnteriores = Arrays.copyOf(intervalosAnteriores, capacidade);
+        consumos = Arrays.copyOf(consumos, capacidade);
+        temposDeslocamento = Arrays.copyOf(temposDeslocamento, capacidade);
+        destinosAlcancados = Arrays.copyOf(destinosAlcancados, capacidade);
+    }
+
+    private void redistribuir(int capacidade) {
+        long[] chavesAntigas = chaves;
+        int[] posicoesAntigas = posicoes;
+        chaves = new long[capacidade];
+        posicoes = new int[capacidade];
+        int mascara = capacidade - 1;
+        for (int j = 0; j < chavesAntigas.length; j++) {
+            if (posicoesAntigas[j] != 0) {
+                int i = espalhar(chavesAntigas[j]) & mascara;
+                while (posicoes[i] != 0) {
+                    i = (i + 1) & mascara;
+                }
+                chaves[i] = chavesAntigas[j];
+                posicoes[i] = posicoesAntigas[j];
+            }
+        }
+    }
+
+    /**
+     * Espalha os bits do identificador, para que identificadores sequenciais não fiquem em
+     * posições vizinhas da tabela.
+     */
+    static int espalhar(long idVeiculo) {
+        long h = idVeiculo * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
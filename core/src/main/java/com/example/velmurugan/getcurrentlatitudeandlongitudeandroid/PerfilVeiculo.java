@@ -0,0 +1,106 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Classe que reúne os parâmetros que dependem do tipo de veículo.
+ */
+public class PerfilVeiculo {
+    /**
+     * Perfil de um carro de passeio. O consumo é tabelado de 0 a 160 km/h a cada 20 km/h, com os
+     * mesmos 0,047, 0,0641 e 0,0962 L/km das faixas de até 80, até 120 e acima de 120 km/h, e é
+     * interpolado apenas na passagem de uma faixa para a seguinte.
+     */
+    public static final PerfilVeiculo CARRO = new PerfilVeiculo("carro", 1.0, 30, 1.5, 30000,
+            new ConsumoTabelado(20, new double[]{0.047, 0.047, 0.047, 0.047, 0.047, 0.0641, 0.0641, 0.0962, 0.0962}, 0.02));
+
+    /**
+     * Perfil de um caminhão, que acelera e freia mais devagar e consome mais que um carro.
+     */
+    public static final PerfilVeiculo CAMINHAO = new PerfilVeiculo("caminhao", 0.5, 30, 1.0, 30000,
+            new ConsumoTabelado(20, new double[]{0.50, 0.38, 0.32, 0.30, 0.31, 0.34, 0.39, 0.45, 0.52}, 0.10));
+
+    private final String nome;
+    private final double ruidoAceleracao;
+    private final double precisaoPadrao;
+    private final double velocidadeParada;
+    private final long intervaloReinicio;
+    private final ModeloConsumo modeloConsumo;
+
+    /**
+     * Construtor da classe PerfilVeiculo.
+     *
+     * @param nome              o nome do perfil.
+     * @param ruidoAceleracao   o desvio padrão das acelerações do veículo, em m/s².
+     * @param precisaoPadrao    a precisão, em metros, usada quando o provedor não a informa.
+     * @param velocidadeParada  a velocidade estimada, em m/s, abaixo da qual o veículo passa a ser
+     *                          considerado parado.
+     * @param intervaloReinicio o intervalo, em milissegundos, sem localizações após o qual o filtro
+     *                          recomeça da próxima localização.
+     * @param modeloConsumo     o modelo de consumo de combustível do veículo.
+     */
+    public PerfilVeiculo(String nome, double ruidoAceleracao, double precisaoPadrao, double velocidadeParada, long intervaloReinicio,
+                         ModeloConsumo modeloConsumo) {
+        if (!(ruidoAceleracao > 0) || !(precisaoPadrao > 0) || velocidadeParada < 0 || intervaloReinicio <= 0 || modeloConsumo == null) {
+            throw new IllegalArgumentException("Parâmetros inválidos para o perfil " + nome);
+        }
+        this.nome = nome;
+        this.ruidoAceleracao = ruidoAceleracao;
+        this.precisaoPadrao = precisaoPadrao;
+        this.velocidadeParada = velocidadeParada;
+        this.intervaloReinicio = intervaloReinicio;
+        this.modeloConsumo = modeloConsumo;
+    }
+
+    /**
+     * Obtém o nome do perfil.
+     *
+     * @return o nome do perfil.
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Obtém o desvio padrão das acelerações do veículo.
+     *
+     * @return o ruído de aceleração em m/s².
+     */
+    public double getRuidoAceleracao() {
+        return ruidoAceleracao;
+    }
+
+    /**
+     * Obtém a precisão usada quando o provedor não a informa.
+     *
+     * @return a precisão padrão em metros.
+     */
+    public double getPrecisaoPadrao() {
+        return precisaoPadrao;
+    }
+
+    /**
+     * Obtém a velocidade abaixo da qual o veículo é considerado parado.
+     *
+     * @return a velocidade de parada em m/s.
+     */
+    public double getVelocidadeParada() {
+        return velocidadeParada;
+    }
+
+    /**
+     * Obtém o intervalo sem localizações após o qual o filtro recomeça.
+     *
+     * @return o intervalo de reinício em milissegundos.
+     */
+    public long getIntervaloReinicio() {
+        return intervaloReinicio;
+    }
+
+    /**
+     * Obtém o modelo de consumo de combustível do veículo.
+     *
+     * @return o modelo de consumo.
+     */
+    public ModeloConsumo getModeloConsumo() {
+        return modeloConsumo;
+    }
+}
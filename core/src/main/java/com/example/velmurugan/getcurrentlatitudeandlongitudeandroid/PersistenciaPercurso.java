@@ -0,0 +1,193 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Calculadora do percurso que repassa as localizações ao Veiculo e salva o seu estado
+ * periodicamente no formato EstadoPercurso.
+ * <p>
+ * A cada intervalo de salvamento, medido pelos timestamps das localizações, o estado é copiado
+ * para um buffer em memória na thread que processa as localizações, o que custa microssegundos
+ * mesmo com os trechos das janelas de tendências; uma thread própria grava o buffer no arquivo e sincroniza-o com o disco. Se um
+ * novo estado ficar pronto antes de o anterior ser gravado, apenas o mais recente é gravado.
+ */
+public class PersistenciaPercurso implements CalculadoraPercurso, Closeable {
+    private final Veiculo veiculo;
+    private final File arquivo;
+    private final long intervaloSalvamento;
+    private final Thread gravador;
+
+    private ByteBuffer pendente; // Aguardando gravação
+    private ByteBuffer livre; // Pode receber o próximo estado
+    private boolean fechado;
+    private boolean descartado;
+    private IOException erro;
+
+    private boolean salvou;
+    private long ultimoSalvamento;
+    private volatile long salvamentos;
+
+    /**
+     * Construtor da classe PersistenciaPercurso.
+     *
+     * @param veiculo             o veículo cujo estado é salvo.
+     * @param arquivo             o arquivo de estado.
+     * @param intervaloSalvamento o intervalo, em milissegundos dos timestamps das localizações,
+     *                            entre dois salvamentos.
+     */
+    public PersistenciaPercurso(Veiculo veiculo, File arquivo, long intervaloSalvamento) {
+        this.veiculo = veiculo;
+        this.arquivo = arquivo;
+        this.intervaloSalvamento = intervaloSalvamento;
+        this.gravador = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                gravar();
+            }
+        }, "salvar-estado");
+        this.gravador.start();
+    }
+
+    /**
+     * Atualiza o veículo e salva o seu estado se o intervalo de salvamento tiver passado.
+     */
+    @Override
+    public void atualizarDados(double latitude, double longitude, long timestamp) {
+        veiculo.atualizarDados(latitude, longitude, timestamp);
+        if (!salvou) {
+            salvou = true;
+            ultimoSalvamento = timestamp;
+        } else if (timestamp - ultimoSalvamento >= intervaloSalvamento) {
+            ultimoSalvamento = timestamp;
+            salvar();
+        }
+    }
+
+    /**
+     * Cria o instantâneo do veículo.
+     */
+    @Override
+    public InstantaneoPercurso criarInstantaneo(double latitude, double longitude, long timestamp, long instanteCriacaoNanos) {
+        return veiculo.criarInstantaneo(latitude, longitude, timestamp, instanteCriacaoNanos);
+    }
+
+    /**
+     * Copia o estado atual do veículo para ser gravado, sem esperar pela gravação. Deve ser
+     * chamado na thread que atualiza o veículo, ou depois de ela ser interrompida. Nada é salvo
+     * antes da primeira localização.
+     */
+    public synchronized void salvar() {
+        if (fechado || veiculo.getEstatisticas().getNumeroLocalizacoes() == 0) {
+            return;
+        }
+        ByteBuffer buffer = pendente != null ? pendente : livre;
+        livre = null;
+        int tamanho = EstadoPercurso.calcularTamanho(veiculo);
+        if (buffer == null || buffer.capacity() < tamanho) {
+            // Com folga, pois as janelas de tendências crescem com a frequência das localizações
+            buffer = ByteBuffer.allocate(tamanho + tamanho / 2);
+        }
+        EstadoPercurso.escrever(veiculo, buffer);
+        pendente = buffer;
+        notifyAll();
+    }
+
+    /**
+     * Grava o estado pendente e encerra a thread de gravação. O estado salvo por último continua
+     * no arquivo.
+     *
+     * @throws IOException se houve erro em alguma gravação.
+     */
+    @Override
+    public void close() throws IOException {
+        encerrar(false);
+    }
+
+    /**
+     * Encerra a thread de gravação e apaga o arquivo de estado, para que o percurso não seja
+     * restaurado.
+     *
+     * @throws IOException se o arquivo não puder ser apagado.
+     */
+    public void descartar() throws IOException {
+        encerrar(true);
+        if (arquivo.exists() && !arquivo.delete()) {
+            throw new IOException("Não foi possível apagar o arquivo de estado " + arquivo);
+        }
+    }
+
+    /**
+     * Obtém o arquivo de estado.
+     *
+     * @return o arquivo.
+     */
+    public File getArquivo() {
+        return arquivo;
+    }
+
+    /**
+     * Obtém o número de estados gravados no arquivo.
+     *
+     * @return o número de salvamentos.
+     */
+    public long getSalvamentos() {
+        return salvamentos;
+    }
+
+    private void encerrar(boolean descartar) throws IOException {
+        synchronized (this) {
+            fechado = true;
+            descartado |= descartar;
+            notifyAll();
+        }
+        try {
+            gravador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (erro != null && !descartar) {
+                throw erro;
+            }
+        }
+    }
+
+    /**
+     * Laço da thread de gravação.
+     */
+    private void gravar() {
+        while (true) {
+            ByteBuffer buffer;
+            synchronized (this) {
+                while (pendente == null && !fechado) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        fechado = true;
+                    }
+                }
+                if (pendente == null || descartado) {
+                    return;
+                }
+                buffer = pendente;
+                pendente = null;
+            }
+
+            try {
+                EstadoPercurso.gravar(buffer, arquivo);
+                salvamentos++;
+            } catch (IOException e) {
+                synchronized (this) {
+                    erro = e;
+                }
+            }
+
+            synchronized (this) {
+                livre = buffer;
+            }
+        }
+    }
+}
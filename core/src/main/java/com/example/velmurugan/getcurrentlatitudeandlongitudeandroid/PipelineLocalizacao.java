@@ -0,0 +1,342 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Classe que processa as localizações à medida que chegam dos provedores.
+ * <p>
+ * O callback do provedor apenas coloca a localização em uma fila limitada; uma única thread de
+ * processamento retira as localizações da fila, atualiza o histórico e a calculadora do percurso e
+ * entrega um instantâneo imutável ao publicador. Quando a fila está cheia, a localização mais
+ * antiga é descartada, pois os dados mais recentes são os que interessam à interface.
+ * <p>
+ * Com um registro do percurso, cada localização retirada da fila é repassada a ele na thread de
+ * processamento, logo antes de chegar à calculadora, de modo que o registro contém exatamente as
+ * localizações que a calculadora recebeu, já combinadas e suavizadas, e não as descartadas pela
+ * fila cheia. Reproduzir esse registro em um Veiculo com a mesma configuração dá os mesmos valores.
+ * <p>
+ * Com um registro de métricas, cada localização registra também o intervalo desde a chegada da
+ * anterior, a espera na fila, a idade em relação ao timestamp do provedor, o tempo de cálculo e,
+ * pela interface, o tempo até a exibição, além dos descartes e das localizações repetidas ou fora
+ * de ordem.
+ */
+public class PipelineLocalizacao implements ReceptorLocalizacao {
+    public static final String METRICA_INTERVALO_CHEGADA = "localizacao.intervalo_chegada_ns";
+    public static final String METRICA_ESPERA_FILA = "localizacao.espera_fila_ns";
+    public static final String METRICA_IDADE = "localizacao.idade_ns";
+    public static final String METRICA_CALCULO = "localizacao.calculo_ns";
+    public static final String METRICA_PUBLICACAO = "localizacao.publicacao_ns";
+    public static final String METRICA_DESCARTES = "localizacao.descartes";
+    public static final String METRICA_REPETIDAS = "localizacao.repetidas";
+
+    private final HistoricoLocalizacoes historico;
+    private final CalculadoraPercurso calculadora;
+    private final PublicadorInstantaneo publicador;
+    private final Relogio relogio;
+
+    // Fila circular limitada, com as localizações em vetores paralelos
+    private final String[] filaProvedores;
+    private final double[] filaLatitudes;
+    private final double[] filaLongitudes;
+    private final float[] filaPrecisoes;
+    private final float[] filaVelocidades;
+    private final long[] filaTimestamps;
+    private final long[] filaInstantes;
+    private final int capacidadeFila;
+    private int inicioFila;
+    private int tamanhoFila;
+
+    private final MedidorLatencia latenciaFila;
+    private final MedidorLatencia latenciaCalculo;
+    private final MedidorLatencia latenciaPublicacao;
+    private volatile long descartes;
+
+    // Métricas opcionais, definidas antes de a primeira localização chegar
+    private HistogramaLatencia intervaloChegada;
+    private HistogramaLatencia esperaFila;
+    private HistogramaLatencia idade;
+    private HistogramaLatencia calculo;
+    private HistogramaLatencia publicacao;
+    private ContadorDistribuido contadorDescartes;
+    private ContadorDistribuido repetidas;
+    private long diferencaRelogios;
+    private long ultimaChegada;
+    private boolean chegouLocalizacao;
+    private long ultimoTimestamp;
+    private boolean processouLocalizacao;
+
+    private volatile ReceptorLocalizacao registro;
+
+    private Thread processador;
+
+    // Garante que uma thread que acabou de ser interrompida não calcule junto com a nova
+    private final Object travaCalculo = new Object();
+
+    /**
+     * Construtor da classe PipelineLocalizacao.
+     *
+     * @param historico      o histórico de localizações atualizado pela thread de processamento.
+     * @param calculadora    a calculadora dos dados do percurso, normalmente o Veiculo.
+     * @param publicador     o publicador dos instantâneos calculados.
+     * @param capacidadeFila o número máximo de localizações aguardando processamento.
+     */
+    public PipelineLocalizacao(HistoricoLocalizacoes historico, CalculadoraPercurso calculadora, PublicadorInstantaneo publicador, int capacidadeFila) {
+        this(historico, calculadora, publicador, capacidadeFila, RelogioSistema.INSTANCIA);
+    }
+
+    /**
+     * Construtor da classe PipelineLocalizacao com um relógio próprio para as latências e as
+     * métricas.
+     *
+     * @param historico      o histórico de localizações atualizado pela thread de processamento.
+     * @param calculadora    a calculadora dos dados do percurso, normalmente o Veiculo.
+     * @param publicador     o publicador dos instantâneos calculados.
+     * @param capacidadeFila o número máximo de localizações aguardando processamento.
+     * @param relogio        o relógio das latências e das métricas.
+     */
+    public PipelineLocalizacao(HistoricoLocalizacoes historico, CalculadoraPercurso calculadora, PublicadorInstantaneo publicador,
+                               int capacidadeFila, Relogio relogio) {
+        if (capacidadeFila <= 0) {
+            throw new IllegalArgumentException("A capacidade da fila deve ser positiva: " + capacidadeFila);
+        }
+        this.historico = historico;
+        this.calculadora = calculadora;
+        this.publicador = publicador;
+        this.relogio = relogio;
+        this.capacidadeFila = capacidadeFila;
+        this.filaProvedores = new String[capacidadeFila];
+        this.filaLatitudes = new double[capacidadeFila];
+        this.filaLongitudes = new double[capacidadeFila];
+        this.filaPrecisoes = new float[capacidadeFila];
+        this.filaVelocidades = new float[capacidadeFila];
+        this.filaTimestamps = new long[capacidadeFila];
+        this.filaInstantes = new long[capacidadeFila];
+        this.latenciaFila = new MedidorLatencia();
+        this.latenciaCalculo = new MedidorLatencia();
+        this.latenciaPublicacao = new MedidorLatencia();
+    }
+
+    /**
+     * Passa a registrar as métricas do pipeline no registro, com os nomes METRICA_*. Deve ser
+     * chamado antes de a primeira localização chegar e de a thread de processamento ser iniciada.
+     *
+     * @param metricas o registro de métricas.
+     */
+    public void setMetricas(RegistroMetricas metricas) {
+        intervaloChegada = metricas.histograma(METRICA_INTERVALO_CHEGADA);
+        esperaFila = metricas.histograma(METRICA_ESPERA_FILA);
+        idade = metricas.histograma(METRICA_IDADE);
+        calculo = metricas.histograma(METRICA_CALCULO);
+        publicacao = metricas.histograma(METRICA_PUBLICACAO);
+        contadorDescartes = metricas.contador(METRICA_DESCARTES);
+        repetidas = metricas.contador(METRICA_REPETIDAS);
+        // A idade é medida pelo instante monotônico já lido, convertido para o relógio de parede,
+        // o que evita uma segunda leitura de relógio por localização
+        diferencaRelogios = relogio.agoraMillis() * 1000000L - relogio.agoraNanos();
+    }
+
+    /**
+     * Define o registro que recebe cada localização processada, na thread de processamento, antes
+     * de ela chegar à calculadora.
+     *
+     * @param registro o registro do percurso, normalmente um GravadorPercurso, ou null para deixar
+     *                 de registrar.
+     */
+    public void setRegistro(ReceptorLocalizacao registro) {
+        this.registro = registro;
+    }
+
+    /**
+     * Inicia a thread de processamento, caso ainda não esteja em execução.
+     */
+    public synchronized void iniciar() {
+        if (processador == null) {
+            processador = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    processar();
+                }
+            }, "pipeline-localizacao");
+            processador.start();
+        }
+    }
+
+    /**
+     * Interrompe a thread de processamento. As localizações ainda na fila são mantidas.
+     */
+    public synchronized void parar() {
+        if (processador != null) {
+            processador.interrupt();
+            processador = null;
+        }
+    }
+
+    /**
+     * Coloca a localização recebida na fila de processamento, sem bloquear o chamador.
+     */
+    @Override
+    public synchronized void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+        long chegada = relogio.agoraNanos();
+        if (intervaloChegada != null) {
+            if (chegouLocalizacao) {
+                intervaloChegada.registrar(chegada - ultimaChegada);
+            }
+            ultimaChegada = chegada;
+            chegouLocalizacao = true;
+        }
+        if (tamanhoFila == capacidadeFila) {
+            inicioFila = (inicioFila + 1) % capacidadeFila;
+            tamanhoFila--;
+            descartes++;
+            if (contadorDescartes != null) {
+                contadorDescartes.incrementar();
+            }
+        }
+        int indice = (inicioFila + tamanhoFila) % capacidadeFila;
+        filaProvedores[indice] = provedor;
+        filaLatitudes[indice] = latitude;
+        filaLongitudes[indice] = longitude;
+        filaPrecisoes[indice] = precisao;
+        filaVelocidades[indice] = velocidade;
+        filaTimestamps[indice] = timestamp;
+        filaInstantes[indice] = chegada;
+        tamanhoFila++;
+        notifyAll();
+    }
+
+    /**
+     * Processa uma única localização da fila, se houver, na thread chamadora.
+     *
+     * @return true se uma localização foi processada, false se a fila estava vazia.
+     */
+    public boolean processarProxima() {
+        synchronized (travaCalculo) {
+            String provedor;
+            double latitude;
+            double longitude;
+            float precisao;
+            float velocidade;
+            long timestamp;
+            long instanteEnfileiramento;
+            synchronized (this) {
+                if (tamanhoFila == 0) {
+                    return false;
+                }
+                provedor = filaProvedores[inicioFila];
+                latitude = filaLatitudes[inicioFila];
+                longitude = filaLongitudes[inicioFila];
+                precisao = filaPrecisoes[inicioFila];
+                velocidade = filaVelocidades[inicioFila];
+                timestamp = filaTimestamps[inicioFila];
+                instanteEnfileiramento = filaInstantes[inicioFila];
+                inicioFila = (inicioFila + 1) % capacidadeFila;
+                tamanhoFila--;
+            }
+
+            long inicioCalculo = relogio.agoraNanos();
+            latenciaFila.registrar(inicioCalculo - instanteEnfileiramento);
+            if (esperaFila != null) {
+                esperaFila.registrar(inicioCalculo - instanteEnfileiramento);
+                idade.registrar(inicioCalculo + diferencaRelogios - timestamp * 1000000L);
+                if (processouLocalizacao && timestamp <= ultimoTimestamp) {
+                    repetidas.incrementar();
+                }
+            }
+            if (!processouLocalizacao || timestamp > ultimoTimestamp) {
+                ultimoTimestamp = timestamp;
+                processouLocalizacao = true;
+            }
+
+            historico.adicionar(latitude, longitude, timestamp);
+            ReceptorLocalizacao registro = this.registro;
+            if (registro != null) {
+                registro.aoReceberLocalizacao(provedor, latitude, longitude, precisao, velocidade, timestamp);
+            }
+            calculadora.atualizarDados(latitude, longitude, timestamp);
+
+            long fimCalculo = relogio.agoraNanos();
+            latenciaCalculo.registrar(fimCalculo - inicioCalculo);
+            if (calculo != null) {
+                calculo.registrar(fimCalculo - inicioCalculo);
+            }
+
+            publicador.publicar(calculadora.criarInstantaneo(latitude, longitude, timestamp, fimCalculo));
+            return true;
+        }
+    }
+
+    /**
+     * Registra o tempo entre a criação de um instantâneo e a sua exibição. Deve ser chamado pelo
+     * publicador, sempre a partir da mesma thread.
+     *
+     * @param instantaneo o instantâneo exibido.
+     */
+    public void registrarPublicacao(InstantaneoPercurso instantaneo) {
+        long latencia = relogio.agoraNanos() - instantaneo.getInstanteCriacaoNanos();
+        latenciaPublicacao.registrar(latencia);
+        if (publicacao != null) {
+            publicacao.registrar(latencia);
+        }
+    }
+
+    /**
+     * Obtém o número de localizações aguardando processamento.
+     *
+     * @return a profundidade da fila.
+     */
+    public synchronized int getProfundidadeFila() {
+        return tamanhoFila;
+    }
+
+    /**
+     * Obtém o número de localizações descartadas por a fila estar cheia.
+     *
+     * @return o número de descartes.
+     */
+    public long getDescartes() {
+        return descartes;
+    }
+
+    /**
+     * Obtém as latências entre a chegada de uma localização e o início do seu processamento.
+     *
+     * @return o medidor da latência na fila.
+     */
+    public MedidorLatencia getLatenciaFila() {
+        return latenciaFila;
+    }
+
+    /**
+     * Obtém as latências do cálculo dos dados do percurso.
+     *
+     * @return o medidor da latência de cálculo.
+     */
+    public MedidorLatencia getLatenciaCalculo() {
+        return latenciaCalculo;
+    }
+
+    /**
+     * Obtém as latências entre o fim do cálculo e a exibição do instantâneo.
+     *
+     * @return o medidor da latência de publicação.
+     */
+    public MedidorLatencia getLatenciaPublicacao() {
+        return latenciaPublicacao;
+    }
+
+    /**
+     * Laço da thread de processamento: aguarda localizações e as processa assim que chegam.
+     */
+    private void processar() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                synchronized (this) {
+                    while (tamanhoFila == 0) {
+                        wait();
+                    }
+                }
+                processarProxima();
+            }
+        } catch (InterruptedException e) {
+            // A thread foi interrompida por parar()
+        }
+    }
+}
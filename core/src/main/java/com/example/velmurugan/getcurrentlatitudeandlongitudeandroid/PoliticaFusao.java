@@ -0,0 +1,23 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Políticas de combinação das localizações de vários provedores.
+ */
+public enum PoliticaFusao {
+    /**
+     * Média das localizações recentes de todos os provedores, ponderada pelo inverso do quadrado
+     * da precisão de cada uma.
+     */
+    PRECISAO_PONDERADA,
+
+    /**
+     * A localização recente mais nova entre as que têm precisão dentro do limite; se nenhuma
+     * estiver dentro do limite, a mais precisa.
+     */
+    MAIS_RECENTE,
+
+    /**
+     * A localização do GPS enquanto ela for recente; a da rede apenas na falta dela.
+     */
+    GPS_PREFERIDO
+}
@@ -0,0 +1,15 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Interface para os componentes que exibem ou repassam os dados calculados do percurso.
+ */
+public interface PublicadorInstantaneo {
+
+    /**
+     * Publica um novo instantâneo do percurso. Pode ser chamado a partir da thread de
+     * processamento, portanto não deve bloquear.
+     *
+     * @param instantaneo o instantâneo a ser publicado.
+     */
+    void publicar(InstantaneoPercurso instantaneo);
+}
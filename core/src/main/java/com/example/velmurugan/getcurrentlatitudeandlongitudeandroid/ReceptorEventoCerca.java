@@ -0,0 +1,16 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Interface para os componentes que reagem aos eventos das cercas geográficas.
+ */
+public interface ReceptorEventoCerca {
+
+    /**
+     * Chamado na thread que entregou a localização ao MonitorCercas.
+     *
+     * @param cerca     a cerca do evento.
+     * @param evento    o evento ocorrido.
+     * @param timestamp o timestamp da localização que produziu o evento.
+     */
+    void aoReceberEvento(Cerca cerca, EventoCerca evento, long timestamp);
+}
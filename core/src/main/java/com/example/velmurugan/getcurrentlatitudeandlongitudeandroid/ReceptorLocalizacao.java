@@ -0,0 +1,19 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Interface para os componentes que recebem as localizações produzidas pelos provedores.
+ */
+public interface ReceptorLocalizacao {
+
+    /**
+     * Método chamado quando uma nova localização é recebida.
+     *
+     * @param provedor   o provedor que produziu a localização.
+     * @param latitude   a latitude da localização.
+     * @param longitude  a longitude da localização.
+     * @param precisao   a precisão estimada da localização em metros.
+     * @param velocidade a velocidade informada pelo provedor em m/s, ou NaN se não houver.
+     * @param timestamp  o timestamp da localização.
+     */
+    void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp);
+}
@@ -0,0 +1,88 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Classe que reúne os contadores e histogramas do aplicativo, identificados por nome.
+ * <p>
+ * Os componentes obtêm as suas métricas uma única vez, na configuração, e as atualizam
+ * diretamente depois, sem consultar o registro; apenas a criação e a exportação usam trava. A
+ * exportação é um texto com uma métrica por linha, em ordem de nome: os contadores com o seu
+ * valor, e os histogramas com contagem, média, percentis 50, 90, 99 e 99,9 e máximo.
+ */
+public class RegistroMetricas {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Map<String, ContadorDistribuido> contadores = new TreeMap<>();
+    private final Map<String, HistogramaLatencia> histogramas = new TreeMap<>();
+
+    /**
+     * Obtém o contador com o nome indicado, criando-o se ainda não existir.
+     *
+     * @param nome o nome do contador.
+     * @return o contador.
+     */
+    public synchronized ContadorDistribuido contador(String nome) {
+        ContadorDistribuido contador = contadores.get(nome);
+        if (contador == null) {
+            contador = new ContadorDistribuido();
+            contadores.put(nome, contador);
+        }
+        return contador;
+    }
+
+    /**
+     * Obtém o histograma com o nome indicado, criando-o se ainda não existir.
+     *
+     * @param nome o nome do histograma.
+     * @return o histograma.
+     */
+    public synchronized HistogramaLatencia histograma(String nome) {
+        HistogramaLatencia histograma = histogramas.get(nome);
+        if (histograma == null) {
+            histograma = new HistogramaLatencia();
+            histogramas.put(nome, histograma);
+        }
+        return histograma;
+    }
+
+    /**
+     * Exporta os valores atuais de todas as métricas.
+     *
+     * @return o texto com uma métrica por linha.
+     */
+    public synchronized String exportar() {
+        StringBuilder texto = new StringBuilder();
+        for (Map.Entry<String, ContadorDistribuido> entrada : contadores.entrySet()) {
+            texto.append(entrada.getKey()).append(' ').append(entrada.getValue().getValor()).append('\n');
+        }
+        for (Map.Entry<String, HistogramaLatencia> entrada : histogramas.entrySet()) {
+            HistogramaLatencia histograma = entrada.getValue();
+            texto.append(entrada.getKey())
+                    .append(" contagem=").append(histograma.getContagem())
+                    .append(" media=").append(Math.round(histograma.getMedia()))
+                    .append(" p50=").append(histograma.getPercentil(50))
+                    .append(" p90=").append(histograma.getPercentil(90))
+                    .append(" p99=").append(histograma.getPercentil(99))
+                    .append(" p999=").append(histograma.getPercentil(99.9))
+                    .append(" maximo=").append(histograma.getMaximo())
+                    .append('\n');
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Grava a exportação em um arquivo, substituindo o anterior de forma atômica.
+     *
+     * @param arquivo o arquivo de destino.
+     * @throws IOException se o arquivo não puder ser gravado.
+     */
+    public void salvar(File arquivo) throws IOException {
+        EstadoPercurso.gravar(ByteBuffer.wrap(exportar().getBytes(UTF_8)), arquivo);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Formato binário do arquivo de registro de um percurso.
+ * <p>
+ * O arquivo começa com um cabeçalho de {@value #TAMANHO_CABECALHO} bytes (assinatura, versão e
+ * tamanho do registro) seguido de registros de largura fixa, um por localização, na ordem em que
+ * foram recebidas:
+ * <pre>
+ * timestamp  long    8 bytes
+ * latitude   double  8 bytes
+ * longitude  double  8 bytes
+ * precisao   float   4 bytes
+ * velocidade float   4 bytes
+ * provedor   byte    1 byte
+ * </pre>
+ * Um registro incompleto no final do arquivo, deixado por uma gravação interrompida, é ignorado.
+ */
+public final class RegistroPercurso {
+    public static final int ASSINATURA = 0x54524950; // "TRIP"
+    public static final short VERSAO = 1;
+    public static final int TAMANHO_CABECALHO = 8;
+    public static final int TAMANHO_REGISTRO = 33;
+
+    static final int POSICAO_TIMESTAMP = 0;
+    static final int POSICAO_LATITUDE = 8;
+    static final int POSICAO_LONGITUDE = 16;
+    static final int POSICAO_PRECISAO = 24;
+    static final int POSICAO_VELOCIDADE = 28;
+    static final int POSICAO_PROVEDOR = 32;
+
+    static final byte PROVEDOR_DESCONHECIDO = 0;
+    static final byte PROVEDOR_REDE = 1;
+    static final byte PROVEDOR_GPS = 2;
+
+    private RegistroPercurso() {
+    }
+
+    /**
+     * Escreve o cabeçalho do arquivo na posição atual do buffer.
+     *
+     * @param buffer o buffer de destino.
+     */
+    static void escreverCabecalho(ByteBuffer buffer) {
+        buffer.putInt(ASSINATURA);
+        buffer.putShort(VERSAO);
+        buffer.putShort((short) TAMANHO_REGISTRO);
+    }
+
+    /**
+     * Valida o cabeçalho do arquivo a partir da posição atual do buffer.
+     *
+     * @param buffer o buffer com o início do arquivo.
+     * @throws IOException se o arquivo não for um registro de percurso compatível.
+     */
+    static void validarCabecalho(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < TAMANHO_CABECALHO || buffer.getInt() != ASSINATURA) {
+            throw new IOException("O arquivo não é um registro de percurso");
+        }
+        short versao = buffer.getShort();
+        short tamanhoRegistro = buffer.getShort();
+        if (versao != VERSAO || tamanhoRegistro != TAMANHO_REGISTRO) {
+            throw new IOException("Versão do registro de percurso não suportada: " + versao);
+        }
+    }
+
+    /**
+     * Converte o nome do provedor no código gravado no arquivo.
+     *
+     * @param provedor o nome do provedor.
+     * @return o código do provedor.
+     */
+    static byte codigoProvedor(String provedor) {
+        if (MotorLocalizacao.PROVEDOR_GPS.equals(provedor)) {
+            return PROVEDOR_GPS;
+        } else if (MotorLocalizacao.PROVEDOR_REDE.equals(provedor)) {
+            return PROVEDOR_REDE;
+        }
+        return PROVEDOR_DESCONHECIDO;
+    }
+
+    /**
+     * Converte o código gravado no arquivo no nome do provedor.
+     *
+     * @param codigo o código do provedor.
+     * @return o nome do provedor, ou null se for desconhecido.
+     */
+    static String nomeProvedor(byte codigo) {
+        switch (codigo) {
+            case PROVEDOR_GPS:
+                return MotorLocalizacao.PROVEDOR_GPS;
+            case PROVEDOR_REDE:
+                return MotorLocalizacao.PROVEDOR_REDE;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Interface para a fonte de tempo dos componentes que medem intervalos ou esperam.
+ * <p>
+ * As implementações disponíveis são RelogioSistema, sobre o relógio do sistema, e RelogioVirtual,
+ * avançado pelo próprio programa, que permite reproduzir um percurso longo em poucos
+ * milissegundos e com resultados repetíveis.
+ */
+public interface Relogio {
+
+    /**
+     * Obtém o instante atual do relógio de parede.
+     *
+     * @return o instante em milissegundos desde 1970, como System.currentTimeMillis().
+     */
+    long agoraMillis();
+
+    /**
+     * Obtém o instante atual do relógio monotônico, para medir intervalos.
+     *
+     * @return o instante em nanossegundos, como System.nanoTime().
+     */
+    long agoraNanos();
+
+    /**
+     * Espera o tempo indicado.
+     *
+     * @param nanos o tempo de espera em nanossegundos.
+     * @throws InterruptedException se a thread for interrompida durante a espera.
+     */
+    void esperar(long nanos) throws InterruptedException;
+}
@@ -0,0 +1,31 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Relógio sobre o relógio do sistema, usado pelo aplicativo.
+ */
+public final class RelogioSistema implements Relogio {
+    /**
+     * A única instância, pois a classe não tem estado.
+     */
+    public static final RelogioSistema INSTANCIA = new RelogioSistema();
+
+    private RelogioSistema() {
+    }
+
+    @Override
+    public long agoraMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public long agoraNanos() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void esperar(long nanos) throws InterruptedException {
+        if (nanos > 0) {
+            Thread.sleep(nanos / 1000000L, (int) (nanos % 1000000L));
+        }
+    }
+}
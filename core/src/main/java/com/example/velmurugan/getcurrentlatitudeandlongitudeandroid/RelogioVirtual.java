@@ -0,0 +1,69 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Relógio cujo tempo só anda quando o programa o avança, para simulações e testes.
+ * <p>
+ * Esperar avança o relógio imediatamente pelo tempo da espera, então um componente que espera
+ * entre localizações percorre um percurso de horas sem esperar de fato. Os relógios de parede e
+ * monotônico andam juntos: agoraNanos() é sempre agoraMillis() vezes um milhão. Pode ser lido de
+ * qualquer thread, mas deve ser avançado por uma thread de cada vez.
+ */
+public class RelogioVirtual implements Relogio {
+    private volatile long nanos;
+
+    /**
+     * Construtor da classe RelogioVirtual.
+     *
+     * @param inicioMillis o instante inicial em milissegundos desde 1970.
+     */
+    public RelogioVirtual(long inicioMillis) {
+        this.nanos = inicioMillis * 1000000L;
+    }
+
+    @Override
+    public long agoraMillis() {
+        return nanos / 1000000L;
+    }
+
+    @Override
+    public long agoraNanos() {
+        return nanos;
+    }
+
+    /**
+     * Avança o relógio pelo tempo da espera, sem esperar.
+     */
+    @Override
+    public void esperar(long nanos) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (nanos > 0) {
+            this.nanos += nanos;
+        }
+    }
+
+    /**
+     * Avança o relógio.
+     *
+     * @param millis o tempo a avançar em milissegundos.
+     */
+    public void avancar(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("O relógio não pode voltar: " + millis);
+        }
+        nanos += millis * 1000000L;
+    }
+
+    /**
+     * Avança o relógio até um instante. Instantes anteriores ao atual são ignorados.
+     *
+     * @param instanteMillis o instante em milissegundos desde 1970.
+     */
+    public void avancarAte(long instanteMillis) {
+        long alvo = instanteMillis * 1000000L;
+        if (alvo > nanos) {
+            nanos = alvo;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Classe que recalcula os dados de percursos gravados no formato RegistroPercurso, em paralelo.
+ * <p>
+ * Cada percurso é reproduzido, sem fusão nem filtragem, em um Veiculo novo com um monitor com a
+ * cerca de destino, e opcionalmente com a rota do percurso. O resumo só tem os mesmos valores
+ * calculados ao vivo, incluindo o resultado da chegada, se o registro contiver exatamente as
+ * localizações que o Veiculo recebeu e o reprocessamento usar a mesma configuração do Veiculo:
+ * o mesmo algoritmo de distância e destino, ou a mesma rota, e o mesmo modelo de consumo; um registro das localizações originais dos provedores,
+ * ou simplificado, dá apenas uma aproximação. Os arquivos de uma pasta são divididos entre as
+ * threads de um ForkJoinPool.
+ * <p>
+ * Um percurso longo é processado em janelas. Em cada janela, as threads do pool calculam em
+ * paralelo, por blocos, quais localizações seriam ignoradas por estarem fora de ordem e a
+ * distância de cada trecho, com uma varredura de prefixo do maior timestamp e uma calculadora de
+ * distância por bloco; o Veiculo então recebe as localizações em ordem e apenas consulta as
+ * distâncias já calculadas. Como a distância de um trecho depende apenas dele em todos os
+ * algoritmos, inclusive no EQUIRETANGULAR padrão, as distâncias são as mesmas do cálculo
+ * sequencial. A soma das distâncias e os demais acumuladores continuam sequenciais, pois a soma
+ * compensada do Veiculo em outra ordem mudaria os últimos bits do resultado.
+ */
+public class ReprocessamentoPercursos {
+    // Extensão dos registros de percurso
+    static final String EXTENSAO = ".bin";
+
+    // Margem de saída da cerca de destino, a mesma do aplicativo
+    private static final double MARGEM_SAIDA_DESTINO = 15;
+
+    // Raio da cerca de destino no último ponto de uma rota, o mesmo do aplicativo
+    static final double RAIO_DESTINO_ROTA = 20;
+
+    // Localizações por bloco das tarefas paralelas e por janela de um percurso longo
+    static final int TAMANHO_BLOCO = 8192;
+    static final int TAMANHO_JANELA = 32 * TAMANHO_BLOCO;
+
+    private final ForkJoinPool pool;
+    private final AlgoritmoDistancia algoritmo;
+    private final Cerca destino;
+    private final ModeloConsumo modeloConsumo;
+    private final Rota rota;
+
+    /**
+     * Construtor da classe ReprocessamentoPercursos.
+     *
+     * @param pool          o pool que executa as tarefas.
+     * @param algoritmo     o algoritmo de distância do Veiculo.
+     * @param destino       a região de destino dos percursos, também usada como cerca de chegada.
+     * @param modeloConsumo o modelo de consumo de combustível do veículo.
+     */
+    public ReprocessamentoPercursos(ForkJoinPool pool, AlgoritmoDistancia algoritmo, Cerca destino, ModeloConsumo modeloConsumo) {
+        this(pool, algoritmo, destino, null, modeloConsumo);
+    }
+
+    /**
+     * Construtor da classe ReprocessamentoPercursos para percursos que acompanham uma rota. Cada
+     * percurso é reproduzido como o aplicativo faz quando há uma rota: em um Veiculo que a
+     * acompanha com HAVERSINE e com uma cerca de destino de 20 metros no último ponto da rota.
+     *
+     * @param pool          o pool que executa as tarefas.
+     * @param rota          a rota dos percursos.
+     * @param modeloConsumo o modelo de consumo de combustível do veículo.
+     */
+    public ReprocessamentoPercursos(ForkJoinPool pool, Rota rota, ModeloConsumo modeloConsumo) {
+        this(pool, AlgoritmoDistancia.HAVERSINE, rota != null ? criarDestino(rota) : null, rota, modeloConsumo);
+    }
+
+    private ReprocessamentoPercursos(ForkJoinPool pool, AlgoritmoDistancia algoritmo, Cerca destino, Rota rota,
+                                     ModeloConsumo modeloConsumo) {
+        if (pool == null || algoritmo == null || destino == null || modeloConsumo == null) {
+            throw new IllegalArgumentException("Parâmetros inválidos para o reprocessamento");
+        }
+        this.pool = pool;
+        this.algoritmo = algoritmo;
+        this.destino = destino;
+        this.rota = rota;
+        this.modeloConsumo = modeloConsumo;
+    }
+
+    /**
+     * Construtor da classe ReprocessamentoPercursos com o pool comum e a configuração padrão do
+     * Veiculo, sem rota.
+     */
+    public ReprocessamentoPercursos() {
+        this(ForkJoinPool.commonPool(), AlgoritmoDistancia.EQUIRETANGULAR, Veiculo.CERCA_DESTINO,
+                PerfilVeiculo.CARRO.getModeloConsumo());
+    }
+
+    /**
+     * Cria a cerca de destino de uma rota, no seu último ponto.
+     */
+    private static Cerca criarDestino(Rota rota) {
+        int ultimo = rota.getNumeroPontos() - 1;
+        return new CercaCircular("destino", rota.getLatitude(ultimo), rota.getLongitude(ultimo), RAIO_DESTINO_ROTA);
+    }
+
+    /**
+     * Reprocessa todos os registros de percurso de uma pasta.
+     *
+     * @param pasta a pasta com os arquivos .bin.
+     * @return os resumos dos percursos, na ordem dos nomes dos arquivos.
+     * @throws IOException se a pasta ou algum dos arquivos não puder ser lido.
+     */
+    public ResumoPercurso[] reprocessarPasta(File pasta) throws IOException {
+        File[] arquivos = pasta.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File arquivo) {
+                return arquivo.isFile() && arquivo.getName().endsWith(EXTENSAO);
+            }
+        });
+        if (arquivos == null) {
+            throw new IOException("Não foi possível listar a pasta " + pasta);
+        }
+        Arrays.sort(arquivos);
+        return reprocessar(arquivos);
+    }
+
+    /**
+     * Reprocessa um conjunto de registros de percurso.
+     *
+     * @param arquivos os arquivos dos registros.
+     * @return os resumos dos percursos, na mesma ordem dos arquivos.
+     * @throws IOException se algum dos arquivos não puder ser lido.
+     */
+    public ResumoPercurso[] reprocessar(File[] arquivos) throws IOException {
+        ResumoPercurso[] resumos = new ResumoPercurso[arquivos.length];
+        IOException[] falhas = new IOException[arquivos.length];
+        pool.invoke(new TarefaArquivos(arquivos, resumos, falhas, 0, arquivos.length));
+        for (int i = 0; i < falhas.length; i++) {
+            if (falhas[i] != null) {
+                throw new IOException("Falha ao reprocessar " + arquivos[i], falhas[i]);
+            }
+        }
+        return resumos;
+    }
+
+    /**
+     * Reprocessa um único registro de percurso.
+     *
+     * @param arquivo o arquivo do registro.
+     * @return o resumo do percurso.
+     * @throws IOException se o arquivo não puder ser lido.
+     */
+    public ResumoPercurso reprocessar(File arquivo) throws IOException {
+        return reprocessar(new File[]{arquivo})[0];
+    }
+
+    /**
+     * Reproduz um registro em um Veiculo novo. Deve ser chamado por uma thread do pool.
+     */
+    private ResumoPercurso processar(File arquivo) throws IOException {
+        LeitorPercurso leitor = new LeitorPercurso(arquivo);
+        boolean paralelo = leitor.getNumeroRegistros() >= 2 * TAMANHO_BLOCO;
+        DistanciasCalculadas distancias = paralelo ? new DistanciasCalculadas() : null;
+
+        CalculadoraDistancia calculadora = paralelo ? distancias : algoritmo.criar();
+        Veiculo veiculo = rota != null ? new Veiculo(calculadora, rota) : new Veiculo(calculadora, destino);
+        veiculo.setModeloConsumo(modeloConsumo);
+        AvaliadorChegada avaliador = new AvaliadorChegada(destino, veiculo) {
+            @Override
+            protected void aoConcluirPercurso(ResultadoPercurso resultado, long tempoParaDestinoFinal) {
+                // O resultado é consultado ao fim do percurso
+            }
+        };
+        MonitorCercas monitorCercas = new MonitorCercas(MARGEM_SAIDA_DESTINO, 0, avaliador);
+        monitorCercas.adicionar(destino);
+        veiculo.setMonitorCercas(monitorCercas);
+
+        if (paralelo) {
+            reproduzirEmParalelo(leitor, veiculo, distancias);
+        } else {
+            leitor.reproduzir(veiculo);
+        }
+
+        String nome = arquivo.getName();
+        if (nome.endsWith(EXTENSAO)) {
+            nome = nome.substring(0, nome.length() - EXTENSAO.length());
+        }
+        return new ResumoPercurso(nome, leitor.getNumeroRegistros(), veiculo, avaliador.getResultado());
+    }
+
+    /**
+     * Reproduz o registro janela por janela, com as distâncias de cada janela calculadas em
+     * paralelo antes de as localizações serem entregues ao veículo.
+     */
+    private void reproduzirEmParalelo(LeitorPercurso leitor, Veiculo veiculo, DistanciasCalculadas distancias) {
+        int numeroRegistros = leitor.getNumeroRegistros();
+        distancias.valores = new double[Math.min(numeroRegistros, TAMANHO_JANELA)];
+        int maximoBlocos = (distancias.valores.length + TAMANHO_BLOCO - 1) / TAMANHO_BLOCO;
+        long[] maioresTimestamps = new long[maximoBlocos];
+        int[] indicesMaiores = new int[maximoBlocos];
+
+        // A última localização aceita antes da janela: a de maior timestamp, a primeira em caso de empate
+        long maiorTimestamp = Long.MIN_VALUE;
+        int indiceMaior = -1;
+        for (int inicio = 0; inicio < numeroRegistros; inicio += TAMANHO_JANELA) {
+            int fim = Math.min(numeroRegistros, inicio + TAMANHO_JANELA);
+            int blocos = (fim - inicio + TAMANHO_BLOCO - 1) / TAMANHO_BLOCO;
+
+            // Maior timestamp de cada bloco, em paralelo
+            TarefaBlocos.executar(leitor, null, null, inicio, fim, maioresTimestamps, indicesMaiores, 0, blocos);
+
+            // Varredura exclusiva sobre os blocos: cada bloco passa a guardar a última localização
+            // aceita antes dele
+            for (int b = 0; b < blocos; b++) {
+                long maiorBloco = maioresTimestamps[b];
+                int indiceBloco = indicesMaiores[b];
+                maioresTimestamps[b] = maiorTimestamp;
+                indicesMaiores[b] = indiceMaior;
+                if (indiceBloco >= 0 && (indiceMaior < 0 || maiorBloco > maiorTimestamp)) {
+                    maiorTimestamp = maiorBloco;
+                    indiceMaior = indiceBloco;
+                }
+            }
+
+            // Distância de cada trecho, em paralelo
+            TarefaBlocos.executar(leitor, algoritmo, distancias.valores, inicio, fim, maioresTimestamps, indicesMaiores, 0, blocos);
+
+            for (int i = inicio; i < fim; i++) {
+                distancias.indice = i - inicio;
+                veiculo.atualizarDados(leitor.getLatitude(i), leitor.getLongitude(i), leitor.getTimestamp(i));
+            }
+        }
+    }
+
+    /**
+     * Calculadora que devolve a distância já calculada do trecho que termina na localização
+     * sendo entregue ao veículo.
+     */
+    private static final class DistanciasCalculadas implements CalculadoraDistancia {
+        private double[] valores;
+        private int indice;
+
+        @Override
+        public double calcular(double lat1, double lon1, double lat2, double lon2) {
+            return valores[indice];
+        }
+    }
+
+    /**
+     * Tarefa que divide os arquivos ao meio até restar um por tarefa.
+     */
+    private final class TarefaArquivos extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final File[] arquivos;
+        private final ResumoPercurso[] resumos;
+        private final IOException[] falhas;
+        private final int inicio;
+        private final int fim;
+
+        TarefaArquivos(File[] arquivos, ResumoPercurso[] resumos, IOException[] falhas, int inicio, int fim) {
+            this.arquivos = arquivos;
+            this.resumos = resumos;
+            this.falhas = falhas;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio > 1) {
+                int meio = (inicio + fim) >>> 1;
+                invokeAll(new TarefaArquivos(arquivos, resumos, falhas, inicio, meio),
+                        new TarefaArquivos(arquivos, resumos, falhas, meio, fim));
+                return;
+            }
+            if (fim > inicio) {
+                try {
+                    resumos[inicio] = processar(arquivos[inicio]);
+                } catch (IOException e) {
+                    falhas[inicio] = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Tarefa que processa uma faixa de blocos de uma janela. Sem algoritmo, guarda o maior
+     * timestamp de cada bloco e a primeira localização com ele. Com algoritmo, cria uma
+     * calculadora para o bloco, parte da última
+     * localização aceita antes de cada bloco e calcula a distância de cada trecho, como
+     * EstatisticasPercurso faria; as localizações ignoradas ficam com distância 0.
+     */
+    private static final class TarefaBlocos extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final LeitorPercurso leitor;
+        private final AlgoritmoDistancia algoritmo;
+        private final double[] distancias;
+        private final int inicioJanela;
+        private final int fimJanela;
+        private final long[] maioresTimestamps;
+        private final int[] indicesMaiores;
+        private final int primeiroBloco;
+        private final int fimBlocos;
+
+        private TarefaBlocos(LeitorPercurso leitor, AlgoritmoDistancia algoritmo, double[] distancias, int inicioJanela,
+                             int fimJanela, long[] maioresTimestamps, int[] indicesMaiores, int primeiroBloco, int fimBlocos) {
+            this.leitor = leitor;
+            this.algoritmo = algoritmo;
+            this.distancias = distancias;
+            this.inicioJanela = inicioJanela;
+            this.fimJanela = fimJanela;
+            this.maioresTimestamps = maioresTimestamps;
+            this.indicesMaiores = indicesMaiores;
+            this.primeiroBloco = primeiroBloco;
+            this.fimBlocos = fimBlocos;
+        }
+
+        static void executar(LeitorPercurso leitor, AlgoritmoDistancia algoritmo, double[] distancias, int inicioJanela,
+                             int fimJanela, long[] maioresTimestamps, int[] indicesMaiores, int primeiroBloco, int fimBlocos) {
+            new TarefaBlocos(leitor, algoritmo, distancias, inicioJanela, fimJanela, maioresTimestamps, indicesMaiores,
+                    primeiroBloco, fimBlocos).invoke();
+        }
+
+        @Override
+        protected void compute() {
+            if (fimBlocos - primeiroBloco > 1) {
+                int meio = (primeiroBloco + fimBlocos) >>> 1;
+                invokeAll(new TarefaBlocos(leitor, algoritmo, distancias, inicioJanela, fimJanela, maioresTimestamps,
+                                indicesMaiores, primeiroBloco, meio),
+                        new TarefaBlocos(leitor, algoritmo, distancias, inicioJanela, fimJanela, maioresTimestamps,
+                                indicesMaiores, meio, fimBlocos));
+                return;
+            }
+            int inicio = inicioJanela + primeiroBloco * TAMANHO_BLOCO;
+            int fim = Math.min(fimJanela, inicio + TAMANHO_BLOCO);
+            CalculadoraDistancia calculadora = algoritmo != null ? algoritmo.criar() : null;
+            long maiorTimestamp = maioresTimestamps[primeiroBloco];
+            int indiceMaior = indicesMaiores[primeiroBloco];
+            if (calculadora == null) {
+                maiorTimestamp = Long.MIN_VALUE;
+                indiceMaior = -1;
+            }
+            for (int i = inicio; i < fim; i++) {
+                long timestamp = leitor.getTimestamp(i);
+                if (indiceMaior >= 0 && timestamp <= maiorTimestamp) {
+                    if (calculadora != null) {
+                        distancias[i - inicioJanela] = 0;
+                    }
+                    continue;
+                }
+                if (calculadora != null) {
+                    distancias[i - inicioJanela] = indiceMaior < 0 ? 0 : calculadora.calcular(leitor.getLatitude(indiceMaior),
+                            leitor.getLongitude(indiceMaior), leitor.getLatitude(i), leitor.getLongitude(i));
+                }
+                maiorTimestamp = timestamp;
+                indiceMaior = i;
+            }
+            if (calculadora == null) {
+                maioresTimestamps[primeiroBloco] = maiorTimestamp;
+                indicesMaiores[primeiroBloco] = indiceMaior;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Resultados possíveis de um percurso concluído, conforme o tempo que faltava para o prazo.
+ */
+public enum ResultadoPercurso {
+    /**
+     * O destino foi alcançado até 10 segundos antes ou depois do prazo.
+     */
+    NO_TEMPO,
+
+    /**
+     * O destino foi alcançado mais de 10 segundos depois do prazo.
+     */
+    ATRASADO,
+
+    /**
+     * O destino foi alcançado mais de 10 segundos antes do prazo.
+     */
+    ADIANTADO;
+
+    // A diferença, em segundos, até a qual a chegada é considerada no tempo
+    static final long TOLERANCIA = 10;
+
+    /**
+     * Avalia a chegada ao destino.
+     *
+     * @param tempoParaDestinoFinal o tempo, em segundos, que faltava para o prazo na chegada.
+     * @return o resultado do percurso.
+     */
+    public static ResultadoPercurso avaliar(long tempoParaDestinoFinal) {
+        if (tempoParaDestinoFinal < -TOLERANCIA) {
+            return ATRASADO;
+        }
+        return tempoParaDestinoFinal > TOLERANCIA ? ADIANTADO : NO_TEMPO;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Classe imutável com os dados finais de um percurso reprocessado.
+ * <p>
+ * Os valores são copiados do Veiculo depois da última localização, então são os mesmos que o
+ * aplicativo exibiria ao fim do percurso.
+ */
+public final class ResumoPercurso {
+    private final String nome;
+    private final int numeroRegistros;
+    private final long numeroLocalizacoes;
+    private final double distanciaPercorrida;
+    private final long tempoDecorrido;
+    private final long tempoMovimento;
+    private final double velocidadeMaxima;
+    private final double velocidadeMediaTotal;
+    private final double velocidadeMediaMovimento;
+    private final double consumoCombustivelTotal;
+    private final long tempoDeslocamento;
+    private final long tempoParaDestinoFinal;
+    private final ResultadoPercurso resultado;
+
+    /**
+     * Cria o resumo com os dados atuais do veículo.
+     *
+     * @param nome            o nome do percurso.
+     * @param numeroRegistros o número de localizações do registro, incluindo as ignoradas.
+     * @param veiculo         o veículo que processou o percurso.
+     * @param resultado       o resultado da chegada ao destino, ou null se não chegou.
+     */
+    ResumoPercurso(String nome, int numeroRegistros, Veiculo veiculo, ResultadoPercurso resultado) {
+        EstatisticasPercurso estatisticas = veiculo.getEstatisticas();
+        this.nome = nome;
+        this.numeroRegistros = numeroRegistros;
+        this.numeroLocalizacoes = estatisticas.getNumeroLocalizacoes();
+        this.distanciaPercorrida = veiculo.getDistanciaPercorrida();
+        this.tempoDecorrido = estatisticas.getTempoDecorrido();
+        this.tempoMovimento = estatisticas.getTempoMovimento();
+        this.velocidadeMaxima = estatisticas.getVelocidadeMaxima();
+        this.velocidadeMediaTotal = veiculo.getVelocidadeMediaTotal();
+        this.velocidadeMediaMovimento = estatisticas.getVelocidadeMediaMovimento();
+        this.consumoCombustivelTotal = veiculo.getConsumoCombustivelTotal();
+        this.tempoDeslocamento = veiculo.getTempoDeslocamento();
+        this.tempoParaDestinoFinal = veiculo.getTempoParaDestinoFinal();
+        this.resultado = resultado;
+    }
+
+    /**
+     * Obtém o nome do percurso, o nome do arquivo sem a extensão.
+     *
+     * @return o nome do percurso.
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Obtém o número de localizações do registro, incluindo as ignoradas.
+     *
+     * @return o número de registros.
+     */
+    public int getNumeroRegistros() {
+        return numeroRegistros;
+    }
+
+    /**
+     * Obtém o número de localizações processadas, sem as ignoradas por estarem fora de ordem.
+     *
+     * @return o número de localizações.
+     */
+    public long getNumeroLocalizacoes() {
+        return numeroLocalizacoes;
+    }
+
+    /**
+     * Obtém a distância percorrida.
+     *
+     * @return a distância percorrida em quilômetros.
+     */
+    public double getDistanciaPercorrida() {
+        return distanciaPercorrida;
+    }
+
+    /**
+     * Obtém o tempo entre a primeira e a última localização.
+     *
+     * @return o tempo decorrido em milissegundos.
+     */
+    public long getTempoDecorrido() {
+        return tempoDecorrido;
+    }
+
+    /**
+     * Obtém o tempo em que o veículo esteve em movimento.
+     *
+     * @return o tempo em movimento em milissegundos.
+     */
+    public long getTempoMovimento() {
+        return tempoMovimento;
+    }
+
+    /**
+     * Obtém a maior velocidade instantânea do percurso.
+     *
+     * @return a velocidade máxima em km/h.
+     */
+    public double getVelocidadeMaxima() {
+        return velocidadeMaxima;
+    }
+
+    /**
+     * Obtém a velocidade média de todo o percurso.
+     *
+     * @return a velocidade média total em km/h.
+     */
+    public double getVelocidadeMediaTotal() {
+        return velocidadeMediaTotal;
+    }
+
+    /**
+     * Obtém a velocidade média considerando apenas o tempo em movimento.
+     *
+     * @return a velocidade média em movimento em km/h.
+     */
+    public double getVelocidadeMediaMovimento() {
+        return velocidadeMediaMovimento;
+    }
+
+    /**
+     * Obtém o consumo de combustível do percurso.
+     *
+     * @return o consumo total em litros.
+     */
+    public double getConsumoCombustivelTotal() {
+        return consumoCombustivelTotal;
+    }
+
+    /**
+     * Obtém o tempo de deslocamento até a última localização fora do destino.
+     *
+     * @return o tempo de deslocamento em segundos.
+     */
+    public long getTempoDeslocamento() {
+        return tempoDeslocamento;
+    }
+
+    /**
+     * Obtém o tempo que restava para o prazo na última localização fora do destino.
+     *
+     * @return o tempo restante para o destino final, em segundos.
+     */
+    public long getTempoParaDestinoFinal() {
+        return tempoParaDestinoFinal;
+    }
+
+    /**
+     * Obtém o resultado da chegada ao destino, avaliado na primeira entrada na cerca.
+     *
+     * @return o resultado, ou null se o destino não foi alcançado.
+     */
+    public ResultadoPercurso getResultado() {
+        return resultado;
+    }
+
+    @Override
+    public String toString() {
+        return nome + ": " + distanciaPercorrida + " km em " + tempoDecorrido / 1000 + " s, "
+                + consumoCombustivelTotal + " L, " + (resultado != null ? resultado : "sem chegada");
+    }
+}
@@ -0,0 +1,422 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Classe imutável que representa a rota do percurso como uma linha de pontos.
+ * <p>
+ * Na construção são calculadas as distâncias acumuladas até cada ponto, pela fórmula de haversine,
+ * e um índice espacial em grade: os pontos são projetados em metros em um plano tangente ao
+ * primeiro ponto, e cada célula da grade guarda os trechos cuja caixa envolvente a toca. Assim o
+ * trecho mais próximo de uma localização é encontrado examinando apenas as células vizinhas, e a
+ * posição correspondente a uma distância, ou o próximo ponto de controle, por busca binária nas
+ * distâncias acumuladas. Pode ser compartilhada por várias threads.
+ */
+public class Rota {
+    // Menor largura, em metros, de uma célula do índice espacial
+    static final double TAMANHO_MINIMO_CELULA = 50;
+
+    // Maior número de células do índice espacial
+    static final int MAXIMO_CELULAS = 1 << 18;
+
+    private static final double METROS_POR_RADIANO = DistanciaHaversine.RAIO_TERRA * 1000.0;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] distanciasAcumuladas;
+    private final int[] pontosControle;
+
+    // Pontos projetados no plano tangente, em metros
+    private final double latitudeOrigem;
+    private final double longitudeOrigem;
+    private final double metrosPorGrauLongitude;
+    private final double[] xs;
+    private final double[] ys;
+
+    // Índice espacial: os trechos da célula c estão em trechosCelulas[inicioCelulas[c]..inicioCelulas[c + 1])
+    private final double xMinimo;
+    private final double yMinimo;
+    private final double tamanhoCelula;
+    private final int colunas;
+    private final int linhas;
+    private final int[] inicioCelulas;
+    private final int[] trechosCelulas;
+
+    /**
+     * Construtor da classe Rota em que apenas o último ponto é ponto de controle.
+     *
+     * @param latitudes  as latitudes dos pontos, na ordem do percurso.
+     * @param longitudes as longitudes dos pontos, na ordem do percurso.
+     */
+    public Rota(double[] latitudes, double[] longitudes) {
+        this(latitudes, longitudes, new int[0]);
+    }
+
+    /**
+     * Construtor da classe Rota. O último ponto é sempre ponto de controle.
+     *
+     * @param latitudes      as latitudes dos pontos, na ordem do percurso.
+     * @param longitudes     as longitudes dos pontos, na ordem do percurso.
+     * @param pontosControle os índices dos pontos de controle, em ordem crescente.
+     */
+    public Rota(double[] latitudes, double[] longitudes, int[] pontosControle) {
+        int n = latitudes.length;
+        if (n < 2 || longitudes.length != n) {
+            throw new IllegalArgumentException("A rota precisa de pelo menos dois pontos com latitude e longitude");
+        }
+        this.latitudes = latitudes.clone();
+        this.longitudes = longitudes.clone();
+        this.pontosControle = validarPontosControle(pontosControle, n);
+
+        CalculadoraDistancia haversine = new DistanciaHaversine();
+        distanciasAcumuladas = new double[n];
+        for (int i = 1; i < n; i++) {
+            distanciasAcumuladas[i] = distanciasAcumuladas[i - 1]
+                    + haversine.calcular(latitudes[i - 1], longitudes[i - 1], latitudes[i], longitudes[i]);
+        }
+
+        latitudeOrigem = latitudes[0];
+        longitudeOrigem = longitudes[0];
+        metrosPorGrauLongitude = Math.toRadians(1) * METROS_POR_RADIANO * Math.cos(Math.toRadians(latitudeOrigem));
+        xs = new double[n];
+        ys = new double[n];
+        double xMin = Double.MAX_VALUE;
+        double yMin = Double.MAX_VALUE;
+        double xMax = -Double.MAX_VALUE;
+        double yMax = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            xs[i] = paraX(longitudes[i]);
+            ys[i] = paraY(latitudes[i]);
+            xMin = Math.min(xMin, xs[i]);
+            yMin = Math.min(yMin, ys[i]);
+            xMax = Math.max(xMax, xs[i]);
+            yMax = Math.max(yMax, ys[i]);
+        }
+
+        // Células do tamanho médio de um trecho, limitadas pelo número máximo de células
+        double largura = xMax - xMin;
+        double altura = yMax - yMin;
+        double tamanho = Math.max(TAMANHO_MINIMO_CELULA, distanciasAcumuladas[n - 1] * 1000 / (n - 1));
+        tamanho = Math.max(tamanho, Math.sqrt(largura * altura / MAXIMO_CELULAS));
+        while ((Math.floor(largura / tamanho) + 1) * (Math.floor(altura / tamanho) + 1) > MAXIMO_CELULAS) {
+            tamanho *= 1.5;
+        }
+        xMinimo = xMin;
+        yMinimo = yMin;
+        tamanhoCelula = tamanho;
+        colunas = (int) (largura / tamanho) + 1;
+        linhas = (int) (altura / tamanho) + 1;
+
+        // Primeiro conta os trechos de cada célula, depois os distribui
+        inicioCelulas = new int[colunas * linhas + 1];
+        for (int trecho = 0; trecho < n - 1; trecho++) {
+            int colunaInicial = coluna(Math.min(xs[trecho], xs[trecho + 1]));
+            int colunaFinal = coluna(Math.max(xs[trecho], xs[trecho + 1]));
+            int linhaInicial = linha(Math.min(ys[trecho], ys[trecho + 1]));
+            int linhaFinal = linha(Math.max(ys[trecho], ys[trecho + 1]));
+            for (int l = linhaInicial; l <= linhaFinal; l++) {
+                for (int c = colunaInicial; c <= colunaFinal; c++) {
+                    inicioCelulas[l * colunas + c + 1]++;
+                }
+            }
+        }
+        for (int c = 0; c < colunas * linhas; c++) {
+            inicioCelulas[c + 1] += inicioCelulas[c];
+        }
+        trechosCelulas = new int[inicioCelulas[colunas * linhas]];
+        int[] preenchidos = Arrays.copyOf(inicioCelulas, colunas * linhas);
+        for (int trecho = 0; trecho < n - 1; trecho++) {
+            int colunaInicial = coluna(Math.min(xs[trecho], xs[trecho + 1]));
+            int colunaFinal = coluna(Math.max(xs[trecho], xs[trecho + 1]));
+            int linhaInicial = linha(Math.min(ys[trecho], ys[trecho + 1]));
+            int linhaFinal = linha(Math.max(ys[trecho], ys[trecho + 1]));
+            for (int l = linhaInicial; l <= linhaFinal; l++) {
+                for (int c = colunaInicial; c <= colunaFinal; c++) {
+                    trechosCelulas[preenchidos[l * colunas + c]++] = trecho;
+                }
+            }
+        }
+    }
+
+    /**
+     * Lê uma rota em formato CSV, com um ponto por linha no formato "latitude,longitude" ou
+     * "latitude,longitude,1" para um ponto de controle. Linhas vazias e iniciadas por "#" são
+     * ignoradas.
+     *
+     * @param entrada o texto da rota.
+     * @return a rota lida.
+     * @throws IOException se a leitura falhar ou o texto não for uma rota válida.
+     */
+    public static Rota carregar(Reader entrada) throws IOException {
+        int tamanho = 0;
+        int numeroControles = 0;
+        double[] latitudes = new double[256];
+        double[] longitudes = new double[256];
+        int[] controles = new int[16];
+        BufferedReader leitor = new BufferedReader(entrada);
+        String linha;
+        int numeroLinha = 0;
+        while ((linha = leitor.readLine()) != null) {
+            numeroLinha++;
+            linha = linha.trim();
+            if (linha.isEmpty() || linha.startsWith("#")) {
+                continue;
+            }
+            String[] campos = linha.split(",");
+            if (campos.length < 2) {
+                throw new IOException("Linha " + numeroLinha + " da rota sem latitude e longitude: " + linha);
+            }
+            if (tamanho == latitudes.length) {
+                latitudes = Arrays.copyOf(latitudes, tamanho * 2);
+                longitudes = Arrays.copyOf(longitudes, tamanho * 2);
+            }
+            try {
+                latitudes[tamanho] = Double.parseDouble(campos[0].trim());
+                longitudes[tamanho] = Double.parseDouble(campos[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Linha " + numeroLinha + " da rota com coordenada inválida: " + linha, e);
+            }
+            if (campos.length > 2 && "1".equals(campos[2].trim())) {
+                if (numeroControles == controles.length) {
+                    controles = Arrays.copyOf(controles, numeroControles * 2);
+                }
+                controles[numeroControles++] = tamanho;
+            }
+            tamanho++;
+        }
+        if (tamanho < 2) {
+            throw new IOException("A rota precisa de pelo menos dois pontos");
+        }
+        return new Rota(Arrays.copyOf(latitudes, tamanho), Arrays.copyOf(longitudes, tamanho),
+                Arrays.copyOf(controles, numeroControles));
+    }
+
+    /**
+     * Obtém o número de pontos da rota.
+     *
+     * @return o número de pontos.
+     */
+    public int getNumeroPontos() {
+        return latitudes.length;
+    }
+
+    /**
+     * Obtém a latitude de um ponto.
+     *
+     * @param indice o índice do ponto.
+     * @return a latitude do ponto.
+     */
+    public double getLatitude(int indice) {
+        return latitudes[indice];
+    }
+
+    /**
+     * Obtém a longitude de um ponto.
+     *
+     * @param indice o índice do ponto.
+     * @return a longitude do ponto.
+     */
+    public double getLongitude(int indice) {
+        return longitudes[indice];
+    }
+
+    /**
+     * Obtém a distância ao longo da rota entre o primeiro ponto e um ponto.
+     *
+     * @param indice o índice do ponto.
+     * @return a distância acumulada em quilômetros.
+     */
+    public double getDistanciaAcumulada(int indice) {
+        return distanciasAcumuladas[indice];
+    }
+
+    /**
+     * Obtém o comprimento total da rota.
+     *
+     * @return o comprimento em quilômetros.
+     */
+    public double getComprimento() {
+        return distanciasAcumuladas[distanciasAcumuladas.length - 1];
+    }
+
+    /**
+     * Obtém o número de pontos de controle.
+     *
+     * @return o número de pontos de controle, incluindo o último ponto da rota.
+     */
+    public int getNumeroPontosControle() {
+        return pontosControle.length;
+    }
+
+    /**
+     * Obtém o índice do ponto da rota que corresponde a um ponto de controle.
+     *
+     * @param controle a posição do ponto de controle, de 0 a getNumeroPontosControle() - 1.
+     * @return o índice do ponto na rota.
+     */
+    public int getPontoControle(int controle) {
+        return pontosControle[controle];
+    }
+
+    /**
+     * Busca o trecho que contém uma distância ao longo da rota.
+     *
+     * @param distancia a distância desde o primeiro ponto, em quilômetros.
+     * @return o índice do trecho, de 0 a getNumeroPontos() - 2.
+     */
+    public int buscarTrecho(double distancia) {
+        int indice = Arrays.binarySearch(distanciasAcumuladas, distancia);
+        if (indice < 0) {
+            indice = -indice - 2;
+        }
+        return Math.max(0, Math.min(indice, latitudes.length - 2));
+    }
+
+    /**
+     * Busca o primeiro ponto de controle ainda não alcançado a uma distância ao longo da rota.
+     *
+     * @param distancia a distância desde o primeiro ponto, em quilômetros.
+     * @return a posição do ponto de controle, ou getNumeroPontosControle() se todos já foram
+     * alcançados.
+     */
+    public int buscarProximoPontoControle(double distancia) {
+        int inicio = 0;
+        int fim = pontosControle.length;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (distanciasAcumuladas[pontosControle[meio]] <= distancia) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * Converte uma longitude para a coordenada x do plano da rota.
+     */
+    double paraX(double longitude) {
+        double dLon = longitude - longitudeOrigem;
+        if (dLon > 180) {
+            dLon -= 360;
+        } else if (dLon < -180) {
+            dLon += 360;
+        }
+        return dLon * metrosPorGrauLongitude;
+    }
+
+    /**
+     * Converte uma latitude para a coordenada y do plano da rota.
+     */
+    double paraY(double latitude) {
+        return Math.toRadians(latitude - latitudeOrigem) * METROS_POR_RADIANO;
+    }
+
+    /**
+     * Obtém a fração, de 0 a 1, do trecho em que fica a projeção de um ponto do plano.
+     */
+    double fracaoTrecho(int trecho, double x, double y) {
+        double dx = xs[trecho + 1] - xs[trecho];
+        double dy = ys[trecho + 1] - ys[trecho];
+        double comprimento2 = dx * dx + dy * dy;
+        if (comprimento2 == 0) {
+            return 0;
+        }
+        double fracao = ((x - xs[trecho]) * dx + (y - ys[trecho]) * dy) / comprimento2;
+        return fracao < 0 ? 0 : fracao > 1 ? 1 : fracao;
+    }
+
+    /**
+     * Obtém o quadrado da distância, em metros, entre um ponto do plano e um trecho.
+     */
+    double distancia2Trecho(int trecho, double x, double y) {
+        double fracao = fracaoTrecho(trecho, x, y);
+        double px = xs[trecho] + fracao * (xs[trecho + 1] - xs[trecho]) - x;
+        double py = ys[trecho] + fracao * (ys[trecho + 1] - ys[trecho]) - y;
+        return px * px + py * py;
+    }
+
+    /**
+     * Obtém a distância ao longo da rota da projeção de um ponto do plano em um trecho.
+     *
+     * @return a distância desde o primeiro ponto, em quilômetros.
+     */
+    double progressoTrecho(int trecho, double x, double y) {
+        double fracao = fracaoTrecho(trecho, x, y);
+        return distanciasAcumuladas[trecho] + fracao * (distanciasAcumuladas[trecho + 1] - distanciasAcumuladas[trecho]);
+    }
+
+    /**
+     * Busca o trecho mais próximo de um ponto do plano, examinando anéis de células cada vez mais
+     * distantes até que nenhuma célula ainda não examinada possa conter um trecho mais próximo.
+     *
+     * @param x           a coordenada x do ponto.
+     * @param y           a coordenada y do ponto.
+     * @param raioMaximo  a maior distância, em metros, em que o trecho é procurado.
+     * @return o índice do trecho mais próximo, ou -1 se nenhum estiver a até raioMaximo.
+     */
+    int buscarTrechoMaisProximo(double x, double y, double raioMaximo) {
+        int colunaCentro = coluna(x);
+        int linhaCentro = linha(y);
+        int melhor = -1;
+        double melhorDistancia2 = raioMaximo * raioMaximo;
+        int maximoAneis = Math.max(colunas, linhas);
+        for (int anel = 0; anel <= maximoAneis; anel++) {
+            // As células fora dos anéis já examinados ficam a pelo menos (anel - 1) células do ponto
+            double limite = (anel - 1) * tamanhoCelula;
+            if (anel > 0 && limite > 0 && limite * limite >= melhorDistancia2) {
+                break;
+            }
+            for (int l = linhaCentro - anel; l <= linhaCentro + anel; l++) {
+                if (l < 0 || l >= linhas) {
+                    continue;
+                }
+                boolean borda = l == linhaCentro - anel || l == linhaCentro + anel;
+                int passo = borda ? 1 : 2 * anel;
+                for (int c = colunaCentro - anel; c <= colunaCentro + anel; c += Math.max(passo, 1)) {
+                    if (c < 0 || c >= colunas) {
+                        continue;
+                    }
+                    int celula = l * colunas + c;
+                    for (int i = inicioCelulas[celula]; i < inicioCelulas[celula + 1]; i++) {
+                        int trecho = trechosCelulas[i];
+                        double distancia2 = distancia2Trecho(trecho, x, y);
+                        if (distancia2 < melhorDistancia2 || (distancia2 == melhorDistancia2 && melhor < 0)) {
+                            melhorDistancia2 = distancia2;
+                            melhor = trecho;
+                        }
+                    }
+                }
+            }
+        }
+        return melhor;
+    }
+
+    private int coluna(double x) {
+        int coluna = (int) Math.floor((x - xMinimo) / tamanhoCelula);
+        return coluna < 0 ? 0 : coluna >= colunas ? colunas - 1 : coluna;
+    }
+
+    private int linha(double y) {
+        int linha = (int) Math.floor((y - yMinimo) / tamanhoCelula);
+        return linha < 0 ? 0 : linha >= linhas ? linhas - 1 : linha;
+    }
+
+    private static int[] validarPontosControle(int[] pontosControle, int numeroPontos) {
+        int[] validos = Arrays.copyOf(pontosControle, pontosControle.length + 1);
+        int tamanho = pontosControle.length;
+        for (int i = 0; i < tamanho; i++) {
+            if (validos[i] < 0 || validos[i] >= numeroPontos || (i > 0 && validos[i] <= validos[i - 1])) {
+                throw new IllegalArgumentException("Pontos de controle devem ser índices crescentes da rota: " + Arrays.toString(pontosControle));
+            }
+        }
+        if (tamanho == 0 || validos[tamanho - 1] != numeroPontos - 1) {
+            validos[tamanho++] = numeroPontos - 1;
+        }
+        return Arrays.copyOf(validos, tamanho);
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+/**
+ * Etapa que simplifica o traçado do percurso antes de repassá-lo ao destino, normalmente o
+ * GravadorPercurso de uma cópia do registro para exportação ou exibição, mantendo apenas as
+ * localizações necessárias para reproduzir a forma do trajeto dentro de uma tolerância. O
+ * registro completo continua sendo a referência para reprodução, retomada e reprocessamento.
+ * <p>
+ * Usa a janela de abertura do Douglas–Peucker em fluxo: a partir da última localização mantida,
+ * as seguintes são acumuladas enquanto todas ficam a até a tolerância do segmento entre a
+ * âncora e a mais recente. Quando uma nova localização faz alguma delas passar da tolerância, a
+ * anterior é mantida e vira a nova âncora. O desvio é a distância sincronizada: cada localização
+ * descartada é comparada com o ponto do segmento no mesmo instante, e não com o ponto mais
+ * próximo, para que o traçado simplificado preserve também os tempos e as velocidades.
+ * <p>
+ * A janela tem capacidade fixa; quando enche, a localização mais recente é mantida mesmo sem
+ * desvio, o que limita a memória, o custo por localização e o atraso até a gravação.
+ * Localizações com timestamp igual ou anterior ao da última recebida são descartadas.
+ */
+public class SimplificadorPercurso implements ReceptorLocalizacao {
+    private static final double METROS_POR_GRAU = DistanciaHaversine.RAIO_TERRA * 1000 * Math.PI / 180;
+
+    private final ReceptorLocalizacao destino;
+    private final double tolerancia;
+
+    // Âncora: a última localização repassada ao destino
+    private boolean temAncora;
+    private double latitudeAncora;
+    private double longitudeAncora;
+    private long timestampAncora;
+    private double metrosPorGrauLongitude;
+
+    // Janela: localizações posteriores à âncora, ainda não repassadas, e a sua posição em metros
+    // em relação à âncora
+    private final String[] provedores;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final float[] precisoes;
+    private final float[] velocidades;
+    private final long[] timestamps;
+    private final double[] x;
+    private final double[] y;
+    private int tamanho;
+    private double desvioJanela;
+
+    private long recebidas;
+    private long mantidas;
+    private long foraDeOrdem;
+    private double desvioMaximo;
+
+    /**
+     * Construtor da classe SimplificadorPercurso.
+     *
+     * @param destino    o receptor das localizações mantidas.
+     * @param tolerancia o desvio máximo, em metros, das localizações descartadas.
+     * @param capacidade o número máximo de localizações aguardando na janela.
+     */
+    public SimplificadorPercurso(ReceptorLocalizacao destino, double tolerancia, int capacidade) {
+        if (!(tolerancia >= 0) || capacidade <= 0) {
+            throw new IllegalArgumentException("Tolerância e capacidade inválidas: " + tolerancia + ", " + capacidade);
+        }
+        this.destino = destino;
+        this.tolerancia = tolerancia;
+        this.provedores = new String[capacidade];
+        this.latitudes = new double[capacidade];
+        this.longitudes = new double[capacidade];
+        this.precisoes = new float[capacidade];
+        this.velocidades = new float[capacidade];
+        this.timestamps = new long[capacidade];
+        this.x = new double[capacidade];
+        this.y = new double[capacidade];
+    }
+
+    /**
+     * Acrescenta a localização à janela, repassando ao destino a localização anterior se a nova
+     * não mantiver o traçado dentro da tolerância.
+     */
+    @Override
+    public synchronized void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+        recebidas++;
+        if (!temAncora) {
+            manter(provedor, latitude, longitude, precisao, velocidade, timestamp);
+            return;
+        }
+        long ultimoTimestamp = tamanho == 0 ? timestampAncora : timestamps[tamanho - 1];
+        if (timestamp <= ultimoTimestamp) {
+            foraDeOrdem++;
+            return;
+        }
+
+        double xNovo = (longitude - longitudeAncora) * metrosPorGrauLongitude;
+        double yNovo = (latitude - latitudeAncora) * METROS_POR_GRAU;
+        double desvio = calcularDesvio(xNovo, yNovo, timestamp);
+        if (desvio > tolerancia || tamanho == latitudes.length) {
+            manterUltimaDaJanela();
+            xNovo = (longitude - longitudeAncora) * metrosPorGrauLongitude;
+            yNovo = (latitude - latitudeAncora) * METROS_POR_GRAU;
+            desvio = 0;
+        }
+        desvioJanela = desvio;
+
+        provedores[tamanho] = provedor;
+        latitudes[tamanho] = latitude;
+        longitudes[tamanho] = longitude;
+        precisoes[tamanho] = precisao;
+        velocidades[tamanho] = velocidade;
+        timestamps[tamanho] = timestamp;
+        x[tamanho] = xNovo;
+        y[tamanho] = yNovo;
+        tamanho++;
+    }
+
+    /**
+     * Repassa ao destino a última localização recebida, se ainda não foi repassada, para que o
+     * traçado termine nela. Deve ser chamado ao encerrar o percurso, antes de fechar o destino.
+     */
+    public synchronized void concluir() {
+        if (tamanho > 0) {
+            manterUltimaDaJanela();
+        }
+    }
+
+    /**
+     * Obtém o número de localizações recebidas.
+     *
+     * @return o número de localizações recebidas.
+     */
+    public synchronized long getRecebidas() {
+        return recebidas;
+    }
+
+    /**
+     * Obtém o número de localizações repassadas ao destino.
+     *
+     * @return o número de localizações mantidas.
+     */
+    public synchronized long getMantidas() {
+        return mantidas;
+    }
+
+    /**
+     * Obtém o número de localizações descartadas por chegarem fora de ordem ou repetidas.
+     *
+     * @return o número de localizações fora de ordem.
+     */
+    public synchronized long getForaDeOrdem() {
+        return foraDeOrdem;
+    }
+
+    /**
+     * Obtém a razão de compressão: localizações recebidas por localização mantida.
+     *
+     * @return a razão de compressão, ou 1 se nenhuma localização foi mantida.
+     */
+    public synchronized double getRazaoCompressao() {
+        return mantidas == 0 ? 1 : (double) recebidas / mantidas;
+    }
+
+    /**
+     * Obtém o maior desvio entre uma localização descartada e o traçado simplificado, entre as
+     * localizações que já saíram da janela.
+     *
+     * @return o desvio máximo em metros.
+     */
+    public synchronized double getDesvioMaximo() {
+        return desvioMaximo;
+    }
+
+    /**
+     * Calcula o maior desvio sincronizado das localizações da janela em relação ao segmento entre
+     * a âncora e a posição indicada.
+     *
+     * @param xFinal    a posição leste do fim do segmento, em metros a partir da âncora.
+     * @param yFinal    a posição norte do fim do segmento, em metros a partir da âncora.
+     * @param timestamp o timestamp do fim do segmento.
+     * @return o maior desvio em metros, ou 0 se a janela está vazia.
+     */
+    private double calcularDesvio(double xFinal, double yFinal, long timestamp) {
+        double duracao = timestamp - timestampAncora;
+        double maior = 0;
+        for (int i = 0; i < tamanho; i++) {
+            double fracao = (timestamps[i] - timestampAncora) / duracao;
+            double dx = x[i] - fracao * xFinal;
+            double dy = y[i] - fracao * yFinal;
+            double quadrado = dx * dx + dy * dy;
+            if (quadrado > maior) {
+                maior = quadrado;
+            }
+        }
+        return Math.sqrt(maior);
+    }
+
+    /**
+     * Repassa a última localização da janela, que passa a ser a âncora, e descarta as anteriores.
+     */
+    private void manterUltimaDaJanela() {
+        int ultima = tamanho - 1;
+        // O desvio das descartadas foi calculado quando a última entrou na janela
+        if (desvioJanela > desvioMaximo) {
+            desvioMaximo = desvioJanela;
+        }
+        tamanho = 0;
+        desvioJanela = 0;
+        manter(provedores[ultima], latitudes[ultima], longitudes[ultima], precisoes[ultima], velocidades[ultima], timestamps[ultima]);
+    }
+
+    private void manter(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+        temAncora = true;
+        latitudeAncora = latitude;
+        longitudeAncora = longitude;
+        timestampAncora = timestamp;
+        metrosPorGrauLongitude = METROS_POR_GRAU * Math.cos(Math.toRadians(latitude));
+        mantidas++;
+        destino.aoReceberLocalizacao(provedor, latitude, longitude, precisao, velocidade, timestamp);
+    }
+}
@@ -0,0 +1,374 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Classe que simula as localizações de um percurso, entregues a um receptor no ritmo de um
+ * RelogioVirtual, para testar o processamento de percursos longos em poucos milissegundos.
+ * <p>
+ * O perfil de velocidade é uma sequência de trechos, cada um com a sua duração e a velocidade ao
+ * seu fim; a velocidade varia linearmente dentro do trecho, a partir da velocidade do fim do
+ * anterior, ou de zero no primeiro. A direção varia aos poucos, e cada localização recebe um
+ * ruído gaussiano. Opcionalmente, o sinal pode ser perdido por alguns segundos, algumas
+ * localizações podem ser retidas e entregues juntas, em rajada, e outras podem atrasar e chegar
+ * depois das seguintes.
+ * <p>
+ * O timestamp de cada localização é o instante em que foi gerada; o relógio é avançado até o
+ * instante da entrega antes de cada uma, então os componentes que leem o relógio veem as esperas
+ * e os atrasos simulados. A mesma semente e a mesma configuração geram sempre as mesmas
+ * localizações.
+ */
+public class SimuladorPercurso {
+    // Graus de latitude correspondentes a um metro
+    private static final double GRAUS_POR_METRO = 1 / 111195.0;
+
+    private final RelogioVirtual relogio;
+    private final Random aleatorio;
+
+    private final double latitudePartida;
+    private final double longitudePartida;
+    private double rumoPartida;
+    private String provedor = MotorLocalizacao.PROVEDOR_GPS;
+    private long intervalo = 1000;
+    private double desvioRumo;
+    private double ruido;
+    private double probabilidadePerda;
+    private long duracaoMaximaPerda;
+    private double probabilidadeRajada;
+    private int tamanhoRajada;
+    private double probabilidadeForaDeOrdem;
+    private long atrasoMaximo;
+
+    // Perfil de velocidade
+    private long[] duracoesTrechos = new long[4];
+    private double[] velocidadesTrechos = new double[4];
+    private int numeroTrechos;
+
+    // Localizações geradas e ainda não entregues, em ordem de entrega
+    private long[] entregas = new long[16];
+    private long[] timestamps = new long[16];
+    private double[] latitudes = new double[16];
+    private double[] longitudes = new double[16];
+    private float[] velocidades = new float[16];
+    private int pendentes;
+
+    private long geradas;
+    private long entregues;
+    private long perdidas;
+    private long foraDeOrdem;
+    private double distanciaReal;
+
+    /**
+     * Construtor da classe SimuladorPercurso.
+     *
+     * @param relogio   o relógio avançado pelo simulador, cujo instante atual é o início do
+     *                  percurso.
+     * @param latitude  a latitude de partida.
+     * @param longitude a longitude de partida.
+     * @param semente   a semente dos números aleatórios.
+     */
+    public SimuladorPercurso(RelogioVirtual relogio, double latitude, double longitude, long semente) {
+        this.relogio = relogio;
+        this.latitudePartida = latitude;
+        this.longitudePartida = longitude;
+        this.aleatorio = new Random(semente);
+    }
+
+    /**
+     * Acrescenta um trecho ao perfil de velocidade.
+     *
+     * @param duracao         a duração do trecho em milissegundos.
+     * @param velocidadeFinal a velocidade ao fim do trecho, em km/h.
+     */
+    public void adicionarTrecho(long duracao, double velocidadeFinal) {
+        if (duracao <= 0 || velocidadeFinal < 0) {
+            throw new IllegalArgumentException("Trecho inválido: " + duracao + " ms a " + velocidadeFinal + " km/h");
+        }
+        if (numeroTrechos == duracoesTrechos.length) {
+            duracoesTrechos = Arrays.copyOf(duracoesTrechos, numeroTrechos * 2);
+            velocidadesTrechos = Arrays.copyOf(velocidadesTrechos, numeroTrechos * 2);
+        }
+        duracoesTrechos[numeroTrechos] = duracao;
+        velocidadesTrechos[numeroTrechos] = velocidadeFinal;
+        numeroTrechos++;
+    }
+
+    /**
+     * Define a direção inicial, por padrão o norte.
+     *
+     * @param rumo a direção em graus, a partir do norte no sentido horário.
+     */
+    public void setRumo(double rumo) {
+        this.rumoPartida = rumo;
+    }
+
+    /**
+     * Define o provedor informado nas localizações, por padrão o GPS.
+     *
+     * @param provedor o nome do provedor.
+     */
+    public void setProvedor(String provedor) {
+        this.provedor = provedor;
+    }
+
+    /**
+     * Define o intervalo entre localizações, por padrão 1 segundo.
+     *
+     * @param intervalo o intervalo em milissegundos.
+     */
+    public void setIntervalo(long intervalo) {
+        if (intervalo <= 0) {
+            throw new IllegalArgumentException("O intervalo deve ser positivo: " + intervalo);
+        }
+        this.intervalo = intervalo;
+    }
+
+    /**
+     * Define quanto a direção varia entre localizações, por padrão nada.
+     *
+     * @param desvioRumo o desvio padrão da variação da direção, em graus por localização.
+     */
+    public void setCurvas(double desvioRumo) {
+        this.desvioRumo = desvioRumo;
+    }
+
+    /**
+     * Define o ruído das localizações, por padrão nenhum. A precisão informada é o dobro do
+     * ruído, com no mínimo 1 metro.
+     *
+     * @param ruido o desvio padrão do erro de posição, em metros em cada eixo.
+     */
+    public void setRuido(double ruido) {
+        this.ruido = ruido;
+    }
+
+    /**
+     * Define as perdas de sinal, durante as quais nenhuma localização é entregue.
+     *
+     * @param probabilidade a probabilidade de uma perda começar em cada localização.
+     * @param duracaoMaxima a duração máxima de uma perda em milissegundos.
+     */
+    public void setPerdas(double probabilidade, long duracaoMaxima) {
+        this.probabilidadePerda = probabilidade;
+        this.duracaoMaximaPerda = Math.max(1, duracaoMaxima);
+    }
+
+    /**
+     * Define as rajadas, em que localizações consecutivas são retidas e entregues juntas, no
+     * instante da última.
+     *
+     * @param probabilidade a probabilidade de uma rajada começar em cada localização.
+     * @param tamanho       o número de localizações de cada rajada.
+     */
+    public void setRajadas(double probabilidade, int tamanho) {
+        this.probabilidadeRajada = probabilidade;
+        this.tamanhoRajada = Math.max(1, tamanho);
+    }
+
+    /**
+     * Define as localizações atrasadas, entregues depois de outras geradas mais tarde.
+     *
+     * @param probabilidade a probabilidade de cada localização atrasar.
+     * @param atrasoMaximo  o atraso máximo em milissegundos.
+     */
+    public void setForaDeOrdem(double probabilidade, long atrasoMaximo) {
+        this.probabilidadeForaDeOrdem = probabilidade;
+        this.atrasoMaximo = Math.max(1, atrasoMaximo);
+    }
+
+    /**
+     * Obtém a duração do perfil de velocidade.
+     *
+     * @return a soma das durações dos trechos, em milissegundos.
+     */
+    public long getDuracao() {
+        long total = 0;
+        for (int i = 0; i < numeroTrechos; i++) {
+            total += duracoesTrechos[i];
+        }
+        return total;
+    }
+
+    /**
+     * Gera o percurso inteiro, entregando as localizações ao receptor na thread chamadora. Ao
+     * terminar, o relógio está no instante da última entrega.
+     *
+     * @param receptor o receptor das localizações.
+     * @return o número de localizações entregues.
+     */
+    public long simular(ReceptorLocalizacao receptor) {
+        long inicio = relogio.agoraMillis();
+        long duracao = getDuracao();
+        double latitude = latitudePartida;
+        double longitude = longitudePartida;
+        double rumo = Math.toRadians(rumoPartida);
+        double velocidadeAnterior = 0;
+        long perdaAte = -1;
+        int restantesRajada = 0;
+        long fimRajada = 0;
+        long entreguesAntes = entregues;
+
+        for (long t = 0; t <= duracao; t += intervalo) {
+            double velocidade = velocidadeNoInstante(t);
+            if (t > 0) {
+                double metros = (velocidadeAnterior + velocidade) / 2 * intervalo / 1000;
+                rumo += Math.toRadians(aleatorio.nextGaussian() * desvioRumo);
+                latitude += Math.cos(rumo) * metros * GRAUS_POR_METRO;
+                longitude += Math.sin(rumo) * metros * GRAUS_POR_METRO / Math.cos(Math.toRadians(latitude));
+                distanciaReal += metros / 1000;
+            }
+            velocidadeAnterior = velocidade;
+            geradas++;
+
+            if (t >= perdaAte && probabilidadePerda > 0 && aleatorio.nextDouble() < probabilidadePerda) {
+                perdaAte = t + 1 + (long) (aleatorio.nextDouble() * duracaoMaximaPerda);
+            }
+            if (t < perdaAte) {
+                // A perda de sinal interrompe a rajada em andamento
+                perdidas++;
+                restantesRajada = 0;
+            } else {
+                long entrega = t;
+                if (restantesRajada == 0 && probabilidadeRajada > 0 && aleatorio.nextDouble() < probabilidadeRajada) {
+                    restantesRajada = tamanhoRajada;
+                    fimRajada = t + (tamanhoRajada - 1) * intervalo;
+                }
+                if (restantesRajada > 0) {
+                    entrega = fimRajada;
+                    restantesRajada--;
+                } else if (probabilidadeForaDeOrdem > 0 && aleatorio.nextDouble() < probabilidadeForaDeOrdem) {
+                    entrega = t + 1 + (long) (aleatorio.nextDouble() * atrasoMaximo);
+                    foraDeOrdem++;
+                }
+                double erroNorte = aleatorio.nextGaussian() * ruido;
+                double erroLeste = aleatorio.nextGaussian() * ruido;
+                enfileirar(inicio + entrega, inicio + t, latitude + erroNorte * GRAUS_POR_METRO,
+                        longitude + erroLeste * GRAUS_POR_METRO / Math.cos(Math.toRadians(latitude)), (float) (velocidade / 3.6));
+            }
+            entregarAte(inicio + t, receptor);
+        }
+        entregarAte(Long.MAX_VALUE, receptor);
+        return entregues - entreguesAntes;
+    }
+
+    /**
+     * Obtém o número de localizações geradas, entregues ou não.
+     *
+     * @return o número de localizações geradas.
+     */
+    public long getGeradas() {
+        return geradas;
+    }
+
+    /**
+     * Obtém o número de localizações entregues ao receptor.
+     *
+     * @return o número de localizações entregues.
+     */
+    public long getEntregues() {
+        return entregues;
+    }
+
+    /**
+     * Obtém o número de localizações perdidas nas perdas de sinal.
+     *
+     * @return o número de localizações perdidas.
+     */
+    public long getPerdidas() {
+        return perdidas;
+    }
+
+    /**
+     * Obtém o número de localizações atrasadas de propósito. Algumas podem ainda assim chegar em
+     * ordem, se o atraso for menor que o intervalo.
+     *
+     * @return o número de localizações atrasadas.
+     */
+    public long getForaDeOrdem() {
+        return foraDeOrdem;
+    }
+
+    /**
+     * Obtém a distância percorrida pelo trajeto simulado, sem o ruído.
+     *
+     * @return a distância em quilômetros.
+     */
+    public double getDistanciaReal() {
+        return distanciaReal;
+    }
+
+    /**
+     * Calcula a velocidade do perfil em um instante.
+     *
+     * @param t o instante em milissegundos desde o início do percurso.
+     * @return a velocidade em m/s.
+     */
+    private double velocidadeNoInstante(long t) {
+        double velocidadeInicial = 0;
+        long inicioTrecho = 0;
+        for (int i = 0; i < numeroTrechos; i++) {
+            long fimTrecho = inicioTrecho + duracoesTrechos[i];
+            if (t <= fimTrecho) {
+                double fracao = (double) (t - inicioTrecho) / duracoesTrechos[i];
+                return (velocidadeInicial + (velocidadesTrechos[i] - velocidadeInicial) * fracao) / 3.6;
+            }
+            velocidadeInicial = velocidadesTrechos[i];
+            inicioTrecho = fimTrecho;
+        }
+        return velocidadeInicial / 3.6;
+    }
+
+    /**
+     * Insere uma localização entre as pendentes, depois das que têm entrega no mesmo instante ou
+     * antes.
+     */
+    private void enfileirar(long entrega, long timestamp, double latitude, double longitude, float velocidade) {
+        if (pendentes == entregas.length) {
+            int capacidade = pendentes * 2;
+            entregas = Arrays.copyOf(entregas, capacidade);
+            timestamps = Arrays.copyOf(timestamps, capacidade);
+            latitudes = Arrays.copyOf(latitudes, capacidade);
+            longitudes = Arrays.copyOf(longitudes, capacidade);
+            velocidades = Arrays.copyOf(velocidades, capacidade);
+        }
+        int posicao = pendentes;
+        while (posicao > 0 && entregas[posicao - 1] > entrega) {
+            entregas[posicao] = entregas[posicao - 1];
+            timestamps[posicao] = timestamps[posicao - 1];
+            latitudes[posicao] = latitudes[posicao - 1];
+            longitudes[posicao] = longitudes[posicao - 1];
+            velocidades[posicao] = velocidades[posicao - 1];
+            posicao--;
+        }
+        entregas[posicao] = entrega;
+        timestamps[posicao] = timestamp;
+        latitudes[posicao] = latitude;
+        longitudes[posicao] = longitude;
+        velocidades[posicao] = velocidade;
+        pendentes++;
+    }
+
+    /**
+     * Entrega, em ordem, as localizações pendentes com entrega até o instante indicado.
+     */
+    private void entregarAte(long instante, ReceptorLocalizacao receptor) {
+        float precisao = (float) Math.max(1, 2 * ruido);
+        int entreguesAgora = 0;
+        while (entreguesAgora < pendentes && entregas[entreguesAgora] <= instante) {
+            relogio.avancarAte(entregas[entreguesAgora]);
+            receptor.aoReceberLocalizacao(provedor, latitudes[entreguesAgora], longitudes[entreguesAgora], precisao,
+                    velocidades[entreguesAgora], timestamps[entreguesAgora]);
+            entreguesAgora++;
+            entregues++;
+        }
+        if (entreguesAgora > 0) {
+            pendentes -= entreguesAgora;
+            System.arraycopy(entregas, entreguesAgora, entregas, 0, pendentes);
+            System.arraycopy(timestamps, entreguesAgora, timestamps, 0, pendentes);
+            System.arraycopy(latitudes, entreguesAgora, latitudes, 0, pendentes);
+            System.arraycopy(longitudes, entreguesAgora, longitudes, 0, pendentes);
+            System.arraycopy(velocidades, entreguesAgora, velocidades, 0, pendentes);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Classe que acompanha a velocidade, a distância e o consumo de combustível dos últimos segundos
+ * e minutos do percurso, em várias janelas deslizantes de tempo.
+ * <p>
+ * Recebe do Veiculo cada trecho entre localizações consecutivas. Cada janela custa um tempo
+ * constante por trecho, então as tendências de curto prazo ficam disponíveis a qualquer momento
+ * sem percorrer o histórico de localizações. As velocidades médias e as taxas de consumo são
+ * calculadas pelo tempo coberto pelos trechos da janela, e não pela sua duração nominal, para
+ * que fiquem corretas também no começo do percurso. Não é segura para uso por várias threads
+ * ao mesmo tempo; deve ser consultada na thread que atualiza o veículo.
+ */
+public class TendenciasPercurso {
+    /**
+     * Janelas padrão: 10 segundos, 1 minuto e 5 minutos.
+     */
+    public static final long[] JANELAS_PADRAO = {10000, 60000, 300000};
+
+    // Trechos esperados por segundo de janela, para a capacidade inicial dos vetores
+    private static final int TRECHOS_POR_SEGUNDO = 2;
+
+    private final JanelaDeslizante[] velocidades;
+    private final JanelaDeslizante[] distancias;
+    private final JanelaDeslizante[] consumos;
+    private final JanelaDeslizante[] intervalos;
+
+    /**
+     * Construtor da classe TendenciasPercurso.
+     *
+     * @param duracoes as durações das janelas em milissegundos.
+     */
+    public TendenciasPercurso(long... duracoes) {
+        if (duracoes.length == 0) {
+            throw new IllegalArgumentException("Informe ao menos uma janela");
+        }
+        int numero = duracoes.length;
+        this.velocidades = new JanelaDeslizante[numero];
+        this.distancias = new JanelaDeslizante[numero];
+        this.consumos = new JanelaDeslizante[numero];
+        this.intervalos = new JanelaDeslizante[numero];
+        for (int j = 0; j < numero; j++) {
+            int capacidade = (int) Math.min(1 << 16, Math.max(16, duracoes[j] / 1000 * TRECHOS_POR_SEGUNDO));
+            velocidades[j] = new JanelaDeslizante(duracoes[j], capacidade);
+            distancias[j] = new JanelaDeslizante(duracoes[j], capacidade);
+            consumos[j] = new JanelaDeslizante(duracoes[j], capacidade);
+            intervalos[j] = new JanelaDeslizante(duracoes[j], capacidade);
+        }
+    }
+
+    /**
+     * Construtor da classe TendenciasPercurso com as janelas padrão.
+     */
+    public TendenciasPercurso() {
+        this(JANELAS_PADRAO);
+    }
+
+    /**
+     * Registra um trecho do percurso em todas as janelas.
+     *
+     * @param timestamp  o timestamp da localização que encerra o trecho, em milissegundos.
+     * @param intervalo  a duração do trecho em milissegundos.
+     * @param velocidade a velocidade no trecho, em km/h.
+     * @param distancia  a distância do trecho, em km.
+     * @param consumo    o combustível consumido no trecho, em litros.
+     */
+    public void registrar(long timestamp, long intervalo, double velocidade, double distancia, double consumo) {
+        for (int j = 0; j < velocidades.length; j++) {
+            velocidades[j].adicionar(timestamp, velocidade);
+            distancias[j].adicionar(timestamp, distancia);
+            consumos[j].adicionar(timestamp, consumo);
+            intervalos[j].adicionar(timestamp, intervalo);
+        }
+    }
+
+    /**
+     * Remove de todas as janelas os trechos anteriores a elas no instante indicado, para
+     * consultar as tendências quando as localizações param de chegar.
+     *
+     * @param agora o instante atual em milissegundos.
+     */
+    public void avancar(long agora) {
+        for (int j = 0; j < velocidades.length; j++) {
+            velocidades[j].avancar(agora);
+            distancias[j].avancar(agora);
+            consumos[j].avancar(agora);
+            intervalos[j].avancar(agora);
+        }
+    }
+
+    /**
+     * Obtém o número de janelas.
+     *
+     * @return o número de janelas.
+     */
+    public int getNumeroJanelas() {
+        return velocidades.length;
+    }
+
+    /**
+     * Obtém a duração de uma janela.
+     *
+     * @param janela o índice da janela.
+     * @return a duração em milissegundos.
+     */
+    public long getDuracao(int janela) {
+        return velocidades[janela].getDuracao();
+    }
+
+    /**
+     * Obtém as velocidades instantâneas dos trechos de uma janela, para consultar mínimo,
+     * máximo, média simples e percentis.
+     *
+     * @param janela o índice da janela.
+     * @return a janela das velocidades, em km/h.
+     */
+    public JanelaDeslizante getVelocidades(int janela) {
+        return velocidades[janela];
+    }
+
+    /**
+     * Obtém a distância percorrida nos trechos de uma janela.
+     *
+     * @param janela o índice da janela.
+     * @return a distância em km.
+     */
+    public double getDistancia(int janela) {
+        return distancias[janela].getSoma();
+    }
+
+    /**
+     * Obtém o tempo coberto pelos trechos de uma janela.
+     *
+     * @param janela o índice da janela.
+     * @return o tempo em milissegundos.
+     */
+    public long getTempo(int janela) {
+        return Math.round(intervalos[janela].getSoma());
+    }
+
+    /**
+     * Obtém a velocidade média nos trechos de uma janela, a distância dividida pelo tempo.
+     *
+     * @param janela o índice da janela.
+     * @return a velocidade média em km/h, ou 0 se a janela está vazia.
+     */
+    public double getVelocidadeMedia(int janela) {
+        long tempo = getTempo(janela);
+        return tempo == 0 ? 0 : getDistancia(janela) * EstatisticasPercurso.MILLIS_POR_HORA / tempo;
+    }
+
+    /**
+     * Obtém o combustível consumido nos trechos de uma janela.
+     *
+     * @param janela o índice da janela.
+     * @return o consumo em litros.
+     */
+    public double getConsumo(int janela) {
+        return consumos[janela].getSoma();
+    }
+
+    /**
+     * Obtém a taxa de consumo de combustível nos trechos de uma janela.
+     *
+     * @param janela o índice da janela.
+     * @return a taxa em litros por hora, ou 0 se a janela está vazia.
+     */
+    public double getTaxaConsumo(int janela) {
+        long tempo = getTempo(janela);
+        return tempo == 0 ? 0 : getConsumo(janela) * EstatisticasPercurso.MILLIS_POR_HORA / tempo;
+    }
+
+    /**
+     * Obtém o número de bytes que salvarEstado grava no estado atual.
+     *
+     * @return o tamanho do estado em bytes.
+     */
+    int getTamanhoEstado() {
+        return 4 + velocidades[maiorJanela()].getContagem() * 40 + velocidades.length * 4 * JanelaDeslizante.TAMANHO_ESTADO;
+    }
+
+    /**
+     * Grava as janelas no buffer, no formato de EstadoPercurso. Todas as janelas recebem os
+     * mesmos trechos, então os trechos de cada uma são os últimos da janela mais longa, e apenas
+     * estes são gravados, seguidos do estado de cada janela.
+     *
+     * @param buffer o buffer de destino.
+     */
+    void salvarEstado(ByteBuffer buffer) {
+        int maior = maiorJanela();
+        int trechos = velocidades[maior].getContagem();
+        buffer.putInt(trechos);
+        for (int i = 0; i < trechos; i++) {
+            buffer.putLong(velocidades[maior].getTimestamp(i));
+            buffer.putDouble(velocidades[maior].getValor(i));
+            buffer.putDouble(distancias[maior].getValor(i));
+            buffer.putDouble(consumos[maior].getValor(i));
+            buffer.putDouble(intervalos[maior].getValor(i));
+        }
+        for (int j = 0; j < velocidades.length; j++) {
+            velocidades[j].salvarEstado(buffer);
+            distancias[j].salvarEstado(buffer);
+            consumos[j].salvarEstado(buffer);
+            intervalos[j].salvarEstado(buffer);
+        }
+    }
+
+    /**
+     * Substitui as janelas pelas gravadas com salvarEstado, com as mesmas durações.
+     *
+     * @param buffer o buffer de origem.
+     */
+    void restaurarEstado(ByteBuffer buffer) {
+        int trechos = buffer.getInt();
+        long[] timestamps = new long[trechos];
+        double[] velocidadesTrechos = new double[trechos];
+        double[] distanciasTrechos = new double[trechos];
+        double[] consumosTrechos = new double[trechos];
+        double[] intervalosTrechos = new double[trechos];
+        for (int i = 0; i < trechos; i++) {
+            timestamps[i] = buffer.getLong();
+            velocidadesTrechos[i] = buffer.getDouble();
+            distanciasTrechos[i] = buffer.getDouble();
+            consumosTrechos[i] = buffer.getDouble();
+            intervalosTrechos[i] = buffer.getDouble();
+        }
+        for (int j = 0; j < velocidades.length; j++) {
+            velocidades[j].restaurarEstado(buffer, timestamps, velocidadesTrechos, trechos);
+            distancias[j].restaurarEstado(buffer, timestamps, distanciasTrechos, trechos);
+            consumos[j].restaurarEstado(buffer, timestamps, consumosTrechos, trechos);
+            intervalos[j].restaurarEstado(buffer, timestamps, intervalosTrechos, trechos);
+        }
+    }
+
+    private int maiorJanela() {
+        int maior = 0;
+        for (int j = 1; j < velocidades.length; j++) {
+            if (velocidades[j].getDuracao() > velocidades[maior].getDuracao()) {
+                maior = j;
+            }
+        }
+        return maior;
+    }
+}
@@ -0,0 +1,422 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Classe que representa um veículo.
+ */
+public class Veiculo implements CalculadoraPercurso {
+    private final EstatisticasPercurso estatisticas;
+    private final Destino destino;
+    private final AcompanhamentoRota acompanhamento;
+    private final ConselheiroVelocidade conselheiroVelocidade;
+    private MonitorCercas monitorCercas;
+    private TendenciasPercurso tendencias;
+    private ModeloConsumo modeloConsumo = PerfilVeiculo.CARRO.getModeloConsumo();
+    private double velocidadeAnterior;
+    private long intervaloAnterior;
+    private long ultimoTimestamp;
+    private boolean destinoAlcancado;
+    private boolean verificaTrocaLocalizacao;
+    private double velocidadeMediaParcial;
+    private double distanciaPercorrida;
+    private double consumoCombustivelTotal;
+    private double velocidadeMediaTotal;
+    private double velocidadeRecomendada;
+    private long tempoDeslocamento;
+    private long tempoParaDestinoFinal;
+    private double ultimaLatitude;
+    private double ultimaLongitude;
+
+    public static final double LATITUDE_FINAL = -20.4569;
+    public static final double LONGITUDE_FINAL = -45.8358;
+    static final long TEMPO_PARA_DESTINO_FINAL = 100;
+
+    // A extensão, em graus, da região de destino ao norte e a oeste do ponto final
+    private static final double EXTENSAO_DESTINO = 0.1;
+
+    /**
+     * A região de destino padrão: ao norte da latitude final e a oeste da longitude final.
+     */
+    public static final Cerca CERCA_DESTINO = CercaPoligonal.retangulo("destino", LATITUDE_FINAL, LATITUDE_FINAL + EXTENSAO_DESTINO,
+            LONGITUDE_FINAL - EXTENSAO_DESTINO, LONGITUDE_FINAL);
+    private static final double DESLOCAMENTO_TOTAL = 2.598461;
+    static final double DESLOCAMENTO_PARCIAL = 0.5052034858527461;
+
+    // A maior distância, em metros, entre uma localização e a rota para que ela conte como na rota
+    private static final double DESVIO_MAXIMO_ROTA = 100;
+
+    // Os limites, em km/h, e a constante de suavização, em milissegundos, da velocidade recomendada
+    private static final double VELOCIDADE_RECOMENDADA_MINIMA = 5;
+    private static final double VELOCIDADE_RECOMENDADA_MAXIMA = 120;
+    private static final long SUAVIZACAO_VELOCIDADE_RECOMENDADA = 5000;
+
+    // A distância restante, em km, a partir da qual o fim da rota é considerado alcançado
+    private static final double TOLERANCIA_CHEGADA = 0.02;
+
+    /**
+     * Construtor da classe Veiculo. As distâncias são calculadas pela aproximação equiretangular,
+     * cujo erro é desprezível para a distância entre localizações consecutivas.
+     */
+    public Veiculo() {
+        this(new DistanciaEquiretangular(), CERCA_DESTINO);
+    }
+
+    /**
+     * Construtor da classe Veiculo.
+     *
+     * @param calculadoraDistancia o algoritmo usado para calcular a distância entre localizações.
+     * @param destino              a região de destino do percurso.
+     */
+    public Veiculo(CalculadoraDistancia calculadoraDistancia, Destino destino) {
+        this(calculadoraDistancia, destino, null, DESLOCAMENTO_TOTAL);
+    }
+
+    /**
+     * Construtor da classe Veiculo para um percurso com rota definida. A distância restante é
+     * medida ao longo da rota, e o destino é alcançado no fim dela.
+     *
+     * @param calculadoraDistancia o algoritmo usado para calcular a distância entre localizações.
+     * @param rota                 a rota do percurso.
+     */
+    public Veiculo(CalculadoraDistancia calculadoraDistancia, Rota rota) {
+        this(calculadoraDistancia, null, new AcompanhamentoRota(rota, DESVIO_MAXIMO_ROTA), rota.getComprimento());
+    }
+
+    private Veiculo(CalculadoraDistancia calculadoraDistancia, Destino destino, AcompanhamentoRota acompanhamento, double distanciaRota) {
+        this.estatisticas = new EstatisticasPercurso(calculadoraDistancia, distanciaRota, DESLOCAMENTO_PARCIAL);
+        this.destino = destino;
+        this.acompanhamento = acompanhamento;
+        this.conselheiroVelocidade = new ConselheiroVelocidade(VELOCIDADE_RECOMENDADA_MINIMA, VELOCIDADE_RECOMENDADA_MAXIMA,
+                SUAVIZACAO_VELOCIDADE_RECOMENDADA);
+        this.verificaTrocaLocalizacao = false;
+        this.velocidadeMediaParcial = 0;
+        this.distanciaPercorrida = 0;
+        this.consumoCombustivelTotal = 0;
+        this.velocidadeMediaTotal = 0;
+        this.velocidadeRecomendada = 0;
+        this.tempoDeslocamento = 0;
+        this.tempoParaDestinoFinal = TEMPO_PARA_DESTINO_FINAL;
+    }
+
+    /**
+     * Indica se a última localização processada mudou de posição em relação à anterior.
+     *
+     * @return true se a última localização mudou de posição, false se repetiu a posição anterior
+     * ou foi a primeira do percurso.
+     */
+    public boolean getVerificaTrocaLocalizacao() {
+        return verificaTrocaLocalizacao;
+    }
+
+    /**
+     * Obtém a velocidade média parcial do veículo.
+     *
+     * @return a velocidade média parcial.
+     */
+    public double getVelocidadeMediaParcial() {
+        return velocidadeMediaParcial;
+    }
+
+    /**
+     * Obtém a distância percorrida pelo veículo.
+     *
+     * @return a distância percorrida.
+     */
+    public double getDistanciaPercorrida() {
+        return distanciaPercorrida;
+    }
+
+    /**
+     * Obtém o consumo total de combustível do veículo.
+     *
+     * @return o consumo total de combustível.
+     */
+    public double getConsumoCombustivelTotal() {
+        return consumoCombustivelTotal;
+    }
+
+    /**
+     * Obtém a velocidade média total do veículo.
+     *
+     * @return a velocidade média total.
+     */
+    public double getVelocidadeMediaTotal() {
+        return velocidadeMediaTotal;
+    }
+
+    /**
+     * Obtém a velocidade recomendada para o veículo.
+     *
+     * @return a velocidade recomendada.
+     */
+    public double getVelocidadeRecomendada() {
+        return velocidadeRecomendada;
+    }
+
+    /**
+     * Obtém o tempo de deslocamento do veículo.
+     *
+     * @return o tempo de deslocamento.
+     */
+    public long getTempoDeslocamento() {
+        return tempoDeslocamento;
+    }
+
+    /**
+     * Obtém o tempo restante para o destino final do veículo.
+     *
+     * @return o tempo restante para o destino final, em segundos.
+     */
+    public long getTempoParaDestinoFinal() {
+        return tempoParaDestinoFinal;
+    }
+
+    /**
+     * Obtém as estatísticas acumuladas do percurso.
+     *
+     * @return as estatísticas do percurso.
+     */
+    public EstatisticasPercurso getEstatisticas() {
+        return estatisticas;
+    }
+
+    /**
+     * Calcula o consumo de combustível do último trecho percorrido, pela distância do trecho e pela
+     * velocidade e aceleração nele.
+     *
+     * @param intervalo o intervalo de tempo do trecho em milissegundos.
+     * @return o consumo de combustível em litros.
+     */
+    private double calculoConsumoCombustivel(long intervalo) {
+        double velocidade = estatisticas.getVelocidadeInstantanea();
+        double consumo = ConsumoPercurso.calcularConsumoTrecho(modeloConsumo, velocidadeAnterior, intervaloAnterior, velocidade,
+                intervalo, estatisticas.getDistanciaUltimoSegmento());
+        velocidadeAnterior = velocidade;
+        intervaloAnterior = intervalo;
+        return consumo;
+    }
+
+    /**
+     * Define o modelo de consumo de combustível do veículo.
+     *
+     * @param modeloConsumo o modelo de consumo.
+     */
+    public void setModeloConsumo(ModeloConsumo modeloConsumo) {
+        this.modeloConsumo = modeloConsumo;
+    }
+
+    /**
+     * Obtém a região de destino do percurso.
+     *
+     * @return o destino do percurso, ou null se o destino é o fim da rota.
+     */
+    public Destino getDestino() {
+        return destino;
+    }
+
+    /**
+     * Obtém o acompanhamento do veículo ao longo da rota.
+     *
+     * @return o acompanhamento da rota, ou null se o percurso não tem rota definida.
+     */
+    public AcompanhamentoRota getAcompanhamentoRota() {
+        return acompanhamento;
+    }
+
+    /**
+     * Obtém a distância que falta para o destino, ao longo da rota se houver uma.
+     *
+     * @return a distância restante em quilômetros.
+     */
+    public double getDistanciaRestante() {
+        return acompanhamento != null ? acompanhamento.getDistanciaRestante() : estatisticas.getDistanciaRestante();
+    }
+
+    /**
+     * Obtém o conselheiro que calcula a velocidade recomendada, para que um perfil de velocidades
+     * da rota possa ser definido.
+     *
+     * @return o conselheiro de velocidade.
+     */
+    public ConselheiroVelocidade getConselheiroVelocidade() {
+        return conselheiroVelocidade;
+    }
+
+    /**
+     * Define o monitor de cercas que recebe cada localização processada, depois de os dados do
+     * veículo serem atualizados.
+     *
+     * @param monitorCercas o monitor de cercas, ou null para nenhum.
+     */
+    public void setMonitorCercas(MonitorCercas monitorCercas) {
+        this.monitorCercas = monitorCercas;
+    }
+
+    /**
+     * Define as janelas deslizantes que recebem cada trecho do percurso, com a velocidade, a
+     * distância e o combustível consumido.
+     *
+     * @param tendencias as janelas do percurso, ou null para nenhuma.
+     */
+    public void setTendencias(TendenciasPercurso tendencias) {
+        this.tendencias = tendencias;
+    }
+
+    /**
+     * Obtém as janelas deslizantes do percurso.
+     *
+     * @return as janelas do percurso, ou null se não foram definidas.
+     */
+    public TendenciasPercurso getTendencias() {
+        return tendencias;
+    }
+
+    /**
+     * Verifica se a última localização processada já está no destino.
+     *
+     * @return true se o destino foi alcançado, false caso contrário.
+     */
+    public boolean isDestinoAlcancado() {
+        return destinoAlcancado;
+    }
+
+    /**
+     * Obtém o timestamp da última localização processada.
+     *
+     * @return o timestamp, ou 0 antes da primeira localização.
+     */
+    public long getUltimoTimestamp() {
+        return ultimoTimestamp;
+    }
+
+    /**
+     * Grava os dados acumulados do veículo no buffer, no formato de EstadoPercurso, incluindo os
+     * trechos das janelas de tendências. O destino, a rota, o modelo de consumo, o monitor de
+     * cercas e as durações das janelas fazem parte da configuração e não são gravados.
+     *
+     * @param buffer o buffer de destino.
+     */
+    void salvarEstado(ByteBuffer buffer) {
+        estatisticas.salvarEstado(buffer);
+        buffer.putDouble(velocidadeAnterior);
+        buffer.putLong(intervaloAnterior);
+        buffer.putLong(ultimoTimestamp);
+        buffer.put((byte) (destinoAlcancado ? 1 : 0));
+        buffer.putDouble(velocidadeMediaParcial);
+        buffer.putDouble(distanciaPercorrida);
+        buffer.putDouble(consumoCombustivelTotal);
+        buffer.putDouble(velocidadeMediaTotal);
+        buffer.putDouble(velocidadeRecomendada);
+        buffer.putLong(tempoDeslocamento);
+        buffer.putLong(tempoParaDestinoFinal);
+        buffer.putDouble(ultimaLatitude);
+        buffer.putDouble(ultimaLongitude);
+        conselheiroVelocidade.salvarEstado(buffer);
+        if (acompanhamento != null) {
+            acompanhamento.salvarEstado(buffer);
+        }
+        if (tendencias != null) {
+            tendencias.salvarEstado(buffer);
+        }
+    }
+
+    /**
+     * Substitui os dados acumulados do veículo pelos gravados com salvarEstado, em um veículo
+     * com a mesma configuração.
+     *
+     * @param buffer o buffer de origem.
+     */
+    void restaurarEstado(ByteBuffer buffer) {
+        estatisticas.restaurarEstado(buffer);
+        velocidadeAnterior = buffer.getDouble();
+        intervaloAnterior = buffer.getLong();
+        ultimoTimestamp = buffer.getLong();
+        destinoAlcancado = buffer.get() != 0;
+        velocidadeMediaParcial = buffer.getDouble();
+        distanciaPercorrida = buffer.getDouble();
+        consumoCombustivelTotal = buffer.getDouble();
+        velocidadeMediaTotal = buffer.getDouble();
+        velocidadeRecomendada = buffer.getDouble();
+        tempoDeslocamento = buffer.getLong();
+        tempoParaDestinoFinal = buffer.getLong();
+        ultimaLatitude = buffer.getDouble();
+        ultimaLongitude = buffer.getDouble();
+        conselheiroVelocidade.restaurarEstado(buffer);
+        if (acompanhamento != null) {
+            acompanhamento.restaurarEstado(buffer);
+        }
+        if (tendencias != null) {
+            tendencias.restaurarEstado(buffer);
+        }
+    }
+
+    /**
+     * Cria um instantâneo imutável com os dados atuais do veículo.
+     *
+     * @param latitude             a latitude da última localização processada.
+     * @param longitude            a longitude da última localização processada.
+     * @param timestamp            o timestamp da última localização processada.
+     * @param instanteCriacaoNanos o instante de criação, em System.nanoTime().
+     * @return o instantâneo do percurso.
+     */
+    @Override
+    public InstantaneoPercurso criarInstantaneo(double latitude, double longitude, long timestamp, long instanteCriacaoNanos) {
+        return new InstantaneoPercurso(this, latitude, longitude, timestamp, instanteCriacaoNanos);
+    }
+
+    /**
+     * Atualiza os dados do veículo com a nova localização.
+     *
+     * @param latitude  a nova latitude.
+     * @param longitude a nova longitude.
+     * @param timestamp o timestamp da nova localização.
+     */
+    @Override
+    public void atualizarDados(double latitude, double longitude, long timestamp) {
+        boolean primeiraLocalizacao = estatisticas.getNumeroLocalizacoes() == 0;
+        if (!estatisticas.registrar(latitude, longitude, timestamp)) {
+            return;
+        }
+
+        verificaTrocaLocalizacao = !primeiraLocalizacao && (ultimaLatitude != latitude || ultimaLongitude != longitude);
+        long intervalo = timestamp - ultimoTimestamp;
+        ultimaLatitude = latitude;
+        ultimaLongitude = longitude;
+        ultimoTimestamp = timestamp;
+
+        distanciaPercorrida = estatisticas.getDistanciaPercorrida();
+        velocidadeMediaParcial = estatisticas.getVelocidadeMediaParcial();
+        velocidadeMediaTotal = estatisticas.getVelocidadeMediaTotal();
+
+        if (acompanhamento != null) {
+            acompanhamento.atualizar(latitude, longitude);
+            destinoAlcancado = acompanhamento.getDistanciaRestante() <= TOLERANCIA_CHEGADA;
+        } else {
+            destinoAlcancado = destino.alcancado(latitude, longitude);
+        }
+
+        if (!destinoAlcancado) {
+            // O prazo é contado pelo tempo decorrido, e não pelo número de localizações recebidas,
+            // para não depender da frequência de amostragem
+            tempoDeslocamento = estatisticas.getTempoDecorrido() / 1000;
+            tempoParaDestinoFinal = TEMPO_PARA_DESTINO_FINAL - tempoDeslocamento;
+
+            long tempoRestante = TEMPO_PARA_DESTINO_FINAL * 1000 - estatisticas.getTempoDecorrido();
+            velocidadeRecomendada = conselheiroVelocidade.recomendar(getDistanciaRestante(), tempoRestante, timestamp);
+        }
+
+        if (!primeiraLocalizacao) {
+            double consumoTrecho = calculoConsumoCombustivel(intervalo);
+            consumoCombustivelTotal += consumoTrecho;
+            if (tendencias != null) {
+                tendencias.registrar(timestamp, intervalo, estatisticas.getVelocidadeInstantanea(),
+                        estatisticas.getDistanciaUltimoSegmento(), consumoTrecho);
+            }
+        }
+
+        if (monitorCercas != null) {
+            monitorCercas.atualizar(latitude, longitude, timestamp);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do agendador de amostragem, simulando um percurso gravado a uma localização por segundo
+ * que só é entregue quando o intervalo do modo atual permite.
+ */
+public class AgendadorAmostragemTest {
+    // Graus de latitude correspondentes a um metro
+    private static final double GRAUS_POR_METRO = 1 / 111195.0;
+    private static final double LATITUDE_INICIAL = -20.50;
+    private static final double LONGITUDE_INICIAL = -45.90;
+
+    private FonteFalsa fonte;
+    private MotorLocalizacao motor;
+    private AgendadorAmostragem agendador;
+    private Veiculo veiculo;
+    private final int[] localizacoesPorSegundo = new int[2100];
+
+    @Before
+    public void setUp() {
+        fonte = new FonteFalsa();
+        fonte.ativos.put(MotorLocalizacao.PROVEDOR_REDE, false);
+        motor = new MotorLocalizacao(fonte, 1000, 0);
+        veiculo = new Veiculo();
+        agendador = new AgendadorAmostragem(motor, new ReceptorLocalizacao() {
+            @Override
+            public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+                veiculo.atualizarDados(latitude, longitude, timestamp);
+                localizacoesPorSegundo[(int) (timestamp / 1000)]++;
+            }
+        });
+        motor.adicionarConsumidor(agendador);
+        motor.iniciar();
+    }
+
+    @Test
+    public void reduzAsLocalizacoesDoVeiculoParadoSemPerderOTempoDoPercurso() {
+        simular();
+
+        // Nos dez minutos parado no fim, menos de um décimo das localizações de uma por segundo
+        int parado = contar(1500, 2100);
+        assertTrue("Localizações parado: " + parado, parado <= 60);
+        assertEquals(ModoAmostragem.OCIOSO, agendador.getModo());
+
+        // O tempo e a distância continuam corretos com menos localizações
+        assertEquals(2099, veiculo.getEstatisticas().getTempoDecorrido() / 1000, 15);
+        assertEquals(18.0, veiculo.getDistanciaPercorrida(), 18.0 * 0.005);
+
+        assertTrue(agendador.getLocalizacoesEconomizadas() > 2100 / 2);
+        assertEquals(veiculo.getEstatisticas().getTempoDecorrido() / 1000 + 1,
+                agendador.getLocalizacoesRecebidas() + agendador.getLocalizacoesEconomizadas());
+        assertTrue(agendador.getDespertaresEconomizados() > 0);
+    }
+
+    @Test
+    public void refazAsInscricoesSoQuandoOModoMuda() {
+        simular();
+
+        // Uma inscrição inicial e uma por troca de modo, já que só o GPS está ativo
+        assertTrue(agendador.getTrocasModo() > 0);
+        assertEquals(1 + agendador.getTrocasModo(), fonte.registros, 1);
+        assertTrue(fonte.registros < 20);
+    }
+
+    @Test
+    public void curvaEAlvoPassamParaAmostragemAlta() {
+        simular();
+
+        // Logo depois da curva do segundo 900, uma localização por segundo
+        assertEquals(10, contar(905, 915));
+
+        // Perto do alvo a amostragem também é alta
+        agendador.setAlvo(LATITUDE_INICIAL, LONGITUDE_INICIAL);
+        assertEquals(ModoAmostragem.ALTA, agendador.avaliar(LATITUDE_INICIAL + 100 * GRAUS_POR_METRO,
+                LONGITUDE_INICIAL, 0, 3000000));
+    }
+
+    /**
+     * Percorre o percurso: parado por 5 minutos, 9 km para o norte e 9 km para leste a 15 m/s e
+     * parado por mais 10 minutos.
+     */
+    private void simular() {
+        long ultimaEntrega = Long.MIN_VALUE / 2;
+        double grausPorMetroLongitude = GRAUS_POR_METRO / Math.cos(Math.toRadians(LATITUDE_INICIAL + 9000 * GRAUS_POR_METRO));
+        for (int segundo = 0; segundo < 2100; segundo++) {
+            double norte = 15 * Math.min(Math.max(segundo - 300, 0), 600);
+            double leste = 15 * Math.min(Math.max(segundo - 900, 0), 600);
+            long timestamp = segundo * 1000L;
+            if (timestamp - ultimaEntrega >= fonte.tempoMinimo) {
+                fonte.emitir(MotorLocalizacao.PROVEDOR_GPS, LATITUDE_INICIAL + norte * GRAUS_POR_METRO,
+                        LONGITUDE_INICIAL + leste * grausPorMetroLongitude, timestamp);
+                ultimaEntrega = timestamp;
+            }
+        }
+    }
+
+    private int contar(int inicio, int fim) {
+        int total = 0;
+        for (int segundo = inicio; segundo < fim; segundo++) {
+            total += localizacoesPorSegundo[segundo];
+        }
+        return total;
+    }
+}
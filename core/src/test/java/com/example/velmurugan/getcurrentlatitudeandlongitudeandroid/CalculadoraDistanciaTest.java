@@ -0,0 +1,92 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes de precisão dos algoritmos de cálculo de distância.
+ */
+public class CalculadoraDistanciaTest {
+    private static final double[] COMPRIMENTOS = {0.001, 0.01, 0.1, 1, 10}; // km
+
+    @Test
+    public void haversineMedeUmGrauDeMeridiano() {
+        double distancia = new DistanciaHaversine().calcular(-20, -45.84, -21, -45.84);
+
+        assertEquals(111.19492664, distancia, 1e-6);
+    }
+
+    @Test
+    public void vincentyReproduzLinhaDeBaseFlindersPeakBuninyong() {
+        double lat1 = -(37 + 57 / 60.0 + 3.72030 / 3600);
+        double lon1 = 144 + 25 / 60.0 + 29.52440 / 3600;
+        double lat2 = -(37 + 39 / 60.0 + 10.15610 / 3600);
+        double lon2 = 143 + 55 / 60.0 + 35.38390 / 3600;
+
+        assertEquals(54.972271, new DistanciaVincenty().calcular(lat1, lon1, lat2, lon2), 1e-6);
+    }
+
+    @Test
+    public void vincentyMedeUmGrauDeMeridianoNoEquador() {
+        assertEquals(110.574389, new DistanciaVincenty().calcular(0, 0, 1, 0), 1e-5);
+        assertEquals(0, new DistanciaVincenty().calcular(-20.4569, -45.8358, -20.4569, -45.8358), 0);
+    }
+
+    @Test
+    public void equiretangularFicaDentroDoLimiteDeErroDocumentado() {
+        DistanciaHaversine haversine = new DistanciaHaversine();
+        DistanciaEquiretangular equiretangular = new DistanciaEquiretangular();
+
+        for (int latitude = -80; latitude <= 80; latitude += 5) {
+            for (int rumo = 0; rumo < 360; rumo += 15) {
+                for (double comprimento : COMPRIMENTOS) {
+                    double[] destino = destino(latitude, -45.84, rumo, comprimento);
+                    double referencia = haversine.calcular(latitude, -45.84, destino[0], destino[1]);
+                    double aproximada = equiretangular.calcular(latitude, -45.84, destino[0], destino[1]);
+
+                    assertEquals(comprimento, referencia, comprimento * 1e-6);
+                    assertEquals("latitude " + latitude + ", rumo " + rumo + ", " + comprimento + " km",
+                            referencia, aproximada, referencia * 2e-4);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void equiretangularReaproveitaCossenoEntreLocalizacoesProximas() {
+        DistanciaHaversine haversine = new DistanciaHaversine();
+        DistanciaEquiretangular equiretangular = new DistanciaEquiretangular();
+        double latitude = -20.4569;
+        double longitude = -45.8358;
+
+        // Localizações a cada 10 m em diagonal, como em um percurso urbano
+        for (int i = 0; i < 10000; i++) {
+            double[] destino = destino(latitude, longitude, 45, 0.01);
+            assertEquals(haversine.calcular(latitude, longitude, destino[0], destino[1]),
+                    equiretangular.calcular(latitude, longitude, destino[0], destino[1]), 0.01 * 2e-4);
+            latitude = destino[0];
+            longitude = destino[1];
+        }
+    }
+
+    @Test
+    public void equiretangularTrataAntimeridiano() {
+        double distancia = new DistanciaEquiretangular().calcular(0, 179.9995, 0, -179.9995);
+
+        assertEquals(new DistanciaHaversine().calcular(0, 179.9995, 0, -179.9995), distancia, 1e-9);
+    }
+
+    /**
+     * Calcula, na esfera, o ponto a uma distância e rumo da origem.
+     */
+    private static double[] destino(double latitude, double longitude, double rumo, double comprimento) {
+        double delta = comprimento / 6371;
+        double phi1 = Math.toRadians(latitude);
+        double theta = Math.toRadians(rumo);
+        double phi2 = Math.asin(Math.sin(phi1) * Math.cos(delta) + Math.cos(phi1) * Math.sin(delta) * Math.cos(theta));
+        double lambda = Math.atan2(Math.sin(theta) * Math.sin(delta) * Math.cos(phi1),
+                Math.cos(delta) - Math.sin(phi1) * Math.sin(phi2));
+        return new double[]{Math.toDegrees(phi2), longitude + Math.toDegrees(lambda)};
+    }
+}
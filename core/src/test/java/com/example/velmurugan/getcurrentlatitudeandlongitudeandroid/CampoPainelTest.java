@@ -0,0 +1,62 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do texto dos campos do painel.
+ */
+public class CampoPainelTest {
+
+    @Test
+    public void formataComAsCasasDecimaisDoCampo() {
+        assertTexto("-20.460000", new CampoPainel(6), -20.46);
+        assertTexto("0.050", new CampoPainel(3), 0.0495);
+        assertTexto("1.0", new CampoPainel(1), 0.96);
+        assertTexto("120", new CampoPainel(0), 119.5);
+        assertTexto("0.0", new CampoPainel(1), -0.04);
+        assertTexto("-0.1", new CampoPainel(1), -0.06);
+        assertTexto("NaN", new CampoPainel(2), Double.NaN);
+        assertTexto("-Infinity", new CampoPainel(2), Double.NEGATIVE_INFINITY);
+    }
+
+    @Test
+    public void concordaComBigDecimal() {
+        Random aleatorio = new Random(17);
+        for (int casas = 0; casas <= 6; casas++) {
+            CampoPainel campo = new CampoPainel(casas);
+            for (int i = 0; i < 10000; i++) {
+                double valor = (aleatorio.nextDouble() - 0.5) * Math.pow(10, aleatorio.nextInt(8));
+                campo.atualizar(valor);
+                long quantizado = Math.round(valor * Math.pow(10, casas));
+                String esperado = BigDecimal.valueOf(quantizado, casas).setScale(casas, RoundingMode.UNNECESSARY).toPlainString();
+                assertEquals(esperado, campo.toString());
+            }
+        }
+    }
+
+    @Test
+    public void atualizaApenasQuandoOTextoMuda() {
+        CampoPainel campo = new CampoPainel(1);
+        char[] texto = campo.getTexto();
+        assertTrue(campo.atualizar(42.31));
+        assertFalse(campo.atualizar(42.34));
+        assertFalse(campo.atualizar(42.25));
+        assertTrue(campo.atualizar(42.36));
+        assertEquals("42.4", campo.toString());
+        assertTrue(campo.atualizar(Double.NaN));
+        assertFalse(campo.atualizar(Double.NaN));
+        assertTrue(campo.atualizar(42.36));
+        assertSame(texto, campo.getTexto());
+    }
+
+    private static void assertTexto(String esperado, CampoPainel campo, double valor) {
+        assertTrue(campo.atualizar(valor));
+        assertEquals(esperado, new String(campo.getTexto(), 0, campo.getTamanho()));
+    }
+}
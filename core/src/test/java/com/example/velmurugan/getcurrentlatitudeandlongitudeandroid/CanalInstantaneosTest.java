@@ -0,0 +1,114 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes da entrega dos instantâneos publicados pela thread de processamento.
+ */
+public class CanalInstantaneosTest {
+    private static final int LEITORES = 4;
+    private static final int PUBLICACOES = 200000;
+
+    @Test
+    public void leitorVeApenasInstantaneosNovosEContaOsPerdidos() {
+        Veiculo veiculo = new Veiculo();
+        final int[] avisos = new int[1];
+        CanalInstantaneos canal = new CanalInstantaneos(new Runnable() {
+            @Override
+            public void run() {
+                avisos[0]++;
+            }
+        });
+        CanalInstantaneos.Leitor leitor = canal.criarLeitor();
+        assertNull(leitor.ler());
+        assertNull(canal.getUltimo());
+
+        canal.publicar(criar(veiculo, 1));
+        assertEquals(1, leitor.ler().getTimestamp());
+        assertNull(leitor.ler());
+
+        canal.publicar(criar(veiculo, 2));
+        canal.publicar(criar(veiculo, 3));
+        canal.publicar(criar(veiculo, 4));
+        assertEquals(4, leitor.ler().getTimestamp());
+        assertEquals(4, leitor.getSequenciaLida());
+        assertEquals(2, leitor.getPerdidos());
+        assertEquals(4, canal.getSequencia());
+        assertEquals(4, avisos[0]);
+
+        // Um leitor criado depois recebe o último instantâneo
+        CanalInstantaneos.Leitor outro = canal.criarLeitor();
+        assertEquals(4, outro.ler().getTimestamp());
+        assertEquals(3, outro.getPerdidos());
+    }
+
+    @Test
+    public void leitoresConcorrentesNuncaVeemInstantaneosMisturados() throws InterruptedException {
+        // Cada instantâneo k tem latitude k, longitude -k, timestamp k e criação k; qualquer
+        // mistura entre instantâneos, ou entre um instantâneo e a sequência de outro, aparece
+        final CanalInstantaneos canal = new CanalInstantaneos(null);
+        final Veiculo veiculo = new Veiculo();
+        final CountDownLatch inicio = new CountDownLatch(1);
+        final AtomicReference<String> falha = new AtomicReference<>();
+        final long[] lidos = new long[LEITORES];
+        final long[] perdidos = new long[LEITORES];
+
+        Thread[] leitores = new Thread[LEITORES];
+        for (int l = 0; l < LEITORES; l++) {
+            final int indice = l;
+            leitores[l] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    CanalInstantaneos.Leitor leitor = canal.criarLeitor();
+                    try {
+                        inicio.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    long anterior = 0;
+                    while (leitor.getSequenciaLida() < PUBLICACOES && falha.get() == null) {
+                        InstantaneoPercurso instantaneo = leitor.ler();
+                        if (instantaneo != null) {
+                            lidos[indice]++;
+                            long k = leitor.getSequenciaLida();
+                            if (k <= anterior || instantaneo.getTimestamp() != k || instantaneo.getLatitude() != k
+                                    || instantaneo.getLongitude() != -k || instantaneo.getInstanteCriacaoNanos() != k) {
+                                falha.compareAndSet(null, "Instantâneo misturado na sequência " + k);
+                            }
+                            anterior = k;
+                        }
+                        InstantaneoPercurso ultimo = canal.getUltimo();
+                        if (ultimo != null && (ultimo.getLatitude() != ultimo.getTimestamp()
+                                || ultimo.getLongitude() != -ultimo.getTimestamp())) {
+                            falha.compareAndSet(null, "Último instantâneo misturado: " + ultimo.getTimestamp());
+                        }
+                    }
+                    perdidos[indice] = leitor.getPerdidos();
+                }
+            });
+            leitores[l].start();
+        }
+
+        inicio.countDown();
+        for (int k = 1; k <= PUBLICACOES; k++) {
+            canal.publicar(criar(veiculo, k));
+        }
+        for (Thread leitor : leitores) {
+            leitor.join();
+        }
+
+        assertNull(falha.get());
+        for (int l = 0; l < LEITORES; l++) {
+            assertEquals(PUBLICACOES, lidos[l] + perdidos[l]);
+        }
+    }
+
+    private static InstantaneoPercurso criar(Veiculo veiculo, long k) {
+        return new InstantaneoPercurso(veiculo, k, -k, k, k);
+    }
+}
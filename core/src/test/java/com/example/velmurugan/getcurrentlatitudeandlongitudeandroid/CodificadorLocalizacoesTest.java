@@ -0,0 +1,173 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do formato compactado de localizações.
+ */
+public class CodificadorLocalizacoesTest {
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    @Test
+    public void varintPreservaExtremos() {
+        long[] valores = {0, 1, -1, 63, -64, 64, 1L << 40, Long.MAX_VALUE, Long.MIN_VALUE};
+        byte[] bytes = new byte[valores.length * FormatoCompactado.TAMANHO_MAXIMO_VARINT];
+        int posicao = 0;
+        for (long valor : valores) {
+            posicao = FormatoCompactado.escreverVarint(bytes, posicao, valor);
+        }
+        ByteBuffer leitura = ByteBuffer.wrap(bytes, 0, posicao);
+        for (long valor : valores) {
+            assertEquals(valor, FormatoCompactado.lerVarint(leitura));
+        }
+        assertFalse(leitura.hasRemaining());
+    }
+
+    @Test
+    public void decodificaSequenciaComIntervalosIrregulares() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        CodificadorLocalizacoes codificador = new CodificadorLocalizacoes(saida, 7);
+        for (int i = 0; i < 50; i++) {
+            // Intervalos variados e uma localização fora de ordem
+            long timestamp = i == 20 ? 19000 - 500 : 1000L * i + (i % 3) * 137;
+            codificador.adicionar(-20.46 + i * 1.23e-4, 179.9999 - i * 3e-5, timestamp);
+        }
+        codificador.close();
+
+        DecodificadorLocalizacoes decodificador = new DecodificadorLocalizacoes(ByteBuffer.wrap(saida.toByteArray()));
+        assertEquals(50, decodificador.getNumeroLocalizacoes());
+        assertEquals(8, decodificador.getNumeroBlocos());
+
+        final List<double[]> recebidas = new ArrayList<>();
+        decodificador.reproduzir(Long.MIN_VALUE, new ReceptorLocalizacao() {
+            @Override
+            public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+                recebidas.add(new double[]{latitude, longitude, timestamp});
+            }
+        });
+        assertEquals(50, recebidas.size());
+        for (int i = 0; i < 50; i++) {
+            long timestamp = i == 20 ? 19000 - 500 : 1000L * i + (i % 3) * 137;
+            assertEquals(-20.46 + i * 1.23e-4, recebidas.get(i)[0], 0.5e-6);
+            assertEquals(179.9999 - i * 3e-5, recebidas.get(i)[1], 0.5e-6);
+            assertEquals(timestamp, (long) recebidas.get(i)[2]);
+        }
+    }
+
+    @Test
+    public void buscaPorTimestampDecodificaSoOsBlocosNecessarios() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        CodificadorLocalizacoes codificador = new CodificadorLocalizacoes(saida, 100);
+        for (int i = 0; i < 1000; i++) {
+            codificador.adicionar(-20.46, -45.84, 1000L * i);
+        }
+        codificador.close();
+
+        DecodificadorLocalizacoes decodificador = new DecodificadorLocalizacoes(ByteBuffer.wrap(saida.toByteArray()));
+        assertEquals(0, decodificador.buscarBloco(-1));
+        assertEquals(3, decodificador.buscarBloco(350000));
+        assertEquals(9, decodificador.buscarBloco(Long.MAX_VALUE));
+
+        final long[] primeiro = {-1};
+        final int[] contagem = {0};
+        decodificador.reproduzir(350500, new ReceptorLocalizacao() {
+            @Override
+            public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+                if (primeiro[0] < 0) {
+                    primeiro[0] = timestamp;
+                }
+                contagem[0]++;
+            }
+        });
+        assertEquals(351000, primeiro[0]);
+        assertEquals(649, contagem[0]);
+    }
+
+    @Test
+    public void carregaAsLocalizacoesMaisRecentesNoHistorico() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        CodificadorLocalizacoes codificador = new CodificadorLocalizacoes(saida, 64);
+        for (int i = 0; i < 1000; i++) {
+            codificador.adicionar(-20.46 + i * 1e-5, -45.84, 1000L * i);
+        }
+        codificador.close();
+
+        HistoricoLocalizacoes historico = new HistoricoLocalizacoes(100);
+        new DecodificadorLocalizacoes(ByteBuffer.wrap(saida.toByteArray())).carregar(historico);
+        assertEquals(100, historico.getTamanho());
+        assertEquals(999000, historico.getTimestampRecente(0));
+        assertEquals(900000, historico.getTimestampRecente(99));
+        assertEquals(-20.46 + 999 * 1e-5, historico.getLatitudeRecente(0), 0.5e-6);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejeitaDadosSemRodape() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        CodificadorLocalizacoes codificador = new CodificadorLocalizacoes(saida, 8);
+        codificador.adicionar(-20.46, -45.84, 1000);
+        // Sem close(), o índice e o rodapé não são gravados
+        new DecodificadorLocalizacoes(ByteBuffer.wrap(saida.toByteArray()));
+    }
+
+    @Test
+    public void compactaRegistroDePercursoAoMenosCincoVezes() throws IOException {
+        File registro = new File(pasta.getRoot(), "percurso.bin");
+        GravadorPercurso gravador = new GravadorPercurso(registro, 100000, 1000);
+        double latitude = -20.46;
+        double longitude = -45.84;
+        for (int i = 0; i < 86400; i++) {
+            // Um dia a uma localização por segundo, cerca de 50 km/h
+            latitude += 9e-5 * Math.cos(i / 600.0);
+            longitude += 9e-5 * Math.sin(i / 600.0);
+            gravador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, latitude, longitude, 5, 13.9f, 1000L * i);
+            if (i % 40000 == 39999) {
+                aguardarGravacao(gravador, i + 1);
+            }
+        }
+        gravador.close();
+
+        LeitorPercurso leitor = new LeitorPercurso(registro);
+        File compactado = new File(pasta.getRoot(), "percurso.trpz");
+        try (OutputStream saida = new BufferedOutputStream(new FileOutputStream(compactado))) {
+            CodificadorLocalizacoes codificador = new CodificadorLocalizacoes(saida, 4096);
+            leitor.reproduzir(0, codificador);
+            codificador.close();
+        }
+        assertTrue("Razão de compactação: " + (double) registro.length() / compactado.length(),
+                compactado.length() * 5 <= registro.length());
+
+        DecodificadorLocalizacoes decodificador = DecodificadorLocalizacoes.abrir(compactado);
+        assertEquals(leitor.getNumeroRegistros(), decodificador.getNumeroLocalizacoes());
+        double[] latitudes = new double[decodificador.getMaiorBloco()];
+        double[] longitudes = new double[decodificador.getMaiorBloco()];
+        long[] timestamps = new long[decodificador.getMaiorBloco()];
+        int ultimo = decodificador.getNumeroBlocos() - 1;
+        int n = decodificador.decodificarBloco(ultimo, latitudes, longitudes, timestamps);
+        int indice = leitor.getNumeroRegistros() - 1;
+        assertEquals(leitor.getTimestamp(indice), timestamps[n - 1]);
+        assertEquals(leitor.getLatitude(indice), latitudes[n - 1], 0.5e-6);
+        assertEquals(leitor.getLongitude(indice), longitudes[n - 1], 0.5e-6);
+    }
+
+    private static void aguardarGravacao(GravadorPercurso gravador, long registros) {
+        long limite = System.currentTimeMillis() + 5000;
+        while (gravador.getRegistrosGravados() < registros && System.currentTimeMillis() < limite) {
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do cálculo da velocidade recomendada.
+ */
+public class ConselheiroVelocidadeTest {
+    // Graus de latitude correspondentes a um metro
+    private static final double GRAUS_POR_METRO = 1 / 111195.0;
+
+    @Test
+    public void recomendaDistanciaPeloTempoRestanteDentroDosLimites() {
+        ConselheiroVelocidade conselheiro = new ConselheiroVelocidade(5, 120, 0);
+        assertEquals(60, conselheiro.recomendar(1, 60000, 0), 1e-9);
+        assertEquals(5, conselheiro.recomendar(0.01, 60000, 1000), 1e-9);
+
+        // Perto do prazo e depois dele a recomendação fica no limite, sem divisão por zero
+        assertEquals(120, conselheiro.recomendar(1, 0, 2000), 1e-9);
+        assertEquals(120, conselheiro.recomendar(1, -30000, 3000), 1e-9);
+        assertEquals(3600, conselheiro.getVelocidadeNecessaria(), 1e-9);
+    }
+
+    @Test
+    public void suavizacaoDependeDoTempoENaoDoNumeroDeLocalizacoes() {
+        ConselheiroVelocidade lento = new ConselheiroVelocidade(5, 120, 5000);
+        ConselheiroVelocidade rapido = new ConselheiroVelocidade(5, 120, 5000);
+        lento.recomendar(1, 60000, 0);
+        rapido.recomendar(1, 60000, 0);
+
+        // A distância restante cai de repente; uma localização por segundo contra dez por segundo
+        for (long t = 1000; t <= 10000; t += 1000) {
+            lento.recomendar(0.5, 60000 - t, t);
+        }
+        for (long t = 100; t <= 10000; t += 100) {
+            rapido.recomendar(0.5, 60000 - t, t);
+        }
+        assertEquals(lento.getVelocidadeRecomendada(), rapido.getVelocidadeRecomendada(), 0.5);
+        assertTrue(lento.getVelocidadeRecomendada() < 40);
+
+        // Uma rajada com o mesmo timestamp não muda a recomendação, nem uma localização antiga
+        double antes = rapido.getVelocidadeRecomendada();
+        for (int i = 0; i < 100; i++) {
+            rapido.recomendar(0.01, 50000, 10000);
+        }
+        assertEquals(antes, rapido.getVelocidadeRecomendada(), 1e-9);
+        assertEquals(antes, rapido.recomendar(0.01, 50000, 5000), 1e-9);
+    }
+
+    @Test
+    public void perfilDistribuiOTempoPelosLimitesDosTrechos() {
+        // Um km com limite de 50 km/h e um km com limite de 100 km/h: 108 s no limite
+        Rota rota = new Rota(new double[]{-20.46, -20.46 + 1000 * GRAUS_POR_METRO, -20.46 + 2000 * GRAUS_POR_METRO},
+                new double[]{-45.84, -45.84, -45.84});
+        ConselheiroVelocidade conselheiro = new ConselheiroVelocidade(5, 120, 0);
+        conselheiro.setPerfil(rota, new double[]{50, 100});
+        double comprimento = rota.getComprimento();
+
+        // Com 1,5 vez o tempo mínimo, cada trecho é percorrido a dois terços do limite
+        assertEquals(100.0 / 3, conselheiro.recomendar(comprimento, 162000, 0), 0.01);
+        assertEquals(0, conselheiro.getTrecho());
+        assertEquals(100.0 / 3, conselheiro.recomendar(comprimento - 0.5, 108000, 54000), 0.01);
+        assertEquals(200.0 / 3, conselheiro.recomendar(comprimento - 1.0, 54000, 108000), 0.01);
+        assertEquals(1, conselheiro.getTrecho());
+
+        // Atrasado, a recomendação não passa do limite do trecho
+        assertEquals(100, conselheiro.recomendar(0.5, 1000, 160000), 1e-9);
+        assertEquals(50, conselheiro.recomendar(comprimento - 0.2, 1000, 161000), 1e-9);
+        assertEquals(0, conselheiro.getTrecho());
+    }
+
+    @Test
+    public void veiculoRecomendaVelocidadeFinitaDepoisDoPrazo() {
+        Veiculo veiculo = new Veiculo();
+        for (int segundo = 0; segundo <= 300; segundo++) {
+            veiculo.atualizarDados(-20.47 - segundo * 5 * GRAUS_POR_METRO, -45.83, segundo * 1000L);
+            double recomendada = veiculo.getVelocidadeRecomendada();
+            assertTrue("Velocidade recomendada: " + recomendada, recomendada >= 5 && recomendada <= 120);
+        }
+        assertTrue(veiculo.getTempoParaDestinoFinal() < 0);
+    }
+}
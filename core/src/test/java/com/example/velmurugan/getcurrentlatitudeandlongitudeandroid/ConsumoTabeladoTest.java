@@ -0,0 +1,96 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do modelo de consumo tabelado e do cálculo do consumo de percursos gravados.
+ */
+public class ConsumoTabeladoTest {
+    // Graus de latitude correspondentes a um metro
+    private static final double GRAUS_POR_METRO = 1 / 111195.0;
+
+    private final ModeloConsumo carro = PerfilVeiculo.CARRO.getModeloConsumo();
+
+    @Test
+    public void interpolaATabelaESomaAAceleracaoPositiva() {
+        assertEquals(0.047, carro.consumoPorKm(0, 0), 1e-12);
+        assertEquals(0.047, carro.consumoPorKm(30, 0), 1e-12);
+        assertEquals(0.047, carro.consumoPorKm(80, 0), 1e-12);
+        assertEquals(0.0641, carro.consumoPorKm(100, 0), 1e-12);
+        assertEquals(0.0641, carro.consumoPorKm(120, 0), 1e-12);
+        assertEquals(0.0962, carro.consumoPorKm(140, 0), 1e-12);
+        assertEquals((0.047 + 0.0641) / 2, carro.consumoPorKm(90, 0), 1e-12);
+        assertEquals(0.047, carro.consumoPorKm(-3, 0), 1e-12);
+        assertEquals(0.0962, carro.consumoPorKm(160, 0), 1e-12);
+        assertEquals(0.0962, carro.consumoPorKm(250, 0), 1e-12);
+
+        assertEquals(0.047 + 0.02 * 1.5, carro.consumoPorKm(60, 1.5), 1e-12);
+        assertEquals(0.047, carro.consumoPorKm(60, -2), 1e-12);
+        assertTrue(PerfilVeiculo.CAMINHAO.getModeloConsumo().consumoPorKm(60, 0) > carro.consumoPorKm(60, 0));
+    }
+
+    @Test
+    public void loteSomaOConsumoDeCadaTrecho() {
+        Random aleatorio = new Random(9);
+        int tamanho = 5000;
+        double[] velocidades = new double[tamanho + 3];
+        double[] aceleracoes = new double[tamanho + 3];
+        double[] distancias = new double[tamanho + 3];
+        double esperado = 0;
+        for (int i = 0; i < tamanho; i++) {
+            velocidades[i] = aleatorio.nextDouble() * 200 - 10;
+            aceleracoes[i] = aleatorio.nextGaussian();
+            distancias[i] = aleatorio.nextDouble() * 0.03;
+            esperado += carro.consumoPorKm(velocidades[i], aceleracoes[i]) * distancias[i];
+        }
+        // As posições além do tamanho não entram no total
+        distancias[tamanho] = 1000;
+
+        assertEquals(esperado, carro.consumoLote(velocidades, aceleracoes, distancias, tamanho), 1e-9);
+    }
+
+    @Test
+    public void consumoDoVeiculoUsaADistanciaPercorrida() {
+        // Um quilômetro a 60 km/h, com uma localização por segundo
+        Veiculo veiculo = new Veiculo();
+        for (int segundo = 0; segundo <= 60; segundo++) {
+            veiculo.atualizarDados(-20.47 - segundo * 1000.0 / 60 * GRAUS_POR_METRO, -45.83, segundo * 1000L);
+        }
+        assertEquals(1.0, veiculo.getDistanciaPercorrida(), 0.001);
+        assertEquals(0.047, veiculo.getConsumoCombustivelTotal(), 0.0001);
+    }
+
+    @Test
+    public void percursoGravadoTemOMesmoConsumoQueOVeiculo() {
+        Random aleatorio = new Random(13);
+        int tamanho = 600;
+        double[] latitudes = new double[tamanho];
+        double[] longitudes = new double[tamanho];
+        long[] timestamps = new long[tamanho];
+        double velocidade = 0;
+        double norte = 0;
+        for (int i = 0; i < tamanho; i++) {
+            velocidade = Math.max(0, Math.min(35, velocidade + aleatorio.nextGaussian() * 1.5));
+            norte += velocidade;
+            latitudes[i] = -20.47 - norte * GRAUS_POR_METRO;
+            longitudes[i] = -45.83 + aleatorio.nextGaussian() * 2 * GRAUS_POR_METRO;
+            timestamps[i] = i * 1000L;
+        }
+        // Uma localização repetida e uma fora de ordem
+        timestamps[100] = timestamps[99];
+        timestamps[200] = timestamps[198];
+
+        Veiculo veiculo = new Veiculo();
+        for (int i = 0; i < tamanho; i++) {
+            veiculo.atualizarDados(latitudes[i], longitudes[i], timestamps[i]);
+        }
+        double lote = ConsumoPercurso.calcular(carro, new DistanciaEquiretangular(), latitudes, longitudes, timestamps, tamanho);
+
+        assertTrue(lote > 0);
+        assertEquals(veiculo.getConsumoCombustivelTotal(), lote, 1e-12);
+    }
+}
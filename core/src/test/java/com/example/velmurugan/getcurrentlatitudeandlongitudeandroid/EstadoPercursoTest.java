@@ -0,0 +1,208 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do salvamento e da restauração do estado do percurso.
+ */
+public class EstadoPercursoTest {
+    // Graus de latitude correspondentes a um metro
+    private static final double GRAUS_POR_METRO = 1 / 111195.0;
+
+    private static final double LATITUDE = -20.46;
+    private static final double LONGITUDE = -45.84;
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    @Test
+    public void restauraDoEstadoEDaCaudaDoRegistro() throws IOException {
+        Rota rota = rotaReta(20);
+        Veiculo original = new Veiculo(new DistanciaHaversine(), rota);
+        File estado = new File(pasta.getRoot(), "percurso.estado");
+        File registro = new File(pasta.getRoot(), "percurso.bin");
+
+        // O estado é salvo a 100 localizações do fim; o registro tem todas
+        GravadorPercurso gravador = new GravadorPercurso(registro, 32768, 1000);
+        Random aleatorio = new Random(3);
+        for (int i = 0; i < 20000; i++) {
+            double latitude = LATITUDE + (i * 0.9 + aleatorio.nextGaussian()) * GRAUS_POR_METRO;
+            double longitude = LONGITUDE + aleatorio.nextGaussian() * GRAUS_POR_METRO;
+            long timestamp = 1000L * i;
+            original.atualizarDados(latitude, longitude, timestamp);
+            gravador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, latitude, longitude, 5, Float.NaN, timestamp);
+            if (i == 19899) {
+                EstadoPercurso.salvar(original, estado);
+            }
+        }
+        gravador.close();
+        assertEquals(0, gravador.getDescartes());
+
+        Veiculo restaurado = new Veiculo(new DistanciaHaversine(), rota);
+        assertEquals(100, EstadoPercurso.restaurar(restaurado, estado, new LeitorPercurso(registro)));
+        assertMesmoEstado(original, restaurado);
+    }
+
+    @Test
+    public void restauraAsTendenciasBitABit() throws IOException {
+        // Localizações a intervalos irregulares, para que as janelas cresçam e recalculem as somas;
+        // o estado é salvo perto do fim, quando a soma acumulada ainda difere de uma soma refeita
+        Veiculo original = new Veiculo();
+        original.setTendencias(new TendenciasPercurso());
+        File estado = new File(pasta.getRoot(), "percurso.estado");
+        File registro = new File(pasta.getRoot(), "percurso.bin");
+        GravadorPercurso gravador = new GravadorPercurso(registro, 32768, 1000);
+        Random aleatorio = new Random(5);
+        double latitude = LATITUDE;
+        long timestamp = 0;
+        for (int i = 0; i < 12000; i++) {
+            latitude += (2 + 4 * aleatorio.nextDouble()) * GRAUS_POR_METRO;
+            double longitude = LONGITUDE + aleatorio.nextGaussian() * GRAUS_POR_METRO;
+            timestamp += 100 + aleatorio.nextInt(1900);
+            original.atualizarDados(latitude, longitude, timestamp);
+            gravador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, latitude, longitude, 5, Float.NaN, timestamp);
+            if (i == 11979) {
+                EstadoPercurso.salvar(original, estado);
+            }
+        }
+        gravador.close();
+
+        Veiculo restaurado = new Veiculo();
+        restaurado.setTendencias(new TendenciasPercurso());
+        assertEquals(20, EstadoPercurso.restaurar(restaurado, estado, new LeitorPercurso(registro)));
+        assertMesmoEstado(original, restaurado);
+        TendenciasPercurso esperadas = original.getTendencias();
+        TendenciasPercurso obtidas = restaurado.getTendencias();
+        for (int j = 0; j < esperadas.getNumeroJanelas(); j++) {
+            JanelaDeslizante velocidades = esperadas.getVelocidades(j);
+            assertEquals(velocidades.getContagem(), obtidas.getVelocidades(j).getContagem());
+            assertEquals(velocidades.getMinimo(), obtidas.getVelocidades(j).getMinimo(), 0);
+            assertEquals(velocidades.getMaximo(), obtidas.getVelocidades(j).getMaximo(), 0);
+            assertEquals(velocidades.getMedia(), obtidas.getVelocidades(j).getMedia(), 0);
+            assertEquals(velocidades.getPercentil(90), obtidas.getVelocidades(j).getPercentil(90), 0);
+            assertEquals(esperadas.getDistancia(j), obtidas.getDistancia(j), 0);
+            assertEquals(esperadas.getTempo(j), obtidas.getTempo(j));
+            assertEquals(esperadas.getConsumo(j), obtidas.getConsumo(j), 0);
+            assertEquals(esperadas.getVelocidadeMedia(j), obtidas.getVelocidadeMedia(j), 0);
+            assertEquals(esperadas.getTaxaConsumo(j), obtidas.getTaxaConsumo(j), 0);
+        }
+
+        // Sem as mesmas janelas o estado é rejeitado antes de alterar o veículo
+        Veiculo outro = new Veiculo();
+        outro.setTendencias(new TendenciasPercurso(10000, 60000));
+        try {
+            EstadoPercurso.restaurar(outro, estado);
+            fail("O estado foi aceito com outras janelas");
+        } catch (IOException e) {
+            assertEquals(0, outro.getEstatisticas().getNumeroLocalizacoes());
+        }
+    }
+
+    @Test
+    public void estadoCorrompidoReproduzTodoORegistro() throws IOException {
+        Veiculo original = new Veiculo();
+        File estado = new File(pasta.getRoot(), "percurso.estado");
+        File registro = new File(pasta.getRoot(), "percurso.bin");
+        GravadorPercurso gravador = new GravadorPercurso(registro, 1024, 1000);
+        for (int i = 0; i < 500; i++) {
+            double latitude = LATITUDE + i * 5 * GRAUS_POR_METRO;
+            original.atualizarDados(latitude, LONGITUDE, 1000L * i);
+            gravador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, latitude, LONGITUDE, 5, Float.NaN, 1000L * i);
+            if (i == 250) {
+                EstadoPercurso.salvar(original, estado);
+            }
+        }
+        gravador.close();
+
+        try (RandomAccessFile acesso = new RandomAccessFile(estado, "rw")) {
+            acesso.seek(40);
+            acesso.write(acesso.read() ^ 1);
+        }
+        try {
+            EstadoPercurso.restaurar(new Veiculo(), estado);
+            fail("O estado corrompido foi aceito");
+        } catch (IOException e) {
+            // Esperado
+        }
+
+        Veiculo restaurado = new Veiculo();
+        assertEquals(500, EstadoPercurso.restaurar(restaurado, estado, new LeitorPercurso(registro)));
+        assertMesmoEstado(original, restaurado);
+    }
+
+    @Test
+    public void rejeitaEstadoDeOutraRota() throws IOException {
+        Veiculo original = new Veiculo(new DistanciaHaversine(), rotaReta(2));
+        original.atualizarDados(LATITUDE, LONGITUDE, 0);
+        File estado = new File(pasta.getRoot(), "percurso.estado");
+        EstadoPercurso.salvar(original, estado);
+
+        try {
+            EstadoPercurso.restaurar(new Veiculo(), estado);
+            fail("O estado com rota foi aceito sem rota");
+        } catch (IOException e) {
+            // Esperado
+        }
+        try {
+            EstadoPercurso.restaurar(new Veiculo(new DistanciaHaversine(), rotaReta(3)), estado);
+            fail("O estado foi aceito com outra rota");
+        } catch (IOException e) {
+            // Esperado
+        }
+        assertFalse(EstadoPercurso.restaurar(new Veiculo(), new File(pasta.getRoot(), "inexistente.estado")));
+    }
+
+    @Test
+    public void salvaPeriodicamenteEDescarta() throws IOException {
+        Veiculo veiculo = new Veiculo();
+        File estado = new File(pasta.getRoot(), "percurso.estado");
+        PersistenciaPercurso persistencia = new PersistenciaPercurso(veiculo, estado, 10000);
+        for (int i = 0; i < 100; i++) {
+            persistencia.atualizarDados(LATITUDE + i * 5 * GRAUS_POR_METRO, LONGITUDE, 1000L * i);
+        }
+        persistencia.close();
+        assertTrue(persistencia.getSalvamentos() >= 1);
+
+        Veiculo restaurado = new Veiculo();
+        assertTrue(EstadoPercurso.restaurar(restaurado, estado));
+        assertEquals(90000, restaurado.getUltimoTimestamp());
+        assertEquals(91, restaurado.getEstatisticas().getNumeroLocalizacoes());
+
+        PersistenciaPercurso outra = new PersistenciaPercurso(restaurado, estado, 10000);
+        outra.descartar();
+        assertFalse(estado.exists());
+    }
+
+    private static void assertMesmoEstado(Veiculo esperado, Veiculo obtido) {
+        assertEquals(esperado.getEstatisticas().getNumeroLocalizacoes(), obtido.getEstatisticas().getNumeroLocalizacoes());
+        assertEquals(esperado.getDistanciaPercorrida(), obtido.getDistanciaPercorrida(), 0);
+        assertEquals(esperado.getVelocidadeMediaParcial(), obtido.getVelocidadeMediaParcial(), 0);
+        assertEquals(esperado.getVelocidadeMediaTotal(), obtido.getVelocidadeMediaTotal(), 0);
+        assertEquals(esperado.getConsumoCombustivelTotal(), obtido.getConsumoCombustivelTotal(), 0);
+        assertEquals(esperado.getVelocidadeRecomendada(), obtido.getVelocidadeRecomendada(), 0);
+        assertEquals(esperado.getTempoDeslocamento(), obtido.getTempoDeslocamento());
+        assertEquals(esperado.getTempoParaDestinoFinal(), obtido.getTempoParaDestinoFinal());
+        assertEquals(esperado.getDistanciaRestante(), obtido.getDistanciaRestante(), 0);
+        assertEquals(esperado.isDestinoAlcancado(), obtido.isDestinoAlcancado());
+        assertEquals(esperado.getUltimoTimestamp(), obtido.getUltimoTimestamp());
+    }
+
+    private static Rota rotaReta(int quilometros) {
+        double[] latitudes = new double[quilometros + 1];
+        double[] longitudes = new double[quilometros + 1];
+        for (int i = 0; i <= quilometros; i++) {
+            latitudes[i] = LATITUDE + i * 1000 * GRAUS_POR_METRO;
+            longitudes[i] = LONGITUDE;
+        }
+        return new Rota(latitudes, longitudes);
+    }
+}
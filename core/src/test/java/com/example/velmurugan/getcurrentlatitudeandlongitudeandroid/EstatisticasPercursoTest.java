@@ -0,0 +1,82 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do acumulador de estatísticas do percurso.
+ */
+public class EstatisticasPercursoTest {
+    // Passo em graus de latitude que corresponde a 10 metros ao longo de um meridiano
+    private static final double PASSO_10_METROS = Math.toDegrees(0.01 / 6371);
+
+    @Test
+    public void totaisContinuamCorretosAposCemMilLocalizacoes() {
+        EstatisticasPercurso estatisticas = new EstatisticasPercurso(new DistanciaHaversine(), 2000, 0.5);
+        int total = 100000;
+        for (int i = 0; i < total; i++) {
+            estatisticas.registrar(-20 + i * PASSO_10_METROS, -45.84, i * 1000L);
+        }
+
+        // 10 metros por segundo durante 99999 segundos
+        assertEquals(total, estatisticas.getNumeroLocalizacoes());
+        assertEquals((total - 1) * 0.01, estatisticas.getDistanciaPercorrida(), 1e-6);
+        assertEquals((total - 1) * 1000L, estatisticas.getTempoDecorrido());
+        assertEquals((total - 1) * 1000L, estatisticas.getTempoMovimento());
+        assertEquals(36, estatisticas.getVelocidadeMediaTotal(), 1e-6);
+        assertEquals(36, estatisticas.getVelocidadeMediaParcial(), 1e-6);
+        assertEquals(36, estatisticas.getVelocidadeMaxima(), 1e-6);
+        assertEquals(2000 - (total - 1) * 0.01, estatisticas.getDistanciaRestante(), 1e-6);
+    }
+
+    @Test
+    public void tempoParadoNaoContaComoMovimento() {
+        EstatisticasPercurso estatisticas = new EstatisticasPercurso(new DistanciaHaversine(), 1, 0.5);
+        estatisticas.registrar(-20, -45.84, 0);
+        estatisticas.registrar(-20 + PASSO_10_METROS, -45.84, 1000);
+        estatisticas.registrar(-20 + PASSO_10_METROS, -45.84, 61000);
+
+        assertEquals(1000, estatisticas.getTempoMovimento());
+        assertEquals(61000, estatisticas.getTempoDecorrido());
+        assertEquals(0, estatisticas.getVelocidadeInstantanea(), 0);
+        assertEquals(36, estatisticas.getVelocidadeMediaMovimento(), 1e-6);
+    }
+
+    @Test
+    public void ignoraLocalizacoesForaDeOrdem() {
+        EstatisticasPercurso estatisticas = new EstatisticasPercurso(new DistanciaHaversine(), 1, 0.5);
+        assertTrue(estatisticas.registrar(-20, -45.84, 1000));
+        assertFalse(estatisticas.registrar(-19, -45.84, 500));
+        assertFalse(estatisticas.registrar(-19, -45.84, 1000));
+
+        assertEquals(1, estatisticas.getNumeroLocalizacoes());
+        assertEquals(0, estatisticas.getDistanciaPercorrida(), 0);
+    }
+
+    @Test
+    public void mediaParcialRecomecaACadaTrecho() {
+        EstatisticasPercurso estatisticas = new EstatisticasPercurso(new DistanciaHaversine(), 10, 0.045);
+        // Primeiro trecho a 36 km/h
+        for (int passo = 0; passo <= 5; passo++) {
+            estatisticas.registrar(-20 + passo * PASSO_10_METROS, -45.84, passo * 1000L);
+        }
+        // Segundo trecho a 18 km/h
+        for (int passo = 6; passo <= 8; passo++) {
+            estatisticas.registrar(-20 + passo * PASSO_10_METROS, -45.84, 5000L + (passo - 5) * 2000L);
+        }
+
+        assertEquals(18, estatisticas.getVelocidadeMediaParcial(), 1e-6);
+    }
+
+    @Test
+    public void veiculoIndicaSeAUltimaLocalizacaoMudouDePosicao() {
+        Veiculo veiculo = new Veiculo();
+        veiculo.atualizarDados(-20, -45.84, 0);
+        assertFalse(veiculo.getVerificaTrocaLocalizacao());
+        veiculo.atualizarDados(-20, -45.8401, 1000);
+        assertTrue(veiculo.getVerificaTrocaLocalizacao());
+        veiculo.atualizarDados(-20, -45.8401, 2000);
+        assertFalse(veiculo.getVerificaTrocaLocalizacao());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do filtro de Kalman das localizações.
+ */
+public class FiltroKalmanTest {
+    // Graus de latitude correspondentes a um metro
+    private static final double GRAUS_POR_METRO = 1 / 111195.0;
+
+    @Test
+    public void veiculoParadoNaoAcumulaDistancia() {
+        Random aleatorio = new Random(7);
+        Veiculo bruto = new Veiculo();
+        final Veiculo suavizado = new Veiculo();
+        FiltroKalman filtro = new FiltroKalman(PerfilVeiculo.CARRO, receptor(suavizado));
+        for (int i = 0; i < 300; i++) {
+            double latitude = -20.46 + aleatorio.nextGaussian() * 5 * GRAUS_POR_METRO;
+            double longitude = -45.84 + aleatorio.nextGaussian() * 5 * GRAUS_POR_METRO;
+            bruto.atualizarDados(latitude, longitude, 1000L * i);
+            filtro.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, latitude, longitude, 5, Float.NaN, 1000L * i);
+        }
+        assertTrue(bruto.getDistanciaPercorrida() > 1.0);
+        assertTrue("Distância suavizada: " + suavizado.getDistanciaPercorrida(),
+                suavizado.getDistanciaPercorrida() < 0.05 * bruto.getDistanciaPercorrida());
+        assertTrue(filtro.isParado());
+        assertEquals(0, filtro.getVelocidade(), 0);
+    }
+
+    @Test
+    public void estimaVelocidadeDeMovimentoUniforme() {
+        Random aleatorio = new Random(11);
+        FiltroKalman filtro = new FiltroKalman(PerfilVeiculo.CARRO, receptor(new Veiculo()));
+        double somaNorte = 0;
+        double somaLeste = 0;
+        for (int i = 0; i < 120; i++) {
+            // 15 m/s para o norte e 5 m/s para leste, com ruído de 5 m
+            double norte = 15 * i + aleatorio.nextGaussian() * 5;
+            double leste = 5 * i + aleatorio.nextGaussian() * 5;
+            assertTrue(filtro.filtrar(-20.46 + norte * GRAUS_POR_METRO,
+                    -45.84 + leste * GRAUS_POR_METRO / Math.cos(Math.toRadians(-20.46)), 5, 1000L * i));
+            assertFalse(filtro.isParado());
+            if (i >= 60) {
+                somaNorte += filtro.getVelocidadeNorte();
+                somaLeste += filtro.getVelocidadeLeste();
+            }
+        }
+        assertEquals(15, somaNorte / 60, 0.5);
+        assertEquals(5, somaLeste / 60, 0.5);
+        assertEquals(-20.46 + 15 * 119 * GRAUS_POR_METRO, filtro.getLatitude(), 5 * GRAUS_POR_METRO);
+        assertTrue(filtro.getPrecisao() < 5);
+    }
+
+    @Test
+    public void medidaImprecisaPesaMenos() {
+        FiltroKalman preciso = new FiltroKalman(PerfilVeiculo.CARRO, receptor(new Veiculo()));
+        FiltroKalman impreciso = new FiltroKalman(PerfilVeiculo.CARRO, receptor(new Veiculo()));
+        for (int i = 0; i < 10; i++) {
+            double latitude = -20.46 + 10 * i * GRAUS_POR_METRO;
+            preciso.filtrar(latitude, -45.84, 5, 1000L * i);
+            impreciso.filtrar(latitude, -45.84, 5, 1000L * i);
+        }
+        // Salto de 200 m: com 5 m de precisão puxa a posição, com 500 m quase não a muda
+        double salto = -20.46 + 300 * GRAUS_POR_METRO;
+        preciso.filtrar(salto, -45.84, 5, 10000);
+        impreciso.filtrar(salto, -45.84, 500, 10000);
+        double esperado = -20.46 + 100 * GRAUS_POR_METRO;
+        assertTrue(preciso.getLatitude() - esperado > 50 * GRAUS_POR_METRO);
+        assertTrue(Math.abs(impreciso.getLatitude() - esperado) < 10 * GRAUS_POR_METRO);
+    }
+
+    @Test
+    public void descartaForaDeOrdemEReiniciaAposIntervaloLongo() {
+        FiltroKalman filtro = new FiltroKalman(PerfilVeiculo.CARRO, receptor(new Veiculo()));
+        assertTrue(filtro.filtrar(-20.46, -45.84, 5, 10000));
+        assertFalse(filtro.filtrar(-20.45, -45.84, 5, 10000));
+        assertFalse(filtro.filtrar(-20.45, -45.84, 5, 9000));
+
+        // Sem localizações por mais que o intervalo de reinício, a próxima é aceita como está
+        assertTrue(filtro.filtrar(-20.40, -45.80, Float.NaN, 10000 + PerfilVeiculo.CARRO.getIntervaloReinicio() + 1));
+        assertEquals(-20.40, filtro.getLatitude(), 0);
+        assertEquals(-45.80, filtro.getLongitude(), 0);
+        assertEquals(PerfilVeiculo.CARRO.getPrecisaoPadrao(), filtro.getPrecisao(), 1e-9);
+    }
+
+    private static ReceptorLocalizacao receptor(final Veiculo veiculo) {
+        return new ReceptorLocalizacao() {
+            @Override
+            public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+                veiculo.atualizarDados(latitude, longitude, timestamp);
+            }
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fonte de localização em memória, no lugar do LocationManager, que conta os ouvintes registrados.
+ */
+class FonteFalsa implements FonteLocalizacao {
+    final Map<String, ReceptorLocalizacao> ouvintes = new HashMap<>();
+    final Map<String, Boolean> ativos = new HashMap<>();
+    boolean ultimaConhecida;
+    boolean semPermissao;
+    int registros;
+    long tempoMinimo;
+
+    @Override
+    public boolean isProvedorAtivo(String provedor) {
+        Boolean ativo = ativos.get(provedor);
+        return ativo == null || ativo;
+    }
+
+    @Override
+    public boolean registrar(String provedor, long tempoMinimo, float distanciaMinima, ReceptorLocalizacao receptor) {
+        if (semPermissao) {
+            return false;
+        }
+        ouvintes.put(provedor, receptor);
+        registros++;
+        this.tempoMinimo = tempoMinimo;
+        return true;
+    }
+
+    @Override
+    public void remover(String provedor) {
+        ouvintes.remove(provedor);
+    }
+
+    @Override
+    public void entregarUltimaLocalizacao(String provedor, ReceptorLocalizacao receptor) {
+        if (ultimaConhecida) {
+            receptor.aoReceberLocalizacao(provedor, -20.46, -45.84, 5, Float.NaN, 0);
+        }
+    }
+
+    void emitir(String provedor, long timestamp) {
+        emitir(provedor, -20.46, -45.84, timestamp);
+    }
+
+    void emitir(String provedor, double latitude, double longitude, long timestamp) {
+        ReceptorLocalizacao receptor = ouvintes.get(provedor);
+        if (receptor != null) {
+            receptor.aoReceberLocalizacao(provedor, latitude, longitude, 5, Float.NaN, timestamp);
+        }
+    }
+
+    int getNumeroOuvintes() {
+        return ouvintes.size();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do processamento das localizações de uma frota em partições.
+ */
+public class FrotaVeiculosTest {
+    private static final int PRODUTORES = 3;
+
+    @Test
+    public void calculaOMesmoQueVeiculoComVariosProdutores() throws Exception {
+        final int veiculos = 200;
+        final int rodadas = 300;
+        final long[] ids = new long[veiculos * rodadas];
+        final double[] latitudes = new double[ids.length];
+        final double[] longitudes = new double[ids.length];
+        final long[] timestamps = new long[ids.length];
+        new GeradorCargaFrota(veiculos, 11).gerar(ids, latitudes, longitudes, timestamps, ids.length);
+
+        // Cada produtor envia os veículos de uma faixa de identificadores, em ordem
+        final FrotaVeiculos frota = new FrotaVeiculos(4, 64, PerfilVeiculo.CARRO.getModeloConsumo(), Veiculo.CERCA_DESTINO);
+        Thread[] produtores = new Thread[PRODUTORES];
+        for (int p = 0; p < produtores.length; p++) {
+            final int produtor = p;
+            produtores[p] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < ids.length; i++) {
+                            if (ids[i] % PRODUTORES == produtor) {
+                                frota.aoReceberLocalizacao(ids[i], latitudes[i], longitudes[i], timestamps[i]);
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            produtores[p].start();
+        }
+        for (Thread produtor : produtores) {
+            produtor.join();
+        }
+        frota.aguardarProcessamento();
+
+        assertEquals(veiculos, frota.getNumeroVeiculos());
+        assertEquals(ids.length, frota.getLocalizacoesProcessadas());
+        for (int v = 0; v < veiculos; v++) {
+            Veiculo veiculo = new Veiculo(new DistanciaEquiretangular(), Veiculo.CERCA_DESTINO);
+            for (int i = v; i < ids.length; i += veiculos) {
+                veiculo.atualizarDados(latitudes[i], longitudes[i], timestamps[i]);
+            }
+            assertEquals(rodadas, frota.getNumeroLocalizacoes(v));
+            assertEquals(veiculo.getDistanciaPercorrida(), frota.getDistanciaPercorrida(v), 0);
+            assertEquals(veiculo.getVelocidadeMediaParcial(), frota.getVelocidadeMediaParcial(v), 0);
+            assertEquals(veiculo.getVelocidadeMediaTotal(), frota.getVelocidadeMediaTotal(v), 0);
+            assertEquals(veiculo.getConsumoCombustivelTotal(), frota.getConsumoCombustivelTotal(v), 0);
+            assertEquals(veiculo.getTempoParaDestinoFinal(), frota.getTempoParaDestinoFinal(v));
+            assertEquals(veiculo.isDestinoAlcancado(), frota.isDestinoAlcancado(v));
+        }
+        frota.close();
+    }
+
+    @Test
+    public void percursoAleatorioTemTodosOsValoresDoVeiculo() throws Exception {
+        // Paradas, arrancadas e velocidades de todas as faixas da tabela de consumo, com
+        // localizações repetidas e fora de ordem, terminando dentro da cerca de destino
+        Random aleatorio = new Random(23);
+        FrotaVeiculos frota = new FrotaVeiculos(2, 32, PerfilVeiculo.CARRO.getModeloConsumo(), Veiculo.CERCA_DESTINO);
+        for (long id = 0; id < 5; id++) {
+            Veiculo veiculo = new Veiculo();
+            double latitude = Veiculo.LATITUDE_FINAL - 0.02 - 0.01 * aleatorio.nextDouble();
+            double longitude = Veiculo.LONGITUDE_FINAL + 0.01 * aleatorio.nextGaussian();
+            double passoLatitude = (Veiculo.LATITUDE_FINAL - latitude) / 2000;
+            double passoLongitude = (Veiculo.LONGITUDE_FINAL - longitude) / 2000;
+            long timestamp = 1000;
+            for (int i = 0; i < 2000; i++) {
+                double fator = aleatorio.nextInt(10) == 0 ? 0 : 3 * aleatorio.nextDouble();
+                latitude += passoLatitude * fator + aleatorio.nextGaussian() * 1e-6;
+                longitude += passoLongitude * fator + aleatorio.nextGaussian() * 1e-6;
+                timestamp += 200 + aleatorio.nextInt(1800);
+                long registrado = aleatorio.nextInt(20) == 0 ? timestamp - aleatorio.nextInt(3000) : timestamp;
+                veiculo.atualizarDados(latitude, longitude, registrado);
+                frota.aoReceberLocalizacao(id, latitude, longitude, registrado);
+            }
+            for (int i = 0; i < 3; i++) {
+                timestamp += 1000;
+                veiculo.atualizarDados(Veiculo.LATITUDE_FINAL + 0.00001, Veiculo.LONGITUDE_FINAL - 0.00001, timestamp);
+                frota.aoReceberLocalizacao(id, Veiculo.LATITUDE_FINAL + 0.00001, Veiculo.LONGITUDE_FINAL - 0.00001, timestamp);
+            }
+            frota.aguardarProcessamento();
+
+            EstatisticasPercurso estatisticas = veiculo.getEstatisticas();
+            assertEquals(estatisticas.getNumeroLocalizacoes(), frota.getNumeroLocalizacoes(id));
+            assertEquals(veiculo.getDistanciaPercorrida(), frota.getDistanciaPercorrida(id), 0);
+            assertEquals(estatisticas.getTempoDecorrido(), frota.getTempoDecorrido(id));
+            assertEquals(estatisticas.getTempoMovimento(), frota.getTempoMovimento(id));
+            assertEquals(estatisticas.getVelocidadeMaxima(), frota.getVelocidadeMaxima(id), 0);
+            assertEquals(veiculo.getVelocidadeMediaParcial(), frota.getVelocidadeMediaParcial(id), 0);
+            assertEquals(veiculo.getVelocidadeMediaTotal(), frota.getVelocidadeMediaTotal(id), 0);
+            assertEquals(veiculo.getConsumoCombustivelTotal(), frota.getConsumoCombustivelTotal(id), 0);
+            assertEquals(veiculo.getTempoDeslocamento(), frota.getTempoDeslocamento(id));
+            assertEquals(veiculo.getTempoParaDestinoFinal(), frota.getTempoParaDestinoFinal(id));
+            assertTrue(frota.isDestinoAlcancado(id));
+            assertEquals(veiculo.isDestinoAlcancado(), frota.isDestinoAlcancado(id));
+        }
+        assertTrue(frota.getLocalizacoesIgnoradas() > 0);
+        frota.close();
+    }
+
+    @Test
+    public void ignoraLocalizacoesForaDeOrdemEVeiculosDesconhecidos() throws Exception {
+        FrotaVeiculos frota = new FrotaVeiculos(2, 16, PerfilVeiculo.CARRO.getModeloConsumo(), Veiculo.CERCA_DESTINO);
+        frota.aoReceberLocalizacao(7, -20.46, -45.84, 1000);
+        frota.aoReceberLocalizacao(7, -20.45, -45.84, 2000);
+        frota.aoReceberLocalizacao(7, -20.44, -45.84, 1500);
+        frota.aguardarProcessamento();
+
+        assertTrue(frota.contem(7));
+        assertFalse(frota.contem(8));
+        assertEquals(2, frota.getNumeroLocalizacoes(7));
+        assertEquals(1, frota.getLocalizacoesIgnoradas());
+        assertEquals(1.112, frota.getDistanciaPercorrida(7), 0.001);
+        try {
+            frota.getDistanciaPercorrida(8);
+            fail("Veículo desconhecido aceito");
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+
+        frota.close();
+        try {
+            frota.aoReceberLocalizacao(7, -20.43, -45.84, 3000);
+            fail("Localização aceita depois do fechamento");
+        } catch (IllegalStateException e) {
+            // Esperado
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes da combinação das localizações de vários provedores.
+ */
+public class FusaoProvedoresTest {
+    private static final String GPS = MotorLocalizacao.PROVEDOR_GPS;
+    private static final String REDE = MotorLocalizacao.PROVEDOR_REDE;
+
+    private final List<Object[]> repassadas = new ArrayList<>();
+    private ReceptorLocalizacao destino;
+
+    @Before
+    public void setUp() {
+        destino = new ReceptorLocalizacao() {
+            @Override
+            public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+                repassadas.add(new Object[]{provedor, latitude, longitude, precisao, velocidade, timestamp});
+            }
+        };
+    }
+
+    @Test
+    public void mediaPonderadaFavoreceOProvedorMaisPreciso() {
+        FusaoProvedores fusao = new FusaoProvedores(PoliticaFusao.PRECISAO_PONDERADA, 5000, 20, destino);
+        fusao.aoReceberLocalizacao(REDE, -20.4600, -45.8400, 50, Float.NaN, 1000);
+        fusao.aoReceberLocalizacao(GPS, -20.4610, -45.8410, 5, 12, 1500);
+
+        assertEquals(2, repassadas.size());
+        Object[] ultima = repassadas.get(1);
+        // Pesos 1/25 e 1/2500: a média fica a 1/101 do caminho entre o GPS e a rede
+        assertEquals(-20.4610 + 0.0010 / 101, (double) ultima[1], 1e-9);
+        assertEquals(-45.8410 + 0.0010 / 101, (double) ultima[2], 1e-9);
+        assertEquals(5 / Math.sqrt(1.01), (float) ultima[3], 1e-4);
+        assertEquals(12f, (float) ultima[4], 0);
+        assertEquals(1500L, ultima[5]);
+        assertEquals(GPS, ultima[0]);
+    }
+
+    @Test
+    public void resultadoNaoDependeDaOrdemDosProvedores() {
+        FusaoProvedores redePrimeiro = new FusaoProvedores(PoliticaFusao.PRECISAO_PONDERADA, 5000, 20, destino);
+        redePrimeiro.aoReceberLocalizacao(REDE, -20.46, 179.9999, 30, Float.NaN, 1000);
+        redePrimeiro.aoReceberLocalizacao(GPS, -20.46, -179.9999, 10, Float.NaN, 1000 + 1);
+        Object[] primeira = repassadas.get(repassadas.size() - 1);
+
+        FusaoProvedores gpsPrimeiro = new FusaoProvedores(PoliticaFusao.PRECISAO_PONDERADA, 5000, 20, destino);
+        gpsPrimeiro.aoReceberLocalizacao(GPS, -20.46, -179.9999, 10, Float.NaN, 1000);
+        gpsPrimeiro.aoReceberLocalizacao(REDE, -20.46, 179.9999, 30, Float.NaN, 1000 + 1);
+        Object[] segunda = repassadas.get(repassadas.size() - 1);
+
+        // A média atravessa o antimeridiano sem cair perto da longitude 0
+        assertEquals((double) primeira[2], (double) segunda[2], 1e-9);
+        assertEquals(-179.9999 - 0.0002 / 10, (double) primeira[2], 1e-9);
+    }
+
+    @Test
+    public void descartaRepetidasEAntigas() {
+        FusaoProvedores fusao = new FusaoProvedores(PoliticaFusao.PRECISAO_PONDERADA, 5000, 20, destino);
+        fusao.aoReceberLocalizacao(GPS, -20.46, -45.84, 5, Float.NaN, 10000);
+        fusao.aoReceberLocalizacao(GPS, -20.46, -45.84, 5, Float.NaN, 10000);
+        fusao.aoReceberLocalizacao(GPS, -20.46, -45.84, 5, Float.NaN, 9000);
+
+        // Última localização conhecida da rede, de muito antes
+        fusao.aoReceberLocalizacao(REDE, -20.40, -45.80, 20, Float.NaN, 1000);
+
+        assertEquals(1, repassadas.size());
+        assertEquals(1, fusao.getRepassadas());
+        assertEquals(2, fusao.getDescartesRepetidas());
+        assertEquals(1, fusao.getDescartesAntigas());
+    }
+
+    @Test
+    public void gpsPreferidoSoUsaARedeNaFaltaDoGps() {
+        FusaoProvedores fusao = new FusaoProvedores(PoliticaFusao.GPS_PREFERIDO, 5000, 20, destino);
+        fusao.aoReceberLocalizacao(GPS, -20.46, -45.84, 15, Float.NaN, 1000);
+        fusao.aoReceberLocalizacao(REDE, -20.40, -45.80, 8, Float.NaN, 2000);
+        assertEquals(1, repassadas.size());
+        assertEquals(1, fusao.getDescartesRedundantes());
+
+        // Sem GPS há mais que a idade máxima, a rede passa a ser repassada
+        fusao.aoReceberLocalizacao(REDE, -20.41, -45.81, 8, Float.NaN, 7000);
+        assertEquals(2, repassadas.size());
+        assertEquals(REDE, repassadas.get(1)[0]);
+        assertEquals(-20.41, (double) repassadas.get(1)[1], 0);
+    }
+
+    @Test
+    public void maisRecenteIgnoraLocalizacoesForaDoLimiteDePrecisao() {
+        FusaoProvedores fusao = new FusaoProvedores(PoliticaFusao.MAIS_RECENTE, 5000, 20, destino);
+        fusao.aoReceberLocalizacao(REDE, -20.40, -45.80, 500, Float.NaN, 1000);
+        fusao.aoReceberLocalizacao(GPS, -20.46, -45.84, 10, Float.NaN, 2000);
+        fusao.aoReceberLocalizacao(REDE, -20.41, -45.81, 500, Float.NaN, 3000);
+        fusao.aoReceberLocalizacao(GPS, -20.47, -45.85, 10, Float.NaN, 4000);
+
+        // A primeira localização da rede passa por ser a única; depois só o GPS
+        assertEquals(3, repassadas.size());
+        assertEquals(REDE, repassadas.get(0)[0]);
+        assertEquals(GPS, repassadas.get(1)[0]);
+        assertEquals(4000L, repassadas.get(2)[5]);
+        assertEquals(1, fusao.getDescartesRedundantes());
+    }
+}
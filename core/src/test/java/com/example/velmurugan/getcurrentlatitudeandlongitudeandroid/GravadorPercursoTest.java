@@ -0,0 +1,112 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes da gravação e da reprodução do registro binário de percurso.
+ */
+public class GravadorPercursoTest {
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    @Test
+    public void reproduzLocalizacoesGravadas() throws IOException {
+        File arquivo = pasta.newFile("percurso.bin");
+        arquivo.delete();
+        GravadorPercurso gravador = new GravadorPercurso(arquivo, 16, 50);
+        for (int i = 0; i < 100; i++) {
+            gravador.aoReceberLocalizacao(i % 2 == 0 ? MotorLocalizacao.PROVEDOR_GPS : MotorLocalizacao.PROVEDOR_REDE,
+                    -20.46 + i * 1e-4, -45.84, 4.5f, 13.9f, 1000L * i);
+            if (i % 8 == 7) {
+                aguardarGravacao(gravador, i + 1);
+            }
+        }
+        gravador.close();
+
+        LeitorPercurso leitor = new LeitorPercurso(arquivo);
+        assertEquals(100, leitor.getNumeroRegistros());
+        assertEquals(100, gravador.getRegistrosGravados());
+        assertEquals(0, gravador.getDescartes());
+        assertEquals(99000, leitor.getTimestamp(99));
+        assertEquals(-20.46 + 99 * 1e-4, leitor.getLatitude(99), 0);
+        assertEquals(-45.84, leitor.getLongitude(99), 0);
+        assertEquals(4.5f, leitor.getPrecisao(0), 0);
+        assertEquals(13.9f, leitor.getVelocidade(0), 0);
+        assertEquals(MotorLocalizacao.PROVEDOR_GPS, leitor.getProvedor(0));
+        assertEquals(MotorLocalizacao.PROVEDOR_REDE, leitor.getProvedor(1));
+    }
+
+    @Test
+    public void acrescentaAoArquivoExistenteIgnorandoRegistroIncompleto() throws IOException {
+        File arquivo = new File(pasta.getRoot(), "percurso.bin");
+        GravadorPercurso gravador = new GravadorPercurso(arquivo, 16, 50);
+        gravador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, -20.46, -45.84, 5, Float.NaN, 1000);
+        gravador.close();
+
+        // Simula uma gravação interrompida no meio de um registro
+        try (RandomAccessFile acesso = new RandomAccessFile(arquivo, "rw")) {
+            acesso.seek(acesso.length());
+            acesso.write(new byte[10]);
+        }
+        assertEquals(1, new LeitorPercurso(arquivo).getNumeroRegistros());
+
+        gravador = new GravadorPercurso(arquivo, 16, 50);
+        gravador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, -20.45, -45.84, 5, Float.NaN, 2000);
+        gravador.close();
+
+        LeitorPercurso leitor = new LeitorPercurso(arquivo);
+        assertEquals(2, leitor.getNumeroRegistros());
+        assertEquals(2000, leitor.getTimestamp(1));
+        assertTrue(Float.isNaN(leitor.getVelocidade(1)));
+    }
+
+    @Test(expected = IOException.class)
+    public void recusaArquivoQueNaoERegistroDePercurso() throws IOException {
+        File arquivo = pasta.newFile("outro.bin");
+        try (RandomAccessFile acesso = new RandomAccessFile(arquivo, "rw")) {
+            acesso.writeLong(42);
+        }
+        new LeitorPercurso(arquivo);
+    }
+
+    @Test
+    public void reproduzUmMilhaoDeLocalizacoesNoVeiculo() throws IOException {
+        File arquivo = new File(pasta.getRoot(), "longo.bin");
+        int total = 1000000;
+        GravadorPercurso gravador = new GravadorPercurso(arquivo, 8192, 1000);
+        for (int i = 0; i < total; i++) {
+            gravador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, -20 + i * 1e-5, -45.84, 5, Float.NaN, 1000L * i);
+            if (i % 4096 == 4095) {
+                aguardarGravacao(gravador, i + 1);
+            }
+        }
+        gravador.close();
+
+        LeitorPercurso leitor = new LeitorPercurso(arquivo);
+        Veiculo veiculo = new Veiculo();
+        long inicio = System.nanoTime();
+        leitor.reproduzir(veiculo);
+        long duracaoMillis = (System.nanoTime() - inicio) / 1000000;
+
+        assertEquals(total, veiculo.getEstatisticas().getNumeroLocalizacoes());
+        assertTrue("Reprodução levou " + duracaoMillis + " ms", duracaoMillis < 5000);
+    }
+
+    /**
+     * Aguarda a thread de gravação alcançar o número de registros, evitando descartes no teste.
+     */
+    private static void aguardarGravacao(GravadorPercurso gravador, long registros) {
+        long limite = System.currentTimeMillis() + 5000;
+        while (gravador.getRegistrosGravados() < registros && System.currentTimeMillis() < limite) {
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do buffer circular de localizações.
+ */
+public class HistoricoLocalizacoesTest {
+    @Test
+    public void mantemOrdemComLocalizacoesAtrasadas() {
+        HistoricoLocalizacoes historico = new HistoricoLocalizacoes(8);
+        historico.adicionar(1, 1, 100);
+        historico.adicionar(3, 3, 300);
+        historico.adicionar(2, 2, 200);
+
+        assertEquals(3, historico.getTamanho());
+        assertEquals(300, historico.getTimestampRecente(0));
+        assertEquals(200, historico.getTimestampRecente(1));
+        assertEquals(100, historico.getTimestampRecente(2));
+        assertEquals(2, historico.getLatitudeRecente(1), 0);
+    }
+
+    @Test
+    public void sobrescreveMaisAntigaQuandoCheio() {
+        HistoricoLocalizacoes historico = new HistoricoLocalizacoes(4);
+        for (int i = 0; i < 1000; i++) {
+            historico.adicionar(i, -i, i * 1000L);
+        }
+
+        assertEquals(4, historico.getTamanho());
+        assertEquals(999000, historico.getTimestampRecente(0));
+        assertEquals(996000, historico.getTimestampRecente(3));
+        assertEquals(-999, historico.getLongitudeRecente(0), 0);
+    }
+
+    @Test
+    public void descartaLocalizacaoMaisAntigaQueHistoricoCheio() {
+        HistoricoLocalizacoes historico = new HistoricoLocalizacoes(2);
+        historico.adicionar(1, 1, 100);
+        historico.adicionar(2, 2, 200);
+
+        assertFalse(historico.adicionar(0, 0, 50));
+        assertTrue(historico.adicionar(1.5, 1.5, 150));
+        assertEquals(150, historico.getTimestampRecente(1));
+        assertEquals(200, historico.getTimestampRecente(0));
+    }
+
+    @Test
+    public void substituiMaisRecente() {
+        HistoricoLocalizacoes historico = new HistoricoLocalizacoes(2);
+        historico.adicionar(1, 1, 100);
+        historico.substituirMaisRecente(5, 6, 700);
+
+        LocationData locationData = historico.getLocationDataRecente(0);
+        assertEquals(5, locationData.getLatitude(), 0);
+        assertEquals(6, locationData.getLongitude(), 0);
+        assertEquals(700, locationData.getTimestamp());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void recusaRecuoForaDoHistorico() {
+        new HistoricoLocalizacoes(2).getLatitudeRecente(0);
+    }
+}
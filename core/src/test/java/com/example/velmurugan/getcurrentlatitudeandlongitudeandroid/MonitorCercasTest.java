@@ -0,0 +1,214 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes das cercas geográficas e do monitor que produz os seus eventos.
+ */
+public class MonitorCercasTest {
+    // Graus de latitude correspondentes a um metro
+    private static final double GRAUS_POR_METRO = 1 / 111195.0;
+
+    private static final double LATITUDE = -20.46;
+    private static final double LONGITUDE = -45.84;
+
+    private final List<String> eventos = new ArrayList<>();
+    private ReceptorEventoCerca receptor;
+
+    @Before
+    public void setUp() {
+        receptor = new ReceptorEventoCerca() {
+            @Override
+            public void aoReceberEvento(Cerca cerca, EventoCerca evento, long timestamp) {
+                eventos.add(cerca.getId() + ":" + evento + "@" + timestamp);
+            }
+        };
+    }
+
+    @Test
+    public void cercaCircularUsaRaioEMargem() {
+        CercaCircular cerca = new CercaCircular("c", LATITUDE, LONGITUDE, 100);
+        assertTrue(cerca.alcancado(latitude(99), longitude(0)));
+        assertTrue(cerca.alcancado(latitude(-70), longitude(70)));
+        assertFalse(cerca.alcancado(latitude(0), longitude(101)));
+        assertTrue(cerca.contem(latitude(0), longitude(-110), 15));
+        assertFalse(cerca.contem(latitude(0), longitude(-120), 15));
+    }
+
+    @Test
+    public void cercaPoligonalUsaCruzamentosEDistanciaAsArestas() {
+        // Polígono em L: o canto nordeste fica fora
+        CercaPoligonal cerca = new CercaPoligonal("l",
+                new double[]{latitude(0), latitude(0), latitude(100), latitude(100), latitude(200), latitude(200)},
+                new double[]{longitude(0), longitude(200), longitude(200), longitude(100), longitude(100), longitude(0)});
+        assertTrue(cerca.alcancado(latitude(50), longitude(150)));
+        assertTrue(cerca.alcancado(latitude(150), longitude(50)));
+        assertFalse(cerca.alcancado(latitude(150), longitude(150)));
+        assertTrue(cerca.contem(latitude(150), longitude(108), 10));
+        assertFalse(cerca.contem(latitude(150), longitude(150), 10));
+        assertFalse(cerca.contem(latitude(-20), longitude(50), 10));
+
+        assertTrue(Veiculo.CERCA_DESTINO.alcancado(Veiculo.LATITUDE_FINAL + 0.001, Veiculo.LONGITUDE_FINAL - 0.001));
+        assertFalse(Veiculo.CERCA_DESTINO.alcancado(Veiculo.LATITUDE_FINAL - 0.001, Veiculo.LONGITUDE_FINAL - 0.001));
+    }
+
+    @Test
+    public void produzCadaEventoUmaVezPorVisitaComHisterese() {
+        MonitorCercas monitor = new MonitorCercas(15, 10000, receptor);
+        Cerca cerca = new CercaCircular("a", LATITUDE, LONGITUDE, 50);
+        monitor.adicionar(cerca);
+
+        // Aproxima-se e oscila perto da borda sem se afastar além da margem
+        long timestamp = 0;
+        for (int metros = 200; metros >= 45; metros -= 5) {
+            monitor.atualizar(latitude(metros), longitude(0), timestamp += 1000);
+        }
+        for (int i = 0; i < 20; i++) {
+            monitor.atualizar(latitude(i % 2 == 0 ? 60 : 45), longitude(0), timestamp += 1000);
+        }
+        assertTrue(monitor.isDentro(cerca));
+        monitor.atualizar(latitude(70), longitude(0), timestamp += 1000);
+        monitor.atualizar(latitude(0), longitude(0), timestamp += 20000);
+
+        assertEquals(4, eventos.size());
+        assertEquals("a:ENTRADA@31000", eventos.get(0));
+        assertEquals("a:PERMANENCIA@41000", eventos.get(1));
+        assertEquals("a:SAIDA@53000", eventos.get(2));
+        assertEquals("a:ENTRADA@73000", eventos.get(3));
+        assertTrue(monitor.isDentro(cerca));
+    }
+
+    @Test
+    public void indiceVerificaPoucasCercasPorLocalizacao() {
+        Random aleatorio = new Random(5);
+        MonitorCercas monitor = new MonitorCercas(10, 0, receptor);
+        List<Cerca> cercas = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            Cerca cerca = new CercaCircular("c" + i, latitude(aleatorio.nextDouble() * 50000),
+                    longitude(aleatorio.nextDouble() * 50000), 20 + aleatorio.nextDouble() * 60);
+            cercas.add(cerca);
+            monitor.adicionar(cerca);
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            double latitude = latitude(aleatorio.nextDouble() * 50000);
+            double longitude = longitude(aleatorio.nextDouble() * 50000);
+            int esperadas = 0;
+            for (Cerca cerca : cercas) {
+                if (cerca.alcancado(latitude, longitude)) {
+                    esperadas++;
+                }
+            }
+            int antes = eventos.size();
+            monitor.atualizar(latitude, longitude, i);
+            int entradas = 0;
+            for (int e = antes; e < eventos.size(); e++) {
+                if (eventos.get(e).contains(":ENTRADA@")) {
+                    entradas++;
+                }
+            }
+            assertEquals(esperadas, entradas);
+        }
+        assertTrue("Verificações por localização: " + monitor.getVerificacoesPorLocalizacao(),
+                monitor.getVerificacoesPorLocalizacao() < 10);
+    }
+
+    @Test
+    public void receptorPodeRemoverCercaDuranteOEvento() {
+        final Cerca primeiro = new CercaCircular("p1", latitude(0), longitude(0), 30);
+        final Cerca segundo = new CercaCircular("p2", latitude(500), longitude(0), 30);
+        final MonitorCercas[] monitor = new MonitorCercas[1];
+        monitor[0] = new MonitorCercas(10, 0, new ReceptorEventoCerca() {
+            @Override
+            public void aoReceberEvento(Cerca cerca, EventoCerca evento, long timestamp) {
+                receptor.aoReceberEvento(cerca, evento, timestamp);
+                // Ponto de controle alcançado deixa de ser monitorado
+                monitor[0].remover(cerca);
+            }
+        });
+        monitor[0].adicionar(primeiro);
+        monitor[0].adicionar(segundo);
+
+        for (int metros = -100, t = 0; metros <= 600; metros += 10, t++) {
+            monitor[0].atualizar(latitude(metros), longitude(0), t);
+        }
+        for (int metros = 600, t = 100; metros >= -100; metros -= 10, t++) {
+            monitor[0].atualizar(latitude(metros), longitude(0), t);
+        }
+
+        assertEquals(2, eventos.size());
+        assertEquals("p1:ENTRADA@7", eventos.get(0));
+        assertEquals("p2:ENTRADA@57", eventos.get(1));
+        assertEquals(0, monitor[0].getNumeroCercas());
+        assertEquals(0, monitor[0].getNumeroVisitadas());
+    }
+
+    @Test
+    public void avaliaChegadaUmaUnicaVez() {
+        final List<ResultadoPercurso> resultados = new ArrayList<>();
+        Cerca destino = new CercaCircular("destino", latitude(300), longitude(0), 20);
+        Veiculo veiculo = new Veiculo(new DistanciaHaversine(), destino);
+        MonitorCercas monitor = new MonitorCercas(10, 0, new AvaliadorChegada(destino, veiculo) {
+            @Override
+            protected void aoConcluirPercurso(ResultadoPercurso resultado, long tempoParaDestinoFinal) {
+                resultados.add(resultado);
+            }
+        });
+        monitor.adicionar(destino);
+        veiculo.setMonitorCercas(monitor);
+
+        // Chega ao destino em cerca de 60 segundos, sai e volta
+        for (int segundo = 0; segundo <= 60; segundo++) {
+            veiculo.atualizarDados(latitude(segundo * 5), longitude(0), segundo * 1000L);
+        }
+        veiculo.atualizarDados(latitude(400), longitude(0), 70000);
+        veiculo.atualizarDados(latitude(300), longitude(0), 80000);
+
+        assertEquals(1, resultados.size());
+        assertEquals(ResultadoPercurso.ADIANTADO, resultados.get(0));
+        assertEquals(ResultadoPercurso.NO_TEMPO, ResultadoPercurso.avaliar(-10));
+        assertEquals(ResultadoPercurso.ATRASADO, ResultadoPercurso.avaliar(-11));
+        assertEquals(ResultadoPercurso.ADIANTADO, ResultadoPercurso.avaliar(11));
+    }
+
+    @Test
+    public void sincronizarMarcaAsCercasQueContemALocalizacaoSemEventos() {
+        MonitorCercas monitor = new MonitorCercas(15, 10000, receptor);
+        Cerca dentro = new CercaCircular("dentro", LATITUDE, LONGITUDE, 50);
+        Cerca fora = new CercaCircular("fora", latitude(500), longitude(0), 50);
+        monitor.adicionar(dentro);
+        monitor.adicionar(fora);
+        monitor.atualizar(latitude(500), longitude(0), 0);
+        eventos.clear();
+
+        // Como na retomada de um percurso: o veículo já estava no destino
+        monitor.sincronizar(latitude(10), longitude(0), 5000);
+        assertTrue(monitor.isDentro(dentro));
+        assertFalse(monitor.isDentro(fora));
+        assertTrue(eventos.isEmpty());
+
+        // Continua dentro sem nova entrada; a permanência conta a partir da sincronização
+        monitor.atualizar(latitude(0), longitude(0), 10000);
+        assertTrue(eventos.isEmpty());
+        monitor.atualizar(latitude(0), longitude(0), 15000);
+        monitor.atualizar(latitude(100), longitude(0), 16000);
+        assertEquals(2, eventos.size());
+        assertEquals("dentro:PERMANENCIA@15000", eventos.get(0));
+        assertEquals("dentro:SAIDA@16000", eventos.get(1));
+    }
+
+    private static double latitude(double norte) {
+        return LATITUDE + norte * GRAUS_POR_METRO;
+    }
+
+    private static double longitude(double leste) {
+        return LONGITUDE + leste * GRAUS_POR_METRO / Math.cos(Math.toRadians(LATITUDE));
+    }
+}
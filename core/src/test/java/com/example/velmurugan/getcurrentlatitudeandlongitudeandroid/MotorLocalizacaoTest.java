@@ -0,0 +1,104 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do motor de localização com uma fonte falsa no lugar do LocationManager.
+ */
+public class MotorLocalizacaoTest {
+    private FonteFalsa fonte;
+    private MotorLocalizacao motor;
+    private int localizacoesRecebidas;
+
+    @Before
+    public void setUp() {
+        fonte = new FonteFalsa();
+        motor = new MotorLocalizacao(fonte, 1000, 10);
+        motor.adicionarConsumidor(new ReceptorLocalizacao() {
+            @Override
+            public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+                localizacoesRecebidas++;
+            }
+        });
+    }
+
+    @Test
+    public void mantemUmaInscricaoPorProvedorAoLongoDeMilharesDeTicks() {
+        motor.iniciar();
+        for (int tick = 0; tick < 5000; tick++) {
+            motor.iniciar();
+            fonte.emitir(MotorLocalizacao.PROVEDOR_GPS, tick);
+            assertEquals(2, fonte.getNumeroOuvintes());
+        }
+
+        assertEquals(2, fonte.registros);
+        assertEquals(5000, localizacoesRecebidas);
+    }
+
+    @Test
+    public void removeInscricoesAoPausar() {
+        for (int ciclo = 0; ciclo < 1000; ciclo++) {
+            motor.iniciar();
+            assertEquals(2, fonte.getNumeroOuvintes());
+            motor.parar();
+            assertEquals(0, fonte.getNumeroOuvintes());
+        }
+
+        assertEquals(0, motor.getNumeroInscricoes());
+    }
+
+    @Test
+    public void tentaDeNovoQuandoORegistroFalha() {
+        fonte.semPermissao = true;
+        motor.iniciar();
+        assertEquals(0, motor.getNumeroInscricoes());
+
+        // A permissão é concedida depois: a próxima chamada inscreve o motor
+        fonte.semPermissao = false;
+        motor.iniciar();
+        assertEquals(2, motor.getNumeroInscricoes());
+        assertEquals(2, fonte.getNumeroOuvintes());
+    }
+
+    @Test
+    public void ignoraProvedorDesabilitado() {
+        fonte.ativos.put(MotorLocalizacao.PROVEDOR_REDE, false);
+        motor.iniciar();
+
+        assertEquals(1, fonte.getNumeroOuvintes());
+        assertEquals(1, motor.getNumeroInscricoes());
+    }
+
+    @Test
+    public void entregaUltimaLocalizacaoAoIniciar() {
+        fonte.ultimaConhecida = true;
+        motor.iniciar();
+
+        assertEquals(2, localizacoesRecebidas);
+    }
+
+    @Test
+    public void reconfigurarRefazSoAsInscricoesAtivasQuandoMuda() {
+        fonte.ativos.put(MotorLocalizacao.PROVEDOR_REDE, false);
+        motor.iniciar();
+        assertEquals(1, fonte.registros);
+
+        assertFalse(motor.reconfigurar(1000, 10));
+        assertEquals(1, fonte.registros);
+
+        assertTrue(motor.reconfigurar(15000, 0));
+        assertEquals(2, fonte.registros);
+        assertEquals(15000, fonte.tempoMinimo);
+        assertEquals(1, fonte.getNumeroOuvintes());
+
+        // Depois de parar, a próxima inscrição já usa os novos valores
+        motor.parar();
+        assertTrue(motor.reconfigurar(5000, 0));
+        assertEquals(2, fonte.registros);
+        motor.iniciar();
+        assertEquals(5000, fonte.tempoMinimo);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do pipeline de processamento das localizações.
+ */
+public class PipelineLocalizacaoTest {
+    private InstantaneoPercurso ultimoPublicado;
+
+    private PipelineLocalizacao criarPipeline(int capacidadeFila, final CountDownLatch publicacoes) {
+        HistoricoLocalizacoes historico = new HistoricoLocalizacoes(16);
+        return new PipelineLocalizacao(historico, new Veiculo(), new PublicadorInstantaneo() {
+            @Override
+            public void publicar(InstantaneoPercurso instantaneo) {
+                ultimoPublicado = instantaneo;
+                if (publicacoes != null) {
+                    publicacoes.countDown();
+                }
+            }
+        }, capacidadeFila);
+    }
+
+    @Test
+    public void descartaMaisAntigaQuandoFilaCheia() {
+        PipelineLocalizacao pipeline = criarPipeline(4, null);
+        for (int i = 0; i < 10; i++) {
+            pipeline.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, -20.46, -45.84 + i * 0.001, 5, Float.NaN, i * 1000L);
+        }
+
+        assertEquals(4, pipeline.getProfundidadeFila());
+        assertEquals(6, pipeline.getDescartes());
+
+        assertTrue(pipeline.processarProxima());
+        assertEquals(6000, ultimoPublicado.getTimestamp());
+    }
+
+    @Test
+    public void processaFilaNaThreadChamadora() {
+        PipelineLocalizacao pipeline = criarPipeline(4, null);
+        pipeline.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, -20.46, -45.84, 5, Float.NaN, 0);
+        pipeline.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, -20.46, -45.83, 5, Float.NaN, 1000);
+
+        assertTrue(pipeline.processarProxima());
+        assertTrue(pipeline.processarProxima());
+        assertFalse(pipeline.processarProxima());
+        assertEquals(-45.83, ultimoPublicado.getLongitude(), 0);
+        assertEquals(2, pipeline.getLatenciaCalculo().getContagem());
+        assertEquals(0, pipeline.getProfundidadeFila());
+    }
+
+    @Test
+    public void registroRecebeApenasAsLocalizacoesProcessadas() {
+        final List<String> registradas = new ArrayList<>();
+        PipelineLocalizacao pipeline = criarPipeline(2, null);
+        pipeline.setRegistro(new ReceptorLocalizacao() {
+            @Override
+            public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+                registradas.add(provedor + "," + longitude + "," + precisao + "," + velocidade + "," + timestamp);
+            }
+        });
+        pipeline.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, -20.46, -45.84, 5, 10, 0);
+        pipeline.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_REDE, -20.46, -45.83, 30, Float.NaN, 1000);
+        pipeline.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, -20.46, -45.82, 4, 12, 2000);
+        assertTrue(registradas.isEmpty());
+
+        // A mais antiga foi descartada pela fila cheia e não chega ao registro
+        while (pipeline.processarProxima()) {
+            // Processa toda a fila
+        }
+        assertEquals(2, registradas.size());
+        assertEquals(MotorLocalizacao.PROVEDOR_REDE + ",-45.83,30.0,NaN,1000", registradas.get(0));
+        assertEquals(MotorLocalizacao.PROVEDOR_GPS + ",-45.82,4.0,12.0,2000", registradas.get(1));
+    }
+
+    @Test
+    public void threadDeProcessamentoConsomeLocalizacoesAssimQueChegam() throws InterruptedException {
+        CountDownLatch publicacoes = new CountDownLatch(100);
+        PipelineLocalizacao pipeline = criarPipeline(128, publicacoes);
+        pipeline.iniciar();
+        try {
+            for (int i = 0; i < 100; i++) {
+                pipeline.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, -20.46, -45.84 + i * 0.001, 5, Float.NaN, i * 1000L);
+            }
+            assertTrue(publicacoes.await(5, TimeUnit.SECONDS));
+        } finally {
+            pipeline.parar();
+        }
+
+        assertEquals(99000, ultimoPublicado.getTimestamp());
+        assertEquals(100, pipeline.getLatenciaFila().getContagem());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes das métricas do pipeline.
+ */
+public class RegistroMetricasTest {
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    @Test
+    public void percentisFicamDentroDaPrecisaoDoHistograma() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        Random aleatorio = new Random(5);
+        long[] valores = new long[100000];
+        for (int i = 0; i < valores.length; i++) {
+            // Distribuição log-normal, de microssegundos a segundos
+            valores[i] = (long) Math.exp(10 + 2.5 * aleatorio.nextGaussian());
+            histograma.registrar(valores[i]);
+        }
+        Arrays.sort(valores);
+
+        assertEquals(valores.length, histograma.getContagem());
+        assertEquals(valores[valores.length - 1], histograma.getMaximo());
+        for (double percentil : new double[]{0, 1, 50, 90, 99, 99.9, 100}) {
+            long exato = valores[Math.max(0, (int) Math.ceil(percentil / 100 * valores.length) - 1)];
+            long obtido = histograma.getPercentil(percentil);
+            assertTrue(percentil + ": " + obtido + " < " + exato, obtido >= exato);
+            assertTrue(percentil + ": " + obtido + " > " + exato, obtido <= exato + exato / HistogramaLatencia.SUBFAIXAS);
+        }
+
+        // As faixas cobrem todos os valores, em ordem
+        for (int i = 1; i < HistogramaLatencia.NUMERO_FAIXAS; i++) {
+            assertEquals(i, HistogramaLatencia.posicao(HistogramaLatencia.maiorValor(i - 1) + 1));
+            assertEquals(i, HistogramaLatencia.posicao(HistogramaLatencia.maiorValor(i)));
+        }
+        assertEquals(Long.MAX_VALUE, HistogramaLatencia.maiorValor(HistogramaLatencia.NUMERO_FAIXAS - 1));
+    }
+
+    @Test
+    public void contadorSomaOsIncrementosDeVariasThreads() throws InterruptedException {
+        final ContadorDistribuido contador = new ContadorDistribuido();
+        final HistogramaLatencia histograma = new HistogramaLatencia();
+        final Object trava = new Object();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 100000; i++) {
+                        contador.incrementar();
+                        synchronized (trava) {
+                            histograma.registrar(i);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(400000, contador.getValor());
+        assertEquals(400000, histograma.getContagem());
+        assertEquals(99999, histograma.getMaximo());
+    }
+
+    @Test
+    public void pipelineRegistraAsMetricasEODespejoGravaAExportacao() throws IOException {
+        RegistroMetricas metricas = new RegistroMetricas();
+        PipelineLocalizacao pipeline = new PipelineLocalizacao(new HistoricoLocalizacoes(16), new Veiculo(),
+                new CanalInstantaneos(null), 4);
+        pipeline.setMetricas(metricas);
+
+        // Seis localizações em uma fila de quatro: duas descartadas; uma das restantes repetida
+        long[] timestamps = {1000, 2000, 3000, 4000, 4000, 5000};
+        for (long timestamp : timestamps) {
+            pipeline.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, -20.46, -45.84 + timestamp * 1e-7, 5, Float.NaN, timestamp);
+        }
+        while (pipeline.processarProxima()) {
+            // Processa a fila inteira nesta thread
+        }
+
+        assertEquals(2, metricas.contador(PipelineLocalizacao.METRICA_DESCARTES).getValor());
+        assertEquals(1, metricas.contador(PipelineLocalizacao.METRICA_REPETIDAS).getValor());
+        assertEquals(5, metricas.histograma(PipelineLocalizacao.METRICA_INTERVALO_CHEGADA).getContagem());
+        assertEquals(4, metricas.histograma(PipelineLocalizacao.METRICA_CALCULO).getContagem());
+        assertEquals(4, metricas.histograma(PipelineLocalizacao.METRICA_IDADE).getContagem());
+
+        File arquivo = new File(pasta.getRoot(), "metricas.txt");
+        DespejoMetricas despejo = new DespejoMetricas(metricas, arquivo, 60000);
+        despejo.close();
+        assertEquals(1, despejo.getDespejos());
+        String texto = new String(Files.readAllBytes(arquivo.toPath()), "UTF-8");
+        assertEquals(metricas.exportar(), texto);
+        assertTrue(texto.contains(PipelineLocalizacao.METRICA_DESCARTES + " 2\n"));
+        assertTrue(texto.contains(PipelineLocalizacao.METRICA_CALCULO + " contagem=4 "));
+    }
+}
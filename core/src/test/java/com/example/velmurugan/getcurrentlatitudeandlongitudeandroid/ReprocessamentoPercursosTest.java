@@ -0,0 +1,179 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do reprocessamento de percursos gravados.
+ */
+public class ReprocessamentoPercursosTest {
+    // Graus de latitude correspondentes a um metro
+    private static final double GRAUS_POR_METRO = 1 / 111195.0;
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    @Test
+    public void reprocessaPastaComOsValoresDoVeiculo() throws IOException {
+        // Percursos de tamanhos diferentes; os de índice par chegam ao destino
+        Veiculo[] esperados = new Veiculo[5];
+        ResultadoPercurso[] resultados = new ResultadoPercurso[esperados.length];
+        for (int p = 0; p < esperados.length; p++) {
+            esperados[p] = new Veiculo();
+            resultados[p] = gravar(new File(pasta.getRoot(), "percurso-" + p + ".bin"), 2000 + 700 * p, p, p % 2 == 0,
+                    esperados[p], Veiculo.CERCA_DESTINO);
+        }
+        assertTrue(new File(pasta.getRoot(), "outro.estado").createNewFile());
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            ResumoPercurso[] resumos = new ReprocessamentoPercursos(pool, AlgoritmoDistancia.EQUIRETANGULAR, Veiculo.CERCA_DESTINO,
+                    PerfilVeiculo.CARRO.getModeloConsumo()).reprocessarPasta(pasta.getRoot());
+            assertEquals(esperados.length, resumos.length);
+            for (int p = 0; p < esperados.length; p++) {
+                assertEquals("percurso-" + p, resumos[p].getNome());
+                assertMesmoResumo(esperados[p], resultados[p], resumos[p]);
+            }
+            assertNotNull(resumos[0].getResultado());
+            assertNull(resumos[1].getResultado());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void percursoLongoEmParaleloTemOsValoresDoVeiculo() throws IOException {
+        // Várias janelas, com localizações fora de ordem e repetidas atravessando os blocos
+        int localizacoes = 2 * ReprocessamentoPercursos.TAMANHO_JANELA + 12345;
+        Veiculo esperado = new Veiculo(new DistanciaHaversine(), Veiculo.CERCA_DESTINO);
+        File arquivo = new File(pasta.getRoot(), "longo.bin");
+        ResultadoPercurso resultado = gravar(arquivo, localizacoes, 7, true, esperado, Veiculo.CERCA_DESTINO);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ResumoPercurso resumo = new ReprocessamentoPercursos(pool, AlgoritmoDistancia.HAVERSINE, Veiculo.CERCA_DESTINO,
+                    PerfilVeiculo.CARRO.getModeloConsumo()).reprocessar(arquivo);
+            assertEquals(localizacoes, resumo.getNumeroRegistros());
+            assertTrue(resumo.getNumeroLocalizacoes() < localizacoes);
+            assertNotNull(resumo.getResultado());
+            assertMesmoResumo(esperado, resultado, resumo);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void percursoLongoComOAlgoritmoPadraoTemOsValoresDoVeiculo() throws IOException {
+        int localizacoes = ReprocessamentoPercursos.TAMANHO_JANELA + 5000;
+        Veiculo esperado = new Veiculo();
+        File arquivo = new File(pasta.getRoot(), "padrao.bin");
+        ResultadoPercurso resultado = gravar(arquivo, localizacoes, 13, true, esperado, Veiculo.CERCA_DESTINO);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ResumoPercurso resumo = new ReprocessamentoPercursos(pool, AlgoritmoDistancia.EQUIRETANGULAR, Veiculo.CERCA_DESTINO,
+                    PerfilVeiculo.CARRO.getModeloConsumo()).reprocessar(arquivo);
+            assertNotNull(resumo.getResultado());
+            assertMesmoResumo(esperado, resultado, resumo);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void percursoComRotaTemOsValoresDoVeiculoComRota() throws IOException {
+        // A rota segue para o norte, como os percursos gravados, e termina pouco antes do fim deles
+        double longitude = Veiculo.LONGITUDE_FINAL - 0.05;
+        Rota rota = new Rota(new double[]{Veiculo.LATITUDE_FINAL - 0.05, Veiculo.LATITUDE_FINAL - 0.0015},
+                new double[]{longitude, longitude});
+        Cerca destino = new CercaCircular("destino", rota.getLatitude(1), rota.getLongitude(1),
+                ReprocessamentoPercursos.RAIO_DESTINO_ROTA);
+        Veiculo esperado = new Veiculo(new DistanciaHaversine(), rota);
+        File arquivo = new File(pasta.getRoot(), "rota.bin");
+        ResultadoPercurso resultado = gravar(arquivo, 3000, 11, true, esperado, destino);
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            ResumoPercurso resumo = new ReprocessamentoPercursos(pool, rota, PerfilVeiculo.CARRO.getModeloConsumo())
+                    .reprocessar(arquivo);
+            assertNotNull(resumo.getResultado());
+            assertMesmoResumo(esperado, resultado, resumo);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void arquivoInvalidoFalhaComONome() throws IOException {
+        File arquivo = pasta.newFile("corrompido.bin");
+        try {
+            new ReprocessamentoPercursos().reprocessarPasta(pasta.getRoot());
+            fail("O arquivo inválido foi aceito");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains(arquivo.getName()));
+        }
+    }
+
+    /**
+     * Grava um percurso que segue para o norte em direção ao destino e o entrega ao mesmo tempo
+     * ao veículo, com um monitor como o do aplicativo.
+     *
+     * @return o resultado da chegada ao vivo, ou null.
+     */
+    private static ResultadoPercurso gravar(File arquivo, int localizacoes, long semente, boolean chega, Veiculo veiculo,
+                                            Cerca destino) throws IOException {
+        AvaliadorChegada avaliador = new AvaliadorChegada(destino, veiculo) {
+            @Override
+            protected void aoConcluirPercurso(ResultadoPercurso resultado, long tempoParaDestinoFinal) {
+            }
+        };
+        MonitorCercas monitorCercas = new MonitorCercas(15, 0, avaliador);
+        monitorCercas.adicionar(destino);
+        veiculo.setMonitorCercas(monitorCercas);
+
+        Random aleatorio = new Random(semente);
+        double metrosPorLocalizacao = 1.5;
+        double latitude = Veiculo.LATITUDE_FINAL - (chega ? 0.98 : 1.2) * localizacoes * metrosPorLocalizacao * GRAUS_POR_METRO;
+        double longitude = Veiculo.LONGITUDE_FINAL - 0.05;
+        long timestamp = 1000;
+        try (GravadorPercurso gravador = new GravadorPercurso(arquivo, 65536, 100000)) {
+            for (int i = 0; i < localizacoes; i++) {
+                latitude += (metrosPorLocalizacao + aleatorio.nextGaussian()) * GRAUS_POR_METRO;
+                longitude += aleatorio.nextGaussian() * GRAUS_POR_METRO;
+                timestamp += 1000;
+                long registrado = timestamp;
+                if (i % 97 == 50) {
+                    registrado -= 1500;
+                } else if (i % 131 == 60) {
+                    registrado -= 1000;
+                }
+                veiculo.atualizarDados(latitude, longitude, registrado);
+                gravador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, latitude, longitude, 5, Float.NaN, registrado);
+            }
+        }
+        return avaliador.getResultado();
+    }
+
+    private static void assertMesmoResumo(Veiculo esperado, ResultadoPercurso resultado, ResumoPercurso obtido) {
+        EstatisticasPercurso estatisticas = esperado.getEstatisticas();
+        assertEquals(estatisticas.getNumeroLocalizacoes(), obtido.getNumeroLocalizacoes());
+        assertEquals(esperado.getDistanciaPercorrida(), obtido.getDistanciaPercorrida(), 0);
+        assertEquals(estatisticas.getTempoDecorrido(), obtido.getTempoDecorrido());
+        assertEquals(estatisticas.getTempoMovimento(), obtido.getTempoMovimento());
+        assertEquals(estatisticas.getVelocidadeMaxima(), obtido.getVelocidadeMaxima(), 0);
+        assertEquals(esperado.getVelocidadeMediaTotal(), obtido.getVelocidadeMediaTotal(), 0);
+        assertEquals(estatisticas.getVelocidadeMediaMovimento(), obtido.getVelocidadeMediaMovimento(), 0);
+        assertEquals(esperado.getConsumoCombustivelTotal(), obtido.getConsumoCombustivelTotal(), 0);
+        assertEquals(esperado.getTempoDeslocamento(), obtido.getTempoDeslocamento());
+        assertEquals(esperado.getTempoParaDestinoFinal(), obtido.getTempoParaDestinoFinal());
+        assertEquals(resultado, obtido.getResultado());
+    }
+}
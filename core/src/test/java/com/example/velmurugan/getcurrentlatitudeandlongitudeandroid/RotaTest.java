@@ -0,0 +1,195 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes da rota e do acompanhamento do veículo ao longo dela.
+ */
+public class RotaTest {
+    // Graus de latitude correspondentes a um metro
+    private static final double GRAUS_POR_METRO = 1 / 111195.0;
+
+    private static final double LATITUDE = -20.46;
+    private static final double LONGITUDE = -45.84;
+
+    @Test
+    public void acumulaDistanciasDosTrechos() {
+        Rota rota = rotaEmMetros(new double[]{0, 100, 100, 300}, new double[]{0, 0, 200, 200});
+        CalculadoraDistancia haversine = new DistanciaHaversine();
+
+        double esperado = 0;
+        for (int i = 1; i < rota.getNumeroPontos(); i++) {
+            esperado += haversine.calcular(rota.getLatitude(i - 1), rota.getLongitude(i - 1), rota.getLatitude(i), rota.getLongitude(i));
+            assertEquals(esperado, rota.getDistanciaAcumulada(i), 1e-12);
+        }
+        assertEquals(0.5, rota.getComprimento(), 0.001);
+        assertEquals(0, rota.buscarTrecho(0));
+        assertEquals(1, rota.buscarTrecho(0.15));
+        assertEquals(2, rota.buscarTrecho(0.45));
+        assertEquals(2, rota.buscarTrecho(1));
+    }
+
+    @Test
+    public void acompanhaProgressoEPontosDeControle() {
+        Rota rota = new Rota(latitudes(new double[]{0, 0, 0, 0, 0}), longitudes(new double[]{0, 100, 200, 300, 400}), new int[]{2});
+        assertEquals(2, rota.getNumeroPontosControle());
+        assertEquals(4, rota.getPontoControle(1));
+
+        AcompanhamentoRota acompanhamento = new AcompanhamentoRota(rota, 50);
+        assertTrue(acompanhamento.atualizar(latitude(10), longitude(150)));
+        assertEquals(1, acompanhamento.getTrecho());
+        assertEquals(0.15, acompanhamento.getProgresso(), 0.001);
+        assertEquals(0.25, acompanhamento.getDistanciaRestante(), 0.001);
+        assertEquals(10, acompanhamento.getDesvio(), 0.1);
+        assertEquals(0, acompanhamento.getProximoPontoControle());
+        assertEquals(0.05, acompanhamento.getDistanciaProximoPontoControle(), 0.001);
+
+        // Fora da rota o progresso anterior é mantido
+        assertFalse(acompanhamento.atualizar(latitude(500), longitude(250)));
+        assertFalse(acompanhamento.isNaRota());
+        assertEquals(0.15, acompanhamento.getProgresso(), 0.001);
+
+        assertTrue(acompanhamento.atualizar(latitude(-5), longitude(430)));
+        assertEquals(0, acompanhamento.getDistanciaRestante(), 1e-9);
+        assertEquals(rota.getNumeroPontosControle(), acompanhamento.getProximoPontoControle());
+        assertEquals(0, acompanhamento.getDistanciaProximoPontoControle(), 0);
+    }
+
+    @Test
+    public void mantemTrechoQuandoARotaPassaDuasVezesPeloMesmoLugar() {
+        // Ida e volta pela mesma rua, com a volta deslocada 8 m
+        Rota rota = rotaEmMetros(new double[]{0, 0, 8, 8}, new double[]{0, 1000, 1000, 0});
+        AcompanhamentoRota acompanhamento = new AcompanhamentoRota(rota, 50);
+
+        for (int metros = 0; metros <= 1000; metros += 20) {
+            assertTrue(acompanhamento.atualizar(latitude(metros), longitude(1)));
+            assertEquals(metros / 1000.0, acompanhamento.getProgresso(), 0.002);
+        }
+        for (int metros = 1000; metros >= 0; metros -= 20) {
+            assertTrue(acompanhamento.atualizar(latitude(metros), longitude(7)));
+            assertEquals(1.008 + (1000 - metros) / 1000.0, acompanhamento.getProgresso(), 0.002);
+        }
+        assertEquals(2, acompanhamento.getTrecho());
+    }
+
+    @Test
+    public void indiceEncontraOMesmoTrechoQueABuscaCompleta() {
+        Random aleatorio = new Random(3);
+        int n = 10000;
+        double[] leste = new double[n];
+        double[] norte = new double[n];
+        double rumo = 0;
+        for (int i = 1; i < n; i++) {
+            rumo += aleatorio.nextGaussian() * 0.3;
+            double passo = 5 + aleatorio.nextDouble() * 40;
+            leste[i] = leste[i - 1] + passo * Math.sin(rumo);
+            norte[i] = norte[i - 1] + passo * Math.cos(rumo);
+        }
+        Rota rota = rotaEmMetros(leste, norte);
+
+        for (int consulta = 0; consulta < 2000; consulta++) {
+            int ponto = aleatorio.nextInt(n);
+            double x = rota.paraX(longitude(leste[ponto] + aleatorio.nextGaussian() * 100));
+            double y = rota.paraY(latitude(norte[ponto] + aleatorio.nextGaussian() * 100));
+
+            int esperado = -1;
+            double menor = Double.MAX_VALUE;
+            for (int trecho = 0; trecho < n - 1; trecho++) {
+                double distancia2 = rota.distancia2Trecho(trecho, x, y);
+                if (distancia2 < menor) {
+                    menor = distancia2;
+                    esperado = trecho;
+                }
+            }
+
+            int encontrado = rota.buscarTrechoMaisProximo(x, y, 1e9);
+            assertEquals(menor, rota.distancia2Trecho(encontrado, x, y), 1e-9);
+            if (menor <= 150 * 150) {
+                assertEquals(menor, rota.distancia2Trecho(rota.buscarTrechoMaisProximo(x, y, 150), x, y), 1e-9);
+            } else {
+                assertEquals(-1, rota.buscarTrechoMaisProximo(x, y, 150));
+            }
+            assertTrue(esperado >= 0);
+        }
+    }
+
+    @Test
+    public void carregaRotaEmCsv() throws IOException {
+        Rota rota = Rota.carregar(new StringReader("# rota de teste\n"
+                + "-20.4600,-45.8400\n"
+                + "\n"
+                + "-20.4610, -45.8400, 1\n"
+                + "-20.4620,-45.8410,0\n"
+                + "-20.4630,-45.8420\n"));
+        assertEquals(4, rota.getNumeroPontos());
+        assertEquals(-20.461, rota.getLatitude(1), 0);
+        assertEquals(2, rota.getNumeroPontosControle());
+        assertEquals(1, rota.getPontoControle(0));
+        assertEquals(3, rota.getPontoControle(1));
+
+        try {
+            Rota.carregar(new StringReader("-20.46,-45.84\n-20.46;-45.85\n"));
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("Linha 2"));
+        }
+    }
+
+    @Test
+    public void veiculoComRotaMedeDistanciaRestantePelaRota() {
+        // Rota em L de 700 m cujo fim fica a 500 m em linha reta do início
+        Rota rota = rotaEmMetros(new double[]{0, 0, 300}, new double[]{0, 400, 400});
+        Veiculo veiculo = new Veiculo(new DistanciaHaversine(), rota);
+        assertNull(veiculo.getDestino());
+
+        veiculo.atualizarDados(latitude(0), longitude(0), 0);
+        veiculo.atualizarDados(latitude(200), longitude(3), 20000);
+        assertEquals(0.5, veiculo.getDistanciaRestante(), 0.002);
+        assertFalse(veiculo.isDestinoAlcancado());
+
+        veiculo.atualizarDados(latitude(401), longitude(260), 60000);
+        assertFalse(veiculo.isDestinoAlcancado());
+        veiculo.atualizarDados(latitude(401), longitude(295), 65000);
+        assertTrue(veiculo.isDestinoAlcancado());
+    }
+
+    private static Rota rotaEmMetros(double[] leste, double[] norte) {
+        double[] latitudes = new double[norte.length];
+        double[] longitudes = new double[leste.length];
+        for (int i = 0; i < norte.length; i++) {
+            latitudes[i] = latitude(norte[i]);
+            longitudes[i] = longitude(leste[i]);
+        }
+        return new Rota(latitudes, longitudes);
+    }
+
+    private static double[] latitudes(double[] norte) {
+        double[] latitudes = new double[norte.length];
+        for (int i = 0; i < norte.length; i++) {
+            latitudes[i] = latitude(norte[i]);
+        }
+        return latitudes;
+    }
+
+    private static double[] longitudes(double[] leste) {
+        double[] longitudes = new double[leste.length];
+        for (int i = 0; i < leste.length; i++) {
+            longitudes[i] = longitude(leste[i]);
+        }
+        return longitudes;
+    }
+
+    private static double latitude(double norte) {
+        return LATITUDE + norte * GRAUS_POR_METRO;
+    }
+
+    private static double longitude(double leste) {
+        return LONGITUDE + leste * GRAUS_POR_METRO / Math.cos(Math.toRadians(LATITUDE));
+    }
+}
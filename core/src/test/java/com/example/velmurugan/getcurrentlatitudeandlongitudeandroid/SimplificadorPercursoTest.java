@@ -0,0 +1,105 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes da simplificação do traçado do percurso.
+ */
+public class SimplificadorPercursoTest {
+    private static final double METROS_POR_GRAU = DistanciaHaversine.RAIO_TERRA * 1000 * Math.PI / 180;
+
+    @Test
+    public void estradaPerdeAMaiorParteDasLocalizacoesDentroDaTolerancia() {
+        final List<double[]> mantidas = new ArrayList<>();
+        SimplificadorPercurso simplificador = new SimplificadorPercurso(coletor(mantidas), 10, 128);
+
+        // Uma hora de estrada a 100 km/h, uma localização por segundo, com curvas suaves e ruído
+        // de dois metros
+        Random aleatorio = new Random(3);
+        int numero = 3600;
+        double[][] originais = new double[numero][];
+        double norte = 0;
+        double leste = 0;
+        double rumo = 0;
+        for (int i = 0; i < numero; i++) {
+            rumo += Math.sin(i / 300.0) * 0.004;
+            norte += 27.8 * Math.cos(rumo);
+            leste += 27.8 * Math.sin(rumo);
+            double latitude = -20.46 + (norte + 2 * aleatorio.nextGaussian()) / METROS_POR_GRAU;
+            double longitude = -45.84 + (leste + 2 * aleatorio.nextGaussian()) / METROS_POR_GRAU / Math.cos(Math.toRadians(-20.46));
+            long timestamp = 1000L * i;
+            originais[i] = new double[]{latitude, longitude, timestamp};
+            simplificador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, latitude, longitude, 5, 27.8f, timestamp);
+        }
+        simplificador.concluir();
+
+        assertEquals(numero, simplificador.getRecebidas());
+        assertEquals(mantidas.size(), simplificador.getMantidas());
+        assertTrue("Mantidas: " + mantidas.size(), mantidas.size() < numero / 5);
+        assertEquals((double) numero / mantidas.size(), simplificador.getRazaoCompressao(), 1e-9);
+        assertArrayEquals(originais[0], mantidas.get(0), 0);
+        assertArrayEquals(originais[numero - 1], mantidas.get(mantidas.size() - 1), 0);
+
+        // Cada localização original fica a até a tolerância do traçado simplificado no mesmo instante
+        double desvioMaximo = 0;
+        int segmento = 0;
+        for (double[] original : originais) {
+            while (mantidas.get(segmento + 1)[2] < original[2]) {
+                segmento++;
+            }
+            desvioMaximo = Math.max(desvioMaximo, desvioSincronizado(original, mantidas.get(segmento), mantidas.get(segmento + 1)));
+        }
+        assertTrue("Desvio: " + desvioMaximo, desvioMaximo <= 10 + 1e-6);
+        assertEquals(desvioMaximo, simplificador.getDesvioMaximo(), 0.01);
+    }
+
+    @Test
+    public void janelaCheiaMantemALocalizacaoEForaDeOrdemEDescartada() {
+        final List<double[]> mantidas = new ArrayList<>();
+        SimplificadorPercurso simplificador = new SimplificadorPercurso(coletor(mantidas), 10, 16);
+
+        // Linha reta com velocidade constante: nenhum desvio, apenas a janela limita o trecho
+        for (int i = 0; i < 100; i++) {
+            simplificador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_GPS, -20.46 + i * 1e-4, -45.84, 5, Float.NaN, 1000L * i);
+            if (i == 50) {
+                simplificador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_REDE, -20.0, -45.0, 50, Float.NaN, 1000L * i);
+                simplificador.aoReceberLocalizacao(MotorLocalizacao.PROVEDOR_REDE, -20.0, -45.0, 50, Float.NaN, 1000L * i - 500);
+            }
+        }
+        assertEquals(7, mantidas.size());
+        simplificador.concluir();
+        simplificador.concluir();
+
+        assertEquals(8, mantidas.size());
+        assertEquals(2, simplificador.getForaDeOrdem());
+        assertEquals(0, simplificador.getDesvioMaximo(), 1e-6);
+        for (int i = 0; i < 7; i++) {
+            assertEquals(16000.0 * i, mantidas.get(i)[2], 0);
+        }
+        assertEquals(99000.0, mantidas.get(7)[2], 0);
+    }
+
+    private static ReceptorLocalizacao coletor(final List<double[]> mantidas) {
+        return new ReceptorLocalizacao() {
+            @Override
+            public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+                mantidas.add(new double[]{latitude, longitude, timestamp});
+            }
+        };
+    }
+
+    private static double desvioSincronizado(double[] ponto, double[] inicio, double[] fim) {
+        double fracao = (ponto[2] - inicio[2]) / (fim[2] - inicio[2]);
+        double latitude = inicio[0] + fracao * (fim[0] - inicio[0]);
+        double longitude = inicio[1] + fracao * (fim[1] - inicio[1]);
+        double norte = (ponto[0] - latitude) * METROS_POR_GRAU;
+        double leste = (ponto[1] - longitude) * METROS_POR_GRAU * Math.cos(Math.toRadians(inicio[0]));
+        return Math.sqrt(norte * norte + leste * leste);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do simulador de percursos e do relógio virtual.
+ */
+public class SimuladorPercursoTest {
+    private static final long INICIO = 1600000000000L;
+    private static final long DUAS_HORAS = 2 * 3600 * 1000;
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    @Test
+    public void percursoDeDuasHorasPassaPorTodoOProcessamentoSemEsperar() {
+        final RelogioVirtual relogio = new RelogioVirtual(INICIO);
+        SimuladorPercurso simulador = new SimuladorPercurso(relogio, -20.60, -45.90, 1);
+        simulador.setRumo(180);
+        simulador.setCurvas(0.5);
+        simulador.setRuido(3);
+        simulador.setRajadas(0.01, 5);
+        simulador.setForaDeOrdem(0.01, 2500);
+        simulador.adicionarTrecho(60000, 100);
+        simulador.adicionarTrecho(DUAS_HORAS - 120000, 100);
+        simulador.adicionarTrecho(60000, 0);
+
+        // Fusão, filtro de Kalman, agendador e pipeline, como no aplicativo, com o pipeline
+        // processando na própria thread do simulador
+        Veiculo veiculo = new Veiculo();
+        RegistroMetricas metricas = new RegistroMetricas();
+        final PipelineLocalizacao pipeline = new PipelineLocalizacao(new HistoricoLocalizacoes(4096), veiculo,
+                new CanalInstantaneos(null), 64, relogio);
+        pipeline.setMetricas(metricas);
+        MotorLocalizacao motor = new MotorLocalizacao(new FonteFalsa(), 1000, 0);
+        final FusaoProvedores fusao = new FusaoProvedores(PoliticaFusao.PRECISAO_PONDERADA, 2000, 50,
+                new FiltroKalman(PerfilVeiculo.CARRO, new AgendadorAmostragem(motor, pipeline)));
+
+        long inicioTeste = System.nanoTime();
+        long entregues = simulador.simular(new ReceptorLocalizacao() {
+            @Override
+            public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+                fusao.aoReceberLocalizacao(provedor, latitude, longitude, precisao, velocidade, timestamp);
+                while (pipeline.processarProxima()) {
+                    // Processa tudo o que a localização produziu
+                }
+            }
+        });
+        long duracaoTeste = (System.nanoTime() - inicioTeste) / 1000000;
+
+        assertTrue("O teste levou " + duracaoTeste + " ms", duracaoTeste < 5000);
+        assertEquals(DUAS_HORAS / 1000 + 1, simulador.getGeradas());
+        assertEquals(simulador.getGeradas(), entregues);
+        assertEquals(INICIO + DUAS_HORAS, relogio.agoraMillis());
+
+        // 100 km/h por quase duas horas, com as rampas de aceleração e frenagem
+        assertEquals(198.3, simulador.getDistanciaReal(), 0.1);
+        assertEquals(simulador.getDistanciaReal(), veiculo.getDistanciaPercorrida(), simulador.getDistanciaReal() * 0.01);
+
+        // Com o relógio virtual, a idade de cada localização é exatamente o atraso simulado
+        HistogramaLatencia idade = metricas.histograma(PipelineLocalizacao.METRICA_IDADE);
+        assertTrue(idade.getContagem() > 0);
+        assertEquals(0, idade.getPercentil(50));
+        assertTrue(idade.getMaximo() > 0);
+        assertTrue(idade.getMaximo() <= 4000 * 1000000L);
+    }
+
+    @Test
+    public void mesmaSementeGeraAsMesmasEntregasComPerdasRajadasEAtrasos() {
+        List<long[]> primeira = new ArrayList<>();
+        SimuladorPercurso simulador = simuladorComFalhas(primeira);
+        List<long[]> segunda = new ArrayList<>();
+        simuladorComFalhas(segunda);
+
+        assertEquals(primeira.size(), segunda.size());
+        for (int i = 0; i < primeira.size(); i++) {
+            assertArrayEquals(primeira.get(i), segunda.get(i));
+        }
+
+        assertEquals(simulador.getGeradas(), simulador.getEntregues() + simulador.getPerdidas());
+        assertTrue(simulador.getPerdidas() > 0);
+        assertTrue(simulador.getForaDeOrdem() > 0);
+        int atrasadas = 0;
+        int mesmoInstante = 0;
+        for (int i = 0; i < primeira.size(); i++) {
+            long[] entrega = primeira.get(i);
+            // O relógio nunca volta, e nenhuma localização é entregue antes de ser gerada
+            assertTrue(entrega[1] >= entrega[0]);
+            if (i > 0) {
+                long[] anterior = primeira.get(i - 1);
+                assertTrue(entrega[1] >= anterior[1]);
+                if (entrega[0] < anterior[0]) {
+                    atrasadas++;
+                }
+                if (entrega[1] == anterior[1]) {
+                    mesmoInstante++;
+                }
+            }
+        }
+        assertTrue(atrasadas > 0);
+        assertTrue(mesmoInstante > 0);
+    }
+
+    @Test
+    public void reproducaoNoRelogioVirtualNaoEspera() throws IOException, InterruptedException {
+        File registro = pasta.newFile("percurso.bin");
+        registro.delete();
+        final GravadorPercurso gravador = new GravadorPercurso(registro, 8192, 1000);
+        SimuladorPercurso simulador = new SimuladorPercurso(new RelogioVirtual(INICIO), -20.60, -45.90, 2);
+        simulador.adicionarTrecho(3600000, 60);
+        simulador.simular(gravador);
+        gravador.close();
+
+        RelogioVirtual relogio = new RelogioVirtual(0);
+        final long[] recebidas = new long[1];
+        long inicioTeste = System.nanoTime();
+        new LeitorPercurso(registro).reproduzirTempoReal(new ReceptorLocalizacao() {
+            @Override
+            public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+                recebidas[0]++;
+            }
+        }, 1, relogio);
+
+        assertTrue((System.nanoTime() - inicioTeste) / 1000000 < 5000);
+        assertEquals(3601, recebidas[0]);
+        assertEquals(3600000, relogio.agoraMillis());
+    }
+
+    private static SimuladorPercurso simuladorComFalhas(final List<long[]> entregas) {
+        final RelogioVirtual relogio = new RelogioVirtual(INICIO);
+        SimuladorPercurso simulador = new SimuladorPercurso(relogio, -20.60, -45.90, 7);
+        simulador.setCurvas(2);
+        simulador.setRuido(10);
+        simulador.setPerdas(0.005, 30000);
+        simulador.setRajadas(0.02, 4);
+        simulador.setForaDeOrdem(0.05, 3000);
+        simulador.adicionarTrecho(120000, 40);
+        simulador.adicionarTrecho(600000, 40);
+        simulador.adicionarTrecho(60000, 0);
+        simulador.adicionarTrecho(300000, 0);
+        simulador.simular(new ReceptorLocalizacao() {
+            @Override
+            public void aoReceberLocalizacao(String provedor, double latitude, double longitude, float precisao, float velocidade, long timestamp) {
+                entregas.add(new long[]{timestamp, relogio.agoraMillis(), Double.doubleToLongBits(latitude), Double.doubleToLongBits(longitude)});
+            }
+        });
+        return simulador;
+    }
+}
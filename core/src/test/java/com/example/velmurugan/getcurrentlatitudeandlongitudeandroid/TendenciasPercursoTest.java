@@ -0,0 +1,116 @@
+package com.example.velmurugan.getcurrentlatitudeandlongitudeandroid;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes das janelas deslizantes do percurso.
+ */
+public class TendenciasPercursoTest {
+    private static final double TOLERANCIA = 1e-9;
+
+    @Test
+    public void janelaConcordaComOCalculoDiretoSobreOsValoresRecentes() {
+        // Capacidade inicial pequena para exercitar o crescimento dos vetores
+        JanelaDeslizante janela = new JanelaDeslizante(5000, 2);
+        Random aleatorio = new Random(11);
+        List<Long> timestamps = new ArrayList<>();
+        List<Double> valores = new ArrayList<>();
+        long timestamp = 0;
+        for (int i = 0; i < 20000; i++) {
+            // Rajadas com intervalos curtos, pausas longas e timestamps repetidos
+            timestamp += aleatorio.nextInt(10) == 0 ? aleatorio.nextInt(8000) : aleatorio.nextInt(300);
+            double valor = Math.round(aleatorio.nextGaussian() * 1000) / 10.0;
+            janela.adicionar(timestamp, valor);
+            timestamps.add(timestamp);
+            valores.add(valor);
+            if (i % 37 == 0) {
+                conferir(janela, timestamps, valores, timestamp);
+            }
+        }
+
+        // Sem novos valores, a janela esvazia com o passar do tempo
+        conferir(janela, timestamps, valores, timestamp);
+        janela.avancar(timestamp + 2500);
+        conferir(janela, timestamps, valores, timestamp + 2500);
+        janela.avancar(timestamp + 5000);
+        assertEquals(0, janela.getContagem());
+        assertEquals(0, janela.getSoma(), 0);
+        assertTrue(Double.isNaN(janela.getMaximo()));
+        assertTrue(Double.isNaN(janela.getPercentil(50)));
+    }
+
+    @Test
+    public void veiculoAlimentaAsJanelasSemAlterarOsResultados() {
+        Veiculo comJanelas = new Veiculo();
+        Veiculo semJanelas = new Veiculo();
+        TendenciasPercurso tendencias = new TendenciasPercurso();
+        comJanelas.setTendencias(tendencias);
+
+        // Dez minutos a cerca de 36 km/h, uma localização por segundo
+        double longitude = -45.84;
+        for (int i = 0; i <= 600; i++) {
+            long timestamp = 1000L * i;
+            comJanelas.atualizarDados(-20.46, longitude, timestamp);
+            semJanelas.atualizarDados(-20.46, longitude, timestamp);
+            longitude += 0.01 / 111.32 / Math.cos(Math.toRadians(20.46));
+        }
+
+        assertEquals(semJanelas.getDistanciaPercorrida(), comJanelas.getDistanciaPercorrida(), 0);
+        assertEquals(semJanelas.getConsumoCombustivelTotal(), comJanelas.getConsumoCombustivelTotal(), 0);
+
+        assertEquals(3, tendencias.getNumeroJanelas());
+        for (int j = 0; j < tendencias.getNumeroJanelas(); j++) {
+            long duracao = tendencias.getDuracao(j);
+            assertEquals(duracao / 1000, tendencias.getVelocidades(j).getContagem());
+            assertEquals(duracao, tendencias.getTempo(j));
+            assertEquals(36, tendencias.getVelocidadeMedia(j), 0.5);
+            assertEquals(tendencias.getVelocidadeMedia(j) * duracao / 3600000, tendencias.getDistancia(j), TOLERANCIA);
+            assertEquals(36, tendencias.getVelocidades(j).getPercentil(50), 0.5);
+            assertTrue(tendencias.getTaxaConsumo(j) > 0);
+        }
+        // A taxa da janela mais longa vezes a sua duração é o consumo dos últimos cinco minutos
+        assertEquals(tendencias.getConsumo(2), tendencias.getTaxaConsumo(2) * 300 / 3600, TOLERANCIA);
+
+        InstantaneoPercurso instantaneo = comJanelas.criarInstantaneo(-20.46, longitude, 600000, 0);
+        assertEquals(3, instantaneo.getNumeroJanelas());
+        assertEquals(tendencias.getVelocidadeMedia(1), instantaneo.getVelocidadeMediaJanela(1), 0);
+        assertEquals(tendencias.getTaxaConsumo(1), instantaneo.getTaxaConsumoJanela(1), 0);
+        assertEquals(0, semJanelas.criarInstantaneo(-20.46, longitude, 600000, 0).getNumeroJanelas());
+
+        tendencias.avancar(600000 + 30000);
+        assertEquals(0, tendencias.getVelocidades(0).getContagem());
+        assertEquals(0, tendencias.getVelocidadeMedia(0), 0);
+        assertEquals(270, tendencias.getVelocidades(2).getContagem());
+    }
+
+    private static void conferir(JanelaDeslizante janela, List<Long> timestamps, List<Double> valores, long agora) {
+        List<Double> recentes = new ArrayList<>();
+        double soma = 0;
+        for (int i = 0; i < valores.size(); i++) {
+            if (timestamps.get(i) > agora - janela.getDuracao()) {
+                recentes.add(valores.get(i));
+                soma += valores.get(i);
+            }
+        }
+        assertEquals(recentes.size(), janela.getContagem());
+        if (recentes.isEmpty()) {
+            return;
+        }
+        Collections.sort(recentes);
+        assertEquals(soma, janela.getSoma(), 1e-6);
+        assertEquals(soma / recentes.size(), janela.getMedia(), 1e-6);
+        assertEquals(recentes.get(0), janela.getMinimo(), 0);
+        assertEquals(recentes.get(recentes.size() - 1), janela.getMaximo(), 0);
+        for (double percentil : new double[]{0, 10, 50, 90, 99, 100}) {
+            int posicao = Math.max(0, (int) Math.ceil(percentil / 100 * recentes.size()) - 1);
+            assertEquals(recentes.get(posicao), janela.getPercentil(percentil), 0);
+        }
+    }
+}